@@ -19,11 +19,14 @@ import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javassist.Modifier;
 
@@ -51,11 +54,14 @@ import org.apache.cassandra.thrift.IndexClause;
 import org.apache.cassandra.thrift.IndexExpression;
 import org.apache.cassandra.thrift.IndexType;
 import org.apache.cassandra.thrift.InvalidRequestException;
+import org.apache.cassandra.thrift.KeyRange;
 import org.apache.cassandra.thrift.KeySlice;
 import org.apache.cassandra.thrift.KsDef;
 import org.apache.cassandra.thrift.Mutation;
 import org.apache.cassandra.thrift.NotFoundException;
 import org.apache.cassandra.thrift.SchemaDisagreementException;
+import org.apache.cassandra.thrift.SlicePredicate;
+import org.apache.cassandra.thrift.SliceRange;
 import org.apache.cassandra.thrift.SuperColumn;
 import org.apache.cassandra.thrift.TimedOutException;
 import org.apache.cassandra.thrift.UnavailableException;
@@ -70,9 +76,11 @@ import org.slf4j.LoggerFactory;
 
 import com.impetus.client.cassandra.common.CassandraConstants;
 import com.impetus.client.cassandra.common.CassandraUtilities;
+import com.impetus.client.cassandra.common.KeySlicePager;
 import com.impetus.client.cassandra.config.CassandraPropertyReader;
 import com.impetus.client.cassandra.datahandler.CassandraDataHandler;
 import com.impetus.client.cassandra.schemamanager.CassandraValidationClassMapper;
+import com.impetus.client.cassandra.thrift.CQLStatementCache;
 import com.impetus.client.cassandra.thrift.CQLTranslator;
 import com.impetus.client.cassandra.thrift.CQLTranslator.TranslationType;
 import com.impetus.client.cassandra.thrift.ThriftClientFactory.Connection;
@@ -117,6 +125,9 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
     /** log for this class. */
     private static Logger log = LoggerFactory.getLogger(CassandraClientBase.class);
 
+    /** Locks of id generator rows, one per keyspace, table and row. */
+    private static final ConcurrentMap<String, Object> generatorLocks = new ConcurrentHashMap<String, Object>();
+
     /** The cql version. */
     private String cqlVersion = CassandraConstants.CQL_VERSION_2_0;
 
@@ -142,6 +153,14 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
 
     protected CQLClient cqlClient;
 
+    /** Prepared statements for this persistence unit. */
+    private CQLStatementCache statementCache;
+
+    /** Operation part of prepared statement shapes. */
+    private static final String INSERT = "INSERT";
+
+    private static final String DELETE = "DELETE";
+
     /**
      * constructor using fields.
      * 
@@ -155,6 +174,8 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         this.cqlClient = new CQLClient();
         setBatchSize(persistenceUnit, this.externalProperties);
         populateCqlVersion(externalProperties);
+        this.statementCache = CQLStatementCache.getInstance(persistenceUnit,
+                getStatementCacheSize(externalProperties));
     }
 
     /**
@@ -576,9 +597,39 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
     {
         EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClass);
         List<E> results = new ArrayList<E>();
-        results = find(entityClass, entityMetadata.getRelationNames(), entityMetadata.getRelationNames() != null
-                && !entityMetadata.getRelationNames().isEmpty(), entityMetadata, rowIds);
-        return results.isEmpty() ? null : results;
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+        if (metaModel.isEmbeddable(entityMetadata.getIdAttribute().getBindableJavaType()))
+        {
+            // IN is allowed only over last column of partition key, so fetch
+            // each composite key on its own.
+            for (Object rowId : rowIds)
+            {
+                Object result = find(entityClass, entityMetadata, rowId, entityMetadata.getRelationNames());
+                if (result != null)
+                {
+                    results.add((E) result);
+                }
+            }
+        }
+        else if (isCql3Enabled(entityMetadata))
+        {
+            try
+            {
+                results = cqlClient.findAll(entityMetadata, entityMetadata.getRelationNames(), rowIds);
+            }
+            catch (Exception e)
+            {
+                log.error("Error while retrieving records from database for entity {}, Caused by: .", entityClass, e);
+                throw new PersistenceException(e);
+            }
+        }
+        else
+        {
+            results = find(entityClass, entityMetadata.getRelationNames(), entityMetadata.getRelationNames() != null
+                    && !entityMetadata.getRelationNames().isEmpty(), entityMetadata, rowIds);
+        }
+        return results == null || results.isEmpty() ? null : results;
     }
 
     /**
@@ -758,6 +809,32 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         
     }
 
+    /**
+     * Executes a CQL3 COUNT query.
+     * 
+     * @param cqlQuery
+     *            count query.
+     * @return number of matching rows.
+     */
+    public long executeCountQuery(String cqlQuery)
+    {
+        if (log.isInfoEnabled())
+        {
+            log.info("Executing cql query {}.", cqlQuery);
+        }
+        try
+        {
+            CqlResult result = executeCQLQuery(cqlQuery, true);
+            CqlRow row = result.getRows().get(0);
+            return ByteBufferUtil.toLong(ByteBuffer.wrap(row.getColumns().get(0).getValue()));
+        }
+        catch (Exception e)
+        {
+            log.error("Error while executing count query: {}, Caused by: . ", cqlQuery, e);
+            throw new KunderaException(e);
+        }
+    }
+
     public Map<String, Object> getExternalProperties()
     {
         return externalProperties;
@@ -881,6 +958,118 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         return results;
     }
 
+    /**
+     * Scrolls over rows within given key range and matching given index
+     * expressions, fetching them page by page via get_range_slices. Nothing is
+     * fetched until first page is asked for, and a connection is held only
+     * while fetching a page.
+     * 
+     * @param minVal
+     *            start key, null to start from first row.
+     * @param maxVal
+     *            end key, null to scan till last row.
+     * @param m
+     *            entity metadata.
+     * @param isWrapReq
+     *            whether entities need to be wrapped as {@link EnhanceEntity}.
+     * @param relations
+     *            relation names.
+     * @param columns
+     *            columns to fetch, null or empty for all.
+     * @param conditions
+     *            index expressions, if any.
+     * @param maxResults
+     *            maximum number of rows in total.
+     * @param pageSize
+     *            number of rows per page.
+     * @return pages of entities.
+     */
+    public Iterator<List> scrollByRange(byte[] minVal, final byte[] maxVal, final EntityMetadata m,
+            final boolean isWrapReq, final List<String> relations, List<String> columns,
+            final List<IndexExpression> conditions, int maxResults, int pageSize)
+    {
+        final SlicePredicate slicePredicate = new SlicePredicate();
+        if (columns != null && !columns.isEmpty())
+        {
+            List<ByteBuffer> columnNames = new ArrayList<ByteBuffer>(columns.size());
+            for (String colName : columns)
+            {
+                if (colName != null)
+                {
+                    columnNames.add(ByteBufferUtil.bytes(colName));
+                }
+            }
+            slicePredicate.setColumn_names(columnNames);
+        }
+        else
+        {
+            SliceRange sliceRange = new SliceRange();
+            sliceRange.setStart(ByteBufferUtil.EMPTY_BYTE_BUFFER);
+            sliceRange.setFinish(ByteBufferUtil.EMPTY_BYTE_BUFFER);
+            slicePredicate.setSlice_range(sliceRange);
+        }
+
+        final KeySlicePager pager = new KeySlicePager(minVal, pageSize, maxResults)
+        {
+            @Override
+            protected List<KeySlice> fetch(byte[] startKey, int count) throws Exception
+            {
+                KeyRange keyRange = new KeyRange(count);
+                keyRange.setStart_key(startKey);
+                keyRange.setEnd_key(maxVal == null ? new byte[0] : maxVal);
+                if (conditions != null && !conditions.isEmpty())
+                {
+                    keyRange.setRow_filter(conditions);
+                }
+
+                Object pooledConnection = getConection();
+                try
+                {
+                    return getConnection(pooledConnection).get_range_slices(new ColumnParent(m.getTableName()),
+                            slicePredicate, keyRange, getConsistencyLevel());
+                }
+                finally
+                {
+                    releaseConnection(pooledConnection);
+                }
+            }
+        };
+
+        return new Iterator<List>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return pager.hasNext();
+            }
+
+            @Override
+            public List next()
+            {
+                try
+                {
+                    return populateEntitiesFromKeySlices(m, isWrapReq, relations, pager.next(), getDataHandler());
+                }
+                catch (KunderaException kex)
+                {
+                    throw kex;
+                }
+                catch (Exception e)
+                {
+                    log.error("Error while populating entities of column family {}, Caused by: .", m.getTableName(),
+                            e);
+                    throw new KunderaException(e);
+                }
+            }
+
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException("remove method is not supported over pagination");
+            }
+        };
+    }
+
     /**
      * Return insert query string for given entity.
      * 
@@ -901,14 +1090,15 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         insert_Query = StringUtils.replace(insert_Query, CQLTranslator.COLUMN_FAMILY,
                 translator.ensureCase(new StringBuilder(), entityMetadata.getTableName(), false).toString());
         HashMap<TranslationType, String> translation = translator.prepareColumnOrColumnValues(entity, entityMetadata,
-                TranslationType.ALL, externalProperties);
+                TranslationType.ALL, externalProperties, dirtyFields);
 
         String columnNames = translation.get(TranslationType.COLUMN);
         String columnValues = translation.get(TranslationType.VALUE);
         StringBuilder columnNameBuilder = new StringBuilder(columnNames);
         StringBuilder columnValueBuilder = new StringBuilder(columnValues);
 
-        for (RelationHolder rl : rlHolders)
+        // associations are unchanged on a partial update.
+        for (RelationHolder rl : dirtyFields == null ? rlHolders : new ArrayList<RelationHolder>())
         {
             columnNameBuilder.append(",");
             columnValueBuilder.append(",");
@@ -939,11 +1129,105 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         }
         return insert_Query;
     }
-    
-    
 
+    /**
+     * Return insert query string with a bind marker for each of given columns.
+     * 
+     * @param entityMetadata
+     * @param columnNames
+     *            columns to insert.
+     * @param ttl
+     *            TTL, 0 if none.
+     * @return
+     */
+    protected String createPreparedInsertQuery(EntityMetadata entityMetadata, List<String> columnNames, int ttl)
+    {
+        String insert_Query = new CQLTranslator().buildPreparedInsertQuery(entityMetadata.getTableName(),
+                columnNames);
+        if (ttl != 0)
+        {
+            insert_Query = insert_Query + " USING TTL " + ttl;
+        }
+        return insert_Query;
+    }
+
+    /**
+     * Executes insert for given entity as a prepared statement. Returns false,
+     * without executing anything, if entity values can not be bound.
+     * Statement is looked up by its shape (entity, inserted columns and TTL),
+     * so CQL text is built only the first time a shape is seen.
+     * 
+     * @param entityMetadata
+     * @param entity
+     * @param conn
+     * @param rlHolders
+     * @param ttlColumns
+     * @return true, if insert is executed.
+     */
+    protected boolean executePreparedInsert(final EntityMetadata entityMetadata, Object entity,
+            Cassandra.Client conn, List<RelationHolder> rlHolders, Object ttlColumns)
+            throws InvalidRequestException, UnavailableException, TimedOutException, SchemaDisagreementException,
+            TException
+    {
+        final List<String> columnNames = new ArrayList<String>();
+        List<Object> boundValues = new ArrayList<Object>();
+        new CQLTranslator().prepareColumnsAndValues(entity, entityMetadata, externalProperties, dirtyFields,
+                columnNames, boundValues);
+
+        // associations are unchanged on a partial update.
+        if (dirtyFields == null && rlHolders != null)
+        {
+            for (RelationHolder rl : rlHolders)
+            {
+                columnNames.add(rl.getRelationName());
+                boundValues.add(rl.getRelationValue());
+            }
+        }
+
+        if (!CQLStatementCache.isBindable(boundValues))
+        {
+            return false;
+        }
+
+        final int ttl = ttlColumns instanceof Integer ? ((Integer) ttlColumns).intValue() : 0;
+        statementCache.execute(conn, Arrays.asList(entityMetadata.getEntityClazz(), INSERT, columnNames, ttl),
+                new CQLStatementCache.QueryBuilder()
+                {
+                    @Override
+                    public String buildQuery()
+                    {
+                        return createPreparedInsertQuery(entityMetadata, columnNames, ttl);
+                    }
+                }, boundValues, consistencyLevel);
+        return true;
+    }
+
+    /**
+     * Executes insert for given entity as a prepared statement over a pooled
+     * connection. Returns false if entity values can not be bound.
+     * 
+     * @param entityMetadata
+     * @param entity
+     * @param rlHolders
+     * @param ttlColumns
+     * @return true, if insert is executed.
+     */
+    protected boolean executePreparedInsert(EntityMetadata entityMetadata, Object entity,
+            List<RelationHolder> rlHolders, Object ttlColumns) throws InvalidRequestException, UnavailableException,
+            TimedOutException, SchemaDisagreementException, TException
+    {
+        Object pooledConnection = getConection();
+        try
+        {
+            return executePreparedInsert(entityMetadata, entity, getConnection(pooledConnection), rlHolders,
+                    ttlColumns);
+        }
+        finally
+        {
+            releaseConnection(pooledConnection);
+        }
+    }
 
-    
 
     /**
      * Return update query string for given entity intended for counter column
@@ -1099,6 +1383,130 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         return deleteQueryBuilder.toString();
     }
 
+    /**
+     * Return delete query string with a bind marker for each key column.
+     * 
+     * @param metadata
+     *            the metadata
+     * @param metaModel
+     *            the meta model
+     */
+    protected String createPreparedDeleteQuery(EntityMetadata metadata, MetamodelImpl metaModel)
+    {
+        CQLTranslator translator = new CQLTranslator();
+        String deleteQuery = CQLTranslator.DELETE_QUERY;
+
+        deleteQuery = StringUtils.replace(deleteQuery, CQLTranslator.COLUMN_FAMILY,
+                translator.ensureCase(new StringBuilder(), metadata.getTableName(), false).toString());
+
+        StringBuilder deleteQueryBuilder = new StringBuilder(deleteQuery);
+        deleteQueryBuilder.append(CQLTranslator.ADD_WHERE_CLAUSE);
+
+        if (metaModel.isEmbeddable(metadata.getIdAttribute().getBindableJavaType()))
+        {
+            Field[] fields = metadata.getIdAttribute().getBindableJavaType().getDeclaredFields();
+            EmbeddableType compoundKey = metaModel.embeddable(metadata.getIdAttribute().getBindableJavaType());
+
+            for (Field field : fields)
+            {
+                if (field != null && !Modifier.isStatic(field.getModifiers())
+                        && !Modifier.isTransient(field.getModifiers()) && !field.isAnnotationPresent(Transient.class))
+                {
+                    Attribute attribute = compoundKey.getAttribute(field.getName());
+                    translator.buildWhereClauseWithBindMarker(deleteQueryBuilder,
+                            ((AbstractAttribute) attribute).getJPAColumnName());
+                }
+            }
+        }
+        else
+        {
+            translator.buildWhereClauseWithBindMarker(deleteQueryBuilder,
+                    CassandraUtilities.getIdColumnName(metadata, getExternalProperties()));
+        }
+
+        // strip last "AND" clause.
+        deleteQueryBuilder.delete(deleteQueryBuilder.lastIndexOf(CQLTranslator.AND_CLAUSE),
+                deleteQueryBuilder.length());
+        return deleteQueryBuilder.toString();
+    }
+
+    /**
+     * Returns key values to bind to delete query, in key column order.
+     * 
+     * @param metadata
+     *            the metadata
+     * @param metaModel
+     *            the meta model
+     * @param keyObject
+     *            the compound key object
+     */
+    private List<Object> getKeyValues(EntityMetadata metadata, MetamodelImpl metaModel, Object keyObject)
+    {
+        List<Object> keyValues = new ArrayList<Object>();
+        if (metaModel.isEmbeddable(metadata.getIdAttribute().getBindableJavaType()))
+        {
+            for (Field field : metadata.getIdAttribute().getBindableJavaType().getDeclaredFields())
+            {
+                if (field != null && !Modifier.isStatic(field.getModifiers())
+                        && !Modifier.isTransient(field.getModifiers()) && !field.isAnnotationPresent(Transient.class))
+                {
+                    keyValues.add(PropertyAccessorHelper.getObject(keyObject, field));
+                }
+            }
+        }
+        else
+        {
+            keyValues.add(keyObject);
+        }
+        return keyValues;
+    }
+
+    /**
+     * Deletes row for given key as a prepared statement. Falls back to plain
+     * CQL delete query if key values can not be bound.
+     * 
+     * @param metadata
+     *            the metadata
+     * @param metaModel
+     *            the meta model
+     * @param keyObject
+     *            the compound key object
+     */
+    protected void executeDelete(final EntityMetadata metadata, final MetamodelImpl metaModel, Object keyObject)
+    {
+        List<Object> boundValues = getKeyValues(metadata, metaModel, keyObject);
+        if (!CQLStatementCache.isBindable(boundValues))
+        {
+            String deleteQuery = onDeleteQuery(metadata, metaModel, keyObject);
+            executeQuery(deleteQuery, metadata.getEntityClazz(), null);
+            return;
+        }
+
+        Object pooledConnection = getConection();
+        try
+        {
+            statementCache.execute(getConnection(pooledConnection), Arrays.asList(metadata.getEntityClazz(), DELETE),
+                    new CQLStatementCache.QueryBuilder()
+                    {
+                        @Override
+                        public String buildQuery()
+                        {
+                            return createPreparedDeleteQuery(metadata, metaModel);
+                        }
+                    }, boundValues, consistencyLevel);
+        }
+        catch (Exception e)
+        {
+            log.error("Error while deleting record of {} with key {}, Caused by: .", new Object[] {
+                    metadata.getEntityClazz(), keyObject, e });
+            throw new KunderaException(e);
+        }
+        finally
+        {
+            releaseConnection(pooledConnection);
+        }
+    }
+
     /**
      * On where clause.
      * 
@@ -1384,6 +1792,7 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
                     EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
                     persistenceUnit = metadata.getPersistenceUnit();
                     isUpdate = node.isUpdate();
+                    dirtyFields = getDirtyFields(node);
 
                     MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata()
                             .getMetamodel(metadata.getPersistenceUnit());
@@ -1419,14 +1828,17 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
                             Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap = new HashMap<ByteBuffer, Map<String, List<Mutation>>>();
                             mutationMap = prepareMutation(metadata, entity, id, relationHolders, mutationMap);
 
-                            recordsExecuted += mutationMap.size();
+                            recordsExecuted++;
                             if (!batchMutationMap.containsKey(metadata.getEntityClazz()))
                             {
                                 batchMutationMap.put(metadata.getEntityClazz(), mutationMap);
                             }
                             else
                             {
-                                batchMutationMap.get(metadata.getEntityClazz()).putAll(mutationMap);
+                                // inverted index rows are shared among
+                                // entities, so merge instead of replace.
+                                CassandraUtilities.mergeMutations(batchMutationMap.get(metadata.getEntityClazz()),
+                                        mutationMap);
                             }
 
                             indexNode(node, metadata);
@@ -1511,7 +1923,7 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         {
             String columnFamily = entityMetadata.getTableName();
             tf = getDataHandler().toThriftRow(entity, id, entityMetadata, columnFamily,
-                    getTtlValues().get(columnFamily));
+                    getTtlValues().get(columnFamily), dirtyFields);
         }
         catch (Exception e)
         {
@@ -1520,7 +1932,11 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
             throw new KunderaException(e);
         }
 
-        addRelationsToThriftRow(entityMetadata, tf, relationHolders);
+        // associations are unchanged on a partial update.
+        if (dirtyFields == null)
+        {
+            addRelationsToThriftRow(entityMetadata, tf, relationHolders);
+        }
 
         String columnFamily = entityMetadata.getTableName();
         // Create Insertion List
@@ -1588,9 +2004,30 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         Bytes b = CassandraUtilities.toBytes(tf.getId(), entityMetadata.getIdAttribute().getBindableJavaType());
         mutationMap.put(b.getBytes(), columnFamilyValues);
 
+        // inverted index rows go in same batch_mutate as entity row.
+        prepareIndexMutations(entityMetadata, entity, mutationMap);
+
         return mutationMap;
     }
 
+    /**
+     * Adds inverted index records of entity to mutation map of entity row.
+     * Clients writing inverted index implement it, and then skip writing index
+     * on {@link #indexNode(Node, EntityMetadata)} for such entities.
+     * 
+     * @param entityMetadata
+     *            the entity metadata
+     * @param entity
+     *            the entity
+     * @param mutationMap
+     *            the mutation map
+     */
+    protected void prepareIndexMutations(EntityMetadata entityMetadata, Object entity,
+            Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap)
+    {
+        // Do nothing.
+    }
+
     /**
      * Check on batch limit.
      */
@@ -1649,7 +2086,9 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
     }
 
     /**
-     * Return the generated value of id.
+     * Return the generated value of id. Counter read and increment are two
+     * calls, as thrift add does not return new value, so they are serialized
+     * per generator row to keep racing clients from claiming same block.
      * 
      * @param descriptor
      * @param pu
@@ -1665,32 +2104,29 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
             columnPath.setColumn(descriptor.getValueColumnName().getBytes());
             long latestCount = 0l;
 
-            try
-            {
-                latestCount = conn.get(ByteBuffer.wrap(descriptor.getPkColumnValue().getBytes()), columnPath,
-                        getConsistencyLevel()).counter_column.value;
-            }
-            catch (NotFoundException e)
+            synchronized (getGeneratorLock(descriptor))
             {
-                log.warn("Counter value not found for {}, resetting it to zero.", descriptor.getPkColumnName());
-                latestCount = 0;
-            }
-            ColumnParent columnParent = new ColumnParent(descriptor.getTable());
-
-            CounterColumn counterColumn = new CounterColumn(
-                    ByteBuffer.wrap(descriptor.getValueColumnName().getBytes()), 1);
+                try
+                {
+                    latestCount = conn.get(ByteBuffer.wrap(descriptor.getPkColumnValue().getBytes()), columnPath,
+                            getConsistencyLevel()).counter_column.value;
+                }
+                catch (NotFoundException e)
+                {
+                    log.warn("Counter value not found for {}, resetting it to zero.", descriptor.getPkColumnName());
+                    latestCount = 0;
+                }
+                ColumnParent columnParent = new ColumnParent(descriptor.getTable());
 
-            conn.add(ByteBuffer.wrap(descriptor.getPkColumnValue().getBytes()), columnParent, counterColumn,
-                    getConsistencyLevel());
+                CounterColumn counterColumn = new CounterColumn(ByteBuffer.wrap(descriptor.getValueColumnName()
+                        .getBytes()), 1);
 
-            if (latestCount == 0)
-            {
-                return (long) descriptor.getInitialValue();
-            }
-            else
-            {
-                return (latestCount + 1) * descriptor.getAllocationSize();
+                conn.add(ByteBuffer.wrap(descriptor.getPkColumnValue().getBytes()), columnParent, counterColumn,
+                        getConsistencyLevel());
             }
+
+            // each increment reserves next block of allocation size ids.
+            return descriptor.getInitialValue() + latestCount * Math.max(descriptor.getAllocationSize(), 1);
         }
         catch (UnavailableException e)
         {
@@ -1709,6 +2145,29 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         }
     }
 
+    /**
+     * Returns lock of generator row of given descriptor.
+     * 
+     * @param descriptor
+     *            table generator descriptor.
+     * @return lock.
+     */
+    private static Object getGeneratorLock(TableGeneratorDiscriptor descriptor)
+    {
+        String key = descriptor.getSchema() + "." + descriptor.getTable() + "." + descriptor.getPkColumnValue();
+        Object lock = generatorLocks.get(key);
+        if (lock == null)
+        {
+            Object newLock = new Object();
+            lock = generatorLocks.putIfAbsent(key, newLock);
+            if (lock == null)
+            {
+                lock = newLock;
+            }
+        }
+        return lock;
+    }
+
     /**
      * Executes query string using cql3.
      * 
@@ -1793,6 +2252,31 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
         }
     }
 
+    /**
+     * Returns maximum number of prepared statements to cache.
+     * 
+     * @param externalProperties
+     * @return
+     */
+    private int getStatementCacheSize(Map<String, Object> externalProperties)
+    {
+        Object cacheSize = externalProperties != null ? externalProperties
+                .get(CassandraConstants.PREPARED_STATEMENT_CACHE_SIZE) : null;
+        if (cacheSize != null)
+        {
+            try
+            {
+                return Integer.parseInt(cacheSize.toString());
+            }
+            catch (NumberFormatException nfe)
+            {
+                log.warn("Invalid value {} for {}, using default.", cacheSize,
+                        CassandraConstants.PREPARED_STATEMENT_CACHE_SIZE);
+            }
+        }
+        return CQLStatementCache.DEFAULT_CACHE_SIZE;
+    }
+
     private void populateCqlVersion(Map<String, Object> externalProperties)
     {
         String cqlVersion = externalProperties != null ? (String) externalProperties
@@ -1862,6 +2346,10 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
             {
                 query = createUpdateQueryForCounter(entityMetadata, entity, conn, rlHolders);
             }
+            else if (executePreparedInsert(entityMetadata, entity, conn, rlHolders, ttlColumns))
+            {
+                return;
+            }
             else
             {
                 query = createInsertQuery(entityMetadata, entity, conn, rlHolders, ttlColumns);
@@ -1951,6 +2439,39 @@ public abstract class CassandraClientBase extends ClientBase implements ClientPr
             return CassandraClientBase.this.executeQuery(builder.toString(), metadata.getEntityClazz(), relationNames);
         }
 
+        /**
+         * Finds entities for given row keys with a single
+         * <code>SELECT ... WHERE key IN (...)</code> query.
+         * 
+         * @param metadata
+         * @param relationNames
+         * @param rowIds
+         * @return
+         */
+        public List findAll(EntityMetadata metadata, List<String> relationNames, Object... rowIds)
+        {
+            CQLTranslator translator = new CQLTranslator();
+            String selectQuery = translator.SELECTALL_QUERY;
+            selectQuery = StringUtils.replace(selectQuery, CQLTranslator.COLUMN_FAMILY,
+                    translator.ensureCase(new StringBuilder(), metadata.getTableName(), false).toString());
+
+            StringBuilder builder = new StringBuilder(selectQuery);
+            builder.append(CQLTranslator.ADD_WHERE_CLAUSE);
+            translator.ensureCase(builder, CassandraUtilities.getIdColumnName(metadata, getExternalProperties()), false);
+            builder.append(" IN (");
+            Class idClazz = ((AbstractAttribute) metadata.getIdAttribute()).getBindableJavaType();
+            for (int i = 0; i < rowIds.length; i++)
+            {
+                if (i > 0)
+                {
+                    builder.append(",");
+                }
+                translator.appendValue(builder, idClazz, rowIds[i], false, false);
+            }
+            builder.append(")");
+            return CassandraClientBase.this.executeQuery(builder.toString(), metadata.getEntityClazz(), relationNames);
+        }
+
         /**
          * Find List of objects based on value {@columnValue} of column
          * {@columnName}
@@ -78,6 +78,9 @@ public interface CassandraConstants
 
     public static final String CQL_VERSION = "cql.version";
 
+    /** Maximum number of CQL3 prepared statements cached per persistence unit */
+    public static final String PREPARED_STATEMENT_CACHE_SIZE = "prepared.statement.cache.size";
+
     /** Name of Row key column when stored using CQL insert statement */
     public static final String CQL_KEY = "key";
 
@@ -16,13 +16,17 @@
 package com.impetus.client.cassandra.common;
 
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
 
+import org.apache.cassandra.thrift.Mutation;
 import org.apache.commons.lang.StringUtils;
 import org.scale7.cassandra.pelops.Bytes;
 
@@ -125,6 +129,61 @@ public class CassandraUtilities
         }
     }
 
+    /**
+     * Adds mutations of a row and column family to a batch_mutate mutation
+     * map, appending to mutations already held for same row and column
+     * family.
+     * 
+     * @param mutationMap
+     *            mutation map.
+     * @param rowKey
+     *            row key.
+     * @param columnFamily
+     *            column family.
+     * @param mutations
+     *            mutations to add.
+     */
+    public static void addMutations(Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap, ByteBuffer rowKey,
+            String columnFamily, List<Mutation> mutations)
+    {
+        Map<String, List<Mutation>> columnFamilyValues = mutationMap.get(rowKey);
+        if (columnFamilyValues == null)
+        {
+            columnFamilyValues = new HashMap<String, List<Mutation>>();
+            mutationMap.put(rowKey, columnFamilyValues);
+        }
+
+        List<Mutation> existing = columnFamilyValues.get(columnFamily);
+        if (existing == null)
+        {
+            columnFamilyValues.put(columnFamily, new ArrayList<Mutation>(mutations));
+        }
+        else
+        {
+            existing.addAll(mutations);
+        }
+    }
+
+    /**
+     * Merges a batch_mutate mutation map into another one.
+     * 
+     * @param target
+     *            mutation map to merge into.
+     * @param source
+     *            mutation map to merge.
+     */
+    public static void mergeMutations(Map<ByteBuffer, Map<String, List<Mutation>>> target,
+            Map<ByteBuffer, Map<String, List<Mutation>>> source)
+    {
+        for (Map.Entry<ByteBuffer, Map<String, List<Mutation>>> row : source.entrySet())
+        {
+            for (Map.Entry<String, List<Mutation>> columnFamily : row.getValue().entrySet())
+            {
+                addMutations(target, row.getKey(), columnFamily.getKey(), columnFamily.getValue());
+            }
+        }
+    }
+
     /**
      * Append columns.
      * 
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.cassandra.common;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.cassandra.thrift.KeySlice;
+
+import com.impetus.kundera.KunderaException;
+
+/**
+ * Iterates over rows of a get_indexed_slices/get_range_slices call page by
+ * page, instead of asking for all rows at once. Each page is fetched with a
+ * bounded count, starting at key of last row of previous page. As start key
+ * is inclusive, that row comes back again and is dropped.
+ */
+public abstract class KeySlicePager implements Iterator<List<KeySlice>>
+{
+    /** Default number of rows per page. */
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    /** Rows per page. */
+    private final int pageSize;
+
+    /** Start key of first page. */
+    private final byte[] startKey;
+
+    /** Number of rows still to be returned. */
+    private int remaining;
+
+    /** Key of last returned row. */
+    private byte[] lastKey;
+
+    /** Fetched page, not yet returned. */
+    private List<KeySlice> page;
+
+    /** Whether there are no more rows in database. */
+    private boolean exhausted;
+
+    /**
+     * Constructor using fields.
+     *
+     * @param startKey
+     *            start key, null or empty to start from first row.
+     * @param pageSize
+     *            number of rows per page.
+     * @param maxRows
+     *            maximum number of rows to return in total.
+     */
+    protected KeySlicePager(byte[] startKey, int pageSize, int maxRows)
+    {
+        this.startKey = startKey != null ? startKey : new byte[0];
+        this.pageSize = Math.max(pageSize, 1);
+        this.remaining = maxRows;
+    }
+
+    /**
+     * Fetches rows starting at given key.
+     *
+     * @param startKey
+     *            start key, inclusive.
+     * @param count
+     *            maximum number of rows.
+     * @return rows.
+     * @throws Exception
+     *             thrift exceptions.
+     */
+    protected abstract List<KeySlice> fetch(byte[] startKey, int count) throws Exception;
+
+    @Override
+    public boolean hasNext()
+    {
+        if (page == null && !exhausted)
+        {
+            fetchPage();
+        }
+        return page != null;
+    }
+
+    @Override
+    public List<KeySlice> next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException("No more rows to page over");
+        }
+        List<KeySlice> current = page;
+        page = null;
+        return current;
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException("remove method is not supported over pagination");
+    }
+
+    private void fetchPage()
+    {
+        if (remaining <= 0)
+        {
+            exhausted = true;
+            return;
+        }
+
+        boolean first = lastKey == null;
+        int count = Math.min(pageSize, remaining) + (first ? 0 : 1);
+
+        List<KeySlice> slices;
+        try
+        {
+            slices = fetch(first ? startKey : lastKey, count);
+        }
+        catch (Exception e)
+        {
+            throw new KunderaException(e);
+        }
+        if (slices == null)
+        {
+            slices = Collections.emptyList();
+        }
+
+        exhausted = slices.size() < count;
+        if (!first && !slices.isEmpty() && Arrays.equals(slices.get(0).getKey(), lastKey))
+        {
+            slices = slices.subList(1, slices.size());
+        }
+        if (slices.size() > remaining)
+        {
+            slices = slices.subList(0, remaining);
+        }
+
+        if (slices.isEmpty())
+        {
+            exhausted = true;
+            return;
+        }
+        remaining -= slices.size();
+        lastKey = slices.get(slices.size() - 1).getKey();
+        page = slices;
+    }
+}
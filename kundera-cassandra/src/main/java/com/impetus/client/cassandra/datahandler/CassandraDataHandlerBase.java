@@ -360,6 +360,31 @@ public abstract class CassandraDataHandlerBase
      */
     public ThriftRow toThriftRow(Object e, Object id, EntityMetadata m, String columnFamily, Object columnTTLs)
             throws Exception
+    {
+        return toThriftRow(e, id, m, columnFamily, columnTTLs, null);
+    }
+
+    /**
+     * Helper method to convert changed attributes of @Entity to ThriftRow.
+     * 
+     * @param e
+     *            the e
+     * @param id
+     *            the id
+     * @param m
+     *            the m
+     * @param columnFamily
+     *            the colmun family
+     * @param columnTTLs
+     *            TTL values for columns
+     * @param dirtyFields
+     *            names of attributes to convert, null if all.
+     * @return the base data accessor. thrift row
+     * @throws Exception
+     *             the exception
+     */
+    public ThriftRow toThriftRow(Object e, Object id, EntityMetadata m, String columnFamily, Object columnTTLs,
+            Set<String> dirtyFields) throws Exception
     {
         // timestamp to use in thrift column objects
         // long timestamp = System.currentTimeMillis();
@@ -371,7 +396,7 @@ public abstract class CassandraDataHandlerBase
 
         long timestamp = System.currentTimeMillis();
         // Add super columns to thrift row
-        onColumnOrSuperColumnThriftRow(tr, m, e, id, timestamp, columnTTLs);
+        onColumnOrSuperColumnThriftRow(tr, m, e, id, timestamp, columnTTLs, dirtyFields);
         return tr;
     }
 
@@ -1386,10 +1411,12 @@ public abstract class CassandraDataHandlerBase
      *            the timestamp2
      * @param columnTTLs
      *            TODO
+     * @param dirtyFields
+     *            names of attributes to add, null if all.
      */
 
     private void onColumnOrSuperColumnThriftRow(ThriftRow tr, EntityMetadata m, Object e, Object id, long timestamp,
-            Object columnTTLs)
+            Object columnTTLs, Set<String> dirtyFields)
     {
 
         // Iterate through Super columns
@@ -1402,7 +1429,8 @@ public abstract class CassandraDataHandlerBase
         Set<Attribute> attributes = entityType.getAttributes();
         for (Attribute attribute : attributes)
         {
-            if (!attribute.getName().equals(m.getIdAttribute().getName()) && !attribute.isAssociation())
+            if (!attribute.getName().equals(m.getIdAttribute().getName()) && !attribute.isAssociation()
+                    && (dirtyFields == null || dirtyFields.contains(attribute.getName())))
             {
                 Field field = (Field) ((Attribute) attribute).getJavaMember();
                 byte[] name = PropertyAccessorFactory.STRING
@@ -15,11 +15,13 @@
  */
 package com.impetus.client.cassandra.index;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.cassandra.thrift.ConsistencyLevel;
 import org.apache.cassandra.thrift.IndexClause;
+import org.apache.cassandra.thrift.Mutation;
 
 import com.impetus.client.cassandra.datahandler.CassandraDataHandler;
 import com.impetus.kundera.db.SearchResult;
@@ -46,6 +48,18 @@ public interface InvertedIndexHandler
     void write(Node node, EntityMetadata entityMetadata, String persistenceUnit, ConsistencyLevel consistencyLevel,
             CassandraDataHandler cdHandler);
 
+    /**
+     * Adds inverted index records of an entity to a batch_mutate mutation map,
+     * so that they are written in same call as entity row.
+     * 
+     * @param entity
+     * @param entityMetadata
+     * @param cdHandler
+     * @param mutationMap
+     */
+    void prepareMutations(Object entity, EntityMetadata entityMetadata, CassandraDataHandler cdHandler,
+            Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap);
+
     /**
      * Searches records from Inverted index table.
      * 
@@ -16,6 +16,7 @@
 package com.impetus.client.cassandra.index;
 
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -27,15 +28,21 @@ import javax.persistence.metamodel.EmbeddableType;
 import javax.persistence.metamodel.EntityType;
 
 import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.ColumnOrSuperColumn;
 import org.apache.cassandra.thrift.ConsistencyLevel;
 import org.apache.cassandra.thrift.IndexClause;
 import org.apache.cassandra.thrift.IndexExpression;
 import org.apache.cassandra.thrift.IndexOperator;
+import org.apache.cassandra.thrift.Mutation;
 import org.apache.cassandra.thrift.SuperColumn;
 import org.scale7.cassandra.pelops.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.impetus.client.cassandra.common.CassandraUtilities;
+import com.impetus.client.cassandra.datahandler.CassandraDataHandler;
+import com.impetus.client.cassandra.datahandler.CassandraDataHandlerBase;
+import com.impetus.client.cassandra.thrift.ThriftRow;
 import com.impetus.kundera.Constants;
 import com.impetus.kundera.db.SearchResult;
 import com.impetus.kundera.metadata.model.EntityMetadata;
@@ -217,6 +224,51 @@ public abstract class InvertedIndexHandlerBase
         }
     }
 
+    public void prepareMutations(Object entity, EntityMetadata entityMetadata, CassandraDataHandler cdHandler,
+            Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap)
+    {
+        if (CassandraIndexHelper.isInvertedIndexingApplicable(entityMetadata, useSecondryIndex))
+        {
+            String indexColumnFamily = CassandraIndexHelper.getInvertedIndexTableName(entityMetadata.getTableName());
+
+            List<ThriftRow> indexThriftyRows = ((CassandraDataHandlerBase) cdHandler).toIndexThriftRow(entity,
+                    entityMetadata, indexColumnFamily);
+
+            for (ThriftRow thriftRow : indexThriftyRows)
+            {
+                byte[] rowKey = PropertyAccessorHelper.toBytes(thriftRow.getId(), thriftRow.getId().getClass());
+
+                // Create Insertion List
+                List<Mutation> insertionList = new ArrayList<Mutation>();
+
+                List<Column> thriftColumns = thriftRow.getColumns();
+                List<SuperColumn> thriftSuperColumns = thriftRow.getSuperColumns();
+                if (thriftColumns != null && !thriftColumns.isEmpty())
+                {
+                    for (Column column : thriftColumns)
+                    {
+                        Mutation mut = new Mutation();
+                        mut.setColumn_or_supercolumn(new ColumnOrSuperColumn().setColumn(column));
+                        insertionList.add(mut);
+                    }
+                }
+
+                if (thriftSuperColumns != null && !thriftSuperColumns.isEmpty())
+                {
+                    for (SuperColumn superColumn : thriftSuperColumns)
+                    {
+                        Mutation mut = new Mutation();
+                        mut.setColumn_or_supercolumn(new ColumnOrSuperColumn().setSuper_column(superColumn));
+                        insertionList.add(mut);
+                    }
+                }
+
+                CassandraUtilities.addMutations(mutationMap, ByteBuffer.wrap(rowKey), indexColumnFamily,
+                        insertionList);
+            }
+        }
+    }
+
     public void delete(Object entity, EntityMetadata metadata, ConsistencyLevel consistencyLevel)
     {
         MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
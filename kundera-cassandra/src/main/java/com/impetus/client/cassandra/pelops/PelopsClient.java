@@ -38,6 +38,7 @@ import org.apache.cassandra.thrift.IndexOperator;
 import org.apache.cassandra.thrift.InvalidRequestException;
 import org.apache.cassandra.thrift.KeyRange;
 import org.apache.cassandra.thrift.KeySlice;
+import org.apache.cassandra.thrift.Mutation;
 import org.apache.cassandra.thrift.SchemaDisagreementException;
 import org.apache.cassandra.thrift.SlicePredicate;
 import org.apache.cassandra.thrift.SuperColumn;
@@ -57,7 +58,6 @@ import org.slf4j.LoggerFactory;
 import com.impetus.client.cassandra.CassandraClientBase;
 import com.impetus.client.cassandra.common.CassandraUtilities;
 import com.impetus.client.cassandra.datahandler.CassandraDataHandler;
-import com.impetus.client.cassandra.index.InvertedIndexHandler;
 import com.impetus.client.cassandra.query.CassQuery;
 import com.impetus.client.cassandra.thrift.ThriftRow;
 import com.impetus.kundera.Constants;
@@ -97,7 +97,7 @@ public class PelopsClient extends CassandraClientBase implements Client<CassQuer
     private PelopsDataHandler dataHandler;
 
     /** Handler for Inverted indexing */
-    private InvertedIndexHandler invertedIndexHandler;
+    private PelopsInvertedIndexHandler invertedIndexHandler;
 
     /** The reader. */
     private EntityReader reader;
@@ -199,8 +199,7 @@ public class PelopsClient extends CassandraClientBase implements Client<CassQuer
                 metadata.getPersistenceUnit());
         if (isCql3Enabled(metadata))
         {
-            String deleteQuery = onDeleteQuery(metadata, metaModel, pKey);
-            executeQuery(deleteQuery, metadata.getEntityClazz(), null);
+            executeDelete(metadata, metaModel, pKey);
         }
         else
         {
@@ -456,9 +455,13 @@ public class PelopsClient extends CassandraClientBase implements Client<CassQuer
             Cassandra.Client client = getRawClient(metadata.getPersistenceUnit(), metadata.getSchema());
             try
             {
-                client.set_keyspace(metadata.getSchema());
-                insert_Query = createInsertQuery(metadata, entity, client, rlHolders, getTtlValues().get(metadata.getTableName()));
-                executeCQLQuery(insert_Query,true);
+                Object ttlColumns = getTtlValues().get(metadata.getTableName());
+                if (!executePreparedInsert(metadata, entity, rlHolders, ttlColumns))
+                {
+                    client.set_keyspace(metadata.getSchema());
+                    insert_Query = createInsertQuery(metadata, entity, client, rlHolders, ttlColumns);
+                    executeCQLQuery(insert_Query, true);
+                }
             }
             catch (InvalidRequestException e)
             {
@@ -492,14 +495,19 @@ public class PelopsClient extends CassandraClientBase implements Client<CassQuer
             try
             {
                 String columnFamily = metadata.getTableName();
-                tf = dataHandler.toThriftRow(entity, id, metadata, columnFamily, getTtlValues().get(columnFamily));
+                tf = dataHandler.toThriftRow(entity, id, metadata, columnFamily, getTtlValues().get(columnFamily),
+                        dirtyFields);
             }
             catch (Exception e)
             {
                 log.error("Error during persist, Caused by: .", e);
                 throw new KunderaException(e);
             }
-            addRelationsToThriftRow(metadata, tf, rlHolders);
+            // associations are unchanged on a partial update.
+            if (dirtyFields == null)
+            {
+                addRelationsToThriftRow(metadata, tf, rlHolders);
+            }
             Mutator mutator = clientFactory.getMutator(pool);
             if (metadata.isCounterColumnType())
             {
@@ -559,6 +567,9 @@ public class PelopsClient extends CassandraClientBase implements Client<CassQuer
                 }
             }
 
+            // inverted index rows go in same batch as entity row.
+            invertedIndexHandler.write(entity, metadata, dataHandler, mutator);
+
             mutator.execute(getConsistencyLevel());
             tf = null;
             
@@ -579,9 +590,22 @@ public class PelopsClient extends CassandraClientBase implements Client<CassQuer
         // Index to lucene if applicable
         super.indexNode(node, entityMetadata);
 
-        // Write to inverted index table if applicable
-        // Delete from Inverted Index if applicable
-        invertedIndexHandler.write(node, entityMetadata, getPersistenceUnit(), getConsistencyLevel(), dataHandler);
+        // Write to inverted index table if applicable, else it is written
+        // along with entity row.
+        if (isCql3Enabled(entityMetadata))
+        {
+            invertedIndexHandler.write(node, entityMetadata, getPersistenceUnit(), getConsistencyLevel(), dataHandler);
+        }
+    }
+
+    /**
+     * Adds inverted index records to mutation map of entity row.
+     */
+    @Override
+    protected void prepareIndexMutations(EntityMetadata entityMetadata, Object entity,
+            Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap)
+    {
+        invertedIndexHandler.prepareMutations(entity, entityMetadata, dataHandler, mutationMap);
     }
 
     /**
@@ -72,11 +72,32 @@ public class PelopsInvertedIndexHandler extends InvertedIndexHandlerBase impleme
 
         if (invertedIndexingApplicable)
         {
-            String indexColumnFamily = CassandraIndexHelper.getInvertedIndexTableName(entityMetadata.getTableName());
-
             Mutator mutator = pelopsClient.getMutator();
+            write(node.getData(), entityMetadata, cdHandler, mutator);
+            mutator.execute(consistencyLevel);
+        }
+    }
 
-            List<ThriftRow> indexThriftyRows = ((PelopsDataHandler) cdHandler).toIndexThriftRow(node.getData(),
+    /**
+     * Adds inverted index records of an entity to given mutator, so that they
+     * are written along with entity row.
+     * 
+     * @param entity
+     *            the entity
+     * @param entityMetadata
+     *            the entity metadata
+     * @param cdHandler
+     *            data handler
+     * @param mutator
+     *            mutator of entity row, not executed here.
+     */
+    void write(Object entity, EntityMetadata entityMetadata, CassandraDataHandler cdHandler, Mutator mutator)
+    {
+        if (CassandraIndexHelper.isInvertedIndexingApplicable(entityMetadata, useSecondryIndex))
+        {
+            String indexColumnFamily = CassandraIndexHelper.getInvertedIndexTableName(entityMetadata.getTableName());
+
+            List<ThriftRow> indexThriftyRows = ((PelopsDataHandler) cdHandler).toIndexThriftRow(entity,
                     entityMetadata, indexColumnFamily);
 
             for (ThriftRow thriftRow : indexThriftyRows)
@@ -102,7 +123,6 @@ public class PelopsInvertedIndexHandler extends InvertedIndexHandlerBase impleme
                     }
                 }
             }
-            mutator.execute(consistencyLevel);
             indexThriftyRows = null;
         }
     }
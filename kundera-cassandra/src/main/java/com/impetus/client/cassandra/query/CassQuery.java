@@ -43,6 +43,7 @@ import org.slf4j.LoggerFactory;
 
 import com.impetus.client.cassandra.CassandraClientBase;
 import com.impetus.client.cassandra.common.CassandraUtilities;
+import com.impetus.client.cassandra.common.KeySlicePager;
 import com.impetus.client.cassandra.index.CassandraIndexHelper;
 import com.impetus.client.cassandra.thrift.CQLTranslator;
 import com.impetus.kundera.Constants;
@@ -59,6 +60,7 @@ import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
 import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.query.Aggregation;
 import com.impetus.kundera.query.KunderaQuery;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.KunderaQuery.UpdateClause;
@@ -184,6 +186,61 @@ public class CassQuery extends QueryImpl
         return result;
     }
 
+    /**
+     * Pushes COUNT of matching rows down to CQL3, if all select items are
+     * COUNT over entity or its id and query has no grouping. All matching rows
+     * are counted, max results bounds returned rows only.
+     */
+    @Override
+    protected List<Object> onAggregation(EntityMetadata m, Client client)
+    {
+        if (kunderaQuery.isNative() || !kunderaQuery.getGrouping().isEmpty()
+                || !((CassandraClientBase) client).isCql3Enabled(m))
+        {
+            return null;
+        }
+        for (Aggregation aggregation : kunderaQuery.getAggregations())
+        {
+            if (aggregation.getFunction() != Aggregation.Function.COUNT
+                    || aggregation.isDistinct()
+                    || (aggregation.getProperty() != null && !aggregation.getProperty().equals(
+                            m.getIdAttribute().getName())))
+            {
+                return null;
+            }
+        }
+
+        externalProperties = ((CassandraClientBase) client).getExternalProperties();
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        Class compoundKeyClass = m.getIdAttribute().getBindableJavaType();
+        EmbeddableType compoundKey = metaModel.isEmbeddable(compoundKeyClass) ? metaModel
+                .embeddable(compoundKeyClass) : null;
+        String idColumn = ((AbstractAttribute) m.getIdAttribute()).getJPAColumnName();
+
+        CQLTranslator translator = new CQLTranslator();
+        StringBuilder builder = new StringBuilder(StringUtils.replace(CQLTranslator.SELECT_COUNT_QUERY,
+                CQLTranslator.COLUMN_FAMILY, translator.ensureCase(new StringBuilder(), m.getTableName(), false)
+                        .toString()));
+        addWhereClause(builder);
+        // CQL LIMIT bounds rows counted, not rows returned.
+        onCondition(m, metaModel, compoundKey, idColumn, builder, false, translator, Integer.MAX_VALUE);
+
+        Long count = ((CassandraClientBase) client).executeCountQuery(builder.toString());
+        List<Object> results = new ArrayList<Object>(1);
+        if (kunderaQuery.getAggregations().size() == 1)
+        {
+            results.add(count);
+        }
+        else
+        {
+            Object[] row = new Object[kunderaQuery.getAggregations().size()];
+            Arrays.fill(row, count);
+            results.add(row);
+        }
+        return results;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -660,7 +717,8 @@ public class CassQuery extends QueryImpl
 
         addWhereClause(builder);
 
-        onCondition(m, metaModel, compoundKey, idColumn, builder, isPresent, translator);
+        onCondition(m, metaModel, compoundKey, idColumn, builder, isPresent, translator, isSingleResult ? 1
+                : this.maxResult);
 
         return builder.toString();
         // onLimit(builder);
@@ -676,11 +734,13 @@ public class CassQuery extends QueryImpl
      * 
      * @param builder
      *            string builder.
+     * @param limit
+     *            max rows.
      */
-    private void onLimit(StringBuilder builder)
+    private void onLimit(StringBuilder builder, int limit)
     {
         builder.append(CQLTranslator.LIMIT);
-        builder.append(isSingleResult ? 1 : this.maxResult);
+        builder.append(limit);
     }
 
     /**
@@ -700,10 +760,12 @@ public class CassQuery extends QueryImpl
      *            the is present
      * @param translator
      *            the translator
+     * @param limit
+     *            max rows
      * @return true, if successful
      */
     private boolean onCondition(EntityMetadata m, MetamodelImpl metaModel, EmbeddableType keyObj, String idColumn,
-            StringBuilder builder, boolean isPresent, CQLTranslator translator)
+            StringBuilder builder, boolean isPresent, CQLTranslator translator, int limit)
     {
         String partitionKey = null;
         boolean allowFiltering = false;
@@ -790,13 +852,13 @@ public class CassQuery extends QueryImpl
 
         if (allowFiltering)
         {
-            onLimit(builder);
+            onLimit(builder, limit);
             builder.append(" ");
             translator.buildFilteringClause(builder);
         }
         else
         {
-            onLimit(builder);
+            onLimit(builder, limit);
         }
 
         return isPresent;
@@ -835,13 +897,27 @@ public class CassQuery extends QueryImpl
             throw new UnsupportedOperationException("Scrolling over hbase is unsupported for lucene queries");
         }
 
+        // over thrift, secondary index queries are paged through lazily.
+        if (!kunderaQuery.isNative() && !((CassandraClientBase) client).isCql3Enabled(m))
+        {
+            boolean useInvertedIndex = CassandraIndexHelper.isInvertedIndexingApplicable(m, true);
+            if (!useInvertedIndex || getKunderaQuery().getFilterClauseQueue().isEmpty())
+            {
+                int maxResults = getFetchSize() != null ? getFetchSize() : this.maxResult;
+                Iterator<List> pages = ((CassandraEntityReader) getReader()).scrollByRange(m, client,
+                        prepareIndexClause(m, useInvertedIndex), getColumnList(m, getKunderaQuery().getResult(), null),
+                        maxResults, Math.min(maxResults, KeySlicePager.DEFAULT_PAGE_SIZE));
+                return new PagedResultIterator(this, m, client, pages);
+            }
+        }
+
         return new ResultIterator(this, m, persistenceDelegeator.getClient(m), this.getReader(),
                 getFetchSize() != null ? getFetchSize() : this.maxResult);
     }
 
-    void setRelationalEntities(List enhanceEntities, Client client, EntityMetadata m)
+    List<Object> setRelationalEntities(List enhanceEntities, Client client, EntityMetadata m)
     {
-        super.setRelationEntities(enhanceEntities, client, m);
+        return super.setRelationEntities(enhanceEntities, client, m);
     }
 
     @Override
@@ -17,6 +17,7 @@ package com.impetus.client.cassandra.query;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -218,6 +219,38 @@ public class CassandraEntityReader extends AbstractEntityReader implements Entit
         return result;
     }
 
+    /**
+     * Scrolls lazily over rows matching index clause, fetched page by page.
+     * 
+     * @param m
+     *            the m
+     * @param client
+     *            the client
+     * @param ixClause
+     *            the ix clause
+     * @param columns
+     *            columns to fetch.
+     * @param maxResults
+     *            maximum number of rows in total.
+     * @param pageSize
+     *            number of rows per page.
+     * @return pages of entities.
+     */
+    Iterator<List> scrollByRange(EntityMetadata m, Client client, Map<Boolean, List<IndexClause>> ixClause,
+            List<String> columns, int maxResults, int pageSize)
+    {
+        boolean isRowKeyQuery = ixClause.keySet().iterator().next();
+        List<IndexExpression> expressions = !ixClause.get(isRowKeyQuery).isEmpty() ? ixClause.get(isRowKeyQuery)
+                .get(0).getExpressions() : null;
+
+        Map<String, byte[]> rowKeys = getRowKeyValue(expressions,
+                ((AbstractAttribute) m.getIdAttribute()).getJPAColumnName());
+
+        return ((CassandraClientBase) client).scrollByRange(rowKeys.get(MIN_), rowKeys.get(MAX_), m,
+                m.getRelationNames() != null && !m.getRelationNames().isEmpty(), m.getRelationNames(), columns,
+                expressions, maxResults, pageSize);
+    }
+
     public List<EnhanceEntity> readFromIndexTable(EntityMetadata m, Client client,
             Map<Boolean, List<IndexClause>> indexClauseMap)
     {
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.cassandra.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.impetus.kundera.client.Client;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.query.IResultIterator;
+
+/**
+ * Iterates over results of a secondary index query, holding only one page of
+ * entities at a time. Next page is fetched from Cassandra once current page
+ * is consumed.
+ */
+class PagedResultIterator<E> implements IResultIterator<E>
+{
+    private final CassQuery query;
+
+    private final EntityMetadata entityMetadata;
+
+    private final Client client;
+
+    /** Pages of entities, fetched lazily. */
+    private final Iterator<List> pages;
+
+    /** Entities of current page. */
+    private Iterator<E> current;
+
+    PagedResultIterator(final CassQuery query, final EntityMetadata m, final Client client, final Iterator<List> pages)
+    {
+        this.query = query;
+        this.entityMetadata = m;
+        this.client = client;
+        this.pages = pages;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        while ((current == null || !current.hasNext()) && pages.hasNext())
+        {
+            List page = pages.next();
+            if (entityMetadata.isRelationViaJoinTable()
+                    || (entityMetadata.getRelationNames() != null && !(entityMetadata.getRelationNames().isEmpty())))
+            {
+                page = query.setRelationalEntities(page, client, entityMetadata);
+            }
+            current = page != null ? page.iterator() : null;
+        }
+        return current != null && current.hasNext();
+    }
+
+    @Override
+    public E next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException("Nothing to scroll further for:" + entityMetadata.getEntityClazz());
+        }
+        return current.next();
+    }
+
+    @Override
+    public List<E> next(int chunkSize)
+    {
+        List<E> chunk = new ArrayList<E>(chunkSize);
+        while (chunk.size() < chunkSize && hasNext())
+        {
+            chunk.add(current.next());
+        }
+        return chunk;
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException("remove method is not supported over pagination");
+    }
+}
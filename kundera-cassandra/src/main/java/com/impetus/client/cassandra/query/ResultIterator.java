@@ -159,10 +159,46 @@ class ResultIterator<E> implements IResultIterator<E>
         throw new UnsupportedOperationException("remove method is not supported over pagination");
     }
 
+    /**
+     * Fetches next chunk of entities in one round trip, limited to chunk size
+     * and starting after last entity returned so far.
+     */
     @Override
     public List<E> next(int chunkSize)
     {
-        throw new UnsupportedOperationException("fetch in chunks is not yet supported");
+        List<E> chunk = new ArrayList<E>();
+        int limit = Math.min(chunkSize, fetchSize - count);
+        if (scrollComplete || limit <= 0)
+        {
+            scrollComplete = true;
+            return chunk;
+        }
+
+        List<E> previous = results;
+        int maxResult = this.maxResult;
+        this.maxResult = limit;
+        try
+        {
+            onCheckRelation();
+        }
+        finally
+        {
+            this.maxResult = maxResult;
+        }
+
+        // a page smaller than limit, or the same page again, is the last one.
+        if (!checkOnEmptyResult() || results == previous)
+        {
+            scrollComplete = true;
+            return chunk;
+        }
+        for (E result : results)
+        {
+            chunk.add(getEntity(result));
+        }
+        count += chunk.size();
+        scrollComplete = chunk.size() < limit;
+        return chunk;
     }
 
     /**
@@ -0,0 +1,364 @@
+/**
+ * Copyright 2013 Impetus Infotech.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.impetus.client.cassandra.thrift;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cassandra.db.marshal.AbstractType;
+import org.apache.cassandra.db.marshal.AsciiType;
+import org.apache.cassandra.db.marshal.BooleanType;
+import org.apache.cassandra.db.marshal.CounterColumnType;
+import org.apache.cassandra.db.marshal.DateType;
+import org.apache.cassandra.db.marshal.DecimalType;
+import org.apache.cassandra.db.marshal.DoubleType;
+import org.apache.cassandra.db.marshal.FloatType;
+import org.apache.cassandra.db.marshal.Int32Type;
+import org.apache.cassandra.db.marshal.IntegerType;
+import org.apache.cassandra.db.marshal.LexicalUUIDType;
+import org.apache.cassandra.db.marshal.LongType;
+import org.apache.cassandra.db.marshal.TimeUUIDType;
+import org.apache.cassandra.db.marshal.TypeParser;
+import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.cassandra.db.marshal.UUIDType;
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.Compression;
+import org.apache.cassandra.thrift.ConsistencyLevel;
+import org.apache.cassandra.thrift.CqlPreparedResult;
+import org.apache.cassandra.thrift.CqlResult;
+import org.apache.cassandra.thrift.InvalidRequestException;
+import org.apache.cassandra.thrift.SchemaDisagreementException;
+import org.apache.cassandra.thrift.TimedOutException;
+import org.apache.cassandra.thrift.UnavailableException;
+import org.apache.cassandra.utils.ByteBufferUtil;
+import org.apache.thrift.TException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.impetus.kundera.KunderaException;
+
+/**
+ * Bounded, least recently used cache of CQL3 prepared statements, one per
+ * persistence unit (and so per connection pool). Statements are keyed by
+ * entity and operation shape, so CQL text is built only once per shape, and
+ * values are serialized straight into {@link ByteBuffer}s using variable types
+ * returned by server on prepare.
+ */
+public final class CQLStatementCache
+{
+    /** The log instance. */
+    private static Logger log = LoggerFactory.getLogger(CQLStatementCache.class);
+
+    /** Default number of prepared statements kept per persistence unit. */
+    public static final int DEFAULT_CACHE_SIZE = 500;
+
+    /** Message returned by server for an unknown prepared statement id. */
+    private static final String UNKNOWN_STATEMENT = "Prepared query with ID";
+
+    private static final Map<String, CQLStatementCache> caches = new ConcurrentHashMap<String, CQLStatementCache>();
+
+    private final Map<Object, PreparedStatement> statements;
+
+    private CQLStatementCache(final int maxSize)
+    {
+        this.statements = Collections.synchronizedMap(new LinkedHashMap<Object, PreparedStatement>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, PreparedStatement> eldest)
+            {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Returns statement cache for given persistence unit, creating it if
+     * required.
+     *
+     * @param persistenceUnit
+     *            persistence unit
+     * @param maxSize
+     *            maximum number of statements to hold.
+     * @return statement cache.
+     */
+    public static CQLStatementCache getInstance(String persistenceUnit, int maxSize)
+    {
+        CQLStatementCache cache = caches.get(persistenceUnit);
+        if (cache == null)
+        {
+            synchronized (caches)
+            {
+                cache = caches.get(persistenceUnit);
+                if (cache == null)
+                {
+                    cache = new CQLStatementCache(maxSize > 0 ? maxSize : DEFAULT_CACHE_SIZE);
+                    caches.put(persistenceUnit, cache);
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns true if all values can be bound to a prepared statement. Null
+     * values, collections and binary values are not bound, such statements
+     * should go via plain CQL.
+     *
+     * @param values
+     *            values to bind.
+     * @return true, if all values can be bound.
+     */
+    public static boolean isBindable(List<Object> values)
+    {
+        for (Object value : values)
+        {
+            if (value == null || !isBindable(value.getClass()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes statement of given shape as a prepared statement, building and
+     * preparing its CQL first if it is not yet cached. If the node does not
+     * know the prepared id (e.g. it was restarted or connection went to
+     * another node of the pool), statement is prepared again and executed once
+     * more.
+     *
+     * @param conn
+     *            cassandra client.
+     * @param shape
+     *            statement shape, e.g. entity class, operation and columns.
+     *            Must implement equals and hashCode.
+     * @param builder
+     *            builds CQL with bind markers for shape, called on cache miss
+     *            only.
+     * @param values
+     *            values to bind, in bind marker order.
+     * @param consistencyLevel
+     *            consistency level.
+     * @return cql result.
+     */
+    public CqlResult execute(Cassandra.Client conn, Object shape, QueryBuilder builder, List<Object> values,
+            ConsistencyLevel consistencyLevel) throws InvalidRequestException, UnavailableException,
+            TimedOutException, SchemaDisagreementException, TException
+    {
+        PreparedStatement statement = statements.get(shape);
+        if (statement == null)
+        {
+            statement = prepare(conn, shape, builder.buildQuery());
+        }
+
+        List<ByteBuffer> boundValues = statement.bind(values);
+        try
+        {
+            return conn.execute_prepared_cql3_query(statement.itemId, boundValues, consistencyLevel);
+        }
+        catch (InvalidRequestException e)
+        {
+            if (e.getWhy() == null || !e.getWhy().startsWith(UNKNOWN_STATEMENT))
+            {
+                throw e;
+            }
+            if (log.isDebugEnabled())
+            {
+                log.debug("Prepared statement {} not found on node, preparing again.", statement.cqlQuery);
+            }
+            statement = prepare(conn, shape, statement.cqlQuery);
+            return conn.execute_prepared_cql3_query(statement.itemId, boundValues, consistencyLevel);
+        }
+    }
+
+    /**
+     * Prepares statement on given connection and caches it.
+     */
+    private PreparedStatement prepare(Cassandra.Client conn, Object shape, String cqlQuery)
+            throws InvalidRequestException, TException
+    {
+        if (log.isInfoEnabled())
+        {
+            log.info("Preparing cql query {}.", cqlQuery);
+        }
+        CqlPreparedResult result = conn.prepare_cql3_query(ByteBufferUtil.bytes(cqlQuery), Compression.NONE);
+        PreparedStatement statement = new PreparedStatement(cqlQuery, result);
+        statements.put(shape, statement);
+        return statement;
+    }
+
+    private static boolean isBindable(Class<?> clazz)
+    {
+        return String.class.equals(clazz) || Character.class.equals(clazz) || Boolean.class.equals(clazz)
+                || UUID.class.equals(clazz) || Number.class.isAssignableFrom(clazz)
+                || Date.class.isAssignableFrom(clazz) || Calendar.class.isAssignableFrom(clazz) || clazz.isEnum()
+                || (clazz.getSuperclass() != null && clazz.getSuperclass().isEnum());
+    }
+
+    /**
+     * Serializes value for given type. Values are converted to the Java type
+     * of the column and decomposed directly, string form is only used for
+     * types not known here.
+     */
+    private static ByteBuffer decompose(AbstractType<?> type, Object value)
+    {
+        if (value instanceof Number)
+        {
+            Number number = (Number) value;
+            if (type instanceof Int32Type)
+            {
+                return ByteBufferUtil.bytes(number.intValue());
+            }
+            else if (type instanceof LongType || type instanceof CounterColumnType)
+            {
+                return ByteBufferUtil.bytes(number.longValue());
+            }
+            else if (type instanceof DoubleType)
+            {
+                return ByteBufferUtil.bytes(number.doubleValue());
+            }
+            else if (type instanceof FloatType)
+            {
+                return ByteBufferUtil.bytes(number.floatValue());
+            }
+            else if (type instanceof DecimalType)
+            {
+                return DecimalType.instance.decompose(number instanceof BigDecimal ? (BigDecimal) number
+                        : new BigDecimal(number.toString()));
+            }
+            else if (type instanceof IntegerType)
+            {
+                return IntegerType.instance.decompose(number instanceof BigInteger ? (BigInteger) number
+                        : BigInteger.valueOf(number.longValue()));
+            }
+        }
+        else if (type instanceof DateType && (value instanceof Date || value instanceof Calendar))
+        {
+            return DateType.instance.decompose(value instanceof Date ? (Date) value : ((Calendar) value).getTime());
+        }
+        else if (type instanceof BooleanType && value instanceof Boolean)
+        {
+            return BooleanType.instance.decompose((Boolean) value);
+        }
+        else if (value instanceof UUID
+                && (type instanceof UUIDType || type instanceof TimeUUIDType || type instanceof LexicalUUIDType))
+        {
+            return ((AbstractType<UUID>) type).decompose((UUID) value);
+        }
+
+        if (type instanceof UTF8Type || type instanceof AsciiType)
+        {
+            return ByteBufferUtil.bytes(asString(value));
+        }
+        return type.fromString(asString(value));
+    }
+
+    /**
+     * Returns string form of value as understood by
+     * {@link AbstractType#fromString(String)}.
+     */
+    private static String asString(Object value)
+    {
+        if (value instanceof Date)
+        {
+            return String.valueOf(((Date) value).getTime());
+        }
+        else if (value instanceof Calendar)
+        {
+            return String.valueOf(((Calendar) value).getTimeInMillis());
+        }
+        else if (value instanceof Enum)
+        {
+            return ((Enum) value).name();
+        }
+        else if (value instanceof BigDecimal)
+        {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Builds CQL text of a statement shape.
+     */
+    public interface QueryBuilder
+    {
+        /**
+         * Returns CQL with bind markers.
+         */
+        String buildQuery();
+    }
+
+    /**
+     * Prepared statement id along with its CQL and variable types.
+     */
+    private static final class PreparedStatement
+    {
+        private final String cqlQuery;
+
+        private final int itemId;
+
+        private final List<AbstractType<?>> types;
+
+        private PreparedStatement(String cqlQuery, CqlPreparedResult result)
+        {
+            this.cqlQuery = cqlQuery;
+            this.itemId = result.getItemId();
+            List<String> variableTypes = result.getVariable_types();
+            this.types = new ArrayList<AbstractType<?>>(variableTypes != null ? variableTypes.size() : 0);
+            if (variableTypes != null)
+            {
+                for (String variableType : variableTypes)
+                {
+                    try
+                    {
+                        types.add(TypeParser.parse(variableType));
+                    }
+                    catch (Exception e)
+                    {
+                        log.error("Error while parsing bind variable type {}, Caused by: .", variableType, e);
+                        throw new KunderaException(e);
+                    }
+                }
+            }
+        }
+
+        private List<ByteBuffer> bind(List<Object> values)
+        {
+            if (values.size() != types.size())
+            {
+                throw new KunderaException("Expected " + types.size() + " bound values but found " + values.size()
+                        + ".");
+            }
+            List<ByteBuffer> boundValues = new ArrayList<ByteBuffer>(values.size());
+            for (int i = 0; i < values.size(); i++)
+            {
+                boundValues.add(decompose(types.get(i), values.get(i)));
+            }
+            return boundValues;
+        }
+    }
+}
@@ -48,6 +48,7 @@ import org.apache.cassandra.db.marshal.MapType;
 import org.apache.cassandra.db.marshal.SetType;
 import org.apache.cassandra.db.marshal.UTF8Type;
 import org.apache.cassandra.db.marshal.UUIDType;
+import org.apache.commons.lang.StringUtils;
 
 import com.impetus.client.cassandra.common.CassandraConstants;
 import com.impetus.client.cassandra.common.CassandraUtilities;
@@ -80,6 +81,8 @@ public final class CQLTranslator
 
     public static final String SELECT_QUERY = "SELECT $COLUMNS FROM $COLUMNFAMILY";
 
+    public static final String SELECT_COUNT_QUERY = "SELECT COUNT(*) FROM $COLUMNFAMILY";
+
     public static final String INSERT_QUERY = " INSERT INTO $COLUMNFAMILY($COLUMNS) VALUES($COLUMNVALUES) ";
 
     public static final String DELETE_QUERY = "DELETE FROM $COLUMNFAMILY";
@@ -126,6 +129,8 @@ public final class CQLTranslator
 
     public static final String CLOSE_BRACKET = ")";
 
+    public static final String BIND_MARKER = "?";
+
     public CQLTranslator()
     {
 
@@ -151,6 +156,29 @@ public final class CQLTranslator
      */
     public HashMap<TranslationType, String> prepareColumnOrColumnValues(final Object record,
             final EntityMetadata entityMetadata, TranslationType type, Map<String, Object> externalProperties)
+    {
+        return prepareColumnOrColumnValues(record, entityMetadata, type, externalProperties, null);
+    }
+
+    /**
+     * Prepares column name or column values for given attributes only.
+     * 
+     * @param record
+     *            entity.
+     * @param entityMetadata
+     *            entity meta data
+     * @param type
+     *            translation type.
+     * @param externalProperties
+     * @param dirtyFields
+     *            names of attributes to translate, null if all. Id is always
+     *            translated.
+     * @return Map containing translation type as key and string as translated
+     *         CQL string.
+     */
+    public HashMap<TranslationType, String> prepareColumnOrColumnValues(final Object record,
+            final EntityMetadata entityMetadata, TranslationType type, Map<String, Object> externalProperties,
+            Set<String> dirtyFields)
     {
         HashMap<TranslationType, String> parsedColumnOrColumnValue = new HashMap<CQLTranslator.TranslationType, String>();
         if (type == null)
@@ -166,7 +194,7 @@ public final class CQLTranslator
         StringBuilder columnBuilder = new StringBuilder();
 
         onTranslation(record, entityMetadata, type, metaModel, entityClazz, entityType, builder, columnBuilder,
-                externalProperties);
+                externalProperties, null, null, dirtyFields);
 
         if (type.equals(TranslationType.ALL) || type.equals(TranslationType.VALUE))
         {
@@ -185,6 +213,66 @@ public final class CQLTranslator
         return parsedColumnOrColumnValue;
     }
 
+    /**
+     * Collects column names and values of given entity for a prepared
+     * statement, without building any CQL. Null values are skipped, so column
+     * names along with entity class make up the statement shape.
+     * 
+     * @param record
+     *            entity.
+     * @param entityMetadata
+     *            entity meta data
+     * @param externalProperties
+     * @param dirtyFields
+     *            names of attributes to collect, null if all. Id is always
+     *            collected.
+     * @param columnNames
+     *            list to collect column names.
+     * @param values
+     *            list to collect column values, in column name order.
+     */
+    public void prepareColumnsAndValues(final Object record, final EntityMetadata entityMetadata,
+            Map<String, Object> externalProperties, Set<String> dirtyFields, List<String> columnNames,
+            List<Object> values)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+        Class entityClazz = entityMetadata.getEntityClazz();
+
+        onTranslation(record, entityMetadata, TranslationType.ALL, metaModel, entityClazz,
+                metaModel.entity(entityClazz), null, null, externalProperties, columnNames, values, dirtyFields);
+    }
+
+    /**
+     * Builds insert query with a bind marker for each of given columns.
+     * 
+     * @param tableName
+     *            table name.
+     * @param columnNames
+     *            column names.
+     * @return insert query string.
+     */
+    public String buildPreparedInsertQuery(String tableName, List<String> columnNames)
+    {
+        StringBuilder columnBuilder = new StringBuilder();
+        StringBuilder markerBuilder = new StringBuilder();
+        for (String columnName : columnNames)
+        {
+            if (markerBuilder.length() > 0)
+            {
+                columnBuilder.append(",");
+                markerBuilder.append(",");
+            }
+            appendColumnName(columnBuilder, columnName);
+            markerBuilder.append(BIND_MARKER);
+        }
+
+        String insertQuery = StringUtils.replace(INSERT_QUERY, COLUMN_FAMILY,
+                ensureCase(new StringBuilder(), tableName, false).toString());
+        insertQuery = StringUtils.replace(insertQuery, COLUMN_VALUES, markerBuilder.toString());
+        return StringUtils.replace(insertQuery, COLUMNS, columnBuilder.toString());
+    }
+
     public static String getCQLType(String internalClazz)
     {
         return InternalToCQLMapper.getType(internalClazz);
@@ -215,10 +303,17 @@ public final class CQLTranslator
      * @param columnBuilder
      *            column name builder
      * @param externalProperties
+     * @param columnNames
+     *            collected column names, null if columns are to be built.
+     * @param boundValues
+     *            collected column values, null if values are to be inlined.
+     * @param dirtyFields
+     *            names of attributes to translate, null if all.
      */
     private void onTranslation(final Object record, final EntityMetadata m, TranslationType type,
             MetamodelImpl metaModel, Class entityClazz, EntityType entityType, StringBuilder builder,
-            StringBuilder columnBuilder, Map<String, Object> externalProperties)
+            StringBuilder columnBuilder, Map<String, Object> externalProperties, List<String> columnNames,
+            List<Object> boundValues, Set<String> dirtyFields)
     {
         for (Field field : entityClazz.getDeclaredFields())
         {
@@ -237,7 +332,8 @@ public final class CQLTranslator
                         {
                             onTranslation(type, builder, columnBuilder,
                                     ((AbstractAttribute) (compoundKey.getAttribute(compositeColumn.getName())))
-                                            .getJPAColumnName(), compoundKeyObj, compositeColumn);
+                                            .getJPAColumnName(), compoundKeyObj, compositeColumn, columnNames,
+                                    boundValues);
                         }
                     }
                 }
@@ -253,15 +349,17 @@ public final class CQLTranslator
                         && m.getIdAttribute().getName().equals(entityType.getAttribute(field.getName()).getName()))
                 {
                     onTranslation(type, builder, columnBuilder,
-                            CassandraUtilities.getIdColumnName(m, externalProperties), record, field);
+                            CassandraUtilities.getIdColumnName(m, externalProperties), record, field, columnNames,
+                            boundValues);
                 }
                 else if (!ReflectUtils.isTransientOrStatic(field))
                 {
                     AbstractAttribute attrib = (AbstractAttribute) entityType.getAttribute(field.getName());
 
-                    if (!attrib.isAssociation())
+                    if (!attrib.isAssociation() && (dirtyFields == null || dirtyFields.contains(attrib.getName())))
                     {
-                        onTranslation(type, builder, columnBuilder, attrib.getJPAColumnName(), record, field);
+                        onTranslation(type, builder, columnBuilder, attrib.getJPAColumnName(), record, field,
+                                columnNames, boundValues);
                     }
                 }
             }
@@ -284,6 +382,21 @@ public final class CQLTranslator
         builder.append(AND_CLAUSE);
     }
 
+    /**
+     * Build where clause with {@link #EQ_CLAUSE} clause and a bind marker in
+     * place of value.
+     * 
+     * @param builder
+     * @param field
+     */
+    public void buildWhereClauseWithBindMarker(StringBuilder builder, String field)
+    {
+        builder = ensureCase(builder, field, false);
+        builder.append(EQ_CLAUSE);
+        builder.append(BIND_MARKER);
+        builder.append(AND_CLAUSE);
+    }
+
     /**
      * Build where clause with given clause.
      * 
@@ -387,14 +500,25 @@ public final class CQLTranslator
      *            value object.
      * @param column
      *            value column name.
+     * @param columnNames
+     *            collected column names, null if columns are to be built.
+     * @param boundValues
+     *            collected column values, null if values are to be inlined.
      */
     private void onTranslation(TranslationType type, StringBuilder builder, StringBuilder columnBuilder,
-            String columnName, Object record, Field column)
+            String columnName, Object record, Field column, List<String> columnNames, List<Object> boundValues)
     {
         switch (type)
         {
         case ALL:
-            if (appendColumnValue(builder, record, column))
+            if (boundValues != null)
+            {
+                if (collectColumnValue(record, column, boundValues))
+                {
+                    columnNames.add(columnName);
+                }
+            }
+            else if (appendColumnValue(builder, record, column))
             {
                 builder.append(",");
                 appendColumnName(columnBuilder, columnName);
@@ -435,6 +559,31 @@ public final class CQLTranslator
         return isPresent;
     }
 
+    /**
+     * Collects column value into bound values. Returns true if value is
+     * present.
+     * 
+     * @param valueObj
+     * @param column
+     * @param boundValues
+     * @return true if value is not null,else false.
+     */
+    private boolean collectColumnValue(Object valueObj, Field column, List<Object> boundValues)
+    {
+        Object value = PropertyAccessorHelper.getObject(valueObj, column);
+        if (value == null)
+        {
+            // collections are always written, see appendValue.
+            if (!Collection.class.isAssignableFrom(column.getType()) && !Map.class.isAssignableFrom(column.getType()))
+            {
+                return false;
+            }
+            value = Map.class.isAssignableFrom(column.getType()) ? new HashMap() : new ArrayList();
+        }
+        boundValues.add(value);
+        return true;
+    }
+
     /**
      * Appends value to builder object for given class type
      * 
@@ -20,6 +20,7 @@ import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -55,6 +56,7 @@ import org.slf4j.LoggerFactory;
 
 import com.impetus.client.cassandra.CassandraClientBase;
 import com.impetus.client.cassandra.common.CassandraUtilities;
+import com.impetus.client.cassandra.common.KeySlicePager;
 import com.impetus.client.cassandra.datahandler.CassandraDataHandler;
 import com.impetus.client.cassandra.index.InvertedIndexHandler;
 import com.impetus.client.cassandra.query.CassQuery;
@@ -301,9 +303,23 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
     {
         super.indexNode(node, entityMetadata);
 
-        // Write to inverted index table if applicable
+        // Write to inverted index table if applicable, else it is written
+        // along with entity row.
         // setCassandraClient();
-        invertedIndexHandler.write(node, entityMetadata, getPersistenceUnit(), getConsistencyLevel(), dataHandler);
+        if (isCql3Enabled(entityMetadata))
+        {
+            invertedIndexHandler.write(node, entityMetadata, getPersistenceUnit(), getConsistencyLevel(), dataHandler);
+        }
+    }
+
+    /**
+     * Adds inverted index records to mutation map of entity row.
+     */
+    @Override
+    protected void prepareIndexMutations(EntityMetadata entityMetadata, Object entity,
+            Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap)
+    {
+        invertedIndexHandler.prepareMutations(entity, entityMetadata, dataHandler, mutationMap);
     }
 
     /**
@@ -490,9 +506,10 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
         List<Object> rowKeys = new ArrayList<Object>();
         EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(entityClazz);
 
+        // only row keys are needed.
         SlicePredicate slicePredicate = new SlicePredicate();
 
-        slicePredicate.setSlice_range(new SliceRange(Bytes.EMPTY.getBytes(), Bytes.EMPTY.getBytes(), false, Integer.MAX_VALUE));
+        slicePredicate.setSlice_range(new SliceRange(Bytes.EMPTY.getBytes(), Bytes.EMPTY.getBytes(), false, 1));
 
         String childIdStr = PropertyAccessorHelper.getString(columnValue);
         IndexExpression ie = new IndexExpression(Bytes.fromUTF8(
@@ -502,49 +519,21 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
         List<IndexExpression> expressions = new ArrayList<IndexExpression>();
         expressions.add(ie);
 
-        IndexClause ix = new IndexClause();
-        ix.setStart_key(Bytes.EMPTY.toByteArray());
-        ix.setCount(Integer.MAX_VALUE);
-        ix.setExpressions(expressions);
-
         ColumnParent columnParent = new ColumnParent(tableName);
-        Connection conn = null;
         try
         {
-            conn = /* PelopsUtils.getCassandraConnection(pool) */getConection();
-            List<KeySlice> keySlices = conn.getClient().get_indexed_slices(columnParent, ix, slicePredicate,
-                    getConsistencyLevel());
-
-            rowKeys = ThriftDataResultHelper.getRowKeys(keySlices, metadata);
-        }
-        catch (InvalidRequestException e)
-        {
-            log.error("Error while fetching key slices of column family {} for column name {} , Caused by: .",
-                    tableName, columnName, e);
-            throw new KunderaException(e);
-        }
-        catch (UnavailableException e)
-        {
-            log.error("Error while fetching key slices of column family {} for column name {} , Caused by: .",
-                    tableName, columnName, e);
-            throw new KunderaException(e);
-        }
-        catch (TimedOutException e)
-        {
-            log.error("Error while fetching key slices of column family {} for column name {} , Caused by: .",
-                    tableName, columnName, e);
-            throw new KunderaException(e);
+            Iterator<List<KeySlice>> pages = pageIndexedSlices(columnParent, expressions, slicePredicate,
+                    Integer.MAX_VALUE);
+            while (pages.hasNext())
+            {
+                rowKeys.addAll(ThriftDataResultHelper.getRowKeys(pages.next(), metadata));
+            }
         }
-        catch (TException e)
+        catch (KunderaException e)
         {
             log.error("Error while fetching key slices of column family {} for column name {} , Caused by: .",
                     tableName, columnName, e);
-            throw new KunderaException(e);
-        }
-        finally
-        {
-            // PelopsUtils.releaseConnection(pool, conn);
-            releaseConnection(conn);
+            throw e;
         }
         if (rowKeys != null && !rowKeys.isEmpty())
         {
@@ -558,6 +547,47 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
         return null;
     }
 
+    /**
+     * Pages through rows matching given index expressions via
+     * get_indexed_slices, with a bounded count per call.
+     * 
+     * @param columnParent
+     *            column family.
+     * @param expressions
+     *            index expressions.
+     * @param slicePredicate
+     *            columns to fetch per row.
+     * @param maxRows
+     *            maximum number of rows in total.
+     * @return pages of key slices.
+     */
+    private Iterator<List<KeySlice>> pageIndexedSlices(final ColumnParent columnParent,
+            final List<IndexExpression> expressions, final SlicePredicate slicePredicate, int maxRows)
+    {
+        return new KeySlicePager(Bytes.EMPTY.toByteArray(), KeySlicePager.DEFAULT_PAGE_SIZE, maxRows)
+        {
+            @Override
+            protected List<KeySlice> fetch(byte[] startKey, int count) throws Exception
+            {
+                IndexClause ix = new IndexClause();
+                ix.setStart_key(startKey);
+                ix.setCount(count);
+                ix.setExpressions(expressions);
+
+                Connection conn = getConection();
+                try
+                {
+                    return conn.getClient().get_indexed_slices(columnParent, ix, slicePredicate,
+                            getConsistencyLevel());
+                }
+                finally
+                {
+                    releaseConnection(conn);
+                }
+            }
+        };
+    }
+
     @Override
     public List<Object> findByRelation(String colName, Object colValue, Class entityClazz)
     {
@@ -578,58 +608,32 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
             List<IndexExpression> expressions = new ArrayList<IndexExpression>();
             expressions.add(ie);
 
-            IndexClause ix = new IndexClause();
-            ix.setStart_key(Bytes.EMPTY.toByteArray());
-            ix.setCount(Integer.MAX_VALUE);
-            ix.setExpressions(expressions);
             ColumnParent columnParent = new ColumnParent(m.getTableName());
 
-            List<KeySlice> keySlices;
-            Connection conn = null;
+            // populate page by page, so that key slices of only one page are
+            // held at a time.
+            List<Object> pageEntities = new ArrayList<Object>();
             try
             {
-                conn = /* PelopsUtils.getCassandraConnection(pool) */getConection();
-                keySlices = conn.getClient()
-                        .get_indexed_slices(columnParent, ix, slicePredicate, getConsistencyLevel());
+                Iterator<List<KeySlice>> pages = pageIndexedSlices(columnParent, expressions, slicePredicate,
+                        Integer.MAX_VALUE);
+                while (pages.hasNext())
+                {
+                    populateData(m, pages.next(), pageEntities, m.getRelationNames() != null, m.getRelationNames());
+                }
             }
-            catch (InvalidRequestException e)
+            catch (KunderaException e)
             {
-                if (e.why != null && e.why.contains("No indexed columns"))
+                if (e.getCause() instanceof InvalidRequestException
+                        && ((InvalidRequestException) e.getCause()).why != null
+                        && ((InvalidRequestException) e.getCause()).why.contains("No indexed columns"))
                 {
                     return entities;
                 }
-                else
-                {
-                    log.error("Error while finding relations for column family {} , Caused by: .", m.getTableName(), e);
-                    throw new KunderaException(e);
-                }
-            }
-            catch (UnavailableException e)
-            {
                 log.error("Error while finding relations for column family {} , Caused by: .", m.getTableName(), e);
-                throw new KunderaException(e);
-            }
-            catch (TimedOutException e)
-            {
-                log.error("Error while finding relations for column family {} , Caused by: .", m.getTableName(), e);
-                throw new KunderaException(e);
-            }
-            catch (TException e)
-            {
-                log.error("Error while finding relations for column family {} , Caused by: .", m.getTableName(), e);
-                throw new KunderaException(e);
-            }
-            finally
-            {
-                // PelopsUtils.releaseConnection(pool, conn);
-                releaseConnection(conn);
-            }
-
-            if (keySlices != null)
-            {
-                entities = new ArrayList<Object>(keySlices.size());
-                populateData(m, keySlices, entities, m.getRelationNames() != null, m.getRelationNames());
+                throw e;
             }
+            entities = pageEntities;
         }
         return entities;
     }
@@ -652,8 +656,7 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
 
             if (isCql3Enabled(metadata))
             {
-                String deleteQuery = onDeleteQuery(metadata, metaModel, pKey);
-                executeQuery(deleteQuery, metadata.getEntityClazz(), null);
+                executeDelete(metadata, metaModel, pKey);
             }
             else
             {
@@ -880,10 +883,9 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
                 sliceRange.setCount(maxResult);
                 slicePredicate.setSlice_range(sliceRange);
             }
-            conn = /* PelopsUtils.getCassandraConnection(pool) */getConection();
-
             if (ixClause.isEmpty())
             {
+                conn = /* PelopsUtils.getCassandraConnection(pool) */getConection();
                 KeyRange keyRange = new KeyRange(maxResult);
                 keyRange.setStart_key(Bytes.nullSafeGet(Bytes.fromUTF8("")));
                 keyRange.setEnd_key(Bytes.nullSafeGet(Bytes.fromUTF8("")));
@@ -923,15 +925,17 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
                 entities = new ArrayList<Object>();
                 for (IndexClause ix : ixClause)
                 {
-                    List<KeySlice> keySlices = conn.getClient().get_indexed_slices(new ColumnParent(m.getTableName()),
-                            ix, slicePredicate, getConsistencyLevel());
-
-                    Map<Bytes, List<Column>> qResults = ThriftDataResultHelper.transformThriftResult(
-                            ColumnFamilyType.COLUMN, keySlices, null);
-                    // iterate through complete map and
-                    entities = new ArrayList<Object>(qResults.size());
-
-                    computeEntityViaColumns(m, isRelation, relations, entities, qResults);
+                    // iterate page by page, rather than asking for all rows
+                    // of index clause at once.
+                    entities = new ArrayList<Object>();
+                    Iterator<List<KeySlice>> pages = pageIndexedSlices(new ColumnParent(m.getTableName()),
+                            ix.getExpressions(), slicePredicate, ix.getCount());
+                    while (pages.hasNext())
+                    {
+                        Map<Bytes, List<Column>> qResults = ThriftDataResultHelper.transformThriftResult(
+                                ColumnFamilyType.COLUMN, pages.next(), null);
+                        computeEntityViaColumns(m, isRelation, relations, entities, qResults);
+                    }
                 }
             }
         }
@@ -955,10 +959,18 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
             log.error("Error during executing find of column family {}, Caused by: .", m.getTableName(), tex);
             throw new PersistenceException(tex);
         }
+        catch (KunderaException kex)
+        {
+            log.error("Error during executing find of column family {}, Caused by: .", m.getTableName(), kex);
+            throw new PersistenceException(kex.getCause());
+        }
         finally
         {
-            // PelopsUtils.releaseConnection(pool, conn);
-            releaseConnection(conn);
+            if (conn != null)
+            {
+                // PelopsUtils.releaseConnection(pool, conn);
+                releaseConnection(conn);
+            }
         }
         return entities;
     }
@@ -974,50 +986,14 @@ public class ThriftClient extends CassandraClientBase implements Client<CassQuer
     public List findByRange(byte[] minVal, byte[] maxVal, EntityMetadata m, boolean isWrapReq, List<String> relations,
             List<String> columns, List<IndexExpression> conditions, int maxResults) throws Exception
     {
-        SlicePredicate slicePredicate = new SlicePredicate();
-
-        if (columns != null && !columns.isEmpty())
-        {
-            List asList = new ArrayList(32);
-            for (String colName : columns)
-            {
-                if (colName != null)
-                {
-                    asList.add(Bytes.fromUTF8(colName).getBytes());
-                }
-            }
-            slicePredicate.setColumn_names(asList);
-        }
-        else
-        {
-            SliceRange sliceRange = new SliceRange();
-            sliceRange.setStart(Bytes.EMPTY.getBytes());
-            sliceRange.setFinish(Bytes.EMPTY.getBytes());
-            slicePredicate.setSlice_range(sliceRange);
-        }
-
-        KeyRange keyRange = new KeyRange(maxResults);
-        keyRange.setStart_key(minVal == null ? "".getBytes() : minVal);
-        keyRange.setEnd_key(maxVal == null ? "".getBytes() : maxVal);
-        ColumnParent cp = new ColumnParent(m.getTableName());
-
-        if (conditions != null && !conditions.isEmpty())
-        {
-            keyRange.setRow_filter(conditions);
-            keyRange.setRow_filterIsSet(true);
-        }
-
-        Connection conn = /* PelopsUtils.getCassandraConnection(pool) */getConection();
-
-        List<KeySlice> keys = conn.getClient().get_range_slices(cp, slicePredicate, keyRange, getConsistencyLevel());
-
-        // PelopsUtils.releaseConnection(pool, conn);
-        releaseConnection(conn);
-
-        List results = null;
-        if (keys != null)
+        // page through range rather than asking for all of maxResults rows at
+        // once.
+        List results = new ArrayList();
+        Iterator<List> pages = scrollByRange(minVal, maxVal, m, isWrapReq, relations, columns, conditions,
+                maxResults, KeySlicePager.DEFAULT_PAGE_SIZE);
+        while (pages.hasNext())
         {
-            results = populateEntitiesFromKeySlices(m, isWrapReq, relations, keys, dataHandler);
+            results.addAll(pages.next());
         }
         return results;
     }
@@ -17,6 +17,7 @@ package com.impetus.client.cassandra.thrift;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.CharacterCodingException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -91,6 +92,58 @@ public final class ThriftDataHandler extends CassandraDataHandlerBase implements
         return e;
     }
 
+    /**
+     * Fetches all rows in a single <code>multiget_slice</code> call instead of
+     * one <code>get_slice</code> per row key.
+     */
+    @Override
+    public List<Object> fromThriftRow(Class<?> clazz, EntityMetadata m, List<String> relationNames, boolean isWrapReq,
+            ConsistencyLevel consistencyLevel, Object... rowIds) throws Exception
+    {
+        List<Object> entities = new ArrayList<Object>();
+        if (rowIds == null || rowIds.length == 0)
+        {
+            return entities;
+        }
+
+        SlicePredicate predicate = new SlicePredicate();
+        predicate.setSlice_range(new SliceRange(Bytes.EMPTY.getBytes(), Bytes.EMPTY.getBytes(), true, 10000));
+
+        List<ByteBuffer> keys = new ArrayList<ByteBuffer>(rowIds.length);
+        for (Object rowKey : rowIds)
+        {
+            keys.add(ByteBuffer.wrap(PropertyAccessorHelper.toBytes(rowKey, m.getIdAttribute().getJavaType())));
+        }
+
+        Connection conn = thriftClient.getConection();
+        try
+        {
+            Map<ByteBuffer, List<ColumnOrSuperColumn>> rows = conn.getClient().multiget_slice(keys,
+                    new ColumnParent(m.getTableName()), predicate, consistencyLevel);
+
+            // Preserve order of supplied row keys.
+            for (ByteBuffer key : keys)
+            {
+                List<ColumnOrSuperColumn> columnOrSuperColumns = rows.get(key);
+                if (columnOrSuperColumns != null && !columnOrSuperColumns.isEmpty())
+                {
+                    Map<ByteBuffer, List<ColumnOrSuperColumn>> thriftColumnOrSuperColumns = new HashMap<ByteBuffer, List<ColumnOrSuperColumn>>();
+                    thriftColumnOrSuperColumns.put(key, columnOrSuperColumns);
+                    Object e = populateEntityFromSlice(m, relationNames, isWrapReq, null, thriftColumnOrSuperColumns);
+                    if (e != null)
+                    {
+                        entities.add(e);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            thriftClient.releaseConnection(conn);
+        }
+        return entities;
+    }
+
     @Override
     public <E> E fromThriftRow(Class<E> clazz, EntityMetadata m, DataRow<SuperColumn> tr) throws Exception
     {
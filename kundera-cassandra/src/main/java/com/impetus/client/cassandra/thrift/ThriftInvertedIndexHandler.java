@@ -16,12 +16,10 @@
 package com.impetus.client.cassandra.thrift;
 
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.cassandra.thrift.Column;
 import org.apache.cassandra.thrift.ColumnOrSuperColumn;
 import org.apache.cassandra.thrift.ColumnParent;
 import org.apache.cassandra.thrift.ColumnPath;
@@ -39,7 +37,6 @@ import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.impetus.client.cassandra.common.CassandraUtilities;
 import com.impetus.client.cassandra.datahandler.CassandraDataHandler;
 import com.impetus.client.cassandra.index.CassandraIndexHelper;
 import com.impetus.client.cassandra.index.InvertedIndexHandler;
@@ -50,7 +47,6 @@ import com.impetus.kundera.db.SearchResult;
 import com.impetus.kundera.graph.Node;
 import com.impetus.kundera.index.IndexingException;
 import com.impetus.kundera.metadata.model.EntityMetadata;
-import com.impetus.kundera.property.PropertyAccessorHelper;
 
 /**
  * Thrift implementation of {@link InvertedIndexHandler}
@@ -79,55 +75,19 @@ public class ThriftInvertedIndexHandler extends InvertedIndexHandlerBase impleme
 
         if (invertedIndexingApplicable)
         {
-            String indexColumnFamily = CassandraIndexHelper.getInvertedIndexTableName(entityMetadata.getTableName());
-
-            ThriftDataHandler thriftDataHandler = (ThriftDataHandler) cdHandler;
+            // All index rows of entity are written in one call.
+            Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap = new HashMap<ByteBuffer, Map<String, List<Mutation>>>();
+            prepareMutations(node.getData(), entityMetadata, cdHandler, mutationMap);
+            if (mutationMap.isEmpty())
+            {
+                return;
+            }
 
-            List<ThriftRow> indexThriftyRows = thriftDataHandler.toIndexThriftRow(node.getData(), entityMetadata,
-                    indexColumnFamily);
             Connection conn = thriftClient.getConection();
             try
             {
-                String keyspace = CassandraUtilities.getKeyspace(persistenceUnit);
-
-                for (ThriftRow thriftRow : indexThriftyRows)
-                {
-                    byte[] rowKey = PropertyAccessorHelper.toBytes(thriftRow.getId(), thriftRow.getId().getClass());
-
-                    // Create Insertion List
-                    List<Mutation> insertion_list = new ArrayList<Mutation>();
-
-                    List<Column> thriftColumns = thriftRow.getColumns();
-                    List<SuperColumn> thriftSuperColumns = thriftRow.getSuperColumns();
-                    if (thriftColumns != null && !thriftColumns.isEmpty())
-                    {
-                        for (Column column : thriftColumns)
-                        {
-                            Mutation mut = new Mutation();
-                            mut.setColumn_or_supercolumn(new ColumnOrSuperColumn().setColumn(column));
-                            insertion_list.add(mut);
-                        }
-                    }
-
-                    if (thriftSuperColumns != null && !thriftSuperColumns.isEmpty())
-                    {
-                        for (SuperColumn superColumn : thriftSuperColumns)
-                        {
-                            Mutation mut = new Mutation();
-                            mut.setColumn_or_supercolumn(new ColumnOrSuperColumn().setSuper_column(superColumn));
-                            insertion_list.add(mut);
-                        }
-                    }
-
-                    // Create Mutation Map
-                    Map<String, List<Mutation>> columnFamilyValues = new HashMap<String, List<Mutation>>();
-                    columnFamilyValues.put(indexColumnFamily, insertion_list);
-                    Map<ByteBuffer, Map<String, List<Mutation>>> mulationMap = new HashMap<ByteBuffer, Map<String, List<Mutation>>>();
-                    mulationMap.put(ByteBuffer.wrap(rowKey), columnFamilyValues);
-
-                    // Write Mutation map to database
-                    conn.getClient().batch_mutate(mulationMap, consistencyLevel);
-                }
+                // Write Mutation map to database
+                conn.getClient().batch_mutate(mutationMap, consistencyLevel);
             }
             catch (IllegalStateException e)
             {
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.cassandra.common;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.ColumnOrSuperColumn;
+import org.apache.cassandra.thrift.Mutation;
+import org.apache.cassandra.utils.ByteBufferUtil;
+import org.junit.Test;
+
+/**
+ * Junit for merging batch_mutate mutation maps in {@link CassandraUtilities}.
+ */
+public class CassandraUtilitiesTest
+{
+    @Test
+    public void testMergeMutations()
+    {
+        Map<ByteBuffer, Map<String, List<Mutation>>> target = new HashMap<ByteBuffer, Map<String, List<Mutation>>>();
+        CassandraUtilities.addMutations(target, ByteBufferUtil.bytes("1"), "PERSON", mutations("name"));
+        CassandraUtilities.addMutations(target, ByteBufferUtil.bytes("address.city"), "PERSON_INVRTD_IDX",
+                mutations("1"));
+
+        Map<ByteBuffer, Map<String, List<Mutation>>> source = new HashMap<ByteBuffer, Map<String, List<Mutation>>>();
+        CassandraUtilities.addMutations(source, ByteBufferUtil.bytes("2"), "PERSON", mutations("name"));
+        CassandraUtilities.addMutations(source, ByteBufferUtil.bytes("address.city"), "PERSON_INVRTD_IDX",
+                mutations("2"));
+
+        CassandraUtilities.mergeMutations(target, source);
+
+        Assert.assertEquals(3, target.size());
+        Assert.assertEquals(1, target.get(ByteBufferUtil.bytes("1")).get("PERSON").size());
+        Assert.assertEquals(1, target.get(ByteBufferUtil.bytes("2")).get("PERSON").size());
+
+        // index row of both entities is kept.
+        Assert.assertEquals(2, target.get(ByteBufferUtil.bytes("address.city")).get("PERSON_INVRTD_IDX").size());
+
+        // source is left as is.
+        Assert.assertEquals(1, source.get(ByteBufferUtil.bytes("address.city")).get("PERSON_INVRTD_IDX").size());
+    }
+
+    private static List<Mutation> mutations(String columnName)
+    {
+        Column column = new Column(ByteBufferUtil.bytes(columnName));
+        column.setValue(ByteBufferUtil.bytes("value"));
+        column.setTimestamp(System.currentTimeMillis());
+
+        List<Mutation> mutations = new ArrayList<Mutation>();
+        mutations.add(new Mutation().setColumn_or_supercolumn(new ColumnOrSuperColumn().setColumn(column)));
+        return mutations;
+    }
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.cassandra.common;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.apache.cassandra.thrift.ColumnOrSuperColumn;
+import org.apache.cassandra.thrift.KeySlice;
+import org.apache.cassandra.utils.ByteBufferUtil;
+import org.junit.Test;
+
+/**
+ * Junit for {@link KeySlicePager}, paging over an in memory list of rows.
+ */
+public class KeySlicePagerTest
+{
+    @Test
+    public void testPaging()
+    {
+        RowsPager pager = new RowsPager(rows(25), 10, Integer.MAX_VALUE);
+        List<String> keys = new ArrayList<String>();
+        int pages = 0;
+        while (pager.hasNext())
+        {
+            List<KeySlice> page = pager.next();
+            Assert.assertTrue(page.size() <= 10);
+            for (KeySlice slice : page)
+            {
+                keys.add(key(slice));
+            }
+            pages++;
+        }
+        Assert.assertEquals(3, pages);
+        Assert.assertEquals(25, keys.size());
+        Assert.assertEquals("k00", keys.get(0));
+        Assert.assertEquals("k10", keys.get(10));
+        Assert.assertEquals("k24", keys.get(24));
+
+        // no call asked for more than page size + 1 rows.
+        Assert.assertEquals(11, pager.maxCount);
+    }
+
+    @Test
+    public void testMaxRows()
+    {
+        RowsPager pager = new RowsPager(rows(25), 10, 15);
+        int count = 0;
+        while (pager.hasNext())
+        {
+            count += pager.next().size();
+        }
+        Assert.assertEquals(15, count);
+        Assert.assertEquals(2, pager.calls);
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        RowsPager pager = new RowsPager(rows(0), 10, Integer.MAX_VALUE);
+        Assert.assertFalse(pager.hasNext());
+        Assert.assertEquals(1, pager.calls);
+
+        // exact multiple of page size ends with a short page.
+        pager = new RowsPager(rows(20), 10, Integer.MAX_VALUE);
+        int count = 0;
+        while (pager.hasNext())
+        {
+            count += pager.next().size();
+        }
+        Assert.assertEquals(20, count);
+    }
+
+    private static List<KeySlice> rows(int n)
+    {
+        List<KeySlice> rows = new ArrayList<KeySlice>();
+        for (int i = 0; i < n; i++)
+        {
+            rows.add(new KeySlice(ByteBufferUtil.bytes(String.format("k%02d", i)),
+                    new ArrayList<ColumnOrSuperColumn>()));
+        }
+        return rows;
+    }
+
+    private static String key(KeySlice slice)
+    {
+        try
+        {
+            return ByteBufferUtil.string(ByteBuffer.wrap(slice.getKey()));
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Serves rows sorted by key, starting at given key inclusive.
+     */
+    private static class RowsPager extends KeySlicePager
+    {
+        private final List<KeySlice> rows;
+
+        private int calls;
+
+        private int maxCount;
+
+        RowsPager(List<KeySlice> rows, int pageSize, int maxRows)
+        {
+            super(null, pageSize, maxRows);
+            this.rows = rows;
+        }
+
+        @Override
+        protected List<KeySlice> fetch(byte[] startKey, int count)
+        {
+            calls++;
+            maxCount = Math.max(maxCount, count);
+            String start = startKey.length == 0 ? "" : new String(startKey);
+            List<KeySlice> page = new ArrayList<KeySlice>();
+            for (KeySlice row : rows)
+            {
+                if (page.size() < count && key(row).compareTo(start) >= 0)
+                {
+                    page.add(row);
+                }
+            }
+            return page;
+        }
+    }
+}
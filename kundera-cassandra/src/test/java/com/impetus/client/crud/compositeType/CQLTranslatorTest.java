@@ -15,7 +15,9 @@
  ******************************************************************************/
 package com.impetus.client.crud.compositeType;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 import javax.persistence.EntityManagerFactory;
@@ -30,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.impetus.client.cassandra.common.CassandraConstants;
+import com.impetus.client.cassandra.thrift.CQLStatementCache;
 import com.impetus.client.cassandra.thrift.CQLTranslator;
 import com.impetus.client.cassandra.thrift.CQLTranslator.TranslationType;
 import com.impetus.client.persistence.CassandraCli;
@@ -80,6 +83,42 @@ public class CQLTranslatorTest
         Assert.assertEquals(columnAsCsv, translatedSql);
     }
     
+    @Test
+    public void testPrepareColumnsAndValues()
+    {
+        CQLTranslator translator = new CQLTranslator();
+        UUID timeLineId = UUID.randomUUID();
+        Date currentDate = new Date();
+        CassandraCompoundKey key = new CassandraCompoundKey("mevivs", 1, timeLineId);
+        CassandraPrimeUser user = new CassandraPrimeUser(key);
+        user.setTweetBody("my first tweet");
+        user.setTweetDate(currentDate);
+        EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(CassandraPrimeUser.class);
+        List<String> columnNames = new ArrayList<String>();
+        List<Object> boundValues = new ArrayList<Object>();
+        translator.prepareColumnsAndValues(user, entityMetadata, null, null, columnNames, boundValues);
+        Assert.assertEquals(5, columnNames.size());
+        Assert.assertEquals("userId", columnNames.get(0));
+        Assert.assertEquals("tweetDate", columnNames.get(4));
+        Assert.assertEquals(5, boundValues.size());
+        Assert.assertEquals("mevivs", boundValues.get(0));
+        Assert.assertEquals(timeLineId, boundValues.get(2));
+        Assert.assertEquals(currentDate, boundValues.get(4));
+        Assert.assertTrue(CQLStatementCache.isBindable(boundValues));
+        Assert.assertTrue(translator.buildPreparedInsertQuery(entityMetadata.getTableName(), columnNames).contains(
+                "VALUES(?,?,?,?,?)"));
+
+        // null columns are skipped.
+        user.setTweetBody(null);
+        columnNames.clear();
+        boundValues.clear();
+        translator.prepareColumnsAndValues(user, entityMetadata, null, null, columnNames, boundValues);
+        Assert.assertFalse(columnNames.contains("tweetBody"));
+        Assert.assertEquals(4, boundValues.size());
+        Assert.assertTrue(translator.buildPreparedInsertQuery(entityMetadata.getTableName(), columnNames).contains(
+                "VALUES(?,?,?,?)"));
+    }
+
     @Test
     public void testGetKeyword()
     {
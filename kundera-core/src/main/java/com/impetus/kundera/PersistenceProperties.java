@@ -70,6 +70,19 @@ public interface PersistenceProperties
      */
     public static final String KUNDERA_INDEX_HOME_DIR = "index.home.dir";
 
+    /**
+     * Lucene index directory mode, either "ram" (default, index is held in
+     * memory and copied to {@link #KUNDERA_INDEX_HOME_DIR} on commit) or "nrt"
+     * (index is written directly to file system and searched near real time).
+     */
+    public static final String KUNDERA_INDEX_DIRECTORY_MODE = "kundera.index.directory.mode";
+
+    /** Max interval(in milliseconds) between lucene commits in "nrt" mode. */
+    public static final String KUNDERA_INDEX_COMMIT_INTERVAL = "kundera.index.commit.interval";
+
+    /** Number of index changes after which lucene commits in "nrt" mode. */
+    public static final String KUNDERA_INDEX_COMMIT_CHANGES = "kundera.index.commit.changes";
+
     /** Option to create schema. */
     public static final String KUNDERA_DDL_AUTO_PREPARE = "kundera.ddl.auto.prepare";
 
@@ -82,6 +95,15 @@ public interface PersistenceProperties
 
     public static final String KUNDERA_BATCH_SIZE = "kundera.batch.size";
 
+    /**
+     * Fetch associations of a page of query results in batch, "true" for all
+     * relations or comma separated relations as Entity.field.
+     */
+    public static final String KUNDERA_BATCH_FETCH = "kundera.batch.fetch";
+
+    /** Number of parsed jpa queries cached per entity manager factory, 0 to disable. */
+    public static final String KUNDERA_QUERY_PLAN_CACHE_SIZE = "kundera.query.plan.cache.size";
+
     public static final String KUNDERA_TRANSACTION_TIMEOUT = "kundera.transaction.timeout";
 
     /** Location where datastore file is stored */
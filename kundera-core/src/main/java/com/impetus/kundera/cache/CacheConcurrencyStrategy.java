@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.cache;
+
+/**
+ * Concurrency strategies supported by second level cache for an entity.
+ */
+public enum CacheConcurrencyStrategy
+{
+    /**
+     * Entity is never modified once written. Cached copy is only evicted on
+     * remove, any attempt to update it fails.
+     */
+    READ_ONLY,
+
+    /**
+     * Entity may be updated. Cached copy is evicted on every update and
+     * remove.
+     */
+    READ_WRITE;
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit/miss counters of second level cache, shared by all entity managers of
+ * an entity manager factory.
+ */
+public class CacheStatistics
+{
+
+    /** The hit count. */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /** The miss count. */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /** The put count. */
+    private final AtomicLong putCount = new AtomicLong();
+
+    /** The eviction count. */
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    void onHit()
+    {
+        hitCount.incrementAndGet();
+    }
+
+    void onMiss()
+    {
+        missCount.incrementAndGet();
+    }
+
+    void onPut()
+    {
+        putCount.incrementAndGet();
+    }
+
+    void onEviction()
+    {
+        evictionCount.incrementAndGet();
+    }
+
+    /**
+     * @return number of lookups served from cache.
+     */
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    /**
+     * @return number of lookups not found in cache.
+     */
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    /**
+     * @return number of entities put into cache.
+     */
+    public long getPutCount()
+    {
+        return putCount.get();
+    }
+
+    /**
+     * @return number of entities evicted from cache.
+     */
+    public long getEvictionCount()
+    {
+        return evictionCount.get();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void clear()
+    {
+        hitCount.set(0);
+        missCount.set(0);
+        putCount.set(0);
+        evictionCount.set(0);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder("CacheStatistics [");
+        builder.append("hits=").append(getHitCount());
+        builder.append(", misses=").append(getMissCount());
+        builder.append(", puts=").append(getPutCount());
+        builder.append(", evictions=").append(getEvictionCount());
+        builder.append("]");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.impetus.kundera.graph.ObjectGraphUtils;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.utils.ObjectUtils;
+
+/**
+ * Shared (second level) entity cache of an entity manager factory. Only
+ * entities marked as {@link javax.persistence.Cacheable} and not holding any
+ * association are cached, as related entities can not be invalidated
+ * consistently. Detached copies are stored into and returned from cache, so
+ * that no entity manager ever shares an instance with another one.
+ */
+public class SecondLevelCacheManager
+{
+
+    /** The Constant log. */
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheManager.class);
+
+    /** The cache. */
+    private final Cache cache;
+
+    /** The statistics. */
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    /**
+     * Instantiates a new second level cache manager.
+     * 
+     * @param cache
+     *            cache created by configured cache provider.
+     */
+    public SecondLevelCacheManager(javax.persistence.Cache cache)
+    {
+        this.cache = cache instanceof Cache ? (Cache) cache : null;
+    }
+
+    /**
+     * Returns true, if entities of given metadata are to be cached.
+     * 
+     * @param m
+     *            entity metadata
+     * @return true, if cacheable.
+     */
+    public boolean isCacheable(EntityMetadata m)
+    {
+        return cache != null && m != null && m.isCacheable()
+                && (m.getRelationNames() == null || m.getRelationNames().isEmpty()) && !m.isRelationViaJoinTable();
+    }
+
+    /**
+     * Returns copy of cached entity for given primary key or null, if it is
+     * not in cache.
+     * 
+     * @param m
+     *            entity metadata
+     * @param primaryKey
+     *            primary key
+     * @return cached entity copy.
+     */
+    public Object get(EntityMetadata m, Object primaryKey)
+    {
+        if (!isCacheable(m))
+        {
+            return null;
+        }
+
+        Object cached = cache.get(getCacheKey(m, primaryKey));
+        if (cached == null)
+        {
+            statistics.onMiss();
+            return null;
+        }
+        statistics.onHit();
+        return ObjectUtils.deepCopy(cached);
+    }
+
+    /**
+     * Puts a copy of loaded entity into cache.
+     * 
+     * @param m
+     *            entity metadata
+     * @param primaryKey
+     *            primary key
+     * @param entity
+     *            loaded entity
+     */
+    public void put(EntityMetadata m, Object primaryKey, Object entity)
+    {
+        if (entity != null && isCacheable(m))
+        {
+            cache.put(getCacheKey(m, primaryKey), ObjectUtils.deepCopy(entity));
+            statistics.onPut();
+        }
+    }
+
+    /**
+     * Invalidates cached entity, invoked whenever entity is written to
+     * database.
+     * 
+     * @param m
+     *            entity metadata
+     * @param primaryKey
+     *            primary key
+     * @param isUpdate
+     *            true, if entity is being updated.
+     * @throws CacheException
+     *             if entity is cached as {@link CacheConcurrencyStrategy#READ_ONLY}
+     *             and is being updated.
+     */
+    public void evict(EntityMetadata m, Object primaryKey, boolean isUpdate)
+    {
+        if (isCacheable(m))
+        {
+            if (isUpdate && CacheConcurrencyStrategy.READ_ONLY.equals(m.getCacheConcurrencyStrategy()))
+            {
+                log.error("Entity {} is cached as read only, can not be updated.", m.getEntityClazz());
+                throw new CacheException("Entity " + m.getEntityClazz() + " is cached as read only, can not be updated");
+            }
+            cache.evict(m.getEntityClazz(), getCacheKey(m, primaryKey));
+            statistics.onEviction();
+        }
+    }
+
+    /**
+     * Returns hit/miss counters of this cache.
+     * 
+     * @return cache statistics.
+     */
+    public CacheStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+    private String getCacheKey(EntityMetadata m, Object primaryKey)
+    {
+        return ObjectGraphUtils.getNodeId(primaryKey, m.getEntityClazz());
+    }
+}
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.classreading;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads entity index written at build time by {@link EntityIndexProcessor}.
+ * Index is a plain text file holding one fully qualified class name per
+ * line, lines starting with <code>#</code> are comments. Every index found on
+ * classpath is read, so entities packaged across several jars are all listed.
+ */
+public final class EntityIndex
+{
+    /** Location of index within a jar or classes directory. */
+    public static final String INDEX_LOCATION = "META-INF/kundera-entities.idx";
+
+    /** The log. */
+    private static Logger log = LoggerFactory.getLogger(EntityIndex.class);
+
+    private EntityIndex()
+    {
+    }
+
+    /**
+     * Returns names of indexed entity classes.
+     * 
+     * @param classLoader
+     *            class loader to look index up with.
+     * @return entity class names, null if there is no index on classpath.
+     */
+    public static List<String> read(ClassLoader classLoader)
+    {
+        Enumeration<URL> indexes;
+        try
+        {
+            indexes = classLoader.getResources(INDEX_LOCATION);
+        }
+        catch (IOException e)
+        {
+            log.error("Error while looking up entity index, Caused by:" + e.getMessage());
+            throw new ResourceReadingException(e);
+        }
+
+        if (indexes == null || !indexes.hasMoreElements())
+        {
+            return null;
+        }
+
+        Set<String> classNames = new LinkedHashSet<String>();
+        while (indexes.hasMoreElements())
+        {
+            URL index = indexes.nextElement();
+            log.debug("Reading entity index " + index);
+            try
+            {
+                read(index.openStream(), classNames);
+            }
+            catch (IOException e)
+            {
+                log.error("Error while reading entity index " + index + ", Caused by:" + e.getMessage());
+                throw new ResourceReadingException(e);
+            }
+        }
+        return new ArrayList<String>(classNames);
+    }
+
+    /**
+     * Returns true, if given jar or classes directory carries an index of its
+     * own.
+     * 
+     * @param resource
+     *            jar or directory url.
+     * @return true, if resource is indexed.
+     */
+    public static boolean isIndexed(URL resource)
+    {
+        String url = resource.toString();
+        if (url.endsWith("!/"))
+        {
+            // jar:file:/a.jar!/ to file:/a.jar
+            try
+            {
+                resource = new URL(url.substring(4, url.length() - 2));
+            }
+            catch (IOException e)
+            {
+                throw new ResourceReadingException(e);
+            }
+        }
+        else if (url.endsWith(".class"))
+        {
+            return false;
+        }
+        return new URLClassLoader(new URL[] { resource }, null).findResource(INDEX_LOCATION) != null;
+    }
+
+    /**
+     * Reads class names of an index into given set.
+     * 
+     * @param is
+     *            index stream, closed once read.
+     * @param classNames
+     *            class names read so far.
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    static void read(InputStream is, Set<String> classNames) throws IOException
+    {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
+        try
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#"))
+                {
+                    classNames.add(line);
+                }
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+}
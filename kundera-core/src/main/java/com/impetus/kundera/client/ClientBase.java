@@ -19,6 +19,7 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.impetus.kundera.db.RelationHolder;
 import com.impetus.kundera.graph.Node;
@@ -50,6 +51,12 @@ public abstract class ClientBase
     protected String persistenceUnit;
 
     protected boolean isUpdate;
+
+    /**
+     * Names of changed attributes of entity being updated, null if all
+     * attributes are to be written.
+     */
+    protected Set<String> dirtyFields;
     
     protected ClientMetadata clientMetadata;
 
@@ -84,6 +91,7 @@ public abstract class ClientBase
         Object id = node.getEntityId();
         EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
         isUpdate = node.isUpdate();
+        dirtyFields = getDirtyFields(node);
         List<RelationHolder> relationHolders = getRelationHolders(node);
         /* id = */onPersist(metadata, entity, id, relationHolders);
         id = PropertyAccessorHelper.getId(entity, metadata);
@@ -91,6 +99,32 @@ public abstract class ClientBase
         indexNode(node, metadata);
     }
 
+    /**
+     * Returns names of changed attributes for an update of node, null if node
+     * is not an update or all attributes are to be written.
+     * 
+     * @param node
+     * @return dirty attribute names.
+     */
+    protected Set<String> getDirtyFields(Node node)
+    {
+        return node.isUpdate() ? node.getDirtyFields() : null;
+    }
+
+    /**
+     * Returns true if given attribute of entity being persisted is to be
+     * written.
+     * 
+     * @param attributeName
+     *            attribute name.
+     * @return true, if attribute is changed or all attributes are to be
+     *         written.
+     */
+    protected boolean isDirtyField(String attributeName)
+    {
+        return dirtyFields == null || dirtyFields.contains(attributeName);
+    }
+
     /**
      * @param node
      * @return
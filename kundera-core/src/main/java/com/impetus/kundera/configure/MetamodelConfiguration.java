@@ -25,8 +25,16 @@ import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javassist.bytecode.AnnotationsAttribute;
 import javassist.bytecode.ClassFile;
@@ -41,6 +49,7 @@ import org.slf4j.LoggerFactory;
 
 import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.classreading.ClasspathReader;
+import com.impetus.kundera.classreading.EntityIndex;
 import com.impetus.kundera.classreading.Reader;
 import com.impetus.kundera.classreading.ResourceIterator;
 import com.impetus.kundera.loader.MetamodelLoaderException;
@@ -56,6 +65,7 @@ import com.impetus.kundera.metadata.processor.GeneratedValueProcessor;
 import com.impetus.kundera.metadata.validator.EntityValidator;
 import com.impetus.kundera.metadata.validator.EntityValidatorImpl;
 import com.impetus.kundera.utils.KunderaCoreUtils;
+import com.impetus.kundera.utils.KunderaThreadFactory;
 
 /**
  * The Metamodel configurer: a) Configure application meta data b) loads entity
@@ -182,6 +192,11 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
             // resources = reader.findResourcesByContextLoader();
         }
 
+        // Entities indexed at build time, jars carrying an index are not
+        // scanned.
+        List<String> indexedClasses = classesToScan == null || classesToScan.isEmpty() ? EntityIndex.read(this
+                .getClass().getClassLoader()) : null;
+
         InputStream[] iStreams = null;
         if (this.getClass().getClassLoader() instanceof URLClassLoader)
         {
@@ -216,28 +231,17 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
         Map<String, List<String>> puToClazzMap = new HashMap<String, List<String>>();
         Map<String, IdDiscriptor> entityNameToKeyDiscriptorMap = new HashMap<String, IdDiscriptor>();
         List<Class<?>> classes = new ArrayList<Class<?>>();
+
+        // Entity classes in order of discovery, metadata is built once all are
+        // known.
+        Set<Class<?>> entityClasses = new LinkedHashSet<Class<?>>();
         if (resources != null && resources.length > 0)
         {
-            for (URL resource : resources)
-            {
-                try
-                {
-                    ResourceIterator itr = reader.getResourceIterator(resource, reader.getFilter());
-
-                    InputStream is = null;
-                    while ((is = itr.next()) != null)
-                    {
-                        classes.addAll(scanClassAndPutMetadata(is, reader, entityMetadataMap, entityNameToClassMap,
-                                persistenceUnit, client, puToClazzMap, entityNameToKeyDiscriptorMap));
-                    }
-                }
-                catch (IOException e)
-                {
-                    log.error("Error while retreiving and storing entity metadata. Details:", e);
-                    throw new MetamodelLoaderException("Error while retreiving and storing entity metadata");
-
-                }
-            }
+            findEntityClasses(indexedClasses, resources, reader, entityClasses);
+        }
+        else if (indexedClasses != null)
+        {
+            findEntityClasses(indexedClasses, new URL[] {}, reader, entityClasses);
         }
         else if (iStreams != null)
         {
@@ -247,8 +251,7 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
                 {
                     try
                     {
-                        classes.addAll(scanClassAndPutMetadata(is, reader, entityMetadataMap, entityNameToClassMap,
-                                persistenceUnit, client, puToClazzMap, entityNameToKeyDiscriptorMap));
+                        scanClass(is, reader, entityClasses);
                     }
                     finally
                     {
@@ -267,6 +270,14 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
 
             }
         }
+
+        Map<Class<?>, EntityMetadata> builtMetadata = buildEntityMetadata(entityClasses, persistenceUnit, client);
+        for (Class<?> clazz : entityClasses)
+        {
+            putMetadata(clazz, builtMetadata.get(clazz), classes, entityMetadataMap, entityNameToClassMap,
+                    persistenceUnit, puToClazzMap, entityNameToKeyDiscriptorMap);
+        }
+
         ((MetamodelImpl) metamodel).setEntityMetadataMap(entityMetadataMap);
         appMetadata.getMetamodelMap().put(persistenceUnit, metamodel);
         appMetadata.setClazzToPuMap(puToClazzMap);
@@ -316,31 +327,74 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
     }
 
     /**
-     * Scan class and put metadata.
+     * Collects entity classes listed in build time index, and scans those
+     * resources which carry no index of their own. An indexed resource is
+     * never scanned, so an application may index some of its jars only.
+     * 
+     * @param indexedClasses
+     *            class names read from all indexes on classpath, or null.
+     * @param resources
+     *            jars or directories to look entities up in.
+     * @param reader
+     *            the reader
+     * @param entityClasses
+     *            entity classes found so far.
+     */
+    void findEntityClasses(List<String> indexedClasses, URL[] resources, Reader reader, Set<Class<?>> entityClasses)
+    {
+        if (indexedClasses != null)
+        {
+            for (String className : indexedClasses)
+            {
+                loadIndexedClass(className, entityClasses);
+            }
+        }
+
+        for (URL resource : resources)
+        {
+            if (indexedClasses != null && EntityIndex.isIndexed(resource))
+            {
+                log.debug("Entities of " + resource + " loaded from " + EntityIndex.INDEX_LOCATION
+                        + ", it will not be scanned");
+                continue;
+            }
+
+            try
+            {
+                ResourceIterator itr = reader.getResourceIterator(resource, reader.getFilter());
+
+                InputStream is = null;
+                while ((is = itr.next()) != null)
+                {
+                    scanClass(is, reader, entityClasses);
+                }
+            }
+            catch (IOException e)
+            {
+                log.error("Error while retreiving and storing entity metadata. Details:", e);
+                throw new MetamodelLoaderException("Error while retreiving and storing entity metadata");
+
+            }
+        }
+    }
+
+    /**
+     * Scan class and collect it if it is an entity.
      * 
      * @param bits
      *            the bits
      * @param reader
      *            the reader
-     * @param entityMetadataMap
-     *            the entity metadata map
-     * @param entityNameToClassMap
-     *            the entity name to class map
-     * @param keyDiscriptor
-     * @param persistence
-     *            unit the persistence unit.
+     * @param entityClasses
+     *            entity classes found so far.
      * @throws IOException
      *             Signals that an I/O exception has occurred.
      */
-    private List<Class<?>> scanClassAndPutMetadata(InputStream bits, Reader reader,
-            Map<String, EntityMetadata> entityMetadataMap, Map<String, Class<?>> entityNameToClassMap,
-            String persistenceUnit, String client, Map<String, List<String>> clazzToPuMap,
-            Map<String, IdDiscriptor> entityNameToKeyDiscriptorMap) throws IOException
+    private void scanClass(InputStream bits, Reader reader, Set<Class<?>> entityClasses) throws IOException
     {
         DataInputStream dstream = new DataInputStream(new BufferedInputStream(bits));
         ClassFile cf = null;
         String className = null;
-        List<Class<?>> classes = new ArrayList<Class<?>>();
 
         try
         {
@@ -363,48 +417,7 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
                     // Class<?> clazz =
                     // Thread.currentThread().getContextClassLoader().loadClass(className);
 
-                    Class<?> clazz = this.getClass().getClassLoader().loadClass(className);
-
-                    if (entityNameToClassMap.containsKey(clazz.getSimpleName())
-                            && !entityNameToClassMap.get(clazz.getSimpleName()).getName().equals(clazz.getName()))
-                    {
-                        throw new MetamodelLoaderException("Name conflict between classes "
-                                + entityNameToClassMap.get(clazz.getSimpleName()).getName() + " and " + clazz.getName()
-                                + ". Make sure no two entity classes with the same name "
-                                + " are specified for persistence unit " + persistenceUnit);
-                    }
-
-                    entityNameToClassMap.put(clazz.getSimpleName(), clazz);
-
-                    EntityMetadata metadata = entityMetadataMap.get(clazz);
-                    if (null == metadata)
-                    {
-                        log.debug("Metadata not found in cache for " + clazz.getName());
-                        // double check locking.
-                        synchronized (clazz)
-                        {
-                            if (null == metadata)
-                            {
-                                MetadataBuilder metadataBuilder = new MetadataBuilder(persistenceUnit, client,
-                                        KunderaCoreUtils.getExternalProperties(persistenceUnit, externalPropertyMap,
-                                                persistenceUnits));
-                                metadata = metadataBuilder.buildEntityMetadata(clazz);
-
-                                // in case entity's pu does not belong to parse
-                                // persistence unit, it will be null.
-                                if (metadata != null)
-                                {
-                                    entityMetadataMap.put(clazz.getName(), metadata);
-                                    mapClazztoPu(clazz, persistenceUnit, clazzToPuMap);
-                                    processGeneratedValueAnnotation(clazz, persistenceUnit, metadata,
-                                            entityNameToKeyDiscriptorMap);
-                                }
-                            }
-                        }
-                    }
-
-                    // TODO :
-                    onValidateClientProperties(classes, clazz, persistenceUnit);
+                    entityClasses.add(this.getClass().getClassLoader().loadClass(className));
                 }
             }
         }
@@ -423,8 +436,173 @@ public class MetamodelConfiguration extends AbstractSchemaConfiguration implemen
                 bits.close();
             }
         }
+    }
 
-        return classes;
+    /**
+     * Load class listed in entity index and collect it if it is an entity.
+     * 
+     * @param className
+     *            the class name
+     * @param entityClasses
+     *            entity classes found so far.
+     */
+    private void loadIndexedClass(String className, Set<Class<?>> entityClasses)
+    {
+        try
+        {
+            Class<?> clazz = this.getClass().getClassLoader().loadClass(className);
+
+            // index may be stale.
+            if (clazz.isAnnotationPresent(Entity.class))
+            {
+                entityClasses.add(clazz);
+            }
+            else
+            {
+                log.warn("Class " + className + " listed in " + EntityIndex.INDEX_LOCATION
+                        + " is not an entity, it won't be loaded as entity");
+            }
+        }
+        catch (ClassNotFoundException e)
+        {
+            log.error("Class " + className + " not found, it won't be loaded as entity");
+        }
+    }
+
+    /**
+     * Builds metadata of entity classes. Entities are independent of each
+     * other, so metadata is built on a pool of threads, one task per entity.
+     * 
+     * @param entityClasses
+     *            entity classes.
+     * @param persistenceUnit
+     *            the persistence unit.
+     * @param client
+     *            client factory.
+     * @return metadata per entity class, null value if entity does not belong
+     *         to persistence unit.
+     */
+    private Map<Class<?>, EntityMetadata> buildEntityMetadata(Set<Class<?>> entityClasses,
+            final String persistenceUnit, final String client)
+    {
+        final Map<String, Object> puProperties = KunderaCoreUtils.getExternalProperties(persistenceUnit,
+                externalPropertyMap, persistenceUnits);
+        Map<Class<?>, EntityMetadata> metadataMap = new HashMap<Class<?>, EntityMetadata>();
+
+        int nThreads = getNumberOfThreads(entityClasses.size());
+        if (nThreads <= 1)
+        {
+            for (Class<?> clazz : entityClasses)
+            {
+                metadataMap.put(clazz,
+                        new MetadataBuilder(persistenceUnit, client, puProperties).buildEntityMetadata(clazz));
+            }
+            return metadataMap;
+        }
+
+        List<Callable<EntityMetadata>> tasks = new ArrayList<Callable<EntityMetadata>>(entityClasses.size());
+        for (final Class<?> clazz : entityClasses)
+        {
+            tasks.add(new Callable<EntityMetadata>()
+            {
+                @Override
+                public EntityMetadata call()
+                {
+                    log.debug("Building metadata for " + clazz.getName());
+                    return new MetadataBuilder(persistenceUnit, client, puProperties).buildEntityMetadata(clazz);
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads,
+                new KunderaThreadFactory(MetamodelConfiguration.class.getName()));
+        try
+        {
+            List<Future<EntityMetadata>> results = executor.invokeAll(tasks);
+            Iterator<Future<EntityMetadata>> iter = results.iterator();
+            for (Class<?> clazz : entityClasses)
+            {
+                metadataMap.put(clazz, iter.next().get());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new MetamodelLoaderException("Interrupted while building entity metadata for persistence unit "
+                    + persistenceUnit, e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MetamodelLoaderException("Error while building entity metadata, Caused by : .", e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        return metadataMap;
+    }
+
+    /**
+     * Returns number of threads to build entity metadata on, at most one per
+     * processor and entity.
+     * 
+     * @param nEntities
+     *            number of entity classes.
+     * @return number of threads, metadata is built serially if 1 or less.
+     */
+    int getNumberOfThreads(int nEntities)
+    {
+        return Math.min(Runtime.getRuntime().availableProcessors(), nEntities);
+    }
+
+    /**
+     * Put metadata of an entity class.
+     * 
+     * @param clazz
+     *            the entity class
+     * @param metadata
+     *            metadata of entity class, null if it does not belong to
+     *            persistence unit.
+     * @param classes
+     *            entity classes loaded so far
+     * @param entityMetadataMap
+     *            the entity metadata map
+     * @param entityNameToClassMap
+     *            the entity name to class map
+     * @param persistenceUnit
+     *            the persistence unit.
+     */
+    private void putMetadata(Class<?> clazz, EntityMetadata metadata, List<Class<?>> classes,
+            Map<String, EntityMetadata> entityMetadataMap, Map<String, Class<?>> entityNameToClassMap,
+            String persistenceUnit, Map<String, List<String>> clazzToPuMap,
+            Map<String, IdDiscriptor> entityNameToKeyDiscriptorMap)
+    {
+        if (entityNameToClassMap.containsKey(clazz.getSimpleName())
+                && !entityNameToClassMap.get(clazz.getSimpleName()).getName().equals(clazz.getName()))
+        {
+            throw new MetamodelLoaderException("Name conflict between classes "
+                    + entityNameToClassMap.get(clazz.getSimpleName()).getName() + " and " + clazz.getName()
+                    + ". Make sure no two entity classes with the same name "
+                    + " are specified for persistence unit " + persistenceUnit);
+        }
+
+        entityNameToClassMap.put(clazz.getSimpleName(), clazz);
+
+        // in case entity's pu does not belong to parse
+        // persistence unit, it will be null.
+        if (metadata != null)
+        {
+            entityMetadataMap.put(clazz.getName(), metadata);
+            mapClazztoPu(clazz, persistenceUnit, clazzToPuMap);
+            processGeneratedValueAnnotation(clazz, persistenceUnit, metadata, entityNameToKeyDiscriptorMap);
+        }
+
+        // TODO :
+        onValidateClientProperties(classes, clazz, persistenceUnit);
     }
 
     /**
@@ -19,9 +19,15 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EmbeddableType;
@@ -61,6 +67,7 @@ import com.impetus.kundera.metadata.validator.EntityValidator;
 import com.impetus.kundera.metadata.validator.EntityValidatorImpl;
 import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.utils.KunderaCoreUtils;
+import com.impetus.kundera.utils.KunderaThreadFactory;
 
 /**
  * Schema configuration implementation to support ddl_schema_creation
@@ -160,7 +167,11 @@ public class SchemaConfiguration extends AbstractSchemaConfiguration implements
 
         }
 
-        // Need to iterate, as in case of non unary relations
+        // Need to iterate, as in case of non unary relations. Persistence
+        // units are grouped by schema manager, schema managers of a datastore
+        // may share state(e.g. connection), so they are run one after another.
+        // Different datastores are independent, hence exported concurrently.
+        Map<String, List<String>> managerToPus = new LinkedHashMap<String, List<String>>();
         for (String persistenceUnit : persistenceUnits)
         {
             PersistenceUnitMetadata puMetadata = appMetadata.getPersistenceUnitMetadata(persistenceUnit);
@@ -173,10 +184,80 @@ public class SchemaConfiguration extends AbstractSchemaConfiguration implements
 
                 if (schemaManager != null)
                 {
-                    schemaManager.exportSchema(persistenceUnit, puToSchemaMetadata.get(persistenceUnit));
+                    String manager = schemaManager.getClass().getName();
+                    if (!managerToPus.containsKey(manager))
+                    {
+                        managerToPus.put(manager, new ArrayList<String>());
+                    }
+                    managerToPus.get(manager).add(persistenceUnit);
+                }
+            }
+        }
+
+        if (managerToPus.size() <= 1)
+        {
+            for (List<String> pus : managerToPus.values())
+            {
+                exportSchema(pus);
+            }
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(managerToPus.size());
+        for (final List<String> pus : managerToPus.values())
+        {
+            tasks.add(new Callable<Void>()
+            {
+                @Override
+                public Void call()
+                {
+                    exportSchema(pus);
+                    return null;
                 }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size(), new KunderaThreadFactory(
+                SchemaConfiguration.class.getName()));
+        try
+        {
+            for (Future<Void> result : executor.invokeAll(tasks))
+            {
+                result.get();
             }
         }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new SchemaGenerationException("Interrupted while exporting schema", e, null);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SchemaGenerationException("Error while exporting schema", e.getCause(), null);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Exports schema of given persistence units, one after another.
+     * 
+     * @param pus
+     *            persistence units.
+     */
+    private void exportSchema(List<String> pus)
+    {
+        for (String persistenceUnit : pus)
+        {
+            getSchemaManagerForPu(persistenceUnit).exportSchema(persistenceUnit,
+                    puToSchemaMetadata.get(persistenceUnit));
+        }
     }
 
     /**
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.generator;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pooled (hi/lo) id optimizer for {@link TableGenerator} and
+ * {@link SequenceGenerator}, one per entity manager factory. A client generator
+ * reserves a block of <code>allocationSize</code> ids in one round trip and
+ * returns its first id, remaining ids of block are then served from memory.
+ */
+public final class IdBlockPool
+{
+    private final ConcurrentMap<String, IdBlock> blocks = new ConcurrentHashMap<String, IdBlock>();
+
+    /**
+     * Returns next id for given generator, reserving a new block via allocator
+     * once current block is exhausted.
+     *
+     * @param generatorKey
+     *            unique name of generator (e.g. schema, table and pk column
+     *            value).
+     * @param allocationSize
+     *            number of ids reserved per block.
+     * @param allocator
+     *            reserves a new block and returns its first id.
+     * @return next id.
+     */
+    public Object next(String generatorKey, int allocationSize, BlockAllocator allocator)
+    {
+        IdBlock block = blocks.get(generatorKey);
+        if (block == null)
+        {
+            IdBlock newBlock = new IdBlock(allocationSize > 0 ? allocationSize : 1);
+            block = blocks.putIfAbsent(generatorKey, newBlock);
+            if (block == null)
+            {
+                block = newBlock;
+            }
+        }
+        return block.next(allocator);
+    }
+
+    /**
+     * Discards all reserved ids, unused ids of current blocks are lost.
+     */
+    public void clear()
+    {
+        blocks.clear();
+    }
+
+    /**
+     * Reserves a block of ids with datastore.
+     */
+    public interface BlockAllocator
+    {
+        /**
+         * @return first id of newly reserved block.
+         */
+        Object allocate();
+    }
+
+    /**
+     * In memory range of reserved ids of a generator.
+     */
+    private static final class IdBlock
+    {
+        private final int allocationSize;
+
+        private long next;
+
+        private long last = -1;
+
+        private boolean allocated;
+
+        private IdBlock(int allocationSize)
+        {
+            this.allocationSize = allocationSize;
+        }
+
+        private synchronized Object next(BlockAllocator allocator)
+        {
+            if (!allocated || next > last)
+            {
+                Object start = allocator.allocate();
+                if (!(start instanceof Number))
+                {
+                    // non numeric ids can not be pooled.
+                    return start;
+                }
+                next = ((Number) start).longValue();
+                last = next + allocationSize - 1;
+                allocated = true;
+            }
+            return next++;
+        }
+    }
+}
@@ -29,7 +29,10 @@ public interface SequenceGenerator extends Generator
     /**
      * generate id on the basis of {@SequenceGeneratorDiscriptor
      * 
-     * } property.
+     * } property. Each call reserves a block of
+     * {@link SequenceGeneratorDiscriptor#getAllocationSize()} consecutive ids
+     * and returns first of them, remaining ids are served by
+     * {@link IdBlockPool}.
      * 
      * @param discriptor
      * @return
@@ -30,7 +30,9 @@ public interface TableGenerator extends Generator
      * generate id on the basis of {@TableGeneratorDiscriptor
      * 
      * 
-     * } property.
+     * } property. Each call reserves a block of
+     * {@link TableGeneratorDiscriptor#getAllocationSize()} consecutive ids and
+     * returns first of them, remaining ids are served by {@link IdBlockPool}.
      * 
      * @param discriptor
      * @return
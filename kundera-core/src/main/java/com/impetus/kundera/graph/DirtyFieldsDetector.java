@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.graph;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.Attribute.PersistentAttributeType;
+import javax.persistence.metamodel.EntityType;
+
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.MetamodelImpl;
+import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.proxy.ProxyHelper;
+import com.impetus.kundera.utils.DeepEquals;
+
+/**
+ * Attribute level change detection of an entity against its managed copy held
+ * by persistence cache. Attributes are compared one by one, so cost is bound
+ * by number of attributes instead of size of reachable object graph: basic
+ * attributes by value, embeddables and element collections by deep equality
+ * of that attribute alone and associations by identity of associated
+ * entities, whose own changes are detected on their own nodes.
+ */
+final class DirtyFieldsDetector
+{
+    private DirtyFieldsDetector()
+    {
+    }
+
+    /**
+     * Returns names of attributes changed in entity with respect to its
+     * managed copy.
+     *
+     * @param snapshot
+     *            managed copy of entity.
+     * @param entity
+     *            entity.
+     * @param m
+     *            entity metadata.
+     * @return names of changed attributes, empty if nothing changed and null
+     *         if an association changed, in which case whole entity is to be
+     *         written.
+     */
+    static Set<String> getDirtyFields(Object snapshot, Object entity, EntityMetadata m)
+    {
+        if (snapshot == null || !snapshot.getClass().equals(entity.getClass()))
+        {
+            return null;
+        }
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadataManager.getMetamodel(m.getPersistenceUnit());
+        EntityType entityType = metaModel.entity(m.getEntityClazz());
+        String idName = m.getIdAttribute().getName();
+
+        Set<String> dirtyFields = new HashSet<String>();
+        for (Object o : entityType.getAttributes())
+        {
+            Attribute attribute = (Attribute) o;
+            if (attribute.getName().equals(idName))
+            {
+                continue;
+            }
+
+            Field field = (Field) attribute.getJavaMember();
+            Object oldValue = PropertyAccessorHelper.getObject(snapshot, field);
+            Object newValue = PropertyAccessorHelper.getObject(entity, field);
+
+            if (attribute.isAssociation())
+            {
+                if (!isSameAssociation(oldValue, newValue))
+                {
+                    return null;
+                }
+            }
+            else if (!isEqual(oldValue, newValue, attribute.getPersistentAttributeType()))
+            {
+                dirtyFields.add(attribute.getName());
+            }
+        }
+        return dirtyFields;
+    }
+
+    private static boolean isEqual(Object oldValue, Object newValue, PersistentAttributeType type)
+    {
+        if (oldValue == newValue)
+        {
+            return true;
+        }
+        else if (oldValue == null || newValue == null)
+        {
+            return false;
+        }
+        else if (oldValue.getClass().isArray())
+        {
+            return Arrays.deepEquals(new Object[] { oldValue }, new Object[] { newValue });
+        }
+        else if (type.equals(PersistentAttributeType.BASIC))
+        {
+            return oldValue.equals(newValue);
+        }
+        return DeepEquals.deepEquals(oldValue, newValue);
+    }
+
+    /**
+     * Returns true if both values refer to same associated entities. Lazily
+     * loaded associations are treated as unchanged.
+     */
+    private static boolean isSameAssociation(Object oldValue, Object newValue)
+    {
+        if (oldValue == null || newValue == null)
+        {
+            return oldValue == newValue;
+        }
+        else if (ProxyHelper.isProxyOrCollection(oldValue) || ProxyHelper.isProxyOrCollection(newValue))
+        {
+            return ProxyHelper.isProxyOrCollection(oldValue) && ProxyHelper.isProxyOrCollection(newValue);
+        }
+        else if (oldValue instanceof Collection && newValue instanceof Collection)
+        {
+            return getIds((Collection) oldValue).equals(getIds((Collection) newValue));
+        }
+        else if (oldValue instanceof Map && newValue instanceof Map)
+        {
+            return getIds((Map) oldValue).equals(getIds((Map) newValue));
+        }
+        return isSameEntity(oldValue, newValue);
+    }
+
+    private static boolean isSameEntity(Object oldValue, Object newValue)
+    {
+        if (!oldValue.getClass().equals(newValue.getClass()))
+        {
+            return false;
+        }
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(newValue.getClass());
+        if (metadata == null)
+        {
+            return DeepEquals.deepEquals(oldValue, newValue);
+        }
+        Object oldId = PropertyAccessorHelper.getId(oldValue, metadata);
+        return oldId != null && oldId.equals(PropertyAccessorHelper.getId(newValue, metadata));
+    }
+
+    private static List<String> getIds(Collection entities)
+    {
+        List<String> ids = new ArrayList<String>(entities.size());
+        for (Object entity : entities)
+        {
+            if (entity != null)
+            {
+                ids.add(getNodeId(entity));
+            }
+        }
+        // order of associated entities is not persisted.
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static Map<Object, String> getIds(Map entities)
+    {
+        Map<Object, String> ids = new HashMap<Object, String>();
+        for (Object o : entities.entrySet())
+        {
+            Map.Entry entry = (Map.Entry) o;
+            ids.put(entry.getKey(), getNodeId(entry.getValue()));
+        }
+        return ids;
+    }
+
+    private static String getNodeId(Object entity)
+    {
+        if (entity == null)
+        {
+            return null;
+        }
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(entity.getClass());
+        return metadata != null ? ObjectGraphUtils.getNodeId(PropertyAccessorHelper.getId(entity, metadata),
+                entity.getClass()) : String.valueOf(entity);
+    }
+}
@@ -16,7 +16,9 @@
 package com.impetus.kundera.graph;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.PostLoad;
 import javax.persistence.PostPersist;
@@ -30,8 +32,10 @@ import org.apache.commons.lang.builder.HashCodeBuilder;
 
 import com.impetus.kundera.KunderaException;
 import com.impetus.kundera.client.Client;
+import com.impetus.kundera.client.EnhanceEntity;
 import com.impetus.kundera.graph.NodeLink.LinkProperty;
 import com.impetus.kundera.lifecycle.NodeStateContext;
+import com.impetus.kundera.lifecycle.states.ManagedState;
 import com.impetus.kundera.lifecycle.states.NodeState;
 import com.impetus.kundera.lifecycle.states.RemovedState;
 import com.impetus.kundera.lifecycle.states.TransientState;
@@ -101,6 +105,9 @@ public class Node implements NodeStateContext
 
     private boolean isProcessed;
 
+    /** Names of attributes changed since last flush, null if all. */
+    private Set<String> dirtyFields;
+
     private EntityEventDispatcher eventDispatcher = new EntityEventDispatcher();
 
     private Node(String nodeId, Object data, PersistenceCache pc, Object primaryKey)
@@ -371,6 +378,42 @@ public class Node implements NodeStateContext
     public void setDirty(boolean dirty)
     {
         this.dirty = dirty;
+        this.dirtyFields = null;
+    }
+
+    /**
+     * Returns names of attributes changed since this node was last flushed or
+     * loaded.
+     * 
+     * @return dirty attribute names, null if all attributes are to be written.
+     */
+    public Set<String> getDirtyFields()
+    {
+        return dirtyFields;
+    }
+
+    /**
+     * Marks node as dirty for given changed attributes, on top of attributes
+     * already changed but not yet flushed.
+     * 
+     * @param fields
+     *            changed attribute names, null if all.
+     */
+    void markDirty(Set<String> fields)
+    {
+        if (fields == null || (dirty && dirtyFields == null))
+        {
+            dirtyFields = null;
+        }
+        else if (dirty)
+        {
+            dirtyFields.addAll(fields);
+        }
+        else
+        {
+            dirtyFields = new HashSet<String>(fields);
+        }
+        dirty = true;
     }
 
     /**
@@ -506,6 +549,30 @@ public class Node implements NodeStateContext
         onPostEvent(metadata, EntityEvent.FIND);
     }
 
+    /**
+     * Populates this node from an already fetched entity instead of reading
+     * it from datastore. Used by bulk finds, where all missing keys are
+     * fetched via a single {@link Client#findAll(Class, String[], Object...)}
+     * call.
+     * 
+     * @param ee
+     *            fetched entity.
+     */
+    public void find(EnhanceEntity ee)
+    {
+        if (getCurrentNodeState() instanceof ManagedState)
+        {
+            ((ManagedState) getCurrentNodeState()).handleFind(this, ee);
+
+            EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(this.getDataClass());
+            onPostEvent(metadata, EntityEvent.FIND);
+        }
+        else
+        {
+            find();
+        }
+    }
+
     @Override
     public void getReference()
     {
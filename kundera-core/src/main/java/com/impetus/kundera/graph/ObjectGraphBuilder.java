@@ -17,6 +17,7 @@ package com.impetus.kundera.graph;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -40,7 +41,6 @@ import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.proxy.KunderaProxy;
 import com.impetus.kundera.proxy.ProxyHelper;
 import com.impetus.kundera.proxy.collection.ProxyCollection;
-import com.impetus.kundera.utils.DeepEquals;
 
 /**
  * Responsible for generating {@link ObjectGraph} of nodes from a given entity
@@ -147,13 +147,16 @@ public class ObjectGraphBuilder
         {
             node = nodeInPersistenceCache;
 
-            // Determine whether this node is dirty based on comparison between
-            // Node data and entity data
-            // If dirty, set the entity data into node and mark it as dirty
-            if (!DeepEquals.deepEquals(node.getData(), entity))
+            // Determine whether this node is dirty based on attribute wise
+            // comparison between Node data and entity data
+            // If dirty, set the entity data into node and mark changed
+            // attributes as dirty
+            Set<String> dirtyFields = node.getData() != entity ? DirtyFieldsDetector.getDirtyFields(
+                    node.getData(), entity, entityMetadata) : Collections.<String> emptySet();
+            if (dirtyFields == null || !dirtyFields.isEmpty())
             {
                 node.setData(entity);
-                node.setDirty(true);
+                node.markDirty(dirtyFields);
             }
             else if (node.isProcessed())
             {
@@ -22,6 +22,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.persistence.metamodel.EmbeddableType;
 import javax.persistence.metamodel.EntityType;
@@ -37,6 +40,7 @@ import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
@@ -47,6 +51,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.impetus.kundera.Constants;
+import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.cache.ElementCollectionCacheManager;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
@@ -54,6 +59,7 @@ import com.impetus.kundera.metadata.model.MetamodelImpl;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.property.PropertyAccessException;
 import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.utils.KunderaThreadFactory;
 
 /**
  * Provides indexing functionality using lucene library.
@@ -87,6 +93,36 @@ public class LuceneIndexer extends DocumentIndexer
     /** The lucene dir path. */
     private static String luceneDirPath;
 
+    /** Directory mode for near real time indexing. */
+    public static final String NRT_DIRECTORY_MODE = "nrt";
+
+    /** Default max interval(in milliseconds) between commits in nrt mode. */
+    private static final long DEFAULT_COMMIT_INTERVAL = 1000;
+
+    /** Default number of changes after which commit is issued in nrt mode. */
+    private static final int DEFAULT_COMMIT_CHANGES = 1000;
+
+    /** Is index written to file system directly and searched near real time. */
+    private static boolean isNrtEnabled;
+
+    /** The searcher manager, used in nrt mode only. */
+    private static SearcherManager searcherManager;
+
+    /** The commit interval. */
+    private static long commitInterval = DEFAULT_COMMIT_INTERVAL;
+
+    /** The commit changes. */
+    private static int commitChanges = DEFAULT_COMMIT_CHANGES;
+
+    /** Number of uncommitted changes. */
+    private static int uncommittedChanges;
+
+    /** The last commit time. */
+    private static long lastCommitTime;
+
+    /** Commits pending changes every commit interval, in nrt mode only. */
+    private static ScheduledExecutorService committer;
+
     /**
      * Instantiates a new lucene indexer.
      * 
@@ -94,15 +130,23 @@ public class LuceneIndexer extends DocumentIndexer
      *            the analyzer
      * @param lucDirPath
      *            the luc dir path
+     * @param properties
+     *            the indexer properties
      */
-    private LuceneIndexer(Analyzer analyzer, String lucDirPath)
+    private LuceneIndexer(Analyzer analyzer, String lucDirPath, Map<String, String> properties)
     {
         super(analyzer);
         try
         {
             luceneDirPath = lucDirPath;
+            onProperties(properties);
             File file = new File(luceneDirPath);
-            if (file.exists())
+            if (isNrtEnabled)
+            {
+                // Let lucene pick MMapDirectory/NIOFSDirectory for platform.
+                index = FSDirectory.open(getIndexDirectory());
+            }
+            else if (file.exists())
             {
                 Directory sourceDir = FSDirectory.open(getIndexDirectory());
 
@@ -128,6 +172,13 @@ public class LuceneIndexer extends DocumentIndexer
             // w.setMergeFactor(1);
             // w.setMergeFactor(1000);
             w.getConfig().setRAMBufferSizeMB(32);
+
+            if (isNrtEnabled)
+            {
+                searcherManager = new SearcherManager(w, true, null);
+                lastCommitTime = System.currentTimeMillis();
+                startCommitter();
+            }
         }
         catch (Exception e)
         {
@@ -146,16 +197,138 @@ public class LuceneIndexer extends DocumentIndexer
      * @return single instance of LuceneIndexer
      */
     public static synchronized LuceneIndexer getInstance(Analyzer analyzer, String lucDirPath)
+    {
+        return getInstance(analyzer, lucDirPath, null);
+    }
+
+    /**
+     * Gets the single instance of LuceneIndexer.
+     * 
+     * @param analyzer
+     *            the analyzer
+     * @param lucDirPath
+     *            the luc dir path
+     * @param properties
+     *            indexer properties, see
+     *            {@link PersistenceProperties#KUNDERA_INDEX_DIRECTORY_MODE}
+     * @return single instance of LuceneIndexer
+     */
+    public static synchronized LuceneIndexer getInstance(Analyzer analyzer, String lucDirPath,
+            Map<String, String> properties)
     {
         // super(analyzer);
         if (indexer == null && lucDirPath != null)
         {
-            indexer = new LuceneIndexer(analyzer, lucDirPath);
+            indexer = new LuceneIndexer(analyzer, lucDirPath, properties);
 
         }
         return indexer;
     }
 
+    /**
+     * Reads directory mode and commit policy from indexer properties.
+     * 
+     * @param properties
+     *            the properties
+     */
+    private void onProperties(Map<String, String> properties)
+    {
+        if (properties == null)
+        {
+            return;
+        }
+
+        isNrtEnabled = NRT_DIRECTORY_MODE.equalsIgnoreCase(properties
+                .get(PersistenceProperties.KUNDERA_INDEX_DIRECTORY_MODE));
+
+        String interval = properties.get(PersistenceProperties.KUNDERA_INDEX_COMMIT_INTERVAL);
+        String changes = properties.get(PersistenceProperties.KUNDERA_INDEX_COMMIT_CHANGES);
+        try
+        {
+            if (interval != null)
+            {
+                commitInterval = Long.parseLong(interval.trim());
+            }
+            if (changes != null)
+            {
+                commitChanges = Integer.parseInt(changes.trim());
+            }
+        }
+        catch (NumberFormatException nfex)
+        {
+            log.warn("Invalid lucene commit policy {}/{}, using defaults.", interval, changes);
+            commitInterval = DEFAULT_COMMIT_INTERVAL;
+            commitChanges = DEFAULT_COMMIT_CHANGES;
+        }
+    }
+
+    /**
+     * Schedules commit of pending changes at every commit interval, so an idle
+     * indexer does not keep changes uncommitted.
+     */
+    private static void startCommitter()
+    {
+        if (commitInterval <= 0)
+        {
+            return;
+        }
+        committer = Executors.newSingleThreadScheduledExecutor(new KunderaThreadFactory(LuceneIndexer.class
+                .getSimpleName()));
+        committer.scheduleWithFixedDelay(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    commitIfRequired(false);
+                }
+                catch (Exception e)
+                {
+                    log.warn("Error while committing Lucene Indexes, Caused by: ", e);
+                }
+            }
+        }, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Commits pending changes and releases committer, searcher manager, writer
+     * and directory of nrt mode. Next {@link #getInstance} opens index again.
+     * 
+     * @throws IOException
+     */
+    private static void closeNrt() throws IOException
+    {
+        synchronized (LuceneIndexer.class)
+        {
+            if (w == null)
+            {
+                return;
+            }
+            if (committer != null)
+            {
+                committer.shutdownNow();
+                committer = null;
+            }
+            try
+            {
+                commitIfRequired(true);
+                searcherManager.close();
+                w.close();
+                index.close();
+            }
+            finally
+            {
+                searcherManager = null;
+                w = null;
+                index = null;
+                uncommittedChanges = 0;
+                isNrtEnabled = false;
+                indexer = null;
+            }
+        }
+    }
+
     /**
      * Added for HBase support.
      * 
@@ -251,6 +424,15 @@ public class LuceneIndexer extends DocumentIndexer
             Query q = qp.parse(luceneQuery);
             
             w.deleteDocuments(q);
+
+            if (isNrtEnabled)
+            {
+                // Deletes are visible to next refreshed searcher, no need to
+                // reopen writer.
+                onChange();
+                return;
+            }
+
             w.commit();
             w.close();
             IndexWriterConfig indexWriterConfig = new IndexWriterConfig(Version.LUCENE_34, analyzer);
@@ -276,8 +458,10 @@ public class LuceneIndexer extends DocumentIndexer
     @Override
     public final Map<String, Object> search(String luceneQuery, int start, int count, boolean fetchRelation)
     {
-
-        reader = getIndexReader();
+        if (!isNrtEnabled)
+        {
+            reader = getIndexReader();
+        }
         if (Constants.INVALID == count)
         {
             count = 100;
@@ -289,12 +473,12 @@ public class LuceneIndexer extends DocumentIndexer
         // Set<String> entityIds = new HashSet<String>();
         Map<String, Object> indexCol = new HashMap<String, Object>();
 
-        if (reader == null)
+        if (!isNrtEnabled && reader == null)
         {
             throw new LuceneIndexingException("Index reader is not initialized!");
         }
 
-        IndexSearcher searcher = new IndexSearcher(reader);
+        IndexSearcher searcher = isNrtEnabled ? acquireSearcher() : new IndexSearcher(reader);
         QueryParser qp = new QueryParser(Version.LUCENE_34, DEFAULT_SEARCHABLE_FIELD, new StandardAnalyzer(
                 Version.LUCENE_34));
 
@@ -328,11 +512,100 @@ public class LuceneIndexer extends DocumentIndexer
             log.error("Error while parsing Lucene Query {} ", luceneQuery, e);
             throw new LuceneIndexingException(e);
         }
+        finally
+        {
+            if (isNrtEnabled)
+            {
+                releaseSearcher(searcher);
+            }
+        }
 
         reader = null;
         return indexCol;
     }
 
+    /**
+     * Acquires a near real time searcher, refreshing it in case index has
+     * changed since last acquire.
+     * 
+     * @return the index searcher
+     */
+    private IndexSearcher acquireSearcher()
+    {
+        try
+        {
+            commitIfRequired(false);
+            searcherManager.maybeRefresh();
+            return searcherManager.acquire();
+        }
+        catch (IOException e)
+        {
+            log.error("Error while acquiring Lucene index searcher, Caused by: ", e);
+            throw new LuceneIndexingException("Error while acquiring Lucene index searcher", e);
+        }
+    }
+
+    /**
+     * Releases searcher acquired via {@link #acquireSearcher()}.
+     * 
+     * @param searcher
+     *            the searcher
+     */
+    private void releaseSearcher(IndexSearcher searcher)
+    {
+        try
+        {
+            searcherManager.release(searcher);
+        }
+        catch (IOException e)
+        {
+            log.warn("Error while releasing Lucene index searcher, Caused by: ", e);
+        }
+    }
+
+    /**
+     * Counts an index change and commits in case commit policy is met, in nrt
+     * mode only.
+     */
+    private void onChange()
+    {
+        try
+        {
+            synchronized (LuceneIndexer.class)
+            {
+                uncommittedChanges++;
+            }
+            commitIfRequired(false);
+        }
+        catch (IOException e)
+        {
+            log.error("Error while committing Lucene Indexes, Caused by: ", e);
+            throw new LuceneIndexingException("Error while committing Lucene Indexes", e);
+        }
+    }
+
+    /**
+     * Commits index writer if there are uncommitted changes and either
+     * {@link #commitChanges} or {@link #commitInterval} is reached.
+     * 
+     * @param force
+     *            commit regardless of commit policy.
+     * @throws IOException
+     */
+    private static void commitIfRequired(boolean force) throws IOException
+    {
+        synchronized (LuceneIndexer.class)
+        {
+            if (w != null && uncommittedChanges > 0
+                    && (force || uncommittedChanges >= commitChanges || System.currentTimeMillis() - lastCommitTime >= commitInterval))
+            {
+                w.commit();
+                uncommittedChanges = 0;
+                lastCommitTime = System.currentTimeMillis();
+            }
+        }
+    }
+
     /**
      * Indexes document in file system using lucene.
      * 
@@ -369,7 +642,12 @@ public class LuceneIndexer extends DocumentIndexer
     {
         try
         {
-            if (w != null && readyForCommit)
+            if (isNrtEnabled)
+            {
+                // Index is on file system already, commit as per policy.
+                commitIfRequired(false);
+            }
+            else if (w != null && readyForCommit)
             {
                 // w.optimize();
                 w.commit();
@@ -394,7 +672,11 @@ public class LuceneIndexer extends DocumentIndexer
     {
         try
         {
-            if (w != null && readyForCommit)
+            if (isNrtEnabled)
+            {
+                closeNrt();
+            }
+            else if (w != null && readyForCommit)
             {
                 w.commit();
                 copy(index, FSDirectory.open(getIndexDirectory()));
@@ -603,6 +885,11 @@ public class LuceneIndexer extends DocumentIndexer
         // w.commit();
         isInitialized = true;
         readyForCommit = true;
+
+        if (isNrtEnabled)
+        {
+            onChange();
+        }
         // }
         // catch (CorruptIndexException e)
         // {
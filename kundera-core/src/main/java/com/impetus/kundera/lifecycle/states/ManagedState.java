@@ -114,8 +114,6 @@ public class ManagedState extends NodeState
         EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(nodeDataClass);
         Object entityId = nodeStateContext.getEntityId();
 
-        Object nodeData = null; // Node data
-
         EntityReader reader = client.getReader();
         if (reader == null)
         {
@@ -123,6 +121,28 @@ public class ManagedState extends NodeState
         }
         
         EnhanceEntity ee = reader.findById(entityId, entityMetadata, client);
+        handleFind(nodeStateContext, ee);
+    }
+
+    /**
+     * Populates node from an entity which has already been fetched from
+     * datastore (e.g. as part of a multi-get). Relations are resolved and node
+     * is put into persistence cache the same way as for a single find.
+     * 
+     * @param nodeStateContext
+     *            node state context
+     * @param ee
+     *            fetched entity, may be null if no record was found.
+     */
+    public void handleFind(NodeStateContext nodeStateContext, EnhanceEntity ee)
+    {
+        Client client = nodeStateContext.getClient();
+        EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(nodeStateContext.getDataClass());
+
+        Object nodeData = null; // Node data
+
+        EntityReader reader = client.getReader();
+
         // Recursively retrieve relationship entities (if there are any)
         if (ee != null && ee.getEntity() != null)
         {
@@ -136,6 +156,12 @@ public class ManagedState extends NodeState
                 nodeData = entity;
             }
 
+            else if (reader == null)
+            {
+                // Associated entities can not be resolved without a reader,
+                // keep entity as fetched.
+                nodeData = entity;
+            }
             else
             {
                 // This entity has associated entities, find them recursively.
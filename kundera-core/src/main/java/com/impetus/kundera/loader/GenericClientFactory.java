@@ -151,8 +151,25 @@ public abstract class GenericClientFactory implements ClientFactory, ClientLifeC
             clientMetadata.setLuceneIndexDir(luceneDirectoryPath);
 
             // Set Index Manager
+            Map<String, String> indexerProperties = new HashMap<String, String>();
+            for (String property : new String[] { PersistenceProperties.KUNDERA_INDEX_DIRECTORY_MODE,
+                    PersistenceProperties.KUNDERA_INDEX_COMMIT_INTERVAL,
+                    PersistenceProperties.KUNDERA_INDEX_COMMIT_CHANGES })
+            {
+                String value = puProperties != null ? (String) puProperties.get(property) : null;
+                if (value == null)
+                {
+                    value = KunderaMetadata.INSTANCE.getApplicationMetadata()
+                            .getPersistenceUnitMetadata(persistenceUnit).getProperty(property);
+                }
+                if (value != null)
+                {
+                    indexerProperties.put(property, value);
+                }
+            }
+
             indexManager = new IndexManager(LuceneIndexer.getInstance(new StandardAnalyzer(Version.LUCENE_CURRENT),
-                    luceneDirectoryPath));
+                    luceneDirectoryPath, indexerProperties));
         }
         else if (indexerClass != null)
         {
@@ -238,7 +238,7 @@ public class ApplicationMetadata
      *            true, if it is a namednativequery.
      * 
      */
-    public void addQueryToCollection(String queryName, String query, boolean isNativeQuery, Class clazz)
+    public synchronized void addQueryToCollection(String queryName, String query, boolean isNativeQuery, Class clazz)
     {
         
         if (namedNativeQueries == null)
@@ -353,7 +353,7 @@ public class ApplicationMetadata
     /**
      * @return the metaModelBuilder
      */
-    public MetaModelBuilder getMetaModelBuilder(String persistenceUnit)
+    public synchronized MetaModelBuilder getMetaModelBuilder(String persistenceUnit)
     {
         if (metaModelBuilder.containsKey(persistenceUnit))
         {
@@ -29,6 +29,7 @@ import javax.persistence.metamodel.SingularAttribute;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.impetus.kundera.cache.CacheConcurrencyStrategy;
 import com.impetus.kundera.persistence.event.CallbackMethod;
 
 /**
@@ -65,6 +66,9 @@ public final class EntityMetadata
     /** Cacheable?. */
     private boolean cacheable = false; // default is to not set second-level
 
+    /** Second level cache concurrency strategy. */
+    private CacheConcurrencyStrategy cacheConcurrencyStrategy = CacheConcurrencyStrategy.READ_WRITE;
+
     private boolean isCounterColumnType = false;
 
     private SingularAttribute idAttribute;
@@ -509,6 +513,27 @@ public final class EntityMetadata
         this.cacheable = cacheable;
     }
 
+    /**
+     * Gets the second level cache concurrency strategy.
+     * 
+     * @return the cacheConcurrencyStrategy
+     */
+    public CacheConcurrencyStrategy getCacheConcurrencyStrategy()
+    {
+        return cacheConcurrencyStrategy;
+    }
+
+    /**
+     * Sets the second level cache concurrency strategy.
+     * 
+     * @param cacheConcurrencyStrategy
+     *            the cacheConcurrencyStrategy to set
+     */
+    public void setCacheConcurrencyStrategy(CacheConcurrencyStrategy cacheConcurrencyStrategy)
+    {
+        this.cacheConcurrencyStrategy = cacheConcurrencyStrategy;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -525,6 +550,10 @@ public final class EntityMetadata
         builder.append("\tPersistence Unit: " + persistenceUnit + ",\n");
         builder.append("\tId: " + idAttribute.getName() + ",\n");
         builder.append("\tCacheable: " + cacheable + ",\n");
+        if (cacheable)
+        {
+            builder.append("\tCache Concurrency Strategy: " + cacheConcurrencyStrategy + ",\n");
+        }
 
         if (!indexPrperties.isEmpty())
         {
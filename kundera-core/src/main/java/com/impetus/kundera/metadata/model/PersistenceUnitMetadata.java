@@ -578,6 +578,41 @@ public class PersistenceUnitMetadata implements PersistenceUnitInfo
         return 0;
     }
 
+    /**
+     * Returns true, if associated entities via given relation are to be
+     * fetched in batch for all entities of a query result, instead of one
+     * find per entity. kundera.batch.fetch is either "true" for every
+     * relation or comma separated list of relations as
+     * <code>Entity.field</code>.
+     * 
+     * @param relation
+     *            relation.
+     * @return true, if batch fetch is enabled for relation.
+     */
+    public boolean isBatchFetch(Relation relation)
+    {
+        String batchFetch = getProperty(PersistenceProperties.KUNDERA_BATCH_FETCH);
+        if (batchFetch == null || batchFetch.trim().isEmpty())
+        {
+            return false;
+        }
+        if (Boolean.parseBoolean(batchFetch.trim()))
+        {
+            return true;
+        }
+
+        String relationName = relation.getProperty().getDeclaringClass().getSimpleName() + "."
+                + relation.getProperty().getName();
+        for (String name : batchFetch.split(","))
+        {
+            if (name.trim().equals(relationName))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * @return the mappedUrl
      */
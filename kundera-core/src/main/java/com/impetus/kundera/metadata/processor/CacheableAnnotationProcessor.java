@@ -20,6 +20,7 @@ import javax.persistence.Cacheable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.impetus.kundera.annotations.CacheConcurrency;
 import com.impetus.kundera.metadata.MetadataProcessor;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 
@@ -59,5 +60,12 @@ public class CacheableAnnotationProcessor implements MetadataProcessor
         {
             metadata.setCacheable(cacheable.value());
         }
+
+        CacheConcurrency cacheConcurrency = (CacheConcurrency) entityClass.getAnnotation(CacheConcurrency.class);
+
+        if (null != cacheConcurrency)
+        {
+            metadata.setCacheConcurrencyStrategy(cacheConcurrency.value());
+        }
     }
 }
@@ -107,8 +107,13 @@ public class IndexProcessor implements MetadataProcessor
 
         // scan for fields
 
-        EntityType entityType = (EntityType) KunderaMetadata.INSTANCE.getApplicationMetadata()
-                .getMetaModelBuilder(metadata.getPersistenceUnit()).getManagedTypes().get(clazz);
+        MetaModelBuilder builder = KunderaMetadata.INSTANCE.getApplicationMetadata().getMetaModelBuilder(
+                metadata.getPersistenceUnit());
+        EntityType entityType;
+        synchronized (builder)
+        {
+            entityType = (EntityType) builder.getManagedTypes().get(clazz);
+        }
 
         Set<Attribute> attributes = entityType.getAttributes();
         for (Attribute attrib : attributes)
@@ -16,6 +16,8 @@
 package com.impetus.kundera.metadata.processor;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javassist.Modifier;
@@ -120,30 +122,47 @@ public class TableProcessor extends AbstractEntityFieldProcessor
         {
             MetaModelBuilder<X, T> metaModelBuilder = KunderaMetadata.INSTANCE.getApplicationMetadata()
                     .getMetaModelBuilder(metadata.getPersistenceUnit());
-            metaModelBuilder.process(clazz);
 
+            List<Field> fields = new ArrayList<Field>();
             for (Field f : clazz.getDeclaredFields())
             {
                 if (f != null && !Modifier.isStatic(f.getModifiers()) && !Modifier.isTransient(f.getModifiers())
                         && !f.isAnnotationPresent(Transient.class))
+                {
+                    fields.add(f);
+                }
+            }
+
+            // builder is shared by entities processed concurrently, only
+            // construction of metamodel needs to hold it.
+            EntityType entityType;
+            synchronized (metaModelBuilder)
+            {
+                metaModelBuilder.process(clazz);
+
+                for (Field f : fields)
                 {
                     // construct metamodel.
                     metaModelBuilder.construct(clazz, f);
+                }
+                entityType = (EntityType) metaModelBuilder.getManagedTypes().get(clazz);
+            }
 
-                    // on id attribute.
+            for (Field f : fields)
+            {
+                // on id attribute.
 
-                    onIdAttribute(metaModelBuilder, metadata, clazz, f);
+                onIdAttribute(entityType, metadata, clazz, f);
 
-                    // determine if it is a column family or super column
-                    // family.
+                // determine if it is a column family or super column
+                // family.
 
-                    onFamilyType(metadata, clazz, f);
+                onFamilyType(metadata, clazz, f);
 
-                    onJPAColumnMapping(metaModelBuilder, metadata, f);
+                onJPAColumnMapping(entityType, metadata, f);
 
-                    /* Scan for Relationship field */
-                    addRelationIntoMetadata(clazz, f, metadata);
-                }
+                /* Scan for Relationship field */
+                addRelationIntoMetadata(clazz, f, metadata);
             }
         }
 
@@ -230,8 +249,8 @@ public class TableProcessor extends AbstractEntityFieldProcessor
     /**
      * On id attribute.
      * 
-     * @param builder
-     *            the builder
+     * @param entity
+     *            the entity type
      * @param entityMetadata
      *            the entity metadata
      * @param clazz
@@ -239,9 +258,8 @@ public class TableProcessor extends AbstractEntityFieldProcessor
      * @param f
      *            the f
      */
-    private void onIdAttribute(final MetaModelBuilder builder, EntityMetadata entityMetadata, final Class clazz, Field f)
+    private void onIdAttribute(final EntityType entity, EntityMetadata entityMetadata, final Class clazz, Field f)
     {
-        EntityType entity = (EntityType) builder.getManagedTypes().get(clazz);
         Attribute attrib = entity.getAttribute(f.getName());
         if (!attrib.isCollection() && ((SingularAttribute) attrib).isId())
         {
@@ -282,16 +300,15 @@ public class TableProcessor extends AbstractEntityFieldProcessor
     /**
      * On jpa column mapping.
      * 
-     * @param builder
-     *            the builder
+     * @param entityType
+     *            the entity type
      * @param entityMetadata
      *            the entity metadata
      * @param f
      *            the f
      */
-    private void onJPAColumnMapping(final MetaModelBuilder builder, EntityMetadata entityMetadata, Field f)
+    private void onJPAColumnMapping(final EntityType entityType, EntityMetadata entityMetadata, Field f)
     {
-        EntityType entityType = (EntityType) builder.getManagedTypes().get(entityMetadata.getEntityClazz());
         AbstractAttribute attribute = (AbstractAttribute) entityType.getAttribute(f.getName());
         entityMetadata.addJPAColumnMapping(attribute.getJPAColumnName(), f.getName());
     }
@@ -18,7 +18,9 @@ package com.impetus.kundera.persistence;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,6 +36,7 @@ import com.impetus.kundera.client.EnhanceEntity;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.MetadataUtils;
 import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
 import com.impetus.kundera.metadata.model.Relation;
 import com.impetus.kundera.metadata.model.Relation.ForeignKey;
 import com.impetus.kundera.persistence.context.PersistenceCacheManager;
@@ -41,6 +44,7 @@ import com.impetus.kundera.property.PropertyAccessException;
 import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.proxy.ProxyHelper;
 import com.impetus.kundera.utils.KunderaCoreUtils;
+import com.impetus.kundera.utils.ObjectUtils;
 
 /**
  * The Class AbstractEntityReader.
@@ -99,7 +103,8 @@ public class AbstractEntityReader
      * @return
      */
     private Object handleAssociation(final Object entity, final Map<String, Object> relationsMap,
-            final EntityMetadata m, final PersistenceDelegator pd, boolean lazilyloaded)
+            final EntityMetadata m, final PersistenceDelegator pd, boolean lazilyloaded,
+            final Map<Class<?>, Map<Object, Object>> prefetched)
     {
 
         for (Relation relation : m.getRelations())
@@ -110,7 +115,7 @@ public class AbstractEntityReader
 
             if (KunderaCoreUtils.isEmptyOrNull(relationalObject) || ProxyHelper.isProxyOrCollection(relationalObject))
             {
-                onRelation(entity, relationsMap, m, pd, relation, relationType, lazilyloaded);
+                onRelation(entity, relationsMap, m, pd, relation, relationType, lazilyloaded, prefetched);
             }
         }
         return entity;
@@ -126,9 +131,11 @@ public class AbstractEntityReader
      * @param relation
      * @param relationType
      * @param lazilyloaded
+     * @param prefetched
      */
     private void onRelation(final Object entity, final Map<String, Object> relationsMap, final EntityMetadata m,
-            final PersistenceDelegator pd, Relation relation, ForeignKey relationType, boolean lazilyloaded)
+            final PersistenceDelegator pd, Relation relation, ForeignKey relationType, boolean lazilyloaded,
+            final Map<Class<?>, Map<Object, Object>> prefetched)
     {
 
         FetchType fetchType = relation.getFetchType();
@@ -151,7 +158,7 @@ public class AbstractEntityReader
             }
             else
             {
-                onRelation(entity, relationsMap, relation, m, pd, lazilyloaded);
+                onRelation(entity, relationsMap, relation, m, pd, lazilyloaded, prefetched);
             }
         }
     }
@@ -167,9 +174,12 @@ public class AbstractEntityReader
      *            contains relation name and it's value.
      * @param m
      *            entity metadata.
+     * @param prefetched
+     *            entities fetched in batch ahead, may be null.
      */
     private void onRelation(Object entity, Map<String, Object> relationsMap, final Relation relation,
-            final EntityMetadata metadata, final PersistenceDelegator pd, boolean lazilyloaded)
+            final EntityMetadata metadata, final PersistenceDelegator pd, boolean lazilyloaded,
+            final Map<Class<?>, Map<Object, Object>> prefetched)
     {
         final Object entityId = PropertyAccessorHelper.getId(entity, metadata);
 
@@ -181,7 +191,8 @@ public class AbstractEntityReader
         Object relationValue = relationsMap != null ? relationsMap.get(relation.getJoinColumnName()) : null;
         EntityMetadata targetEntityMetadata = KunderaMetadataManager.getEntityMetadata(relation.getTargetEntity());
 
-        List relationalEntities = fetchRelations(relation, metadata, pd, entityId, relationValue, targetEntityMetadata);
+        List relationalEntities = fetchRelations(relation, metadata, pd, entityId, relationValue,
+                targetEntityMetadata, prefetched);
 
         // parse for associated relation.
 
@@ -191,7 +202,8 @@ public class AbstractEntityReader
             {
                 if (relationEntity != null)
                 {
-                    onParseRelation(entity, pd, targetEntityMetadata, relationEntity, relation, lazilyloaded);
+                    onParseRelation(entity, pd, targetEntityMetadata, relationEntity, relation, lazilyloaded,
+                            prefetched);
                     PersistenceCacheManager.addEntityToPersistenceCache(getEntity(relationEntity), pd,
                             PropertyAccessorHelper.getId(relationEntity, targetEntityMetadata));
                 }
@@ -210,12 +222,14 @@ public class AbstractEntityReader
      * @param relationEntity
      * @param relation
      * @param lazilyloaded
+     * @param prefetched
      */
     private void onParseRelation(Object entity, final PersistenceDelegator pd, EntityMetadata targetEntityMetadata,
-            Object relationEntity, Relation relation, boolean lazilyloaded)
+            Object relationEntity, Relation relation, boolean lazilyloaded,
+            final Map<Class<?>, Map<Object, Object>> prefetched)
     {
         parseRelations(entity, getEntity(relationEntity), getPersistedRelations(relationEntity), pd,
-                targetEntityMetadata, lazilyloaded);
+                targetEntityMetadata, lazilyloaded, prefetched);
 
         // if relation ship is unary, no problem else we need to add
         setRelationToEntity(entity, relationEntity, relation);
@@ -261,10 +275,11 @@ public class AbstractEntityReader
      * @param pd
      * @param metadata
      * @param lazilyloaded
+     * @param prefetched
      */
     private void parseRelations(final Object originalEntity, final Object relationEntity,
             final Map<String, Object> relationsMap, final PersistenceDelegator pd, final EntityMetadata metadata,
-            boolean lazilyloaded)
+            boolean lazilyloaded, final Map<Class<?>, Map<Object, Object>> prefetched)
     {
 
         for (Relation relation : metadata.getRelations())
@@ -306,7 +321,7 @@ public class AbstractEntityReader
                     final EntityMetadata targetEntityMetadata = KunderaMetadataManager.getEntityMetadata(relation
                             .getTargetEntity());
                     List immediateRelations = fetchRelations(relation, metadata, pd, entityId, relationValue,
-                            targetEntityMetadata);
+                            targetEntityMetadata, prefetched);
                     // Here in case of one-to-many/many-to-one we should skip
                     // this
                     // relation as it
@@ -322,7 +337,7 @@ public class AbstractEntityReader
                             if (!compareTo(getEntity(immediateRelation), originalEntity))
                             {
                                 onParseRelation(relationEntity, pd, targetEntityMetadata, immediateRelation, relation,
-                                        lazilyloaded);
+                                        lazilyloaded, prefetched);
                             }
                         }
                         setRelationToEntity(relationEntity, originalEntity, relation);
@@ -351,19 +366,26 @@ public class AbstractEntityReader
      *            relational value
      * @param targetEntityMetadata
      *            relational entity's metadata.
+     * @param prefetched
+     *            entities fetched in batch ahead, may be null.
      * 
      * @return list of fetched relations.
      */
     private List fetchRelations(final Relation relation, final EntityMetadata metadata, final PersistenceDelegator pd,
-            final Object entityId, Object relationValue, EntityMetadata targetEntityMetadata)
+            final Object entityId, Object relationValue, EntityMetadata targetEntityMetadata,
+            final Map<Class<?>, Map<Object, Object>> prefetched)
     {
         List relationalEntities = new ArrayList();
 
-        if ((relationValue != null && relation.isUnary()) || (relation.isJoinedByPrimaryKey()))
+        Object key = getRelationKey(relation, entityId, relationValue);
+        if (key != null)
         {
-            // Call it
-            Object relationEntity = pd.getClient(targetEntityMetadata).find(relation.getTargetEntity(),
-                    relationValue != null ? relationValue : entityId);
+            Map<Object, Object> entities = prefetched != null ? prefetched.get(relation.getTargetEntity()) : null;
+
+            // Each owner gets its own copy, as owners get set within it while
+            // parsing relations.
+            Object relationEntity = entities != null && entities.containsKey(key) ? copy(entities.get(key)) : pd
+                    .getClient(targetEntityMetadata).find(relation.getTargetEntity(), key);
             if (relationEntity != null)
             {
                 relationalEntities.add(relationEntity);
@@ -404,8 +426,167 @@ public class AbstractEntityReader
     public Object recursivelyFindEntities(Object entity, Map<String, Object> relationsMap, EntityMetadata m,
             PersistenceDelegator pd, boolean lazilyLoaded)
     {
-        return handleAssociation(entity, relationsMap, m, pd, lazilyLoaded);
+        return handleAssociation(entity, relationsMap, m, pd, lazilyLoaded, null);
+
+    }
+
+    /**
+     * Recursively fetches associated entities for each one of given entities.
+     * Unary associations enabled for batch fetch are fetched ahead with one
+     * findAll per target entity and level of object graph, instead of one
+     * find per entity.
+     * 
+     * @param entities
+     *            enhance entities.
+     * @param m
+     *            entity metadata.
+     * @param pd
+     *            persistence delegator.
+     * @param lazilyLoaded
+     *            true if invoked over lazily fetched object.
+     * @return entities along with associations, in same order.
+     */
+    public List<Object> recursivelyFindEntities(List<EnhanceEntity> entities, EntityMetadata m,
+            PersistenceDelegator pd, boolean lazilyLoaded)
+    {
+        Map<Class<?>, Map<Object, Object>> prefetched = new HashMap<Class<?>, Map<Object, Object>>();
+        prefetchRelations(entities, m, pd, lazilyLoaded, null, prefetched, new HashMap<Class<?>, Set<Object>>());
+
+        List<Object> results = new ArrayList<Object>(entities.size());
+        for (EnhanceEntity e : entities)
+        {
+            results.add(handleAssociation(e.getEntity(), e.getRelations(), m, pd, lazilyLoaded, prefetched));
+        }
+        return results;
+    }
+
+    /**
+     * Collects keys of unary associations of given entities per target entity,
+     * fetches them via single findAll call and recurses over fetched
+     * entities.
+     * 
+     * @param entities
+     *            entities, enhanced or not.
+     * @param m
+     *            entity metadata.
+     * @param pd
+     *            persistence delegator.
+     * @param lazilyLoaded
+     *            true if invoked over lazily fetched object.
+     * @param parentClazz
+     *            entity class one level up, relations back to it are skipped.
+     * @param prefetched
+     *            fetched entities, per target entity and id.
+     * @param requested
+     *            keys already requested, per target entity.
+     */
+    private void prefetchRelations(final List<?> entities, final EntityMetadata m, final PersistenceDelegator pd,
+            boolean lazilyLoaded, Class<?> parentClazz, final Map<Class<?>, Map<Object, Object>> prefetched,
+            final Map<Class<?>, Set<Object>> requested)
+    {
+        if (entities == null || entities.isEmpty() || m.getRelations() == null)
+        {
+            return;
+        }
+
+        PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(m.getPersistenceUnit());
+        for (Relation relation : m.getRelations())
+        {
+            if ((!relation.isUnary() && !relation.isJoinedByPrimaryKey())
+                    || (!lazilyLoaded && relation.getFetchType().equals(FetchType.LAZY))
+                    || (parentClazz != null && relation.getTargetEntity().isAssignableFrom(parentClazz))
+                    || puMetadata == null || !puMetadata.isBatchFetch(relation))
+            {
+                continue;
+            }
+
+            Class<?> targetClazz = relation.getTargetEntity();
+            Set<Object> requestedKeys = requested.get(targetClazz);
+            if (requestedKeys == null)
+            {
+                requestedKeys = new HashSet<Object>();
+                requested.put(targetClazz, requestedKeys);
+            }
+
+            Set<Object> keys = new LinkedHashSet<Object>();
+            for (Object e : entities)
+            {
+                Map<String, Object> relationsMap = getPersistedRelations(e);
+                Object relationValue = relationsMap != null ? relationsMap.get(relation.getJoinColumnName()) : null;
+                Object key = getRelationKey(relation, getId(getEntity(e), m), relationValue);
+                if (key != null && requestedKeys.add(key))
+                {
+                    keys.add(key);
+                }
+            }
+            if (keys.isEmpty())
+            {
+                continue;
+            }
+
+            EntityMetadata targetEntityMetadata = KunderaMetadataManager.getEntityMetadata(targetClazz);
+            List found = pd.getClient(targetEntityMetadata).findAll(targetClazz, null, keys.toArray());
+            if (found == null || found.isEmpty())
+            {
+                continue;
+            }
+
+            Map<Object, Object> entitiesById = prefetched.get(targetClazz);
+            if (entitiesById == null)
+            {
+                entitiesById = new HashMap<Object, Object>();
+                prefetched.put(targetClazz, entitiesById);
+            }
+            for (Object relationEntity : found)
+            {
+                if (relationEntity != null)
+                {
+                    entitiesById.put(getId(getEntity(relationEntity), targetEntityMetadata), relationEntity);
+                }
+            }
+
+            // next level of object graph.
+            prefetchRelations(found, targetEntityMetadata, pd, lazilyLoaded, m.getEntityClazz(), prefetched,
+                    requested);
+        }
+    }
+
+    /**
+     * Returns key to find associated entity of a unary relation with, null if
+     * relation is to be fetched by relation column instead.
+     * 
+     * @param relation
+     *            relation.
+     * @param entityId
+     *            id of owning entity.
+     * @param relationValue
+     *            relation column value of owning entity.
+     * @return key of associated entity.
+     */
+    private Object getRelationKey(final Relation relation, final Object entityId, final Object relationValue)
+    {
+        if ((relationValue != null && relation.isUnary()) || relation.isJoinedByPrimaryKey())
+        {
+            return relationValue != null ? relationValue : entityId;
+        }
+        return null;
+    }
 
+    /**
+     * Returns a copy of fetched relation entity, enhanced or not.
+     * 
+     * @param relationEntity
+     *            relation entity.
+     * @return copy.
+     */
+    private Object copy(Object relationEntity)
+    {
+        if (relationEntity instanceof EnhanceEntity)
+        {
+            EnhanceEntity e = (EnhanceEntity) relationEntity;
+            return new EnhanceEntity(ObjectUtils.deepCopy(e.getEntity()), e.getEntityId(), e.getRelations());
+        }
+        return ObjectUtils.deepCopy(relationEntity);
     }
 
     /**
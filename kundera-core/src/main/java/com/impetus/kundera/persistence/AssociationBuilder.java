@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,6 +38,7 @@ import com.impetus.kundera.metadata.MetadataUtils;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.JoinTableMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
 import com.impetus.kundera.metadata.model.Relation;
 import com.impetus.kundera.metadata.model.Relation.ForeignKey;
 import com.impetus.kundera.persistence.context.PersistenceCacheManager;
@@ -172,11 +174,20 @@ public final class AssociationBuilder
         
         if (foreignKeys != null)
         {
-            for (Object foreignKey : foreignKeys)
-            {
-                EntityMetadata childMetadata = KunderaMetadataManager.getEntityMetadata(relation.getTargetEntity());
+            EntityMetadata childMetadata = KunderaMetadataManager.getEntityMetadata(relation.getTargetEntity());
+            PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(entityMetadata
+                    .getPersistenceUnit());
+
+            // In batch fetch mode, all children are fetched in one go, else
+            // one by one.
+            List children = puMetadata != null && puMetadata.isBatchFetch(relation) && !foreignKeys.isEmpty() ? delegator
+                    .find(relation.getTargetEntity(), foreignKeys.toArray()) : null;
+            Iterator<?> iterator = children != null ? children.iterator() : foreignKeys.iterator();
 
-                Object child = delegator.find(relation.getTargetEntity(), foreignKey);
+            while (iterator.hasNext())
+            {
+                Object child = children != null ? iterator.next() : delegator.find(relation.getTargetEntity(),
+                        iterator.next());
                 Object obj = child instanceof EnhanceEntity && child != null ? ((EnhanceEntity) child).getEntity()
                         : child;
 
@@ -219,7 +230,8 @@ public final class AssociationBuilder
                     entity,
                     childField,
                     PropertyAccessorHelper.isCollection(childField.getType()) ? ObjectUtils.getFieldInstance(
-                            childrenEntities, childField) : childrenEntities.get(0));
+                            childrenEntities, childField) : (childrenEntities.isEmpty() ? null : childrenEntities
+                            .get(0)));
             PersistenceCacheManager.addEntityToPersistenceCache(entity, delegator, entityId);
         }
         catch (PropertyAccessException ex)
@@ -16,8 +16,16 @@
 
 package com.impetus.kundera.persistence;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.impetus.kundera.persistence.KunderaEntityTransaction.TxAction;
 import com.impetus.kundera.persistence.TransactionResource.Response;
@@ -34,9 +42,15 @@ class Coordinator
 
     private Map<String, TransactionResource> txResources = new HashMap<String, TransactionResource>();
 
-    public Coordinator()
-    {
+    /**
+     * Commits resources of different persistence units in parallel, owned by
+     * entity manager factory. Null if resources are to be committed serially.
+     */
+    private final ExecutorService commitExecutor;
 
+    public Coordinator(ExecutorService commitExecutor)
+    {
+        this.commitExecutor = commitExecutor;
     }
 
     void addResource(TransactionResource resource, final String pu)
@@ -74,10 +88,7 @@ class Coordinator
 
         case COMMIT:
 
-            for (TransactionResource res : txResources.values())
-            {
-                res.onCommit();
-            }
+            onCommit();
             break;
 
         case ROLLBACK:
@@ -95,6 +106,89 @@ class Coordinator
         return response;
     }
 
+    /**
+     * Commits resources of all persistence units. Resources do not depend on
+     * each other, so if there are more than one, they are committed in
+     * parallel. Waits for all of them before throwing back first error, so
+     * that nothing is being written while transaction is rolled back.
+     * 
+     * Note that entity nodes are flushed within commit, so in parallel case
+     * lifecycle callbacks fired on flush (e.g.
+     * {@link javax.persistence.PostPersist},
+     * {@link javax.persistence.PostUpdate}) are invoked on a commit pool
+     * thread and not on the caller's thread. Callbacks of one persistence unit
+     * are still invoked one after other, on the same thread.
+     */
+    private void onCommit()
+    {
+        if (txResources.size() <= 1 || commitExecutor == null || commitExecutor.isShutdown())
+        {
+            commitSerially();
+            return;
+        }
+
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(txResources.size());
+        for (final TransactionResource res : txResources.values())
+        {
+            Callable<Void> task = new Callable<Void>()
+            {
+                @Override
+                public Void call()
+                {
+                    res.onCommit();
+                    return null;
+                }
+            };
+            try
+            {
+                futures.add(commitExecutor.submit(task));
+            }
+            catch (RejectedExecutionException e)
+            {
+                // entity manager factory closed meanwhile, commit within
+                // caller's thread.
+                FutureTask<Void> future = new FutureTask<Void>(task);
+                future.run();
+                futures.add(future);
+            }
+        }
+
+        RuntimeException error = null;
+        for (Future<Void> future : futures)
+        {
+            try
+            {
+                future.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                error = error != null ? error : new KunderaTransactionException(e);
+            }
+            catch (ExecutionException e)
+            {
+                if (error == null)
+                {
+                    error = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                            : new KunderaTransactionException(e.getCause());
+                }
+            }
+        }
+
+        if (error != null)
+        {
+            throw error;
+        }
+    }
+
+    private void commitSerially()
+    {
+        for (TransactionResource res : txResources.values())
+        {
+            res.onCommit();
+        }
+    }
+
     boolean isTransactionActive()
     {
         for (TransactionResource res : txResources.values())
@@ -83,11 +83,30 @@ public class DefaultTransactionResource implements TransactionResource
      */
     public void onFlush()
     {
-        for (Node node : nodes)
+        // If client is batching, all nodes go into it's batch and are written
+        // in batch size chunks, rest is executed right here, so that all of
+        // this persistence unit is written within it's own commit. Batch is
+        // cleared afterwards, so nothing is executed twice.
+        if (client instanceof Batcher && ((Batcher) client).getBatchSize() > 0)
         {
-            node.flush();
+            if (!nodes.isEmpty())
+            {
+                for (Node node : nodes)
+                {
+                    ((Batcher) client).addBatch(node);
+                }
+                ((Batcher) client).executeBatch();
+                ((Batcher) client).clear();
+                nodes.clear();
+            }
+        }
+        else
+        {
+            for (Node node : nodes)
+            {
+                node.flush();
+            }
         }
-
     }
 
     /*
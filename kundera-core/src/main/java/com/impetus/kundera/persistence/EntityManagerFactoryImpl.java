@@ -20,6 +20,8 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.persistence.Cache;
 import javax.persistence.EntityManager;
@@ -40,12 +42,17 @@ import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.PersistenceUtilHelper;
 import com.impetus.kundera.cache.CacheException;
 import com.impetus.kundera.cache.CacheProvider;
+import com.impetus.kundera.cache.CacheStatistics;
 import com.impetus.kundera.cache.NonOperationalCacheProvider;
+import com.impetus.kundera.cache.SecondLevelCacheManager;
 import com.impetus.kundera.client.ClientResolverException;
 import com.impetus.kundera.configure.ClientMetadataBuilder;
+import com.impetus.kundera.generator.IdBlockPool;
 import com.impetus.kundera.loader.ClientFactory;
 import com.impetus.kundera.loader.ClientLifeCycleManager;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.query.QueryPlanCache;
+import com.impetus.kundera.utils.KunderaThreadFactory;
 
 /**
  * Implementation class for {@link EntityManagerFactory}
@@ -71,6 +78,9 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
     /** The cache provider. */
     private CacheProvider cacheProvider;
 
+    /** Second level entity cache shared by all entity managers. */
+    private SecondLevelCacheManager secondLevelCacheManager;
+
     /**
      * Array of persistence units. (Contains only one string usually except when
      * persisting in multiple data-stores)
@@ -84,6 +94,18 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
 
     private final PersistenceUtilHelper.MetadataCache cache = new PersistenceUtilHelper.MetadataCache();
 
+    /** Parsed jpa queries, null if disabled. */
+    private QueryPlanCache queryPlanCache;
+
+    /** Reserved blocks of table and sequence generated ids. */
+    private final IdBlockPool idBlockPool = new IdBlockPool();
+
+    /**
+     * Commits persistence units of a polyglot transaction in parallel, null
+     * for a single persistence unit.
+     */
+    private ExecutorService commitExecutor;
+
     /** ClientFactory map holds one clientfactory for one persistence unit */
     private Map<String, ClientFactory> clientFactories = new ConcurrentHashMap<String, ClientFactory>();
 
@@ -114,7 +136,16 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
 
         // Initialize L2 cache
         this.cacheProvider = initSecondLevelCache();
-        this.cacheProvider.createCache(Constants.KUNDERA_SECONDARY_CACHE_NAME);
+        this.secondLevelCacheManager = new SecondLevelCacheManager(
+                this.cacheProvider.createCache(Constants.KUNDERA_SECONDARY_CACHE_NAME));
+
+        this.queryPlanCache = initQueryPlanCache();
+
+        if (persistenceUnits.length > 1)
+        {
+            this.commitExecutor = Executors.newFixedThreadPool(persistenceUnits.length, new KunderaThreadFactory(
+                    Coordinator.class.getName()));
+        }
 
         // Invoke Client Loaders
         // logger.info("Loading Client(s) For Persistence Unit(s) " +
@@ -176,6 +207,16 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
             }
             this.persistenceUnits = null;
             this.properties = null;
+            if (queryPlanCache != null)
+            {
+                queryPlanCache.clear();
+            }
+            idBlockPool.clear();
+            if (commitExecutor != null)
+            {
+                // running commits complete, threads are released.
+                commitExecutor.shutdown();
+            }
             clientFactories.clear();
             clientFactories = new ConcurrentHashMap<String, ClientFactory>();
         }
@@ -317,6 +358,83 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory
         throw new IllegalStateException("entity manager factory has been closed");
     }
 
+    /**
+     * Returns hit/miss counters of second level cache.
+     * 
+     * @return cache statistics
+     * @throws IllegalStateException
+     *             if the entity manager factory has been closed
+     */
+    public CacheStatistics getCacheStatistics()
+    {
+        if (isOpen())
+        {
+            return secondLevelCacheManager.getStatistics();
+        }
+        throw new IllegalStateException("entity manager factory has been closed");
+    }
+
+    /**
+     * Returns second level entity cache.
+     * 
+     * @return second level cache manager.
+     */
+    SecondLevelCacheManager getSecondLevelCacheManager()
+    {
+        return secondLevelCacheManager;
+    }
+
+    /**
+     * Returns cache of parsed jpa queries.
+     * 
+     * @return query plan cache, null if disabled.
+     */
+    QueryPlanCache getQueryPlanCache()
+    {
+        return queryPlanCache;
+    }
+
+    /**
+     * Returns pool of reserved table and sequence generated ids.
+     * 
+     * @return id block pool.
+     */
+    IdBlockPool getIdBlockPool()
+    {
+        return idBlockPool;
+    }
+
+    /**
+     * Returns executor committing persistence units of a polyglot transaction
+     * in parallel.
+     * 
+     * @return commit executor, null if factory is over a single persistence
+     *         unit.
+     */
+    ExecutorService getCommitExecutor()
+    {
+        return commitExecutor;
+    }
+
+    /**
+     * Inits query plan cache, sized by
+     * {@link PersistenceProperties#KUNDERA_QUERY_PLAN_CACHE_SIZE}. A size of 0
+     * disables it.
+     * 
+     * @return query plan cache, null if disabled.
+     */
+    private QueryPlanCache initQueryPlanCache()
+    {
+        Object cacheSize = getProperties().get(PersistenceProperties.KUNDERA_QUERY_PLAN_CACHE_SIZE);
+        if (cacheSize == null)
+        {
+            cacheSize = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnits[0]).getProperty(
+                    PersistenceProperties.KUNDERA_QUERY_PLAN_CACHE_SIZE);
+        }
+        int size = cacheSize != null ? Integer.parseInt(cacheSize.toString()) : QueryPlanCache.DEFAULT_CACHE_SIZE;
+        return size > 0 ? new QueryPlanCache(size) : null;
+    }
+
     /**
      * Return interface providing access to utility methods for the persistence
      * unit.
@@ -130,6 +130,11 @@ public class EntityManagerImpl implements EntityManager, ResourceManager
         this.persistenceCache.setPersistenceContextType(persistenceContextType);
 
         this.persistenceDelegator = new PersistenceDelegator(this.persistenceCache);
+        this.persistenceDelegator.setSecondLevelCacheManager(((EntityManagerFactoryImpl) this.factory)
+                .getSecondLevelCacheManager());
+        this.persistenceDelegator.setQueryPlanCache(((EntityManagerFactoryImpl) this.factory).getQueryPlanCache());
+        this.persistenceDelegator.setIdBlockPool(((EntityManagerFactoryImpl) this.factory).getIdBlockPool());
+        this.persistenceDelegator.setCommitExecutor(((EntityManagerFactoryImpl) this.factory).getCommitExecutor());
 
         for (String pu : ((EntityManagerFactoryImpl) this.factory).getPersistenceUnits())
         {
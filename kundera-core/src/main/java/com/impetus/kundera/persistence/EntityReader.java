@@ -73,6 +73,24 @@ public interface EntityReader
     Object recursivelyFindEntities(Object entity, Map<String, Object> relationsMap, EntityMetadata m,
             PersistenceDelegator pd, boolean lazilyLoaded);
 
+    /**
+     * Returns populated entities along with all relational values, for a
+     * page of query results. Associations enabled for batch fetch are fetched
+     * for all entities at once.
+     * 
+     * @param entities
+     *            enhance entities.
+     * @param m
+     *            entity meta data
+     * @param pd
+     *            persistence delegator.
+     * @param lazilyLoaded
+     *            true if invoked over lazily fetched object.
+     * @return populated entities, in same order.
+     */
+    List<Object> recursivelyFindEntities(List<EnhanceEntity> entities, EntityMetadata m, PersistenceDelegator pd,
+            boolean lazilyLoaded);
+
     /**
      * Find by id.
      * 
@@ -24,12 +24,16 @@ import org.slf4j.LoggerFactory;
 import com.impetus.kundera.KunderaException;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.generator.AutoGenerator;
+import com.impetus.kundera.generator.IdBlockPool;
+import com.impetus.kundera.generator.IdBlockPool.BlockAllocator;
 import com.impetus.kundera.generator.SequenceGenerator;
 import com.impetus.kundera.generator.TableGenerator;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.IdDiscriptor;
 import com.impetus.kundera.metadata.model.MetamodelImpl;
+import com.impetus.kundera.metadata.model.SequenceGeneratorDiscriptor;
+import com.impetus.kundera.metadata.model.TableGeneratorDiscriptor;
 import com.impetus.kundera.property.PropertyAccessorHelper;
 
 /**
@@ -64,9 +68,9 @@ public class IdGenerator
                     switch (type)
                     {
                     case TABLE:
-                        return onTableGenerator(m, client, keyValue, e);
+                        return onTableGenerator(m, client, keyValue, e, pd);
                     case SEQUENCE:
-                        return onSequenceGenerator(m, client, keyValue, e);
+                        return onSequenceGenerator(m, client, keyValue, e, pd);
                     case AUTO:
                         return onAutoGenerator(m, client, e);
                     case IDENTITY:
@@ -124,12 +128,25 @@ public class IdGenerator
      * @param client
      * @param keyValue
      * @param e
+     * @param pd
      */
-    private Object onSequenceGenerator(EntityMetadata m, Client<?> client, IdDiscriptor keyValue, Object e)
+    private Object onSequenceGenerator(EntityMetadata m, Client<?> client, IdDiscriptor keyValue, Object e,
+            PersistenceDelegator pd)
     {
         if (client instanceof SequenceGenerator)
         {
-            Object generatedId = ((SequenceGenerator) client).generate(keyValue.getSequenceDiscriptor());
+            final SequenceGenerator generator = (SequenceGenerator) client;
+            final SequenceGeneratorDiscriptor discriptor = keyValue.getSequenceDiscriptor();
+            Object generatedId = getIdBlockPool(pd).next(
+                    m.getPersistenceUnit() + discriptor.getSchemaName() + discriptor.getSequenceName(),
+                    discriptor.getAllocationSize(), new BlockAllocator()
+                    {
+                        @Override
+                        public Object allocate()
+                        {
+                            return generator.generate(discriptor);
+                        }
+                    });
             try
             {
                 generatedId = PropertyAccessorHelper.fromSourceToTargetClass(m.getIdAttribute().getJavaType(),
@@ -155,12 +172,25 @@ public class IdGenerator
      * @param client
      * @param keyValue
      * @param e
+     * @param pd
      */
-    private Object onTableGenerator(EntityMetadata m, Client<?> client, IdDiscriptor keyValue, Object e)
+    private Object onTableGenerator(EntityMetadata m, Client<?> client, IdDiscriptor keyValue, Object e,
+            PersistenceDelegator pd)
     {
         if (client instanceof TableGenerator)
         {
-            Object generatedId = ((TableGenerator) client).generate(keyValue.getTableDiscriptor());
+            final TableGenerator generator = (TableGenerator) client;
+            final TableGeneratorDiscriptor discriptor = keyValue.getTableDiscriptor();
+            Object generatedId = getIdBlockPool(pd).next(m.getPersistenceUnit() + discriptor.getSchema()
+                    + discriptor.getTable() + discriptor.getPkColumnValue(), discriptor.getAllocationSize(),
+                    new BlockAllocator()
+                    {
+                        @Override
+                        public Object allocate()
+                        {
+                            return generator.generate(discriptor);
+                        }
+                    });
             try
             {
                 generatedId = PropertyAccessorHelper.fromSourceToTargetClass(m.getIdAttribute().getJavaType(),
@@ -178,4 +208,17 @@ public class IdGenerator
         throw new IllegalArgumentException(GenerationType.class.getSimpleName() + "." + GenerationType.TABLE
                 + " Strategy not supported by this client :" + client.getClass().getName());
     }
+
+    /**
+     * Returns id block pool of entity manager factory, a private one if entity
+     * manager is not created via factory.
+     * 
+     * @param pd
+     * @return id block pool.
+     */
+    private IdBlockPool getIdBlockPool(PersistenceDelegator pd)
+    {
+        IdBlockPool idBlockPool = pd.getIdBlockPool();
+        return idBlockPool != null ? idBlockPool : new IdBlockPool();
+    }
 }
@@ -17,13 +17,12 @@
 package com.impetus.kundera.persistence;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.persistence.FlushModeType;
@@ -34,9 +33,12 @@ import org.slf4j.LoggerFactory;
 
 import com.impetus.kundera.KunderaException;
 import com.impetus.kundera.PersistenceProperties;
+import com.impetus.kundera.cache.SecondLevelCacheManager;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.ClientPropertiesSetter;
 import com.impetus.kundera.client.ClientResolverException;
+import com.impetus.kundera.client.EnhanceEntity;
+import com.impetus.kundera.generator.IdBlockPool;
 import com.impetus.kundera.graph.Node;
 import com.impetus.kundera.graph.ObjectGraph;
 import com.impetus.kundera.graph.ObjectGraphBuilder;
@@ -58,7 +60,9 @@ import com.impetus.kundera.persistence.context.PersistenceCache;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData.OPERATION;
 import com.impetus.kundera.persistence.event.EntityEventDispatcher;
+import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.proxy.LazyInitializerFactory;
+import com.impetus.kundera.query.QueryPlanCache;
 import com.impetus.kundera.query.QueryResolver;
 import com.impetus.kundera.utils.ObjectUtils;
 
@@ -100,6 +104,17 @@ public final class PersistenceDelegator
 
     private Coordinator coordinator;
 
+    private SecondLevelCacheManager secondLevelCacheManager;
+
+    private QueryPlanCache queryPlanCache;
+
+    private IdBlockPool idBlockPool;
+
+    private ExecutorService commitExecutor;
+
+    /** Nodes evicted from second level cache within current unit of work. */
+    private Map<String, Node> evictedNodes = new HashMap<String, Node>();
+
     /**
      * Instantiates a new persistence delegator.
      * 
@@ -240,7 +255,17 @@ public final class PersistenceDelegator
             try
             {
                 lock.readLock().lock();
-                node.find();
+                Object cached = secondLevelCacheManager != null ? secondLevelCacheManager.get(entityMetadata,
+                        primaryKey) : null;
+                if (cached != null)
+                {
+                    node.find(new EnhanceEntity(cached, primaryKey, null));
+                }
+                else
+                {
+                    node.find();
+                    onSecondLevelCachePut(entityMetadata, primaryKey, node);
+                }
             }
             finally
             {
@@ -263,7 +288,11 @@ public final class PersistenceDelegator
     }
 
     /**
-     * Retrieves a {@link List} of Entities for given Primary Keys
+     * Retrieves a {@link List} of Entities for given Primary Keys. Entities
+     * available in persistence cache are returned from there, all remaining
+     * keys are fetched from database in one go via
+     * {@link Client#findAll(Class, String[], Object...)}, so that client can
+     * use native multi-get of underlying datastore.
      * 
      * @param entityClass
      *            Entity Class
@@ -272,7 +301,6 @@ public final class PersistenceDelegator
      * @see {@link PersistenceDelegator#find(Class, Object)}
      * @return List of found entities
      */
-    // TODO Is it possible to pass all primary keys directly to database client.
     public <E> List<E> find(Class<E> entityClass, Object... primaryKeys)
     {
         List<E> entities = new ArrayList<E>();
@@ -280,16 +308,142 @@ public final class PersistenceDelegator
         {
             return entities;
         }
-        Set pKeys = new HashSet(Arrays.asList(primaryKeys));
-        for (Object primaryKey : pKeys)
+
+        EntityMetadata entityMetadata = getMetadata(entityClass);
+
+        MainCache mainCache = (MainCache) getPersistenceCache().getMainCache();
+
+        // Node id to node, in order of supplied keys.
+        Map<String, Node> nodes = new LinkedHashMap<String, Node>();
+
+        // Node id to primary key, for keys which are to be fetched from
+        // database.
+        Map<String, Object> missingKeys = new LinkedHashMap<String, Object>();
+
+        for (Object primaryKey : primaryKeys)
+        {
+            if (primaryKey == null)
+            {
+                throw new IllegalArgumentException("PrimaryKey value must not be null for object you want to find.");
+            }
+
+            String nodeId = ObjectGraphUtils.getNodeId(primaryKey, entityClass);
+            if (!nodes.containsKey(nodeId))
+            {
+                Node node = mainCache.getNodeFromCache(nodeId);
+
+                // if node is not in persistence cache or is dirty, fetch from
+                // database
+                if (node == null || node.isDirty())
+                {
+                    missingKeys.put(nodeId, primaryKey);
+                    node = null;
+                }
+                nodes.put(nodeId, node);
+            }
+        }
+
+        if (!missingKeys.isEmpty())
         {
-            E e = find(entityClass, primaryKey);
-            if (e != null)
+            findAll(entityClass, entityMetadata, missingKeys, nodes);
+        }
+
+        for (Node node : nodes.values())
+        {
+            if (node != null && node.getData() != null)
+            {
+                E e = (E) ObjectUtils.deepCopy(node.getData());
+                onSetProxyOwners(entityMetadata, e);
                 entities.add(e);
+            }
         }
         return entities;
     }
 
+    /**
+     * Fetches entities for given keys via single call to client and builds a
+     * managed node for each one of them.
+     * 
+     * @param entityClass
+     *            entity class
+     * @param entityMetadata
+     *            entity metadata
+     * @param keys
+     *            node id to primary key map of keys to be fetched.
+     * @param nodes
+     *            node id to node map, populated with fetched nodes.
+     */
+    private void findAll(Class<?> entityClass, EntityMetadata entityMetadata, Map<String, Object> keys,
+            Map<String, Node> nodes)
+    {
+        Client client = getClient(entityMetadata);
+
+        try
+        {
+            lock.readLock().lock();
+
+            // Serve whatever is available from second level cache.
+            Map<String, Object> keysToFetch = new LinkedHashMap<String, Object>(keys);
+            if (secondLevelCacheManager != null && secondLevelCacheManager.isCacheable(entityMetadata))
+            {
+                for (Map.Entry<String, Object> key : keys.entrySet())
+                {
+                    Object cached = secondLevelCacheManager.get(entityMetadata, key.getValue());
+                    if (cached != null)
+                    {
+                        Node node = new Node(key.getKey(), entityClass, new ManagedState(), getPersistenceCache(),
+                                key.getValue());
+                        node.setClient(client);
+                        node.setPersistenceDelegator(this);
+                        node.find(new EnhanceEntity(cached, key.getValue(), null));
+                        nodes.put(key.getKey(), node);
+                        keysToFetch.remove(key.getKey());
+                    }
+                }
+                if (keysToFetch.isEmpty())
+                {
+                    return;
+                }
+            }
+
+            List results = client.findAll(entityClass, null, keysToFetch.values().toArray());
+            if (results == null)
+            {
+                return;
+            }
+
+            for (Object result : results)
+            {
+                if (result != null)
+                {
+                    // Clients wrap entities holding foreign keys, same as on
+                    // single find.
+                    EnhanceEntity ee = result instanceof EnhanceEntity ? (EnhanceEntity) result : new EnhanceEntity(
+                            result, PropertyAccessorHelper.getId(result, entityMetadata), null);
+                    if (ee.getEntity() == null)
+                    {
+                        continue;
+                    }
+
+                    Object entityId = PropertyAccessorHelper.getId(ee.getEntity(), entityMetadata);
+                    String nodeId = ObjectGraphUtils.getNodeId(entityId, entityClass);
+                    Object primaryKey = keysToFetch.containsKey(nodeId) ? keysToFetch.get(nodeId) : entityId;
+
+                    Node node = new Node(nodeId, entityClass, new ManagedState(), getPersistenceCache(), primaryKey);
+                    node.setClient(client);
+                    node.setPersistenceDelegator(this);
+                    node.find(ee);
+                    onSecondLevelCachePut(entityMetadata, primaryKey, node);
+                    nodes.put(nodeId, node);
+                }
+            }
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * Retrieves {@link List} of entities for a given {@link Map} of embedded
      * column values. Purpose of this method is to provide functionality of
@@ -397,17 +551,25 @@ public final class PersistenceDelegator
                     EntityMetadata metadata = getMetadata(node.getDataClass());
                     node.setClient(getClient(metadata));
 
+                    onSecondLevelCacheEviction(node, metadata);
+
                     // if batch size is defined.
-                    if ((node.getClient() instanceof Batcher) && ((Batcher) (node.getClient())).getBatchSize() > 0)
-                    {
-                        isBatch = true;
-                        ((Batcher) (node.getClient())).addBatch(node);
-                    }
-                    else if (isTransactionInProgress
+                    boolean batching = (node.getClient() instanceof Batcher)
+                            && ((Batcher) (node.getClient())).getBatchSize() > 0;
+
+                    // Within transaction, node is held till commit, and goes
+                    // into batch from there.
+                    if (isTransactionInProgress
                             && MetadataUtils.defaultTransactionSupported(metadata.getPersistenceUnit()))
                     {
+                        isBatch = isBatch || batching;
                         onSynchronization(node, metadata);
                     }
+                    else if (batching)
+                    {
+                        isBatch = true;
+                        ((Batcher) (node.getClient())).addBatch(node);
+                    }
                     else
                     {
                         node.flush();
@@ -423,6 +585,12 @@ public final class PersistenceDelegator
                 // Flush Join Table data into database
                 flushJoinTableData();
                 // performed,
+
+                if (!isTransactionInProgress)
+                {
+                    // Nodes are already written, nothing to wait for.
+                    onSecondLevelCacheFlush();
+                }
             }
         }
     }
@@ -545,7 +713,7 @@ public final class PersistenceDelegator
     
     private Query getQueryInstance(String jpaQuery, boolean isNative, Class mappedClass)
     {
-        Query query = new QueryResolver().getQueryImplementation(jpaQuery, this,mappedClass,isNative);
+        Query query = new QueryResolver(queryPlanCache).getQueryImplementation(jpaQuery, this, mappedClass, isNative);
         return query;
     }
     /**
@@ -715,6 +883,7 @@ public final class PersistenceDelegator
         execute();
         flushManager.commit();
         flushManager.clearFlushStack();
+        onSecondLevelCacheFlush();
         isTransactionInProgress = false;
         enableFlush = false;
     }
@@ -730,12 +899,14 @@ public final class PersistenceDelegator
         enableFlush = false;
         flushManager.commit();
         flushManager.clearFlushStack();
+        onSecondLevelCacheFlush();
     }
 
     void rollback()
     {
         flushManager.rollback(this);
         flushManager.clearFlushStack();
+        onSecondLevelCacheFlush();
         getPersistenceCache().clean();
         isTransactionInProgress = false;
     }
@@ -811,8 +982,11 @@ public final class PersistenceDelegator
             {
                 if (client instanceof Batcher)
                 {
-                    // if no batch operation performed{may be running in transaction?}
-                    if (((Batcher) client).getBatchSize() == 0 || ((Batcher) client).executeBatch() > 0)
+                    // if no batch operation performed{may be running in
+                    // transaction?}. Within transaction, batch is already
+                    // executed by commit of it's transaction resource.
+                    if (((Batcher) client).getBatchSize() == 0 || ((Batcher) client).executeBatch() > 0
+                            || isTransactionInProgress)
                     {
                         flushJoinTableData();
                     }
@@ -872,7 +1046,7 @@ public final class PersistenceDelegator
      */
     Coordinator getCoordinator()
     {
-        coordinator = new Coordinator();
+        coordinator = new Coordinator(commitExecutor);
         try
         {
             for (String pu : clientMap.keySet())
@@ -914,6 +1088,113 @@ public final class PersistenceDelegator
         return coordinator;
     }
 
+    /**
+     * Sets second level entity cache shared across entity managers.
+     * 
+     * @param secondLevelCacheManager
+     *            second level cache manager.
+     */
+    void setSecondLevelCacheManager(SecondLevelCacheManager secondLevelCacheManager)
+    {
+        this.secondLevelCacheManager = secondLevelCacheManager;
+    }
+
+    /**
+     * Sets cache of parsed jpa queries shared across entity managers.
+     * 
+     * @param queryPlanCache
+     *            query plan cache, null if disabled.
+     */
+    void setQueryPlanCache(QueryPlanCache queryPlanCache)
+    {
+        this.queryPlanCache = queryPlanCache;
+    }
+
+    /**
+     * Sets pool of reserved generated ids shared across entity managers.
+     * 
+     * @param idBlockPool
+     *            id block pool.
+     */
+    void setIdBlockPool(IdBlockPool idBlockPool)
+    {
+        this.idBlockPool = idBlockPool;
+    }
+
+    /**
+     * @return pool of reserved generated ids, null if not set.
+     */
+    IdBlockPool getIdBlockPool()
+    {
+        return idBlockPool;
+    }
+
+    /**
+     * Sets executor to commit persistence units of a polyglot transaction in
+     * parallel, shared across entity managers.
+     * 
+     * @param commitExecutor
+     *            commit executor, null to commit serially.
+     */
+    void setCommitExecutor(ExecutorService commitExecutor)
+    {
+        this.commitExecutor = commitExecutor;
+    }
+
+    /**
+     * Puts freshly loaded node data into second level cache.
+     * 
+     * @param metadata
+     *            entity metadata.
+     * @param primaryKey
+     *            primary key.
+     * @param node
+     *            loaded node.
+     */
+    private void onSecondLevelCachePut(EntityMetadata metadata, Object primaryKey, Node node)
+    {
+        if (secondLevelCacheManager != null && node.getData() != null)
+        {
+            secondLevelCacheManager.put(metadata, primaryKey, node.getData());
+        }
+    }
+
+    /**
+     * Evicts node, which is about to be written, from second level cache. It
+     * will be evicted once again after flush/commit, so that any stale copy
+     * loaded by another entity manager in between is discarded.
+     * 
+     * @param node
+     *            data node.
+     * @param metadata
+     *            entity metadata.
+     */
+    private void onSecondLevelCacheEviction(Node node, EntityMetadata metadata)
+    {
+        if (secondLevelCacheManager != null && node.isDirty() && secondLevelCacheManager.isCacheable(metadata))
+        {
+            secondLevelCacheManager.evict(metadata, node.getEntityId(),
+                    node.isUpdate() && !node.isInState(RemovedState.class));
+            evictedNodes.put(node.getNodeId(), node);
+        }
+    }
+
+    /**
+     * Evicts all nodes written within current unit of work from second level
+     * cache.
+     */
+    private void onSecondLevelCacheFlush()
+    {
+        if (secondLevelCacheManager != null && !evictedNodes.isEmpty())
+        {
+            for (Node node : evictedNodes.values())
+            {
+                secondLevelCacheManager.evict(getMetadata(node.getDataClass()), node.getEntityId(), false);
+            }
+        }
+        evictedNodes.clear();
+    }
+
     /**
      * If transaction is in progress and user explicitly invokes em.flush()!
      * 
@@ -116,7 +116,7 @@ public class CacheBase {
         }
     }
 
-    public void removeNodeFromCache(Node node) {
+    public synchronized void removeNodeFromCache(Node node) {
         if (getHeadNodes().contains(node)) {
             getHeadNodes().remove(node);
         }
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.query;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A select item of an aggregate query, i.e. an aggregate function such as
+ * <code>COUNT(p)</code>, <code>SUM(p.salary)</code> or a grouping attribute
+ * <code>p.city</code> selected as is.
+ */
+public final class Aggregation
+{
+    /**
+     * Supported aggregate functions.
+     */
+    public static enum Function
+    {
+        COUNT, SUM, MIN, MAX, AVG;
+    }
+
+    /** Pattern of an aggregate function over identification variable or path. */
+    private static final Pattern FUNCTION_PATTERN = Pattern.compile(
+            "^(COUNT|SUM|MIN|MAX|AVG)\\s*\\(\\s*(DISTINCT\\s+)?([^\\s\\.\\)]+)(\\.([^\\s\\)]+))?\\s*\\)$",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Aggregate function, null for grouping attribute. */
+    private final Function function;
+
+    /** Identification variable. */
+    private final String alias;
+
+    /** Attribute name, null if function is over identification variable. */
+    private final String property;
+
+    /** Whether function is over distinct values. */
+    private final boolean distinct;
+
+    private Aggregation(Function function, String alias, String property, boolean distinct)
+    {
+        this.function = function;
+        this.alias = alias;
+        this.property = property;
+        this.distinct = distinct;
+    }
+
+    /**
+     * Returns true if given select item is an aggregate function.
+     *
+     * @param item
+     *            select item.
+     * @return true, if aggregate function.
+     */
+    static boolean isAggregate(String item)
+    {
+        return FUNCTION_PATTERN.matcher(item.trim()).matches();
+    }
+
+    /**
+     * Parses select item of an aggregate query.
+     *
+     * @param item
+     *            select item.
+     * @return aggregation.
+     */
+    static Aggregation parse(String item)
+    {
+        String content = item.trim();
+        Matcher matcher = FUNCTION_PATTERN.matcher(content);
+        if (matcher.matches())
+        {
+            if ("*".equals(matcher.group(3)))
+            {
+                throw new JPQLParseException("Identification variable is mandatory in aggregate function: " + item);
+            }
+            return new Aggregation(Function.valueOf(matcher.group(1).toUpperCase()), matcher.group(3),
+                    matcher.group(5), matcher.group(2) != null);
+        }
+
+        int index = content.indexOf(".");
+        if (index <= 0 || index == content.length() - 1)
+        {
+            throw new JPQLParseException("Bad query format, only grouping attributes may be selected along with"
+                    + " aggregate functions: " + item);
+        }
+        return new Aggregation(null, content.substring(0, index), content.substring(index + 1), false);
+    }
+
+    /**
+     * Returns aggregate function, null for a grouping attribute.
+     *
+     * @return the function
+     */
+    public Function getFunction()
+    {
+        return function;
+    }
+
+    /**
+     * Returns true if this is an aggregate function.
+     *
+     * @return true, if aggregate function.
+     */
+    public boolean isFunction()
+    {
+        return function != null;
+    }
+
+    /**
+     * @return the alias
+     */
+    public String getAlias()
+    {
+        return alias;
+    }
+
+    /**
+     * Returns attribute name, null if function is over identification
+     * variable, e.g. <code>COUNT(p)</code>.
+     *
+     * @return the property
+     */
+    public String getProperty()
+    {
+        return property;
+    }
+
+    /**
+     * @return the distinct
+     */
+    public boolean isDistinct()
+    {
+        return distinct;
+    }
+
+    @Override
+    public String toString()
+    {
+        String path = property != null ? alias + "." + property : alias;
+        return function != null ? function + "(" + (distinct ? "DISTINCT " : "") + path + ")" : path;
+    }
+}
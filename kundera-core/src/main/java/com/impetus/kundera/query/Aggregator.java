@@ -0,0 +1,390 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.query;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.metamodel.EntityType;
+
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.property.PropertyAccessorHelper;
+
+/**
+ * Evaluates select items of an aggregate query over entities fetched by the
+ * query, for datastores which can not compute them natively. Entities are
+ * hashed on values of grouping attributes, so only one accumulator per group
+ * and select item is held in memory.
+ */
+final class Aggregator
+{
+    /** Select items. */
+    private final List<Aggregation> aggregations;
+
+    /** Fields of grouping attributes. */
+    private final Field[] groupingFields;
+
+    /** Fields of select items, null for functions over identification variable. */
+    private final Field[] itemFields;
+
+    /** Accumulators per group, in order of first appearance. */
+    private final Map<List<Object>, Accumulator[]> groups = new LinkedHashMap<List<Object>, Accumulator[]>();
+
+    /**
+     * Creates aggregator for given query.
+     *
+     * @param m
+     *            entity metadata.
+     * @param kunderaQuery
+     *            aggregate query.
+     */
+    Aggregator(EntityMetadata m, KunderaQuery kunderaQuery)
+    {
+        EntityType entityType = KunderaMetadataManager.getMetamodel(m.getPersistenceUnit()).entity(
+                m.getEntityClazz());
+        this.aggregations = kunderaQuery.getAggregations();
+
+        List<String> grouping = kunderaQuery.getGrouping();
+        groupingFields = new Field[grouping.size()];
+        for (int i = 0; i < groupingFields.length; i++)
+        {
+            groupingFields[i] = (Field) entityType.getAttribute(grouping.get(i)).getJavaMember();
+        }
+
+        itemFields = new Field[aggregations.size()];
+        for (int i = 0; i < itemFields.length; i++)
+        {
+            String property = aggregations.get(i).getProperty();
+            itemFields[i] = property != null ? (Field) entityType.getAttribute(property).getJavaMember() : null;
+        }
+    }
+
+    /**
+     * Adds an entity to its group.
+     *
+     * @param entity
+     *            entity.
+     */
+    void add(Object entity)
+    {
+        List<Object> key = new ArrayList<Object>(groupingFields.length);
+        for (Field field : groupingFields)
+        {
+            key.add(PropertyAccessorHelper.getObject(entity, field));
+        }
+
+        Accumulator[] accumulators = groups.get(key);
+        if (accumulators == null)
+        {
+            accumulators = newAccumulators();
+            groups.put(key, accumulators);
+        }
+
+        for (int i = 0; i < accumulators.length; i++)
+        {
+            accumulators[i].add(itemFields[i] != null ? PropertyAccessorHelper.getObject(entity, itemFields[i]) : entity);
+        }
+    }
+
+    /**
+     * Returns one row per group. A row is value of select item if there is
+     * only one, else an <code>Object[]</code> of values in order of select
+     * clause. Without grouping, there is always exactly one row.
+     *
+     * @return rows.
+     */
+    List<Object> getResults()
+    {
+        if (groups.isEmpty() && groupingFields.length == 0)
+        {
+            groups.put(new ArrayList<Object>(), newAccumulators());
+        }
+
+        List<Object> results = new ArrayList<Object>(groups.size());
+        for (Accumulator[] accumulators : groups.values())
+        {
+            if (accumulators.length == 1)
+            {
+                results.add(accumulators[0].getResult());
+            }
+            else
+            {
+                Object[] row = new Object[accumulators.length];
+                for (int i = 0; i < row.length; i++)
+                {
+                    row[i] = accumulators[i].getResult();
+                }
+                results.add(row);
+            }
+        }
+        return results;
+    }
+
+    private Accumulator[] newAccumulators()
+    {
+        Accumulator[] accumulators = new Accumulator[aggregations.size()];
+        for (int i = 0; i < accumulators.length; i++)
+        {
+            Aggregation aggregation = aggregations.get(i);
+            if (!aggregation.isFunction())
+            {
+                accumulators[i] = new GroupValue();
+                continue;
+            }
+            switch (aggregation.getFunction())
+            {
+            case COUNT:
+                accumulators[i] = new Count(aggregation.isDistinct());
+                break;
+            case SUM:
+                accumulators[i] = new Sum();
+                break;
+            case AVG:
+                accumulators[i] = new Avg();
+                break;
+            case MIN:
+                accumulators[i] = new Extreme(false);
+                break;
+            case MAX:
+                accumulators[i] = new Extreme(true);
+                break;
+            }
+        }
+        return accumulators;
+    }
+
+    /**
+     * Adds numbers the way JPA types a SUM: Long for integral, Double for
+     * floating point, BigInteger and BigDecimal as is.
+     *
+     * @param sum
+     *            sum so far, may be null.
+     * @param value
+     *            number to add.
+     * @return new sum.
+     */
+    static Number add(Number sum, Number value)
+    {
+        if (value instanceof BigDecimal || sum instanceof BigDecimal)
+        {
+            return toBigDecimal(sum).add(toBigDecimal(value));
+        }
+        else if (value instanceof BigInteger || sum instanceof BigInteger)
+        {
+            return toBigInteger(sum).add(toBigInteger(value));
+        }
+        else if (value instanceof Double || value instanceof Float || sum instanceof Double)
+        {
+            return (sum != null ? sum.doubleValue() : 0d) + value.doubleValue();
+        }
+        return (sum != null ? sum.longValue() : 0l) + value.longValue();
+    }
+
+    private static BigDecimal toBigDecimal(Number number)
+    {
+        if (number == null)
+        {
+            return BigDecimal.ZERO;
+        }
+        else if (number instanceof BigDecimal)
+        {
+            return (BigDecimal) number;
+        }
+        else if (number instanceof BigInteger)
+        {
+            return new BigDecimal((BigInteger) number);
+        }
+        else if (number instanceof Double || number instanceof Float)
+        {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    private static BigInteger toBigInteger(Number number)
+    {
+        if (number == null)
+        {
+            return BigInteger.ZERO;
+        }
+        return number instanceof BigInteger ? (BigInteger) number : BigInteger.valueOf(number.longValue());
+    }
+
+    private static Number toNumber(Object value)
+    {
+        if (value instanceof Number)
+        {
+            return (Number) value;
+        }
+        throw new QueryHandlerException("Aggregate function over non numeric value: " + value);
+    }
+
+    /**
+     * Accumulates values of one select item within a group.
+     */
+    private interface Accumulator
+    {
+        void add(Object value);
+
+        Object getResult();
+    }
+
+    /**
+     * Value of a grouping attribute, same for every entity of group.
+     */
+    private static final class GroupValue implements Accumulator
+    {
+        private Object value;
+
+        @Override
+        public void add(Object value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public Object getResult()
+        {
+            return value;
+        }
+    }
+
+    /**
+     * COUNT, nulls are not counted.
+     */
+    private static final class Count implements Accumulator
+    {
+        private final Set<Object> distinctValues;
+
+        private long count;
+
+        Count(boolean distinct)
+        {
+            this.distinctValues = distinct ? new HashSet<Object>() : null;
+        }
+
+        @Override
+        public void add(Object value)
+        {
+            if (value != null && (distinctValues == null || distinctValues.add(value)))
+            {
+                count++;
+            }
+        }
+
+        @Override
+        public Object getResult()
+        {
+            return count;
+        }
+    }
+
+    /**
+     * SUM, null if there are no values.
+     */
+    private static final class Sum implements Accumulator
+    {
+        private Number sum;
+
+        @Override
+        public void add(Object value)
+        {
+            if (value != null)
+            {
+                sum = Aggregator.add(sum, toNumber(value));
+            }
+        }
+
+        @Override
+        public Object getResult()
+        {
+            return sum;
+        }
+    }
+
+    /**
+     * AVG, as a Double.
+     */
+    private static final class Avg implements Accumulator
+    {
+        private double sum;
+
+        private long count;
+
+        @Override
+        public void add(Object value)
+        {
+            if (value != null)
+            {
+                sum += toNumber(value).doubleValue();
+                count++;
+            }
+        }
+
+        @Override
+        public Object getResult()
+        {
+            return count > 0 ? sum / count : null;
+        }
+    }
+
+    /**
+     * MIN or MAX over comparable values.
+     */
+    private static final class Extreme implements Accumulator
+    {
+        private final boolean max;
+
+        private Comparable value;
+
+        Extreme(boolean max)
+        {
+            this.max = max;
+        }
+
+        @Override
+        public void add(Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            if (!(value instanceof Comparable))
+            {
+                throw new QueryHandlerException("MIN/MAX over non comparable value: " + value);
+            }
+            int compared = this.value == null ? 0 : ((Comparable) value).compareTo(this.value);
+            if (this.value == null || (max ? compared > 0 : compared < 0))
+            {
+                this.value = (Comparable) value;
+            }
+        }
+
+        @Override
+        public Object getResult()
+        {
+            return value;
+        }
+    }
+}
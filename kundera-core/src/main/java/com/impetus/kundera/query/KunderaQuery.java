@@ -17,6 +17,7 @@ package com.impetus.kundera.query;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -31,6 +32,7 @@ import java.util.regex.Pattern;
 import javax.persistence.Parameter;
 import javax.persistence.PersistenceException;
 import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.Metamodel;
 
 import org.apache.commons.lang.StringUtils;
@@ -112,6 +114,12 @@ public class KunderaQuery
     
     boolean isNativeQuery;
 
+    /** Select items of an aggregate query, null otherwise. */
+    private List<Aggregation> aggregations;
+
+    /** Grouping attribute names. */
+    private List<String> grouping = Collections.emptyList();
+
     /**
      * Instantiates a new kundera query.
      * 
@@ -130,6 +138,59 @@ public class KunderaQuery
      */
     public void setGrouping(String groupingClause)
     {
+        List<String> groupingAttributes = new ArrayList<String>();
+        StringTokenizer tokenizer = new StringTokenizer(groupingClause, ",");
+        while (tokenizer.hasMoreTokens())
+        {
+            String property = tokenizer.nextToken().trim();
+            if (property.length() == 0 || property.endsWith("."))
+            {
+                throw new JPQLParseException("Bad query format, invalid grouping attribute: " + property);
+            }
+            groupingAttributes.add(property.substring(property.indexOf(".") + 1));
+        }
+        this.grouping = Collections.unmodifiableList(groupingAttributes);
+    }
+
+    /**
+     * Returns names of grouping attributes, empty if query has no GROUP BY.
+     * 
+     * @return grouping attributes.
+     */
+    public List<String> getGrouping()
+    {
+        return grouping;
+    }
+
+    /**
+     * Sets select items of an aggregate query.
+     * 
+     * @param aggregations
+     *            select items.
+     */
+    void setAggregations(List<Aggregation> aggregations)
+    {
+        this.aggregations = Collections.unmodifiableList(aggregations);
+    }
+
+    /**
+     * Returns select items of an aggregate query, in order of select clause.
+     * 
+     * @return select items, null if it is not an aggregate query.
+     */
+    public List<Aggregation> getAggregations()
+    {
+        return aggregations;
+    }
+
+    /**
+     * Returns true if select clause has aggregate functions.
+     * 
+     * @return true, if aggregate query.
+     */
+    public boolean isAggregated()
+    {
+        return aggregations != null;
     }
 
     /**
@@ -342,6 +403,48 @@ public class KunderaQuery
         initEntityClass();
         initFilter();
         initUpdateClause();
+        initAggregations();
+    }
+
+    /**
+     * Verifies attributes of aggregate functions and grouping.
+     */
+    private void initAggregations()
+    {
+        if (aggregations == null)
+        {
+            return;
+        }
+
+        EntityType entityType = getMetamodel(persistenceUnit).entity(entityClass);
+        for (String property : grouping)
+        {
+            getAttribute(entityType, property);
+        }
+        for (Aggregation aggregation : aggregations)
+        {
+            if (aggregation.getProperty() != null)
+            {
+                getAttribute(entityType, aggregation.getProperty());
+            }
+            if (!aggregation.isFunction() && !grouping.contains(aggregation.getProperty()))
+            {
+                throw new QueryHandlerException("Select item " + aggregation
+                        + " is neither an aggregate function nor a grouping attribute");
+            }
+        }
+    }
+
+    private Attribute getAttribute(EntityType entityType, String property)
+    {
+        try
+        {
+            return entityType.getAttribute(property);
+        }
+        catch (IllegalArgumentException iaex)
+        {
+            throw new QueryHandlerException("No attribute " + property + " found in entity " + entityName);
+        }
     }
 
     /**
@@ -876,6 +979,78 @@ public class KunderaQuery
 
     }
 
+    /**
+     * Returns a copy of this parsed query, having its own filter clauses,
+     * update clauses and parameters, so that binding parameters on copy does
+     * not change this query.
+     * 
+     * @return copy of parsed query.
+     */
+    KunderaQuery copy()
+    {
+        KunderaQuery query = new KunderaQuery();
+        query.result = result;
+        query.from = from;
+        query.filter = filter;
+        query.ordering = ordering;
+        query.entityName = entityName;
+        query.entityAlias = entityAlias;
+        query.entityClass = entityClass;
+        query.sortOrders = sortOrders;
+        query.persistenceUnit = persistenceUnit;
+        query.isDeleteUpdate = isDeleteUpdate;
+        query.isNativeQuery = isNativeQuery;
+        query.aggregations = aggregations;
+        query.grouping = grouping;
+
+        Map<FilterClause, FilterClause> filterClauses = new HashMap<FilterClause, FilterClause>();
+        for (Object o : filtersQueue)
+        {
+            if (o instanceof FilterClause)
+            {
+                FilterClause clause = (FilterClause) o;
+                FilterClause copy = query.new FilterClause(clause.property, clause.condition, null);
+                copy.value = clause.value;
+                filterClauses.put(clause, copy);
+                query.filtersQueue.add(copy);
+            }
+            else
+            {
+                query.filtersQueue.add(o);
+            }
+        }
+
+        Map<UpdateClause, UpdateClause> updateClauses = new HashMap<UpdateClause, UpdateClause>();
+        for (UpdateClause clause : updateClauseQueue)
+        {
+            UpdateClause copy = query.new UpdateClause(clause.property, null);
+            copy.value = clause.value;
+            updateClauses.put(clause, copy);
+            query.updateClauseQueue.add(copy);
+        }
+
+        if (typedParameter != null)
+        {
+            query.typedParameter = query.new TypedParameter(typedParameter.type);
+            query.typedParameter.jpaParameters.addAll(typedParameter.jpaParameters);
+            if (typedParameter.parameters != null)
+            {
+                for (Map.Entry<String, FilterClause> parameter : typedParameter.parameters.entrySet())
+                {
+                    query.typedParameter.addParameters(parameter.getKey(), filterClauses.get(parameter.getValue()));
+                }
+            }
+            if (typedParameter.updateParameters != null)
+            {
+                for (Map.Entry<String, UpdateClause> parameter : typedParameter.updateParameters.entrySet())
+                {
+                    query.typedParameter.addParameters(parameter.getKey(), updateClauses.get(parameter.getValue()));
+                }
+            }
+        }
+        return query;
+    }
+
     /* @see java.lang.Object#clone() */
     /*
      * (non-Javadoc)
@@ -15,6 +15,8 @@
  ******************************************************************************/
 package com.impetus.kundera.query;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.StringTokenizer;
 
 /**
@@ -226,7 +228,11 @@ public class KunderaQueryParser
             String[] result = null;
             int count = 0;
             // content may be empty
-            if (content.length() > 0)
+            if (content.length() > 0 && isAggregate(content))
+            {
+                compileAggregations(content);
+            }
+            else if (content.length() > 0)
             {
                 StringTokenizer stringTokenizer = new StringTokenizer(content, ",");
                 result = new String[stringTokenizer.countTokens() + 1];
@@ -348,6 +354,53 @@ public class KunderaQueryParser
             query.setFilter(content);
         }
 
+        /**
+         * Returns true if any of select items is an aggregate function.
+         * 
+         * @param content
+         *            select clause.
+         * @return true, if aggregate query.
+         */
+        private boolean isAggregate(String content)
+        {
+            StringTokenizer stringTokenizer = new StringTokenizer(content, ",");
+            while (stringTokenizer.hasMoreTokens())
+            {
+                if (Aggregation.isAggregate(stringTokenizer.nextToken()))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Compile select items of an aggregate query. Result is set to
+         * identification variable, as aggregation is over entities.
+         * 
+         * @param content
+         *            select clause.
+         */
+        private void compileAggregations(String content)
+        {
+            List<Aggregation> aggregations = new ArrayList<Aggregation>();
+            StringTokenizer stringTokenizer = new StringTokenizer(content, ",");
+            String alias = null;
+            while (stringTokenizer.hasMoreTokens())
+            {
+                Aggregation aggregation = Aggregation.parse(stringTokenizer.nextToken());
+                if (alias != null && !alias.equals(aggregation.getAlias()))
+                {
+                    throw new JPQLParseException("Bad query format, aggregation over more than one identification"
+                            + " variable: " + content);
+                }
+                alias = aggregation.getAlias();
+                aggregations.add(aggregation);
+            }
+            query.setResult(alias);
+            query.setAggregations(aggregations);
+        }
+
         /**
          * Compile group.
          */
@@ -373,14 +426,7 @@ public class KunderaQueryParser
             {
                 throw new JPQLParseException("keyword without value: HAVING");
             }
-            if (groupingClause != null)
-            {
-                groupingClause = groupingClause.trim() + content;
-            }
-            else
-            {
-                groupingClause = content;
-            }
+            // HAVING is not supported, grouping clause is kept as is.
         }
 
         /**
@@ -25,6 +25,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -45,7 +46,9 @@ import org.slf4j.LoggerFactory;
 
 import com.impetus.kundera.Constants;
 import com.impetus.kundera.client.Client;
+import com.impetus.kundera.client.ClientBase;
 import com.impetus.kundera.client.EnhanceEntity;
+import com.impetus.kundera.graph.Node;
 import com.impetus.kundera.index.DocumentIndexer;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.MetadataUtils;
@@ -57,6 +60,8 @@ import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.metadata.model.type.DefaultEntityType;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.persistence.context.CacheBase;
+import com.impetus.kundera.property.PropertyAccessorFactory;
 import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.KunderaQuery.UpdateClause;
@@ -93,6 +98,9 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
 
     private Integer fetchSize;
 
+    /** Number of entities fetched per page while aggregating. */
+    private static final int AGGREGATION_PAGE_SIZE = 1000;
+
     /**
      * Instantiates a new query impl.
      * 
@@ -147,6 +155,11 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
         Client client = persistenceDelegeator.getClient(m);
 
         handlePostEvent(m);
+
+        if (kunderaQuery.isAggregated())
+        {
+            return getAggregatedResults(m, client);
+        }
         
         if (!m.isRelationViaJoinTable() && (m.getRelationNames() == null || (m.getRelationNames().isEmpty())))
         {
@@ -173,6 +186,131 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
         return results != null ? results : new ArrayList();
     }
 
+    /**
+     * Returns rows of an aggregate query, computed natively by datastore if
+     * supported, else over entities matched by query. Max results bounds
+     * returned rows, and rows aggregated only if datastore can not scroll, see
+     * {@link #aggregate(Aggregator, EntityMetadata, Client)}.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param client
+     *            client.
+     * @return rows.
+     */
+    private List<?> getAggregatedResults(EntityMetadata m, Client client)
+    {
+        List<Object> results = onAggregation(m, client);
+        if (results == null)
+        {
+            Aggregator aggregator = new Aggregator(m, kunderaQuery);
+            aggregate(aggregator, m, client);
+            results = aggregator.getResults();
+        }
+        if (results.size() > maxResult)
+        {
+            results = new ArrayList<Object>(results.subList(0, maxResult));
+        }
+        return results;
+    }
+
+    /**
+     * Feeds every entity matched by query to aggregator, one page of
+     * {@link #AGGREGATION_PAGE_SIZE} entities at a time via {@link #iterate()},
+     * so only one page is held in memory. Max results and fetch size are
+     * lifted while scrolling, so no matching row is left out. Datastores which
+     * can not scroll aggregate over entities fetched by
+     * {@link #populateEntities(EntityMetadata, Client)}, bounded by max
+     * results like any other query.
+     * 
+     * @param aggregator
+     *            aggregator.
+     * @param m
+     *            entity metadata.
+     * @param client
+     *            client.
+     */
+    private void aggregate(Aggregator aggregator, EntityMetadata m, Client client)
+    {
+        Iterator<Object> entities = null;
+        int maxResult = this.maxResult;
+        Integer fetchSize = this.fetchSize;
+        this.maxResult = Integer.MAX_VALUE;
+        this.fetchSize = null;
+        try
+        {
+            try
+            {
+                entities = iterate();
+            }
+            catch (UnsupportedOperationException e)
+            {
+                log.debug("Scrolling is unsupported for query " + query + ", aggregating over fetched entities.");
+            }
+
+            if (entities instanceof IResultIterator)
+            {
+                IResultIterator<Object> pages = (IResultIterator<Object>) entities;
+                List<Object> page = pages.next(AGGREGATION_PAGE_SIZE);
+                while (!page.isEmpty())
+                {
+                    for (Object entity : page)
+                    {
+                        aggregator.add(entity);
+                    }
+                    page = pages.next(AGGREGATION_PAGE_SIZE);
+                }
+            }
+            else
+            {
+                while (entities != null && entities.hasNext())
+                {
+                    aggregator.add(entities.next());
+                }
+            }
+        }
+        finally
+        {
+            this.maxResult = maxResult;
+            this.fetchSize = fetchSize;
+        }
+
+        if (entities == null)
+        {
+            List<Object> fetched = populateEntities(m, client);
+            if (fetched != null)
+            {
+                if (fetched.size() >= maxResult)
+                {
+                    log.warn("Aggregating over first " + maxResult + " entities only for query " + query
+                            + ", as datastore does not support scrolling. Set max results to aggregate over more.");
+                }
+                for (Object entity : fetched)
+                {
+                    aggregator.add(entity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes rows of an aggregate query within datastore, over all rows
+     * matched by query. Implementations return null if query can not be pushed
+     * down, in which case aggregate functions are evaluated over entities
+     * streamed by {@link #iterate()}.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param client
+     *            client.
+     * @return rows, in format of {@link KunderaQuery#getAggregations()}, or
+     *         null.
+     */
+    protected List<Object> onAggregation(EntityMetadata m, Client client)
+    {
+        return null;
+    }
+
     protected void handlePostEvent(EntityMetadata m)
     {
         if(!kunderaQuery.isDeleteUpdate())
@@ -188,25 +326,20 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
         // if it contain a relation means it is a child
         // if it does not then it means it is a parent.
         List<Object> result = null;
-        if (enhanceEntities != null)
+        if (enhanceEntities != null && !enhanceEntities.isEmpty())
         {
+            List<EnhanceEntity> ees = new ArrayList<EnhanceEntity>(enhanceEntities.size());
             for (Object e : enhanceEntities)
             {
-                if (result == null)
-                {
-                    result = new ArrayList<Object>(enhanceEntities.size());
-                }
-
                 if (!(e instanceof EnhanceEntity))
                 {
                     e = new EnhanceEntity(e, PropertyAccessorHelper.getId(e, m), null);
                 }
-
-                EnhanceEntity ee = (EnhanceEntity) e;
-
-                result.add(getReader().recursivelyFindEntities(ee.getEntity(), ee.getRelations(), m,
-                        persistenceDelegeator,false));
+                ees.add((EnhanceEntity) e);
             }
+
+            // associations of whole page are resolved together.
+            result = getReader().recursivelyFindEntities(ees, m, persistenceDelegeator, false);
         }
 
         return result;
@@ -461,6 +594,138 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
      */
     protected abstract int onExecuteUpdate();
 
+    /**
+     * Executes delete/update query as a single datastore statement, without
+     * loading matching entities. Query implementations capable of server side
+     * bulk delete/update should override it.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param client
+     *            client.
+     * @return number of affected records, or {@link Constants#INVALID} if
+     *         query can not be pushed down to datastore.
+     */
+    protected int executeBulkDeleteOrUpdate(EntityMetadata m, Client client)
+    {
+        return Constants.INVALID;
+    }
+
+    /**
+     * Performs delete or update based on query. Pushes it down to datastore
+     * via {@link #executeBulkDeleteOrUpdate(EntityMetadata, Client)} if
+     * possible, else loads matching entities and merges/removes them one by
+     * one.
+     * 
+     * @return number of affected records.
+     */
+    protected int onBulkDeleteOrUpdate()
+    {
+        EntityMetadata m = getEntityMetadata();
+        Client client = persistenceDelegeator.getClient(m);
+        if (isBulkDeleteOrUpdateAllowed(m, client))
+        {
+            int count = executeBulkDeleteOrUpdate(m, client);
+            if (count != Constants.INVALID)
+            {
+                if (log.isDebugEnabled())
+                    log.debug("Executed query " + query + " as bulk statement, affected records: " + count);
+
+                evictFromPersistenceCache(m);
+                return count;
+            }
+        }
+
+        List result = getResultList();
+        return result != null ? result.size() : 0;
+    }
+
+    /**
+     * Returns update clause values keyed by attribute, values being converted
+     * to attribute's java type.
+     * 
+     * @param m
+     *            entity metadata.
+     * @return update values, or null if any of update clauses is on an
+     *         association, embedded or id attribute.
+     */
+    protected Map<Attribute, Object> getUpdateValues(EntityMetadata m)
+    {
+        EntityType entityType = KunderaMetadata.INSTANCE.getApplicationMetadata()
+                .getMetamodel(m.getPersistenceUnit()).entity(m.getEntityClazz());
+
+        Map<Attribute, Object> values = new LinkedHashMap<Attribute, Object>();
+        for (UpdateClause c : kunderaQuery.getUpdateClauseQueue())
+        {
+            Attribute attribute;
+            try
+            {
+                attribute = entityType.getAttribute(c.getProperty());
+            }
+            catch (IllegalArgumentException iax)
+            {
+                log.error("Invalid column name: " + c.getProperty() + " for class : " + m.getEntityClazz());
+                throw new QueryHandlerException("Error while executing query: " + iax);
+            }
+
+            if (attribute.isAssociation() || attribute.isCollection()
+                    || !attribute.getPersistentAttributeType().equals(Attribute.PersistentAttributeType.BASIC)
+                    || attribute.equals(m.getIdAttribute()))
+            {
+                return null;
+            }
+
+            Field field = (Field) attribute.getJavaMember();
+            Object value = c.getValue();
+            if (value instanceof String && !field.getType().equals(String.class))
+            {
+                value = PropertyAccessorFactory.getPropertyAccessor(field).fromString(field.getType(),
+                        value.toString());
+            }
+            values.put(attribute, value);
+        }
+        return values;
+    }
+
+    /**
+     * Bulk statements bypass persistence context, lucene indexes, second level
+     * cache and entity listeners. So allowed only for entities which depend
+     * upon none of these and when no transaction is in progress.
+     * 
+     * @param m
+     *            entity metadata.
+     * @param client
+     *            client.
+     * @return true, if query can be executed as bulk statement.
+     */
+    private boolean isBulkDeleteOrUpdateAllowed(EntityMetadata m, Client client)
+    {
+        return kunderaQuery.isDeleteUpdate() && !kunderaQuery.isNative()
+                && !persistenceDelegeator.isTransactionInProgress() && !m.isRelationViaJoinTable()
+                && (m.getRelationNames() == null || m.getRelationNames().isEmpty()) && !m.isCacheable()
+                && m.getCallbackMethodsMap().isEmpty()
+                && (!(client instanceof ClientBase) || ((ClientBase) client).useSecondryIndex());
+    }
+
+    /**
+     * Removes managed instances of entity from persistence cache, as they are
+     * stale after bulk delete/update.
+     * 
+     * @param m
+     *            entity metadata.
+     */
+    private void evictFromPersistenceCache(EntityMetadata m)
+    {
+        CacheBase mainCache = persistenceDelegeator.getPersistenceCache().getMainCache();
+        for (Node node : new ArrayList<Node>(mainCache.getAllNodes()))
+        {
+            if (m.getEntityClazz().equals(node.getDataClass()))
+            {
+                mainCache.removeNodeFromCache(node);
+            }
+        }
+    }
+
     /**
      * Returns entity metadata, in case of native query mapped class is present
      * within application metadata.
@@ -509,6 +774,8 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
             else
             {
                 EntityMetadata entityMetadata = getEntityMetadata();
+                DefaultEntityType entityType = (DefaultEntityType) KunderaMetadata.INSTANCE.getApplicationMetadata()
+                        .getMetamodel(entityMetadata.getPersistenceUnit()).entity(entityMetadata.getEntityClazz());
                 for (Object result : results)
                 {
                     for (UpdateClause c : kunderaQuery.getUpdateClauseQueue())
@@ -516,11 +783,6 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
                         String columnName = c.getProperty();
                         try
                         {
-
-                            DefaultEntityType entityType = (DefaultEntityType) KunderaMetadata.INSTANCE
-                                    .getApplicationMetadata().getMetamodel(entityMetadata.getPersistenceUnit())
-                                    .entity(entityMetadata.getEntityClazz());
-
                             // That will always be attribute name.
 
                             Attribute attribute = entityType.getAttribute(columnName);
@@ -535,7 +797,6 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
                             {
                                 PropertyAccessorHelper.set(result, (Field) attribute.getJavaMember(), c.getValue());
                             }
-                            persistenceDelegeator.merge(result);
                         }
                         catch (IllegalArgumentException iax)
                         {
@@ -544,6 +805,9 @@ public abstract class QueryImpl<E> implements Query, com.impetus.kundera.query.Q
                             throw new QueryHandlerException("Error while executing query: " + iax);
                         }
                     }
+
+                    // Merge once, after all update clauses are applied.
+                    persistenceDelegeator.merge(result);
                 }
             }
         }
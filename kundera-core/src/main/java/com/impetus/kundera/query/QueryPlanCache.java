@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.query;
+
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.impetus.kundera.metadata.model.EntityMetadata;
+
+/**
+ * Bounded, least recently used cache of parsed JPQL queries, one per entity
+ * manager factory. Each entry holds a parsed {@link KunderaQuery} template,
+ * which is never handed out itself; every query gets its own copy to bind
+ * parameters on.
+ */
+public final class QueryPlanCache
+{
+    /** Default number of query plans held. */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    private final Map<String, QueryPlan> plans;
+
+    /**
+     * @param maxSize
+     *            maximum number of query plans to hold.
+     */
+    public QueryPlanCache(final int maxSize)
+    {
+        this.plans = Collections.synchronizedMap(new LinkedHashMap<String, QueryPlan>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QueryPlan> eldest)
+            {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Returns query plan for given jpa query, null if not cached.
+     * 
+     * @param jpaQuery
+     *            jpa query or named query name.
+     * @return query plan.
+     */
+    QueryPlan get(String jpaQuery)
+    {
+        return plans.get(jpaQuery);
+    }
+
+    /**
+     * Caches query plan for given jpa query.
+     * 
+     * @param jpaQuery
+     *            jpa query or named query name.
+     * @param plan
+     *            query plan.
+     */
+    void put(String jpaQuery, QueryPlan plan)
+    {
+        plans.put(jpaQuery, plan);
+    }
+
+    /**
+     * @return number of cached query plans.
+     */
+    public int size()
+    {
+        return plans.size();
+    }
+
+    /**
+     * Clears all cached query plans.
+     */
+    public void clear()
+    {
+        plans.clear();
+    }
+
+    /**
+     * Parsed, parameter independent form of a jpa query.
+     */
+    static final class QueryPlan
+    {
+        private final KunderaQuery template;
+
+        private final EntityMetadata entityMetadata;
+
+        /** Constructor of client specific query implementation. */
+        private volatile Constructor<?> queryConstructor;
+
+        QueryPlan(KunderaQuery template, EntityMetadata entityMetadata)
+        {
+            this.template = template;
+            this.entityMetadata = entityMetadata;
+        }
+
+        /**
+         * @return a new copy of parsed query, to bind parameters on.
+         */
+        KunderaQuery newKunderaQuery()
+        {
+            return template.copy();
+        }
+
+        EntityMetadata getEntityMetadata()
+        {
+            return entityMetadata;
+        }
+
+        Constructor<?> getQueryConstructor()
+        {
+            return queryConstructor;
+        }
+
+        void setQueryConstructor(Constructor<?> queryConstructor)
+        {
+            this.queryConstructor = queryConstructor;
+        }
+    }
+}
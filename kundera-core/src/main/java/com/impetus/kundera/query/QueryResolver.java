@@ -29,6 +29,7 @@ import com.impetus.kundera.metadata.model.ApplicationMetadata;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
 import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.query.QueryPlanCache.QueryPlan;
 
 /**
  * The Class QueryResolver.
@@ -42,6 +43,24 @@ public class QueryResolver
     /** The log. */
     private static Logger log = LoggerFactory.getLogger(QueryResolver.class);
 
+    /** Parsed query plans of entity manager factory, may be null. */
+    private final QueryPlanCache queryPlanCache;
+
+    public QueryResolver()
+    {
+        this(null);
+    }
+
+    /**
+     * @param queryPlanCache
+     *            query plan cache to look up and cache parsed jpa queries, null
+     *            to parse every query.
+     */
+    public QueryResolver(QueryPlanCache queryPlanCache)
+    {
+        this.queryPlanCache = queryPlanCache;
+    }
+
     /**
      * Gets the query implementation.
      * 
@@ -60,7 +79,7 @@ public class QueryResolver
         {
             throw new QueryHandlerException("Query String should not be null ");
         }
-        KunderaQuery kunderaQuery = new KunderaQuery();
+        KunderaQuery kunderaQuery = null;
         ApplicationMetadata appMetadata = KunderaMetadata.INSTANCE.getApplicationMetadata();
         String mappedQuery = appMetadata.getQuery(jpaQuery);
 
@@ -71,17 +90,30 @@ public class QueryResolver
 
         EntityMetadata m = null;
 
+        QueryPlan plan = null;
+
         // In case of named native query
         if (!isNative)
         {
-            KunderaQueryParser parser = new KunderaQueryParser(kunderaQuery, mappedQuery != null ? mappedQuery
-                    : jpaQuery);
+            plan = queryPlanCache != null ? queryPlanCache.get(jpaQuery) : null;
+            if (plan == null)
+            {
+                KunderaQuery template = new KunderaQuery();
+                KunderaQueryParser parser = new KunderaQueryParser(template, mappedQuery != null ? mappedQuery
+                        : jpaQuery);
 
-            parser.parse();
+                parser.parse();
 
-            kunderaQuery.postParsingInit();
-            // pu = kunderaQuery.getPersistenceUnit();
-            m = kunderaQuery.getEntityMetadata();
+                template.postParsingInit();
+                // pu = kunderaQuery.getPersistenceUnit();
+                plan = new QueryPlan(template, template.getEntityMetadata());
+                if (queryPlanCache != null)
+                {
+                    queryPlanCache.put(jpaQuery, plan);
+                }
+            }
+            kunderaQuery = plan.newKunderaQuery();
+            m = plan.getEntityMetadata();
         }
         else
         {
@@ -94,6 +126,7 @@ public class QueryResolver
 
             // pu = appMetadata.getMappedPersistenceUnit(mappedClass).get(0);
             
+            kunderaQuery = new KunderaQuery();
             kunderaQuery.isNativeQuery = true;
             m = KunderaMetadataManager.getEntityMetadata(mappedClass);
 
@@ -122,7 +155,7 @@ public class QueryResolver
 
         try
         {
-            query = getQuery(jpaQuery, persistenceDelegator, m, kunderaQuery);
+            query = getQuery(jpaQuery, persistenceDelegator, m, kunderaQuery, plan);
         }
         catch (Exception e)
         {
@@ -160,14 +193,23 @@ public class QueryResolver
      *             the invocation target exception
      */
     private Query getQuery(String jpaQuery, PersistenceDelegator persistenceDelegator, EntityMetadata m,
-            KunderaQuery kunderaQuery) throws ClassNotFoundException, SecurityException, NoSuchMethodException,
-            IllegalArgumentException, InstantiationException, IllegalAccessException, InvocationTargetException
+            KunderaQuery kunderaQuery, QueryPlan plan) throws ClassNotFoundException, SecurityException,
+            NoSuchMethodException, IllegalArgumentException, InstantiationException, IllegalAccessException,
+            InvocationTargetException
     {
         Query query;
         Class clazz = persistenceDelegator.getClient(m).getQueryImplementor();
 
         @SuppressWarnings("rawtypes")
-        Constructor constructor = clazz.getConstructor(String.class, KunderaQuery.class, PersistenceDelegator.class);
+        Constructor constructor = plan != null ? plan.getQueryConstructor() : null;
+        if (constructor == null || !constructor.getDeclaringClass().equals(clazz))
+        {
+            constructor = clazz.getConstructor(String.class, KunderaQuery.class, PersistenceDelegator.class);
+            if (plan != null)
+            {
+                plan.setQueryConstructor(constructor);
+            }
+        }
         query = (Query) constructor.newInstance(jpaQuery, kunderaQuery, persistenceDelegator);
 
         return query;
@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.persistence.ElementCollection;
+import javax.persistence.Embedded;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.Attribute.PersistentAttributeType;
+import javax.persistence.metamodel.EmbeddableType;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Type.PersistenceType;
+
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.MetamodelImpl;
+import com.impetus.kundera.metadata.model.Relation;
+import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
+import com.impetus.kundera.property.PropertyAccessor;
+import com.impetus.kundera.property.PropertyAccessorFactory;
+import com.impetus.kundera.property.PropertyAccessorHelper;
+
+/**
+ * Precomputed recipe to copy an entity class, built once per entity metadata
+ * out of its metamodel. Holds accessible fields along with their property
+ * accessors, so that {@link ObjectUtils#deepCopy(Object)} does not resolve
+ * metamodel, annotations and accessors again for every copied object.
+ */
+final class CopyPlan
+{
+    /** Copy plans per entity class. */
+    private static final ConcurrentMap<Class<?>, CopyPlan> plans = new ConcurrentHashMap<Class<?>, CopyPlan>();
+
+    /** Entity metadata this plan is built from. */
+    final EntityMetadata metadata;
+
+    /** Basic attributes, copied via their property accessors. */
+    final FieldCopy[] basicFields;
+
+    /** Embedded attributes. */
+    final EmbeddedCopy[] embeddedFields;
+
+    /** Element collection attributes. */
+    final ElementCollectionCopy[] elementCollectionFields;
+
+    /** Embeddable typed columns, copied by reference. */
+    final Field[] referenceFields;
+
+    /** Relation fields. */
+    final Field[] relationFields;
+
+    private CopyPlan(EntityMetadata metadata)
+    {
+        this.metadata = metadata;
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadataManager.getMetamodel(metadata.getPersistenceUnit());
+        EntityType entityType = metaModel.entity(metadata.getEntityClazz());
+
+        List<FieldCopy> basics = new ArrayList<FieldCopy>();
+        List<EmbeddedCopy> embeddeds = new ArrayList<EmbeddedCopy>();
+        List<ElementCollectionCopy> elementCollections = new ArrayList<ElementCollectionCopy>();
+        List<Field> references = new ArrayList<Field>();
+
+        for (Object o : entityType.getAttributes())
+        {
+            Attribute attrib = (Attribute) o;
+            Field columnField = (Field) attrib.getJavaMember();
+            if (attrib.getPersistentAttributeType().equals(PersistentAttributeType.EMBEDDED)
+                    || attrib.getPersistentAttributeType().equals(PersistentAttributeType.ELEMENT_COLLECTION))
+            {
+                EmbeddableType embeddedColumn = metaModel.embeddable(((AbstractAttribute) attrib)
+                        .getBindableJavaType());
+                if (columnField.getAnnotation(Embedded.class) != null)
+                {
+                    embeddeds.add(new EmbeddedCopy(columnField, embeddedColumn));
+                }
+                else if (columnField.getAnnotation(ElementCollection.class) != null)
+                {
+                    elementCollections.add(new ElementCollectionCopy(columnField, embeddedColumn));
+                }
+                else if (columnField.getAnnotation(javax.persistence.Column.class) != null)
+                {
+                    references.add(accessible(columnField));
+                }
+            }
+            else if (attrib.getPersistentAttributeType().equals(PersistentAttributeType.BASIC))
+            {
+                basics.add(new FieldCopy(columnField));
+            }
+        }
+
+        List<Relation> relations = metadata.getRelations();
+        relationFields = new Field[relations.size()];
+        for (int i = 0; i < relationFields.length; i++)
+        {
+            relationFields[i] = accessible(relations.get(i).getProperty());
+        }
+
+        basicFields = basics.toArray(new FieldCopy[basics.size()]);
+        embeddedFields = embeddeds.toArray(new EmbeddedCopy[embeddeds.size()]);
+        elementCollectionFields = elementCollections.toArray(new ElementCollectionCopy[elementCollections.size()]);
+        referenceFields = references.toArray(new Field[references.size()]);
+    }
+
+    /**
+     * Returns copy plan for given entity metadata, built at first use and
+     * rebuilt if metadata of class has been reloaded since.
+     *
+     * @param metadata
+     *            entity metadata.
+     * @return copy plan.
+     */
+    static CopyPlan getPlan(EntityMetadata metadata)
+    {
+        Class<?> entityClass = metadata.getEntityClazz();
+        CopyPlan plan = plans.get(entityClass);
+        if (plan == null || plan.metadata != metadata)
+        {
+            plan = new CopyPlan(metadata);
+            plans.put(entityClass, plan);
+        }
+        return plan;
+    }
+
+    private static Field accessible(Field field)
+    {
+        if (!field.isAccessible())
+        {
+            field.setAccessible(true);
+        }
+        return field;
+    }
+
+    /**
+     * Field along with accessor to copy its value.
+     */
+    static final class FieldCopy
+    {
+        final Field field;
+
+        final PropertyAccessor<?> accessor;
+
+        FieldCopy(Field field)
+        {
+            this.field = accessible(field);
+            this.accessor = PropertyAccessorFactory.getPropertyAccessor(field);
+        }
+
+        /**
+         * Copies value of field from source to target.
+         */
+        void copy(Object source, Object target) throws IllegalAccessException
+        {
+            field.set(target, accessor.getCopy(field.get(source)));
+        }
+
+        /**
+         * Returns copy of value of field in source.
+         */
+        Object getCopy(Object source) throws IllegalAccessException
+        {
+            return accessor.getCopy(field.get(source));
+        }
+    }
+
+    /**
+     * Embedded attribute and columns of its embeddable.
+     */
+    static final class EmbeddedCopy
+    {
+        final Field field;
+
+        final FieldCopy[] columns;
+
+        EmbeddedCopy(Field field, EmbeddableType embeddableType)
+        {
+            this.field = accessible(field);
+            List<FieldCopy> fields = new ArrayList<FieldCopy>();
+            for (Object column : embeddableType.getAttributes())
+            {
+                fields.add(new FieldCopy((Field) ((Attribute) column).getJavaMember()));
+            }
+            this.columns = fields.toArray(new FieldCopy[fields.size()]);
+        }
+    }
+
+    /**
+     * Element collection attribute. Elements of an embeddable element
+     * collection are copied field by field, basic elements via accessor of
+     * their runtime type.
+     */
+    static final class ElementCollectionCopy
+    {
+        final Field field;
+
+        final boolean basic;
+
+        final boolean embeddable;
+
+        final Class<?> elementClass;
+
+        final FieldCopy[] elementFields;
+
+        ElementCollectionCopy(Field field, EmbeddableType embeddableType)
+        {
+            this.field = accessible(field);
+            this.basic = PersistenceType.BASIC.equals(embeddableType.getPersistenceType());
+            this.embeddable = PersistenceType.EMBEDDABLE.equals(embeddableType.getPersistenceType());
+            this.elementClass = Collection.class.isAssignableFrom(field.getType()) ? PropertyAccessorHelper
+                    .getGenericClass(field) : null;
+
+            List<FieldCopy> fields = new ArrayList<FieldCopy>();
+            if (embeddable && elementClass != null)
+            {
+                for (Field f : elementClass.getDeclaredFields())
+                {
+                    if (!Modifier.isStatic(f.getModifiers()))
+                    {
+                        fields.add(new FieldCopy(f));
+                    }
+                }
+            }
+            this.elementFields = fields.toArray(new FieldCopy[fields.size()]);
+        }
+    }
+}
@@ -16,39 +16,28 @@
 package com.impetus.kundera.utils;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.persistence.ElementCollection;
-import javax.persistence.Embedded;
-import javax.persistence.metamodel.Attribute;
-import javax.persistence.metamodel.Attribute.PersistentAttributeType;
-import javax.persistence.metamodel.EmbeddableType;
-import javax.persistence.metamodel.EntityType;
-import javax.persistence.metamodel.Type.PersistenceType;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.model.EntityMetadata;
-import com.impetus.kundera.metadata.model.KunderaMetadata;
-import com.impetus.kundera.metadata.model.MetamodelImpl;
-import com.impetus.kundera.metadata.model.Relation;
-import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.property.PropertyAccessor;
 import com.impetus.kundera.property.PropertyAccessorFactory;
 import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.proxy.KunderaProxy;
 import com.impetus.kundera.proxy.ProxyHelper;
 import com.impetus.kundera.proxy.collection.ProxyCollection;
+import com.impetus.kundera.utils.CopyPlan.ElementCollectionCopy;
+import com.impetus.kundera.utils.CopyPlan.EmbeddedCopy;
+import com.impetus.kundera.utils.CopyPlan.FieldCopy;
 
 /**
  * Provides utility methods for operation on objects
@@ -74,8 +63,8 @@ public class ObjectUtils
 
     /**
      * @param source
-     * @param mainCache
-     *            TODO
+     * @param copiedObjectMap
+     *            already copied entities, keyed by class and id.
      * @return
      */
     private static Object deepCopyUsingMetadata(Object source, Map<Object, Object> copiedObjectMap)
@@ -94,260 +83,130 @@ public class ObjectUtils
                 return source;
             }
 
-            MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
-                    metadata.getPersistenceUnit());
-
-            EntityType entityType = metaModel.entity(sourceObjectClass);
+            CopyPlan plan = CopyPlan.getPlan(metadata);
 
             // May break for mapped super class.
 
-            Object id = null;
-            if (metadata.getRelations() != null && !metadata.getRelations().isEmpty())
+            Object copyKey = null;
+            if (plan.relationFields.length > 0)
             {
-                id = PropertyAccessorHelper.getId(source, metadata);
-
-                StringBuilder keyBuilder = new StringBuilder(sourceObjectClass.getName());
-                keyBuilder.append("#");
-                keyBuilder.append(id);
-                Object copiedObjectInMap = copiedObjectMap.get(keyBuilder.toString());
-                if (copiedObjectInMap != null)
+                Object id = PropertyAccessorHelper.getId(source, metadata);
+                if (id != null)
                 {
-                    return copiedObjectInMap;
+                    copyKey = new SimpleImmutableEntry<Class<?>, Object>(sourceObjectClass, id);
+                    Object copiedObjectInMap = copiedObjectMap.get(copyKey);
+                    if (copiedObjectInMap != null)
+                    {
+                        return copiedObjectInMap;
+                    }
                 }
             }
             // Copy Columns (in a table that doesn't have any embedded objects
 
             target = sourceObjectClass.newInstance();
 
-            Iterator<Attribute> iter = entityType.getAttributes().iterator();
-            while (iter.hasNext())
+            for (FieldCopy column : plan.basicFields)
             {
-                Attribute attrib = iter.next();
+                column.copy(source, target);
+            }
 
-                Field columnField = (Field) attrib.getJavaMember();
-                if (attrib.getPersistentAttributeType().equals(PersistentAttributeType.EMBEDDED)
-                        || attrib.getPersistentAttributeType().equals(PersistentAttributeType.ELEMENT_COLLECTION))
+            for (EmbeddedCopy embedded : plan.embeddedFields)
+            {
+                Object sourceEmbeddedObj = embedded.field.get(source);
+                if (sourceEmbeddedObj != null)
                 {
-                    EmbeddableType embeddedColumn = metaModel.embeddable(((AbstractAttribute) attrib)
-                            .getBindableJavaType());                   
-                    
-
-                    Object sourceEmbeddedObj = PropertyAccessorHelper.getObject(source, columnField);
-                    if (sourceEmbeddedObj != null)
+                    // Copy embedded objects
+                    Object targetEmbeddedObj = embedded.field.getType().newInstance();
+                    for (FieldCopy column : embedded.columns)
                     {
-                        if (columnField.getAnnotation(Embedded.class) != null)
-                        {
-                            // Copy embedded objects
-                            Class<?> embeddedColumnClass = columnField.getType();
-                            Object targetEmbeddedObj = embeddedColumnClass.newInstance();
-
-                            Set<Attribute> columns = embeddedColumn.getAttributes();
-                            for (Attribute column : columns)
-                            {
-
-                                PropertyAccessorHelper.set(
-                                        targetEmbeddedObj,
-                                        (Field) column.getJavaMember(),
-                                        PropertyAccessorHelper.getObjectCopy(sourceEmbeddedObj,
-                                                (Field) column.getJavaMember()));
-                            }
-
-                            PropertyAccessorHelper.set(target, columnField, targetEmbeddedObj);
-                        }
-                        else if (columnField.getAnnotation(ElementCollection.class) != null)
-                        {
-                            Class<?> ecDeclaredClass = columnField.getType();
-                            Class<?> actualEcObjectClass = sourceEmbeddedObj.getClass();
-                            
-                            Object targetCollectionObject;                                
-                            targetCollectionObject = actualEcObjectClass.newInstance();
-                            
-                            // Copy element collections for List and Set
-                            if (sourceEmbeddedObj instanceof Collection)
-                            {
-                                
-                                Class<?> genericClass = PropertyAccessorHelper.getGenericClass(columnField);                              
-
-                                for (Object sourceEcObj : (Collection) sourceEmbeddedObj)
-                                {
-                                    Object targetEcObj = null;                                    
-                                    if(PersistenceType.BASIC.equals(embeddedColumn.getPersistenceType()))
-                                    {
-                                        PropertyAccessor accessor = PropertyAccessorFactory.getPropertyAccessor(sourceEcObj.getClass());
-                                        if(accessor != null)
-                                        {
-                                            targetEcObj = accessor.getCopy(sourceEcObj);
-                                        }
-                                    }
-                                    
-                                    else if (PersistenceType.EMBEDDABLE.equals(embeddedColumn.getPersistenceType()))
-                                    {
-                                        targetEcObj = genericClass.newInstance();
-                                        
-                                        for (Field f : genericClass.getDeclaredFields())
-                                        {
-                                            if (f != null && !Modifier.isStatic(f.getModifiers()))
-                                            {
-                                                PropertyAccessorHelper.set(targetEcObj, f,
-                                                        PropertyAccessorHelper.getObjectCopy(sourceEcObj, f));
-                                            }                                            
-                                        }      
-                                        
-                                    }    
-                                    
-                                    if (List.class.isAssignableFrom(ecDeclaredClass))
-                                    {
-                                        Method m = actualEcObjectClass.getMethod("add", Object.class);
-                                        m.invoke(targetCollectionObject, targetEcObj);
-                                        
-                                    }
-                                    else if (Set.class.isAssignableFrom(ecDeclaredClass))
-                                    {
-                                        Method m = actualEcObjectClass.getMethod("add", Object.class);
-                                        m.invoke(targetCollectionObject, targetEcObj);
-                                    }
-
-                                }
-                                
-                            }
-                            
-                            //Copy element collection for Map
-                            else if(sourceEmbeddedObj instanceof Map)
-                            {                               
-                                
-                                for (Object sourceKey : ((Map) sourceEmbeddedObj).keySet())
-                                {
-                                    Object targetKey = null;  
-                                    Object targetValue = null; 
-                                    if(PersistenceType.BASIC.equals(embeddedColumn.getPersistenceType()))
-                                    {
-                                        //Create copy of map key
-                                        PropertyAccessor keyAccessor = PropertyAccessorFactory.getPropertyAccessor(sourceKey.getClass());
-                                        if(keyAccessor != null)
-                                        {
-                                            targetKey = keyAccessor.getCopy(sourceKey);
-                                        }
-                                        
-                                        //Create copy of map value
-                                        Object sourceValue = ((Map) sourceEmbeddedObj).get(sourceKey);
-                                        PropertyAccessor valueAccessor = PropertyAccessorFactory.getPropertyAccessor(sourceValue.getClass());
-                                        if(valueAccessor != null)
-                                        {
-                                            targetValue = valueAccessor.getCopy(sourceValue);
-                                        }
-                                        
-                                        if (Map.class.isAssignableFrom(ecDeclaredClass))
-                                        {
-                                            Method m = actualEcObjectClass.getMethod("put", new Class[]{Object.class, Object.class});
-                                            m.invoke(targetCollectionObject, new Object[]{targetKey, targetValue});
-                                        }
-                                    }
-                                }                                                            
-                            }
-                            
-                            PropertyAccessorHelper.set(target, columnField, targetCollectionObject);
-                            
-                        }
-                        else if (columnField.getAnnotation(javax.persistence.Column.class) != null)
-                        {
-                            // Copy columns
-                            PropertyAccessorHelper.set(target, columnField, sourceEmbeddedObj);
-                        }
+                        column.copy(sourceEmbeddedObj, targetEmbeddedObj);
                     }
-
+                    embedded.field.set(target, targetEmbeddedObj);
                 }
-                else if (attrib.getPersistentAttributeType().equals(PersistentAttributeType.BASIC))
+            }
+
+            for (ElementCollectionCopy elementCollection : plan.elementCollectionFields)
+            {
+                Object sourceEmbeddedObj = elementCollection.field.get(source);
+                if (sourceEmbeddedObj != null)
                 {
+                    elementCollection.field.set(target, copyElementCollection(elementCollection, sourceEmbeddedObj));
+                }
+            }
 
-                    PropertyAccessorHelper.set(target, columnField,
-                            PropertyAccessorHelper.getObjectCopy(source, columnField));
+            for (Field columnField : plan.referenceFields)
+            {
+                // Copy columns
+                Object sourceEmbeddedObj = columnField.get(source);
+                if (sourceEmbeddedObj != null)
+                {
+                    columnField.set(target, sourceEmbeddedObj);
                 }
             }
 
             // Put this object into copied object map
-            if (id != null)
+            if (copyKey != null)
             {
-                StringBuilder keyBuilder = new StringBuilder(sourceObjectClass.getName());
-                keyBuilder.append("#");
-                keyBuilder.append(id);
-                copiedObjectMap.put(keyBuilder.toString(), target);
+                copiedObjectMap.put(copyKey, target);
             }
             // Copy Relationships recursively
-            for (Relation relation : metadata.getRelations())
+            for (Field relationField : plan.relationFields)
             {
-                Field relationField = relation.getProperty();
-                Object sourceRelationObject = PropertyAccessorHelper.getObject(source, relationField);
+                Object sourceRelationObject = relationField.get(source);
 
                 if (sourceRelationObject != null)
 
                 {
                     if (sourceRelationObject instanceof KunderaProxy)
                     {
-                        PropertyAccessorHelper.set(target, relationField, sourceRelationObject);
+                        relationField.set(target, sourceRelationObject);
                         continue;
                     }
                     else if (ProxyHelper.isPersistentCollection(sourceRelationObject))
                     {
-                        PropertyAccessorHelper.set(target, relationField, sourceRelationObject);
+                        relationField.set(target, sourceRelationObject);
                         continue;
                     }
                     else if (ProxyHelper.isKunderaProxyCollection(sourceRelationObject))
                     {
                         ProxyCollection pc = ((ProxyCollection) sourceRelationObject).getCopy();
                         pc.setOwner(target);
-                        PropertyAccessorHelper.set(target, relationField, pc);
+                        relationField.set(target, pc);
                         continue;
                     }
 
                     Object targetRelationObject = null;
 
-                    Class<?> relationObjectClass = relation.getProperty().getType();
+                    Class<?> relationObjectClass = relationField.getType();
                     Class<?> actualRelationObjectClass = sourceRelationObject.getClass();
 
                     if (Collection.class.isAssignableFrom(relationObjectClass))
                     {
-                        targetRelationObject = actualRelationObjectClass.newInstance();
-                        Method m = actualRelationObjectClass.getMethod("add", Object.class);
+                        Collection targetCollection = (Collection) actualRelationObjectClass.newInstance();
 
                         for (Object obj : (Collection) sourceRelationObject)
                         {
-
-                            Object copyTargetRelObj = searchInCacheThenCopy(copiedObjectMap, obj);
-                            m.invoke(targetRelationObject, copyTargetRelObj);
+                            targetCollection.add(searchInCacheThenCopy(copiedObjectMap, obj));
                         }
+                        targetRelationObject = targetCollection;
                     }
                     else if (Map.class.isAssignableFrom(relationObjectClass))
                     {
-                        targetRelationObject = actualRelationObjectClass.newInstance();
-                        Method m = actualRelationObjectClass.getMethod("put", new Class<?>[] { Object.class,
-                                Object.class });
+                        Map targetMap = (Map) actualRelationObjectClass.newInstance();
 
-                        for (Object keyObj : ((Map) sourceRelationObject).keySet())
+                        for (Object o : ((Map) sourceRelationObject).entrySet())
                         {
-                            Object valObj = ((Map) sourceRelationObject).get(keyObj);
-
-                            // Object copyTargetKeyObj =
-                            // deepCopyUsingMetadata(keyObj, copiedObjectMap,
-                            // mainCache);
-                            Object copyTargetKeyObj = searchInCacheThenCopy(copiedObjectMap, keyObj);
-
-                            // Object copyTargetValueObj =
-                            // deepCopyUsingMetadata(valObj, copiedObjectMap,
-                            // mainCache);
-                            Object copyTargetValueObj = searchInCacheThenCopy(copiedObjectMap, valObj);
-
-                            m.invoke(targetRelationObject, new Object[] { copyTargetKeyObj, copyTargetValueObj });
+                            Map.Entry entry = (Map.Entry) o;
+                            targetMap.put(searchInCacheThenCopy(copiedObjectMap, entry.getKey()),
+                                    searchInCacheThenCopy(copiedObjectMap, entry.getValue()));
                         }
-
+                        targetRelationObject = targetMap;
                     }
                     else
                     {
-                        // targetRelationObject =
-                        // deepCopyUsingMetadata(sourceRelationObject,
-                        // copiedObjectMap, mainCache);
                         targetRelationObject = searchInCacheThenCopy(copiedObjectMap, sourceRelationObject);
                     }
-                    PropertyAccessorHelper.set(target, relationField, targetRelationObject);
+                    relationField.set(target, targetRelationObject);
                 }
             }
         }
@@ -367,6 +226,77 @@ public class ObjectUtils
         return target;
     }
 
+    /**
+     * Copies element collection (List, Set or Map) of an entity.
+     * 
+     * @param elementCollection
+     *            element collection copy plan.
+     * @param sourceEmbeddedObj
+     *            source collection.
+     * @return copied collection.
+     */
+    private static Object copyElementCollection(ElementCollectionCopy elementCollection, Object sourceEmbeddedObj)
+            throws InstantiationException, IllegalAccessException
+    {
+        Object targetCollectionObject = sourceEmbeddedObj.getClass().newInstance();
+
+        // Copy element collections for List and Set
+        if (sourceEmbeddedObj instanceof Collection)
+        {
+            Collection targetCollection = (Collection) targetCollectionObject;
+            for (Object sourceEcObj : (Collection) sourceEmbeddedObj)
+            {
+                Object targetEcObj = null;
+                if (elementCollection.basic)
+                {
+                    PropertyAccessor accessor = PropertyAccessorFactory.getPropertyAccessor(sourceEcObj.getClass());
+                    if (accessor != null)
+                    {
+                        targetEcObj = accessor.getCopy(sourceEcObj);
+                    }
+                }
+                else if (elementCollection.embeddable)
+                {
+                    targetEcObj = elementCollection.elementClass.newInstance();
+                    for (FieldCopy f : elementCollection.elementFields)
+                    {
+                        f.copy(sourceEcObj, targetEcObj);
+                    }
+                }
+                targetCollection.add(targetEcObj);
+            }
+        }
+
+        // Copy element collection for Map
+        else if (sourceEmbeddedObj instanceof Map && elementCollection.basic)
+        {
+            Map targetMap = (Map) targetCollectionObject;
+            for (Object o : ((Map) sourceEmbeddedObj).entrySet())
+            {
+                Map.Entry entry = (Map.Entry) o;
+                Object targetKey = null;
+                Object targetValue = null;
+
+                // Create copy of map key
+                PropertyAccessor keyAccessor = PropertyAccessorFactory.getPropertyAccessor(entry.getKey().getClass());
+                if (keyAccessor != null)
+                {
+                    targetKey = keyAccessor.getCopy(entry.getKey());
+                }
+
+                // Create copy of map value
+                PropertyAccessor valueAccessor = PropertyAccessorFactory.getPropertyAccessor(entry.getValue()
+                        .getClass());
+                if (valueAccessor != null)
+                {
+                    targetValue = valueAccessor.getCopy(entry.getValue());
+                }
+                targetMap.put(targetKey, targetValue);
+            }
+        }
+        return targetCollectionObject;
+    }
+
     private static Object searchInCacheThenCopy(Map<Object, Object> copiedObjectMap, Object sourceObject)
     {
         Object copyTargetRelObj = null;
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.cache;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.kundera.KunderaException;
+import com.impetus.kundera.entity.PersonnelDTO;
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.persistence.EntityManagerFactoryImpl;
+
+/**
+ * junit for {@link SecondLevelCacheManager}.
+ */
+public class SecondLevelCacheManagerTest
+{
+    private EntityManagerFactory emf;
+
+    private EntityMetadata metadata;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+        emf = Persistence.createEntityManagerFactory("kunderatest");
+        metadata = KunderaMetadataManager.getEntityMetadata(PersonnelDTO.class);
+        metadata.setCacheable(true);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        metadata.setCacheable(false);
+        metadata.setCacheConcurrencyStrategy(CacheConcurrencyStrategy.READ_WRITE);
+        emf.close();
+    }
+
+    @Test
+    public void testReadWrite()
+    {
+        EntityManager em = emf.createEntityManager();
+        em.persist(new PersonnelDTO("l2_1", "Amresh", "Singh"));
+        em.close();
+
+        CacheStatistics statistics = ((EntityManagerFactoryImpl) emf).getCacheStatistics();
+        statistics.clear();
+
+        // first lookup goes to database and populates cache.
+        em = emf.createEntityManager();
+        PersonnelDTO found = em.find(PersonnelDTO.class, "l2_1");
+        Assert.assertNotNull(found);
+        Assert.assertEquals(1, statistics.getMissCount());
+        Assert.assertEquals(1, statistics.getPutCount());
+        em.close();
+
+        // lookup from another entity manager is served from cache.
+        em = emf.createEntityManager();
+        found = em.find(PersonnelDTO.class, "l2_1");
+        Assert.assertNotNull(found);
+        Assert.assertEquals("Amresh", found.getFirstName());
+        Assert.assertEquals(1, statistics.getHitCount());
+
+        // update must invalidate cached copy.
+        found.setFirstName("Vivek");
+        em.merge(found);
+        Assert.assertTrue(statistics.getEvictionCount() > 0);
+        em.close();
+
+        em = emf.createEntityManager();
+        found = em.find(PersonnelDTO.class, "l2_1");
+        Assert.assertNotNull(found);
+        Assert.assertEquals("Vivek", found.getFirstName());
+        Assert.assertEquals(2, statistics.getMissCount());
+
+        // so does remove.
+        em.remove(found);
+        em.close();
+
+        em = emf.createEntityManager();
+        Assert.assertNull(em.find(PersonnelDTO.class, "l2_1"));
+        em.close();
+    }
+
+    @Test
+    public void testReadOnly()
+    {
+        metadata.setCacheConcurrencyStrategy(CacheConcurrencyStrategy.READ_ONLY);
+
+        EntityManager em = emf.createEntityManager();
+        em.persist(new PersonnelDTO("l2_2", "Kuldeep", "Mishra"));
+        em.close();
+
+        em = emf.createEntityManager();
+        PersonnelDTO found = em.find(PersonnelDTO.class, "l2_2");
+        Assert.assertNotNull(found);
+
+        found.setFirstName("Amresh");
+        try
+        {
+            em.merge(found);
+            Assert.fail("Read only cached entity should not be updated");
+        }
+        catch (KunderaException e)
+        {
+            Assert.assertNotNull(e.getMessage());
+        }
+        em.close();
+    }
+
+    @Test
+    public void testNonCacheableEntity()
+    {
+        metadata.setCacheable(false);
+
+        EntityManager em = emf.createEntityManager();
+        em.persist(new PersonnelDTO("l2_3", "Vivek", "Mishra"));
+        em.close();
+
+        CacheStatistics statistics = ((EntityManagerFactoryImpl) emf).getCacheStatistics();
+        statistics.clear();
+
+        em = emf.createEntityManager();
+        Assert.assertNotNull(em.find(PersonnelDTO.class, "l2_3"));
+        em.close();
+
+        Assert.assertEquals(0, statistics.getMissCount());
+        Assert.assertEquals(0, statistics.getPutCount());
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.classreading;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit for {@link EntityIndex}.
+ */
+public class EntityIndexTest
+{
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        dir = new File(System.getProperty("java.io.tmpdir"), "kundera-index-" + System.nanoTime());
+        new File(dir, "META-INF").mkdirs();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        new File(dir, EntityIndex.INDEX_LOCATION).delete();
+        new File(dir, "META-INF").delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testNoIndex() throws Exception
+    {
+        ClassLoader classLoader = new URLClassLoader(new URL[] { dir.toURI().toURL() }, null);
+        Assert.assertNull(EntityIndex.read(classLoader));
+    }
+
+    @Test
+    public void testRead() throws Exception
+    {
+        OutputStream os = new FileOutputStream(new File(dir, EntityIndex.INDEX_LOCATION));
+        os.write(("# generated\n" + "com.impetus.kundera.query.Person\n\n"
+                + "  com.impetus.kundera.PersonnelDTO  \n" + "com.impetus.kundera.query.Person\n").getBytes("UTF-8"));
+        os.close();
+
+        ClassLoader classLoader = new URLClassLoader(new URL[] { dir.toURI().toURL() }, null);
+        List<String> classNames = EntityIndex.read(classLoader);
+        Assert.assertNotNull(classNames);
+        Assert.assertEquals(2, classNames.size());
+        Assert.assertEquals("com.impetus.kundera.query.Person", classNames.get(0));
+        Assert.assertEquals("com.impetus.kundera.PersonnelDTO", classNames.get(1));
+    }
+}
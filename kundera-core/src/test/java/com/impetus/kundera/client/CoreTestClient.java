@@ -1,6 +1,7 @@
 package com.impetus.kundera.client;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +26,14 @@ public class CoreTestClient extends ClientBase implements Client<LuceneQuery>, A
 
     private static int idCount;
 
+    /** Number of find and findAll calls, to assert on batch fetch. */
+    private static int findCalls;
+
+    private static int findAllCalls;
+
+    /** Join table name to child keys per parent key, seeded by tests. */
+    private static Map<String, Map<Object, List<Object>>> joinTables = new HashMap<String, Map<Object, List<Object>>>();
+
     public CoreTestClient(IndexManager indexManager, String persistenceUnit)
     {
         this.indexManager = indexManager;
@@ -60,6 +69,12 @@ public class CoreTestClient extends ClientBase implements Client<LuceneQuery>, A
 
     @Override
     public Object find(Class entityClass, Object key)
+    {
+        findCalls++;
+        return get(entityClass, key);
+    }
+
+    private Object get(Class entityClass, Object key)
     {
         EntityMetadata m = KunderaMetadataManager.getEntityMetadata(entityClass);
         DummySchema schema = DummyDatabase.INSTANCE.getSchema(m.getSchema());
@@ -93,10 +108,11 @@ public class CoreTestClient extends ClientBase implements Client<LuceneQuery>, A
     @Override
     public <E> List<E> findAll(Class<E> entityClass, String[] columnsToSelect, Object... keys)
     {
+        findAllCalls++;
         List results = new ArrayList();
         for (Object key : keys)
         {
-            Object result = find(entityClass, key);
+            Object result = get(entityClass, key);
             if (result != null)
             {
                 results.add(result);
@@ -169,8 +185,8 @@ public class CoreTestClient extends ClientBase implements Client<LuceneQuery>, A
     public <E> List<E> getColumnsById(String schemaName, String tableName, String pKeyColumnName, String columnName,
             Object pKeyColumnValue, Class columnJavaType)
     {
-
-        return null;
+        Map<Object, List<Object>> joinTable = joinTables.get(tableName);
+        return joinTable != null ? (List<E>) joinTable.get(pKeyColumnValue) : null;
     }
 
     @Override
@@ -243,6 +259,46 @@ public class CoreTestClient extends ClientBase implements Client<LuceneQuery>, A
     public void setIndexManager(IndexManager im){
         this.indexManager = im;
     }
+
+    /**
+     * Adds a join table record, as persistJoinTable does not store them.
+     */
+    public static void addJoinTableRecord(String tableName, Object parentKey, Object childKey)
+    {
+        Map<Object, List<Object>> joinTable = joinTables.get(tableName);
+        if (joinTable == null)
+        {
+            joinTable = new HashMap<Object, List<Object>>();
+            joinTables.put(tableName, joinTable);
+        }
+        List<Object> childKeys = joinTable.get(parentKey);
+        if (childKeys == null)
+        {
+            childKeys = new ArrayList<Object>();
+            joinTable.put(parentKey, childKeys);
+        }
+        childKeys.add(childKey);
+    }
+
+    /**
+     * Clears call counts and join table records.
+     */
+    public static void reset()
+    {
+        findCalls = 0;
+        findAllCalls = 0;
+        joinTables.clear();
+    }
+
+    public static int getFindCalls()
+    {
+        return findCalls;
+    }
+
+    public static int getFindAllCalls()
+    {
+        return findAllCalls;
+    }
     
     
 
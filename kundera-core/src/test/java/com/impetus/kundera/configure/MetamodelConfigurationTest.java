@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.configure;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.persistence.Entity;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.IdentifiableType;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Type.PersistenceType;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.kundera.PersistenceProperties;
+import com.impetus.kundera.classreading.ClasspathReader;
+import com.impetus.kundera.classreading.EntityIndex;
+import com.impetus.kundera.classreading.Reader;
+import com.impetus.kundera.client.CoreTestClientFactory;
+import com.impetus.kundera.metadata.entities.MappedSuperClass;
+import com.impetus.kundera.metadata.model.ApplicationMetadata;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.metadata.model.MetamodelImpl;
+import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
+
+/**
+ * Junit for entity lookup of {@link MetamodelConfiguration}, with one indexed
+ * and one un-indexed classes directory, and for building metamodel on more
+ * than one thread.
+ */
+public class MetamodelConfigurationTest
+{
+    private static final String PERSISTENCE_UNIT = "cassandra";
+
+    /** Inter related entities, with an embeddable and a mapped super class. */
+    private static final Class<?>[] ENTITIES = { CoreEntitySimple.class, CoreEntitySuper.class,
+            CoreEntityPersonUni1To1.class, CoreEntityAddressUni1To1.class, CoreEntityPersonUni1ToM.class,
+            CoreEntityAddressUni1ToM.class, CoreEntityPersionUniMto1.class, CoreEntityAddressUniMTo1.class,
+            CoreEntityMappedSub.class };
+
+    private File indexedDir;
+
+    private File plainDir;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        File tmp = new File(System.getProperty("java.io.tmpdir"));
+        indexedDir = new File(tmp, "kundera-indexed-" + System.nanoTime());
+        plainDir = new File(tmp, "kundera-plain-" + System.nanoTime());
+
+        new File(indexedDir, "META-INF").mkdirs();
+        OutputStream os = new FileOutputStream(new File(indexedDir, EntityIndex.INDEX_LOCATION));
+        os.write((CoreEntitySimple.class.getName() + "\n").getBytes("UTF-8"));
+        os.close();
+
+        // not listed in index, hence not loaded.
+        copyClass(CoreEntitySuper.class, indexedDir);
+        copyClass(CoreEntityPersonUni1To1.class, plainDir);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        delete(indexedDir);
+        delete(plainDir);
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+    }
+
+    @Test
+    public void testIsIndexed() throws Exception
+    {
+        Assert.assertTrue(EntityIndex.isIndexed(indexedDir.toURI().toURL()));
+        Assert.assertFalse(EntityIndex.isIndexed(plainDir.toURI().toURL()));
+    }
+
+    @Test
+    public void testFindEntityClasses() throws Exception
+    {
+        URL[] resources = new URL[] { indexedDir.toURI().toURL(), plainDir.toURI().toURL() };
+        List<String> indexedClasses = EntityIndex.read(new URLClassLoader(resources, null));
+        Assert.assertNotNull(indexedClasses);
+
+        Reader reader = new ClasspathReader();
+        reader.addValidAnnotations(Entity.class.getName());
+
+        Set<Class<?>> entityClasses = new LinkedHashSet<Class<?>>();
+        new MetamodelConfiguration(null, "patest").findEntityClasses(indexedClasses, resources, reader,
+                entityClasses);
+
+        Assert.assertEquals(2, entityClasses.size());
+        Assert.assertTrue(entityClasses.contains(CoreEntitySimple.class));
+        Assert.assertTrue(entityClasses.contains(CoreEntityPersonUni1To1.class));
+        Assert.assertFalse(entityClasses.contains(CoreEntitySuper.class));
+    }
+
+    @Test
+    public void testParallelBuildMatchesSerial()
+    {
+        MetamodelImpl serial = loadMetamodel(1);
+        MetamodelImpl parallel = loadMetamodel(ENTITIES.length);
+
+        Assert.assertEquals(ENTITIES.length, serial.getEntityMetadataMap().size());
+        Assert.assertEquals(serial.getEntityMetadataMap().keySet(), parallel.getEntityMetadataMap().keySet());
+        Assert.assertEquals(serial.getEntityNameToClassMap(), parallel.getEntityNameToClassMap());
+
+        for (Class<?> clazz : ENTITIES)
+        {
+            EntityMetadata expected = serial.getEntityMetadata(clazz);
+            EntityMetadata actual = parallel.getEntityMetadata(clazz);
+            Assert.assertNotNull(actual);
+            Assert.assertEquals(expected.toString(), actual.toString());
+            Assert.assertEquals(expected.getType(), actual.getType());
+            Assert.assertEquals(expected.getRelationNames(), actual.getRelationNames());
+            Assert.assertEquals(expected.isRelationViaJoinTable(), actual.isRelationViaJoinTable());
+            Assert.assertEquals(expected.isParent(), actual.isParent());
+            Assert.assertEquals(expected.getIdAttribute().getJavaType(), actual.getIdAttribute().getJavaType());
+            Assert.assertEquals(expected.getIndexProperties().keySet(), actual.getIndexProperties().keySet());
+        }
+
+        Assert.assertEquals(describe(serial), describe(parallel));
+        Assert.assertTrue(parallel.isEmbeddable(PersonalData.class));
+        Assert.assertEquals(PersistenceType.MAPPED_SUPERCLASS, parallel.managedType(MappedSuperClass.class)
+                .getPersistenceType());
+    }
+
+    /**
+     * Loads metamodel of test persistence unit, building entity metadata on
+     * given number of threads.
+     */
+    private MetamodelImpl loadMetamodel(final int nThreads)
+    {
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+        ApplicationMetadata appMetadata = KunderaMetadata.INSTANCE.getApplicationMetadata();
+
+        Properties props = new Properties();
+        props.put(PersistenceProperties.KUNDERA_CLIENT_FACTORY, CoreTestClientFactory.class.getName());
+        props.put(PersistenceProperties.KUNDERA_NODES, "localhost");
+        props.put(PersistenceProperties.KUNDERA_PORT, "9160");
+        props.put(PersistenceProperties.KUNDERA_KEYSPACE, "KunderaCoreExmples");
+
+        List<String> classes = new ArrayList<String>();
+        for (Class<?> clazz : ENTITIES)
+        {
+            classes.add(clazz.getName());
+        }
+
+        PersistenceUnitMetadata puMetadata = new PersistenceUnitMetadata();
+        puMetadata.setPersistenceUnitName(PERSISTENCE_UNIT);
+        puMetadata.setProperties(props);
+        puMetadata.setClasses(classes);
+        puMetadata.setExcludeUnlistedClasses(true);
+        Map<String, PersistenceUnitMetadata> metadata = new HashMap<String, PersistenceUnitMetadata>();
+        metadata.put(PERSISTENCE_UNIT, puMetadata);
+        appMetadata.addPersistenceUnitMetadata(metadata);
+
+        new MetamodelConfiguration(null, PERSISTENCE_UNIT)
+        {
+            @Override
+            int getNumberOfThreads(int nEntities)
+            {
+                return nThreads;
+            }
+        }.configure();
+        return (MetamodelImpl) appMetadata.getMetamodel(PERSISTENCE_UNIT);
+    }
+
+    /**
+     * Describes every managed type of metamodel by its persistence type, super
+     * type and attributes, keyed on class name.
+     */
+    private SortedMap<String, String> describe(MetamodelImpl metamodel)
+    {
+        SortedMap<String, String> types = new TreeMap<String, String>();
+        for (ManagedType<?> managedType : metamodel.getManagedTypes())
+        {
+            SortedSet<String> attributes = new TreeSet<String>();
+            for (Attribute<?, ?> attribute : managedType.getAttributes())
+            {
+                attributes.add(attribute.getName() + ":" + attribute.getJavaType().getName() + ":"
+                        + attribute.getPersistentAttributeType());
+            }
+
+            StringBuilder description = new StringBuilder(managedType.getPersistenceType().toString());
+            if (managedType instanceof IdentifiableType && ((IdentifiableType<?>) managedType).getSupertype() != null)
+            {
+                description.append(" extends ").append(
+                        ((IdentifiableType<?>) managedType).getSupertype().getJavaType().getName());
+            }
+            description.append(" ").append(attributes);
+            types.put(managedType.getJavaType().getName(), description.toString());
+        }
+        return types;
+    }
+
+    private void copyClass(Class<?> clazz, File dir) throws Exception
+    {
+        String path = clazz.getName().replace('.', '/') + ".class";
+        File file = new File(dir, path);
+        file.getParentFile().mkdirs();
+
+        InputStream is = clazz.getClassLoader().getResourceAsStream(path);
+        OutputStream os = new FileOutputStream(file);
+        try
+        {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = is.read(buffer)) != -1)
+            {
+                os.write(buffer, 0, read);
+            }
+        }
+        finally
+        {
+            is.close();
+            os.close();
+        }
+    }
+
+    private void delete(File file)
+    {
+        File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
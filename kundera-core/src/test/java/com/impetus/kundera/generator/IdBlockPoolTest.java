@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.generator;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.impetus.kundera.generator.IdBlockPool.BlockAllocator;
+
+/**
+ * Junit for {@link IdBlockPool}.
+ *
+ *
+ */
+public class IdBlockPoolTest
+{
+
+    @Test
+    public void testNext()
+    {
+        IdBlockPool pool = new IdBlockPool();
+        CountingAllocator allocator = new CountingAllocator(1, 10);
+
+        for (long i = 1; i <= 25; i++)
+        {
+            Assert.assertEquals(i, pool.next("seq", 10, allocator));
+        }
+        Assert.assertEquals(3, allocator.count.get());
+
+        // other generator has its own block.
+        Assert.assertEquals(1L, pool.next("other", 10, new CountingAllocator(1, 10)));
+        Assert.assertEquals(26L, pool.next("seq", 10, allocator));
+    }
+
+    @Test
+    public void testConcurrentNext() throws InterruptedException
+    {
+        final IdBlockPool pool = new IdBlockPool();
+        final CountingAllocator allocator = new CountingAllocator(1, 50);
+        final Set<Object> ids = Collections.synchronizedSet(new HashSet<Object>());
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < 100; j++)
+                    {
+                        ids.add(pool.next("seq", 50, allocator));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        Assert.assertEquals(400, ids.size());
+        Assert.assertEquals(8, allocator.count.get());
+    }
+
+    /**
+     * Allocates consecutive blocks the way client generators do.
+     */
+    private static class CountingAllocator implements BlockAllocator
+    {
+        private final AtomicInteger count = new AtomicInteger();
+
+        private final long initialValue;
+
+        private final int allocationSize;
+
+        private CountingAllocator(long initialValue, int allocationSize)
+        {
+            this.initialValue = initialValue;
+            this.allocationSize = allocationSize;
+        }
+
+        @Override
+        public Object allocate()
+        {
+            return initialValue + (long) count.getAndIncrement() * allocationSize;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.graph;
+
+import java.util.Collections;
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.persistence.context.PersistenceCache;
+import com.impetus.kundera.query.Person;
+
+/**
+ * Junit for {@link DirtyFieldsDetector} and field level dirty tracking on
+ * {@link Node}.
+ *
+ *
+ */
+public class DirtyFieldsDetectorTest
+{
+    private static final String PU = "patest";
+
+    private EntityManagerFactory emf;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+        emf = Persistence.createEntityManagerFactory(PU);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        emf.close();
+    }
+
+    @Test
+    public void testGetDirtyFields()
+    {
+        EntityMetadata m = KunderaMetadataManager.getEntityMetadata(Person.class);
+
+        Person snapshot = newPerson("1", "vivek", 32);
+        Person person = newPerson("1", "vivek", 32);
+        Assert.assertTrue(DirtyFieldsDetector.getDirtyFields(snapshot, person, m).isEmpty());
+
+        person.setAge(33);
+        Set<String> dirtyFields = DirtyFieldsDetector.getDirtyFields(snapshot, person, m);
+        Assert.assertEquals(Collections.singleton("age"), dirtyFields);
+
+        person.setPersonName(null);
+        dirtyFields = DirtyFieldsDetector.getDirtyFields(snapshot, person, m);
+        Assert.assertEquals(2, dirtyFields.size());
+        Assert.assertTrue(dirtyFields.contains("personName"));
+
+        // no snapshot, whole entity is dirty.
+        Assert.assertNull(DirtyFieldsDetector.getDirtyFields(null, person, m));
+    }
+
+    @Test
+    public void testMarkDirty()
+    {
+        Person person = newPerson("1", "vivek", 32);
+        Node node = new Node(ObjectGraphUtils.getNodeId("1", Person.class), person, null, new PersistenceCache(),
+                "1");
+        node.setDirty(false);
+
+        node.markDirty(Collections.singleton("age"));
+        Assert.assertTrue(node.isDirty());
+        Assert.assertEquals(Collections.singleton("age"), node.getDirtyFields());
+
+        node.markDirty(Collections.singleton("personName"));
+        Assert.assertEquals(2, node.getDirtyFields().size());
+
+        // whole entity once dirty, remains so.
+        node.markDirty(null);
+        Assert.assertNull(node.getDirtyFields());
+        node.markDirty(Collections.singleton("age"));
+        Assert.assertNull(node.getDirtyFields());
+    }
+
+    private Person newPerson(String id, String name, int age)
+    {
+        Person person = new Person();
+        person.setPersonId(id);
+        person.setPersonName(name);
+        person.setAge(age);
+        return person;
+    }
+}
@@ -15,6 +15,9 @@
  ******************************************************************************/
 package com.impetus.kundera.index;
 
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.HashMap;
 import java.util.Map;
 
 import javax.persistence.EntityManagerFactory;
@@ -23,11 +26,14 @@ import javax.persistence.Persistence;
 import junit.framework.Assert;
 
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.util.Version;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.query.Person;
@@ -44,6 +50,8 @@ public class LuceneIndexerTest
     private EntityManagerFactory emf;
     
     private static final String LUCENE_DIR_PATH = "./lucene";
+
+    private static final String NRT_LUCENE_DIR_PATH = "./lucene-nrt";
   
     @Before
     public void setup()
@@ -169,10 +177,76 @@ public class LuceneIndexerTest
         
     }
     
+    @Test
+    public void testNrtSearchWithoutFlush() throws Exception
+    {
+        LuceneIndexer indexer = getNrtInstance();
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(Person.class);
+        Person p = new Person();
+        p.setAge(32);
+        p.setDay(Day.TUESDAY);
+        p.setPersonId("p1");
+        indexer.index(metadata, p);
+
+        // no flush, written document must be visible to next search.
+        String luceneQuery = "+Person.AGE:32 AND +entity.class:com.impetus.kundera.query.Person";
+        Map<String, Object> results = indexer.search(luceneQuery, 0, 10, false);
+        Assert.assertEquals(1, results.size());
+
+        indexer.unindex(metadata, "p1");
+        Assert.assertTrue(indexer.search(luceneQuery, 0, 10, false).isEmpty());
+
+        indexer.close();
+    }
+
+    @Test
+    public void testNrtClose() throws Exception
+    {
+        LuceneIndexer indexer = getNrtInstance();
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(Person.class);
+        Person p = new Person();
+        p.setAge(32);
+        p.setDay(Day.TUESDAY);
+        p.setPersonId("p2");
+        indexer.index(metadata, p);
+        indexer.close();
+
+        // writer lock is released on close.
+        Assert.assertFalse(IndexWriter.isLocked(FSDirectory.open(new File(NRT_LUCENE_DIR_PATH))));
+
+        // pending change was committed on close, new instance finds it.
+        indexer = getNrtInstance();
+        String luceneQuery = "+Person.AGE:32 AND +entity.class:com.impetus.kundera.query.Person";
+        Assert.assertEquals(1, indexer.search(luceneQuery, 0, 10, false).size());
+        indexer.close();
+    }
+
+    /**
+     * Returns a fresh indexer in nrt mode, dropping shared instance created by
+     * other tests.
+     */
+    private LuceneIndexer getNrtInstance() throws Exception
+    {
+        Field instance = LuceneIndexer.class.getDeclaredField("indexer");
+        instance.setAccessible(true);
+        instance.set(null, null);
+
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put(PersistenceProperties.KUNDERA_INDEX_DIRECTORY_MODE, LuceneIndexer.NRT_DIRECTORY_MODE);
+        properties.put(PersistenceProperties.KUNDERA_INDEX_COMMIT_INTERVAL, "60000");
+        LuceneIndexer indexer = LuceneIndexer.getInstance(new StandardAnalyzer(Version.LUCENE_34),
+                NRT_LUCENE_DIR_PATH, properties);
+        Assert.assertNotNull(indexer);
+        return indexer;
+    }
+
     @After
     public void tearDown()
     {
         LuceneCleanupUtilities.cleanDir(LUCENE_DIR_PATH);
+        LuceneCleanupUtilities.cleanDir(NRT_LUCENE_DIR_PATH);
     }
 
     
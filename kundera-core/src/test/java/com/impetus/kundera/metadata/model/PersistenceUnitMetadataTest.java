@@ -20,13 +20,17 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 
+import javax.persistence.FetchType;
+
 import junit.framework.Assert;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.loader.PersistenceXMLLoader;
+import com.impetus.kundera.metadata.model.Relation.ForeignKey;
 
 /**
  * @author kuldeep.mishra
@@ -151,5 +155,36 @@ public class PersistenceUnitMetadataTest
         }
         
     }  
+
+    @Test
+    public void testIsBatchFetch() throws Exception
+    {
+        Assert.assertNotNull(metadatas);
+        PersistenceUnitMetadata puMetadata = metadatas.get(0);
+        Relation relation = new Relation(Employe.class.getDeclaredField("departmentData"), Department.class,
+                Department.class, FetchType.EAGER, null, false, null, ForeignKey.MANY_TO_ONE);
+
+        try
+        {
+            Assert.assertFalse(puMetadata.isBatchFetch(relation));
+
+            puMetadata.getProperties().setProperty(PersistenceProperties.KUNDERA_BATCH_FETCH, "true");
+            Assert.assertTrue(puMetadata.isBatchFetch(relation));
+
+            puMetadata.getProperties().setProperty(PersistenceProperties.KUNDERA_BATCH_FETCH,
+                    "KunderaUser.name, Employe.departmentData");
+            Assert.assertTrue(puMetadata.isBatchFetch(relation));
+
+            puMetadata.getProperties().setProperty(PersistenceProperties.KUNDERA_BATCH_FETCH, "Employe.empName");
+            Assert.assertFalse(puMetadata.isBatchFetch(relation));
+
+            puMetadata.getProperties().setProperty(PersistenceProperties.KUNDERA_BATCH_FETCH, "false");
+            Assert.assertFalse(puMetadata.isBatchFetch(relation));
+        }
+        finally
+        {
+            puMetadata.getProperties().remove(PersistenceProperties.KUNDERA_BATCH_FETCH);
+        }
+    }
     
 }
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.persistence;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.persistence.KunderaEntityTransaction.TxAction;
+
+/**
+ * Junit for {@link Coordinator}, committing resources of different persistence
+ * units.
+ */
+public class CoordinatorTest
+{
+    private ExecutorService executor;
+
+    @Before
+    public void setUp()
+    {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testParallelCommit()
+    {
+        CountDownLatch latch = new CountDownLatch(2);
+        Coordinator coordinator = new Coordinator(executor);
+        DummyResource first = new DummyResource(latch, false);
+        DummyResource second = new DummyResource(latch, false);
+        coordinator.addResource(first, "pu1");
+        coordinator.addResource(second, "pu2");
+
+        coordinator.coordinate(TxAction.BEGIN);
+        Assert.assertTrue(coordinator.isTransactionActive());
+
+        // each resource waits for other one to start committing.
+        coordinator.coordinate(TxAction.COMMIT);
+        Assert.assertTrue(first.committed);
+        Assert.assertTrue(second.committed);
+        Assert.assertFalse(coordinator.isTransactionActive());
+    }
+
+    @Test
+    public void testFailedCommit()
+    {
+        Coordinator coordinator = new Coordinator(executor);
+        DummyResource failing = new DummyResource(null, true);
+        DummyResource other = new DummyResource(null, false);
+        coordinator.addResource(failing, "pu1");
+        coordinator.addResource(other, "pu2");
+        coordinator.coordinate(TxAction.BEGIN);
+
+        try
+        {
+            coordinator.coordinate(TxAction.COMMIT);
+            Assert.fail("Should have thrown back commit failure");
+        }
+        catch (KunderaTransactionException e)
+        {
+            Assert.assertEquals("commit failed", e.getMessage());
+        }
+        Assert.assertTrue(other.committed);
+
+        coordinator.coordinate(TxAction.ROLLBACK);
+        Assert.assertTrue(failing.rolledBack);
+        Assert.assertTrue(other.rolledBack);
+    }
+
+    @Test
+    public void testCommitAfterShutdown()
+    {
+        executor.shutdown();
+        Coordinator coordinator = new Coordinator(executor);
+        DummyResource first = new DummyResource(null, false);
+        DummyResource second = new DummyResource(null, false);
+        coordinator.addResource(first, "pu1");
+        coordinator.addResource(second, "pu2");
+        coordinator.coordinate(TxAction.BEGIN);
+
+        // committed serially, within caller's thread.
+        coordinator.coordinate(TxAction.COMMIT);
+        Assert.assertTrue(first.committed);
+        Assert.assertTrue(second.committed);
+    }
+
+    @Test
+    public void testExecutorShutdownOnClose()
+    {
+        KunderaMetadata.INSTANCE.setApplicationMetadata(null);
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("GeneratedValue,kunderatest");
+        ExecutorService commitExecutor = ((EntityManagerFactoryImpl) emf).getCommitExecutor();
+        Assert.assertNotNull(commitExecutor);
+        Assert.assertFalse(commitExecutor.isShutdown());
+
+        emf.close();
+        Assert.assertTrue(commitExecutor.isShutdown());
+    }
+
+    private static class DummyResource implements TransactionResource
+    {
+        private final CountDownLatch latch;
+
+        private final boolean fail;
+
+        private volatile boolean active;
+
+        private volatile boolean committed;
+
+        private volatile boolean rolledBack;
+
+        DummyResource(CountDownLatch latch, boolean fail)
+        {
+            this.latch = latch;
+            this.fail = fail;
+        }
+
+        @Override
+        public void onBegin()
+        {
+            active = true;
+        }
+
+        @Override
+        public void onCommit()
+        {
+            if (fail)
+            {
+                throw new KunderaTransactionException("commit failed");
+            }
+            if (latch != null)
+            {
+                latch.countDown();
+                try
+                {
+                    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+                }
+                catch (InterruptedException e)
+                {
+                    throw new KunderaTransactionException(e);
+                }
+            }
+            committed = true;
+            active = false;
+        }
+
+        @Override
+        public void onRollback()
+        {
+            rolledBack = true;
+            active = false;
+        }
+
+        @Override
+        public void onFlush()
+        {
+        }
+
+        @Override
+        public Response prepare()
+        {
+            return Response.YES;
+        }
+
+        @Override
+        public boolean isActive()
+        {
+            return active;
+        }
+    }
+}
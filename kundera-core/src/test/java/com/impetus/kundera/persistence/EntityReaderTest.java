@@ -16,8 +16,10 @@
 
 package com.impetus.kundera.persistence;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,6 +34,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.impetus.kundera.CoreTestUtilities;
+import com.impetus.kundera.PersistenceProperties;
+import com.impetus.kundera.client.CoreTestClient;
+import com.impetus.kundera.client.EnhanceEntity;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
@@ -459,9 +464,160 @@ public class EntityReaderTest
 
     }
 
+    @Test
+    public void testBatchFetchManyToOne()
+    {
+        AddressUM1 address1 = new AddressUM1();
+        address1.setAddressId("batchaddr1");
+        address1.setStreet("street1");
+
+        AddressUM1 address2 = new AddressUM1();
+        address2.setAddressId("batchaddr2");
+        address2.setStreet("street2");
+
+        List<EnhanceEntity> page = new ArrayList<EnhanceEntity>();
+        for (int i = 1; i <= 3; i++)
+        {
+            PersonUM1 person = new PersonUM1();
+            person.setPersonId("batchperson" + i);
+            person.setPersonName("vivek");
+            person.setAddress(i == 3 ? address2 : address1);
+            em.persist(person);
+
+            Map<String, Object> relationMap = new HashMap<String, Object>();
+            relationMap.put("ADDRESS_ID", person.getAddress().getAddressId());
+            person.setAddress(null);
+            page.add(new EnhanceEntity(person, person.getPersonId(), relationMap));
+        }
+        em.clear();
+
+        PersistenceDelegator delegator = CoreTestUtilities.getDelegator(em);
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(PersonUM1.class);
+        KunderaMetadataManager.getPersistenceUnitMetadata(PU).getProperties()
+                .setProperty(PersistenceProperties.KUNDERA_BATCH_FETCH, "PersonUM1.address");
+
+        CoreTestClient.reset();
+        List<Object> results = new CoreTestEntityReader().recursivelyFindEntities(page, metadata, delegator, true);
+
+        // both addresses fetched with a single call.
+        Assert.assertEquals(1, CoreTestClient.getFindAllCalls());
+        Assert.assertEquals(0, CoreTestClient.getFindCalls());
+
+        Assert.assertEquals(3, results.size());
+        for (int i = 0; i < 3; i++)
+        {
+            PersonUM1 person = (PersonUM1) results.get(i);
+            Assert.assertEquals("batchperson" + (i + 1), person.getPersonId());
+            Assert.assertNotNull(person.getAddress());
+            Assert.assertFalse(ProxyHelper.isKunderaProxy(person.getAddress()));
+            Assert.assertEquals(i == 2 ? "batchaddr2" : "batchaddr1", person.getAddress().getAddressId());
+            Assert.assertEquals(i == 2 ? "street2" : "street1", person.getAddress().getStreet());
+        }
+
+        // owners sharing an address get their own copy.
+        Assert.assertNotSame(((PersonUM1) results.get(0)).getAddress(), ((PersonUM1) results.get(1)).getAddress());
+    }
+
+    @Test
+    public void testMultiFindWithRelations()
+    {
+        AddressUM1 address = new AddressUM1();
+        address.setAddressId("multiaddr1");
+        address.setStreet("street1");
+
+        Object[] ids = new Object[3];
+        for (int i = 1; i <= 3; i++)
+        {
+            PersonUM1 person = new PersonUM1();
+            person.setPersonId("multiperson" + i);
+            person.setPersonName("vivek");
+            person.setAddress(address);
+            em.persist(person);
+            ids[i - 1] = person.getPersonId();
+        }
+        em.clear();
+
+        PersistenceDelegator delegator = CoreTestUtilities.getDelegator(em);
+        CoreTestClient.reset();
+        List<PersonUM1> persons = delegator.find(PersonUM1.class, ids);
+
+        // one multi-get, no re-fetch per key.
+        Assert.assertEquals(1, CoreTestClient.getFindAllCalls());
+        Assert.assertEquals(0, CoreTestClient.getFindCalls());
+
+        Assert.assertEquals(3, persons.size());
+        for (int i = 0; i < 3; i++)
+        {
+            Assert.assertEquals(ids[i], persons.get(i).getPersonId());
+        }
+    }
+
+    @Test
+    public void testBatchFetchManyToMany()
+    {
+        List<EnhanceEntity> page = new ArrayList<EnhanceEntity>();
+        CoreTestClient.reset();
+        for (int i = 1; i <= 2; i++)
+        {
+            PersonUMM person = new PersonUMM();
+            person.setPersonId("mtmperson" + i);
+            person.setPersonName("personName");
+
+            Set<AddressUMM> addresses = new HashSet<AddressUMM>();
+            for (int j = 1; j <= i; j++)
+            {
+                AddressUMM address = new AddressUMM();
+                address.setAddressId("batchaddr" + i + j);
+                address.setStreet("mtmstreet" + i + j);
+                addresses.add(address);
+                CoreTestClient.addJoinTableRecord("PERSONNEL_ADDRESS", person.getPersonId(), address.getAddressId());
+            }
+            person.setAddresses(addresses);
+            em.persist(person);
+
+            person.setAddresses(null);
+            page.add(new EnhanceEntity(person, person.getPersonId(), null));
+        }
+        em.clear();
+
+        PersistenceDelegator delegator = CoreTestUtilities.getDelegator(em);
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(PersonUMM.class);
+        KunderaMetadataManager.getPersistenceUnitMetadata(PU).getProperties()
+                .setProperty(PersistenceProperties.KUNDERA_BATCH_FETCH, "true");
+
+        int findAllCalls = CoreTestClient.getFindAllCalls();
+        int findCalls = CoreTestClient.getFindCalls();
+        List<Object> results = new CoreTestEntityReader().recursivelyFindEntities(page, metadata, delegator, true);
+
+        // children of each owner fetched with a single call.
+        Assert.assertEquals(2, CoreTestClient.getFindAllCalls() - findAllCalls);
+        Assert.assertEquals(0, CoreTestClient.getFindCalls() - findCalls);
+
+        Assert.assertEquals(2, results.size());
+        for (int i = 1; i <= 2; i++)
+        {
+            PersonUMM person = (PersonUMM) results.get(i - 1);
+            Assert.assertNotNull(person.getAddresses());
+            Assert.assertEquals(i, person.getAddresses().size());
+            Set<String> streets = new HashSet<String>();
+            for (AddressUMM address : person.getAddresses())
+            {
+                Assert.assertEquals("mtmstreet" + address.getAddressId().substring("batchaddr".length()),
+                        address.getStreet());
+                streets.add(address.getStreet());
+            }
+            for (int j = 1; j <= i; j++)
+            {
+                Assert.assertTrue(streets.contains("mtmstreet" + i + j));
+            }
+        }
+    }
+
     @After
     public void tearDown()
     {
+        CoreTestClient.reset();
+
         if (emf != null)
         {
             emf.close();
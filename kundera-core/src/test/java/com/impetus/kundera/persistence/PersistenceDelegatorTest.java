@@ -181,6 +181,37 @@ public class PersistenceDelegatorTest
         Assert.assertEquals(3, persons.size());
     }
 
+    @Test
+    public void testFindForObjectArrayNotInCache()
+    {
+        PersonnelDTO dto = new PersonnelDTO();
+        dto.setPersonId("444");
+        dto.setFirstName("amresh");
+        em.persist(dto);
+
+        dto = new PersonnelDTO();
+        dto.setPersonId("555");
+        dto.setFirstName("vivek");
+        em.persist(dto);
+
+        // fetch from database, not from persistence cache.
+        em.clear();
+
+        PersistenceDelegator pd = ((EntityManagerImpl) em).getPersistenceDelegator();
+
+        List<PersonnelDTO> persons = pd.find(PersonnelDTO.class, new String[] { "555", "444", "999", "555" });
+        Assert.assertNotNull(persons);
+        Assert.assertEquals(2, persons.size());
+        Assert.assertEquals("555", persons.get(0).getPersonId());
+        Assert.assertEquals("vivek", persons.get(0).getFirstName());
+        Assert.assertEquals("444", persons.get(1).getPersonId());
+        Assert.assertEquals("amresh", persons.get(1).getFirstName());
+
+        // Fetched entities must be managed now.
+        Assert.assertTrue(pd.contains(persons.get(0)));
+        Assert.assertTrue(pd.contains(persons.get(1)));
+    }
+
     @Test
     public void testRemove()
     {
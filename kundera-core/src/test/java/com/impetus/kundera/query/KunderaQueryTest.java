@@ -16,6 +16,7 @@
 package com.impetus.kundera.query;
 
 import java.util.Iterator;
+import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -416,6 +417,124 @@ public class KunderaQueryTest
 
     }
 
+    @Test
+    public void testCopy()
+    {
+        String query = "Select p from Person p where p.personName = :name and p.age= :age";
+        KunderaQuery template = new KunderaQuery();
+        KunderaQueryParser queryParser = new KunderaQueryParser(template, query);
+        queryParser.parse();
+        template.postParsingInit();
+        Object nameValue = template.getClauseValue(":name");
+
+        KunderaQuery kunderaQuery = template.copy();
+        kunderaQuery.setParameter("name", "pname");
+        kunderaQuery.setParameter("age", 32);
+
+        Assert.assertEquals(Person.class, kunderaQuery.getEntityClass());
+        Assert.assertEquals(template.getFilterClauseQueue().size(), kunderaQuery.getFilterClauseQueue().size());
+        Assert.assertEquals(2, kunderaQuery.getParameters().size());
+        Assert.assertEquals("pname", kunderaQuery.getClauseValue(":name"));
+        Assert.assertEquals(32, kunderaQuery.getClauseValue(":age"));
+
+        // binding on copy must not change template.
+        Assert.assertEquals(nameValue, template.getClauseValue(":name"));
+
+        QueryPlanCache cache = new QueryPlanCache(1);
+        cache.put(query, new QueryPlanCache.QueryPlan(template, template.getEntityMetadata()));
+        Assert.assertNotNull(cache.get(query));
+        cache.put("Select p from Person p", new QueryPlanCache.QueryPlan(template, template.getEntityMetadata()));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNull(cache.get(query));
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testAggregateQuery()
+    {
+        String query = "Select p.personName, count(p), sum(p.age), min(p.age), avg(p.age) from Person p where p.age > 10 group by p.personName";
+        KunderaQuery kunderaQuery = new KunderaQuery();
+        KunderaQueryParser queryParser = new KunderaQueryParser(kunderaQuery, query);
+        queryParser.parse();
+        kunderaQuery.postParsingInit();
+
+        Assert.assertTrue(kunderaQuery.isAggregated());
+        Assert.assertEquals(1, kunderaQuery.getGrouping().size());
+        Assert.assertEquals("personName", kunderaQuery.getGrouping().get(0));
+        List<Aggregation> aggregations = kunderaQuery.getAggregations();
+        Assert.assertEquals(5, aggregations.size());
+        Assert.assertFalse(aggregations.get(0).isFunction());
+        Assert.assertEquals(Aggregation.Function.COUNT, aggregations.get(1).getFunction());
+        Assert.assertNull(aggregations.get(1).getProperty());
+        Assert.assertEquals(Aggregation.Function.SUM, aggregations.get(2).getFunction());
+        Assert.assertEquals("age", aggregations.get(2).getProperty());
+        Assert.assertEquals(1, kunderaQuery.getFilterClauseQueue().size());
+
+        Aggregator aggregator = new Aggregator(kunderaQuery.getEntityMetadata(), kunderaQuery);
+        aggregator.add(person("1", "vivek", 32));
+        aggregator.add(person("2", "amresh", 30));
+        aggregator.add(person("3", "vivek", 20));
+        aggregator.add(person("4", "vivek", null));
+        List<Object> results = aggregator.getResults();
+        Assert.assertEquals(2, results.size());
+        Object[] row = (Object[]) results.get(0);
+        Assert.assertEquals("vivek", row[0]);
+        Assert.assertEquals(3l, row[1]);
+        Assert.assertEquals(52l, row[2]);
+        Assert.assertEquals(20, row[3]);
+        Assert.assertEquals(26.0, row[4]);
+        row = (Object[]) results.get(1);
+        Assert.assertEquals("amresh", row[0]);
+        Assert.assertEquals(1l, row[1]);
+
+        // no rows, without grouping.
+        query = "Select count(p.age), max(p.age) from Person p";
+        kunderaQuery = new KunderaQuery();
+        queryParser = new KunderaQueryParser(kunderaQuery, query);
+        queryParser.parse();
+        kunderaQuery.postParsingInit();
+        results = new Aggregator(kunderaQuery.getEntityMetadata(), kunderaQuery).getResults();
+        Assert.assertEquals(1, results.size());
+        Assert.assertEquals(0l, ((Object[]) results.get(0))[0]);
+        Assert.assertNull(((Object[]) results.get(0))[1]);
+
+        try
+        {
+            query = "Select p.age, count(p) from Person p group by p.personName";
+            kunderaQuery = new KunderaQuery();
+            queryParser = new KunderaQueryParser(kunderaQuery, query);
+            queryParser.parse();
+            kunderaQuery.postParsingInit();
+            Assert.fail("Should have failed for select item not in grouping");
+        }
+        catch (QueryHandlerException e)
+        {
+            Assert.assertNotNull(e.getMessage());
+        }
+
+        try
+        {
+            query = "Select count(*) from Person p";
+            kunderaQuery = new KunderaQuery();
+            queryParser = new KunderaQueryParser(kunderaQuery, query);
+            queryParser.parse();
+            Assert.fail("Should have failed for missing identification variable");
+        }
+        catch (JPQLParseException e)
+        {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    private Person person(String id, String name, Integer age)
+    {
+        Person person = new Person();
+        person.setPersonId(id);
+        person.setPersonName(name);
+        person.setAge(age);
+        return person;
+    }
 
     private class JPAParameter implements Parameter<String>
     {
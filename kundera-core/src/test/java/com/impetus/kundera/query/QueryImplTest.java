@@ -15,10 +15,13 @@
  */
 package com.impetus.kundera.query;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.persistence.EntityManager;
@@ -27,6 +30,7 @@ import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
 import javax.persistence.Persistence;
 import javax.persistence.TemporalType;
+import javax.persistence.metamodel.Attribute;
 
 import junit.framework.Assert;
 
@@ -419,6 +423,37 @@ public class QueryImplTest
 
     }
 
+    @Test
+    public void testGetUpdateValues()
+    {
+        PersistenceDelegator delegator = CoreTestUtilities.getDelegator(em);
+        EntityMetadata m = KunderaMetadataManager.getEntityMetadata(Person.class);
+
+        String updateQuery = "Update Person p set p.age=23, p.personName=Amresh where p.personId = 1";
+        CoreQuery queryObj = new CoreQuery(updateQuery, parseQuery(updateQuery), delegator);
+
+        Map<Attribute, Object> values = queryObj.getUpdateValues(m);
+        Assert.assertNotNull(values);
+        Assert.assertEquals(2, values.size());
+        for (Map.Entry<Attribute, Object> value : values.entrySet())
+        {
+            if (value.getKey().getName().equals("age"))
+            {
+                Assert.assertEquals(new Integer(23), value.getValue());
+            }
+            else
+            {
+                Assert.assertEquals("personName", value.getKey().getName());
+                Assert.assertEquals("Amresh", value.getValue());
+            }
+        }
+
+        // update on id attribute can not be executed as bulk statement.
+        updateQuery = "Update Person p set p.personId=2 where p.personId = 1";
+        queryObj = new CoreQuery(updateQuery, parseQuery(updateQuery), delegator);
+        Assert.assertNull(queryObj.getUpdateValues(m));
+    }
+
     private KunderaQuery parseQuery(final String query)
     {
         KunderaQuery kunderaQuery = new KunderaQuery();
@@ -627,4 +662,106 @@ public class QueryImplTest
         }       
         
     }
+
+    @Test
+    public void testAggregateOverMoreThanMaxResults()
+    {
+        final List<Person> persons = new ArrayList<Person>();
+        for (int i = 0; i < 150; i++)
+        {
+            Person p = new Person();
+            p.setPersonId("" + i);
+            p.setPersonName("name" + i);
+            p.setAge(i % 2 == 0 ? 10 : 20);
+            persons.add(p);
+        }
+
+        PersistenceDelegator delegator = CoreTestUtilities.getDelegator(em);
+
+        // scrolled page by page via iterate(), bounded by fetch size like
+        // datastore iterators.
+        final List<Integer> pageSizes = new ArrayList<Integer>();
+        String query = "Select count(p), sum(p.age), max(p.age) from Person p";
+        CoreQuery<Person> queryObj = new CoreQuery<Person>(query, parseQuery(query), delegator)
+        {
+            @Override
+            public Iterator<Person> iterate()
+            {
+                final int limit = getFetchSize() != null ? getFetchSize() : maxResult;
+                return new IResultIterator<Person>()
+                {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return next < Math.min(limit, persons.size());
+                    }
+
+                    @Override
+                    public Person next()
+                    {
+                        return persons.get(next++);
+                    }
+
+                    @Override
+                    public List<Person> next(int chunkSize)
+                    {
+                        pageSizes.add(chunkSize);
+                        List<Person> page = new ArrayList<Person>();
+                        while (page.size() < chunkSize && hasNext())
+                        {
+                            page.add(next());
+                        }
+                        return page;
+                    }
+
+                    @Override
+                    public void remove()
+                    {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+        List results = queryObj.getResultList();
+        Assert.assertEquals(1, results.size());
+        Object[] row = (Object[]) results.get(0);
+        Assert.assertEquals(150L, ((Number) row[0]).longValue());
+        Assert.assertEquals(2250L, ((Number) row[1]).longValue());
+        Assert.assertEquals(20, ((Number) row[2]).intValue());
+        Assert.assertEquals(100, queryObj.getMaxResults());
+        Assert.assertEquals(2, pageSizes.size());
+        Assert.assertTrue(pageSizes.get(0) <= 1000);
+
+        // fetched via populateEntities(), bounded by max results.
+        query = "Select count(p) from Person p";
+        queryObj = new CoreQuery<Person>(query, parseQuery(query), delegator)
+        {
+            @Override
+            protected List<Object> populateEntities(EntityMetadata m, Client client)
+            {
+                return new ArrayList<Object>(persons.subList(0, Math.min(maxResult, persons.size())));
+            }
+        };
+        Assert.assertEquals(100L, ((Number) queryObj.getResultList().get(0)).longValue());
+        queryObj.setMaxResults(Integer.MAX_VALUE);
+        Assert.assertEquals(150L, ((Number) queryObj.getResultList().get(0)).longValue());
+
+        // max results bounds groups returned, and entities fetched.
+        query = "Select p.personName, count(p) from Person p group by p.personName";
+        queryObj = new CoreQuery<Person>(query, parseQuery(query), delegator)
+        {
+            @Override
+            protected List<Object> populateEntities(EntityMetadata m, Client client)
+            {
+                return new ArrayList<Object>(persons.subList(0, Math.min(maxResult, persons.size())));
+            }
+        };
+        Assert.assertEquals(100, queryObj.getResultList().size());
+        queryObj.setMaxResults(120);
+        Assert.assertEquals(120, queryObj.getResultList().size());
+        queryObj.setMaxResults(Integer.MAX_VALUE);
+        Assert.assertEquals(150, queryObj.getResultList().size());
+    }
 }
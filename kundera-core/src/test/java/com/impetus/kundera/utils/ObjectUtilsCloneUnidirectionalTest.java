@@ -109,6 +109,21 @@ public class ObjectUtilsCloneUnidirectionalTest
         assertOriginalObjectValues(a2);
     }
 
+    @Test
+    public void testCopyPlanReuse()
+    {
+        metadata = KunderaMetadataManager.getEntityMetadata(PhotographerUni_1_M_1_M.class);
+        CopyPlan plan = CopyPlan.getPlan(metadata);
+
+        PhotographerUni_1_M_1_M a1 = constructPhotographer(1);
+        PhotographerUni_1_M_1_M a2 = (PhotographerUni_1_M_1_M) ObjectUtils.deepCopy(a1);
+        Assert.assertTrue(DeepEquals.deepEquals(a1, a2));
+
+        // plan is built once per entity metadata.
+        Assert.assertSame(plan, CopyPlan.getPlan(metadata));
+        Assert.assertEquals(1, plan.relationFields.length);
+    }
+
     // @Test
     public void testBulkCopyUsingKunderaCloner()
     {
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.es;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bulk processor listener which keeps count of bulk requests in flight and
+ * collects per item failures, to be reported back on flush.
+ * 
+ * 
+ */
+class ESBulkListener implements BulkProcessor.Listener
+{
+    /** The log instance. */
+    private static Logger log = LoggerFactory.getLogger(ESBulkListener.class);
+
+    private int inFlight;
+
+    private List<String> failures = new ArrayList<String>();
+
+    @Override
+    public synchronized void beforeBulk(long executionId, BulkRequest request)
+    {
+        inFlight++;
+    }
+
+    @Override
+    public synchronized void afterBulk(long executionId, BulkRequest request, BulkResponse response)
+    {
+        if (response.hasFailures())
+        {
+            for (BulkItemResponse item : response.getItems())
+            {
+                if (item.isFailed())
+                {
+                    failures.add(item.getOpType() + " of " + item.getType() + "[" + item.getId() + "]: "
+                            + item.getFailureMessage());
+                }
+            }
+        }
+        onCompletion();
+    }
+
+    @Override
+    public synchronized void afterBulk(long executionId, BulkRequest request, Throwable failure)
+    {
+        log.error("Error while executing bulk request of {} actions, Caused by: .", request.numberOfActions(),
+                failure);
+        failures.add(request.numberOfActions() + " actions: " + failure.getMessage());
+        onCompletion();
+    }
+
+    /**
+     * Waits till all bulk requests in flight are completed.
+     * 
+     * @throws InterruptedException
+     */
+    synchronized void awaitCompletion() throws InterruptedException
+    {
+        while (inFlight > 0)
+        {
+            wait();
+        }
+    }
+
+    /**
+     * Returns failures collected since last call and resets them.
+     * 
+     * @return failure messages, empty if none.
+     */
+    synchronized List<String> drainFailures()
+    {
+        List<String> result = failures;
+        failures = new ArrayList<String>();
+        return result;
+    }
+
+    private void onCompletion()
+    {
+        inFlight--;
+        notifyAll();
+    }
+}
@@ -28,16 +28,25 @@ import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.SingularAttribute;
 
+import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.deletebyquery.DeleteByQueryRequestBuilder;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequestBuilder;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.FilterBuilders;
 import org.elasticsearch.index.query.QueryBuilders;
@@ -45,6 +54,7 @@ import org.elasticsearch.index.query.TermFilterBuilder;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHitField;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.facet.FacetBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,6 +105,27 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
     
     private static final String KEY_SEPERATOR = "\001";
 
+    /** How long scroll context is kept alive between two scroll calls. */
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
+    /** true, if persist and delete go via asynchronous bulk processor. */
+    private boolean bulkProcessorMode;
+
+    private int bulkActions = ESConstants.DEFAULT_BULK_ACTIONS;
+
+    private int bulkSizeInMB = ESConstants.DEFAULT_BULK_SIZE_MB;
+
+    private long bulkFlushInterval;
+
+    private int bulkConcurrentRequests = ESConstants.DEFAULT_BULK_CONCURRENT_REQUESTS;
+
+    private BulkProcessor bulkProcessor;
+
+    private ESBulkListener bulkListener;
+
+    /** Number of actions added to bulk processor since last flush. */
+    private int bulkActionCount;
+
 
     ESClient(final ESClientFactory factory, final TransportClient client, final Map<String, Object> externalProperties)
     {
@@ -103,6 +134,7 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
         this.txClient = client;
         this.reader = new ESEntityReader();
         setBatchSize(getPersistenceUnit(), externalProperties);
+        setBulkProcessorProperties(getPersistenceUnit(), externalProperties);
     }
 
     @Override
@@ -227,34 +259,105 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
         return result;
     }
 
-    List executeQuery(FilterBuilder filter, final EntityMetadata entityMetadata)
+    List executeQuery(FilterBuilder filter, final EntityMetadata entityMetadata, int firstResult, int maxResult)
     {
-
-        Class clazz = entityMetadata.getEntityClazz();
-
-        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
-                entityMetadata.getPersistenceUnit());
-
-        EntityType entityType = metaModel.entity(clazz);
-
         List results = new ArrayList();
 
         SearchResponse response = txClient.prepareSearch(entityMetadata.getSchema().toLowerCase())
-                .setTypes(entityMetadata.getEntityClazz().getSimpleName()).setFilter(filter).execute().actionGet();
+                .setTypes(entityMetadata.getEntityClazz().getSimpleName()).setFilter(filter).setFrom(firstResult)
+                .setSize(maxResult).execute().actionGet();
         SearchHits hits = response.getHits();
 
-        Object entity = null;
-
         for (SearchHit hit : hits.getHits())
         {
-            entity = getInstance(clazz, entity);
-            Map<String, Object> hitResult = hit.sourceAsMap();
-            results.add(wrap(hitResult, entityType, entity,entityMetadata, false));
+            results.add(getEntity(hit, entityMetadata));
         }
 
         return results;
     }
 
+    /**
+     * Computes given facets over documents matching filter, without fetching
+     * any document. Filter is applied as a filtered query, as facets ignore
+     * a post filter.
+     * 
+     * @param filter
+     *            filter, null for all documents.
+     * @param entityMetadata
+     *            entity metadata.
+     * @param facets
+     *            facets to compute.
+     * @return search response, carrying total hits and facets.
+     */
+    SearchResponse executeFacets(FilterBuilder filter, final EntityMetadata entityMetadata, List<FacetBuilder> facets)
+    {
+        SearchRequestBuilder builder = txClient
+                .prepareSearch(entityMetadata.getSchema().toLowerCase())
+                .setTypes(entityMetadata.getEntityClazz().getSimpleName())
+                .setQuery(
+                        filter != null ? QueryBuilders.filteredQuery(QueryBuilders.matchAllQuery(), filter)
+                                : QueryBuilders.matchAllQuery()).setSize(0);
+        for (FacetBuilder facet : facets)
+        {
+            builder.addFacet(facet);
+        }
+        return builder.execute().actionGet();
+    }
+
+    /**
+     * Opens a scan search over documents matching filter. Returned response
+     * carries no hits, only scroll id to pass on to {@link #scroll(String)}.
+     * 
+     * @param filter
+     *            filter, null for all documents.
+     * @param entityMetadata
+     *            entity metadata.
+     * @param size
+     *            number of hits per shard in each scroll.
+     * @return search response.
+     */
+    SearchResponse startScroll(FilterBuilder filter, final EntityMetadata entityMetadata, int size)
+    {
+        return txClient.prepareSearch(entityMetadata.getSchema().toLowerCase())
+                .setTypes(entityMetadata.getEntityClazz().getSimpleName()).setSearchType(SearchType.SCAN)
+                .setScroll(SCROLL_KEEP_ALIVE).setFilter(filter).setSize(size).execute().actionGet();
+    }
+
+    /**
+     * Returns next batch of hits of an open scroll.
+     * 
+     * @param scrollId
+     *            scroll id of last response.
+     * @return search response, with no hits once scroll is exhausted.
+     */
+    SearchResponse scroll(String scrollId)
+    {
+        return txClient.prepareSearchScroll(scrollId).setScroll(SCROLL_KEEP_ALIVE).execute().actionGet();
+    }
+
+    /**
+     * Returns entity, or {@link EnhanceEntity} in case of relations, for given
+     * search hit.
+     * 
+     * @param hit
+     *            search hit.
+     * @param entityMetadata
+     *            entity metadata.
+     * @return entity.
+     */
+    Object getEntity(SearchHit hit, final EntityMetadata entityMetadata)
+    {
+        Class clazz = entityMetadata.getEntityClazz();
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+
+        EntityType entityType = metaModel.entity(clazz);
+
+        Object entity = getInstance(clazz, null);
+        return wrap(hit.sourceAsMap(), entityType, entity, entityMetadata, false);
+    }
+
     private Object wrap(Map<String, Object> results, EntityType entityType, Object result, EntityMetadata metadata, boolean isIdSet)
     {
 
@@ -298,7 +401,40 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
     @Override
     public <E> List<E> findAll(Class<E> entityClass, String[] columnsToSelect, Object... keys)
     {
-        return null;
+        List results = new ArrayList();
+        if (keys == null || keys.length == 0)
+        {
+            return results;
+        }
+
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(entityClass);
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                metadata.getPersistenceUnit());
+
+        EntityType entityType = metaModel.entity(metadata.getEntityClazz());
+
+        MultiGetRequestBuilder multiGet = txClient.prepareMultiGet();
+        for (Object key : keys)
+        {
+            multiGet.add(metadata.getSchema().toLowerCase(), metadata.getEntityClazz().getSimpleName(),
+                    getKeyAsString(key, metadata, metaModel));
+        }
+
+        MultiGetResponse response = multiGet.execute().actionGet();
+
+        MultiGetItemResponse[] responses = response.getResponses();
+        for (int i = 0; i < responses.length; i++)
+        {
+            GetResponse get = responses[i].getResponse();
+            if (!responses[i].isFailed() && get != null && get.isExists())
+            {
+                Object result = getInstance(entityClass, null);
+                PropertyAccessorHelper.setId(result, metadata, keys[i]);
+                results.add(wrap(get.getSource(), entityType, result, metadata, true));
+            }
+        }
+        return results;
     }
 
     @Override
@@ -310,6 +446,17 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
     @Override
     public void close()
     {
+        if (bulkProcessor != null)
+        {
+            try
+            {
+                flushBulkProcessor();
+            }
+            catch (PersistenceException pex)
+            {
+                log.error("Error while flushing bulk processor on close, Caused by: .", pex);
+            }
+        }
         clear();
         reader = null;
     }
@@ -542,6 +689,12 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
     public void addBatch(Node node)
     {
 
+        if (node != null && bulkProcessorMode)
+        {
+            addToBulkProcessor(node);
+            return;
+        }
+
         if (node != null)
         {
             nodes.add(node);
@@ -566,6 +719,11 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
     @Override
     public int executeBatch()
     {
+        if (bulkProcessorMode)
+        {
+            return flushBulkProcessor();
+        }
+
         BulkRequestBuilder bulkRequest = txClient.prepareBulk();
 
         try
@@ -645,7 +803,99 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
     @Override
     public int getBatchSize()
     {
-        return batchSize;
+        // nodes are routed via addBatch in bulk processor mode.
+        return bulkProcessorMode ? bulkActions : batchSize;
+    }
+
+    /**
+     * Adds index or delete request for given node to bulk processor, which
+     * sends them as bulk request once any of configured limits is reached.
+     * 
+     * @param node
+     *            node to be flushed.
+     */
+    private void addToBulkProcessor(Node node)
+    {
+        if (!node.isDirty())
+        {
+            return;
+        }
+
+        node.handlePreEvent();
+        EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                metadata.getPersistenceUnit());
+
+        String key = getKeyAsString(node.getEntityId(), metadata, metaModel);
+
+        if (bulkProcessor == null)
+        {
+            bulkListener = new ESBulkListener();
+            BulkProcessor.Builder builder = BulkProcessor.builder(txClient, bulkListener).setBulkActions(bulkActions)
+                    .setBulkSize(new ByteSizeValue(bulkSizeInMB, ByteSizeUnit.MB))
+                    .setConcurrentRequests(bulkConcurrentRequests);
+            if (bulkFlushInterval > 0)
+            {
+                builder.setFlushInterval(TimeValue.timeValueMillis(bulkFlushInterval));
+            }
+            bulkProcessor = builder.build();
+        }
+
+        if (node.isInState(RemovedState.class))
+        {
+            bulkProcessor.add(new DeleteRequest(metadata.getSchema().toLowerCase(), metadata.getEntityClazz()
+                    .getSimpleName(), key));
+        }
+        else
+        {
+            // whole document is sent anyway, so update is same as re-index.
+            Map<String, Object> values = new HashMap<String, Object>();
+            addSource(node.getData(), values, metaModel.entity(metadata.getEntityClazz()));
+            addRelations(getRelationHolders(node), values);
+            bulkProcessor.add(new IndexRequest(metadata.getSchema().toLowerCase(), metadata.getEntityClazz()
+                    .getSimpleName(), key).source(values));
+        }
+        bulkActionCount++;
+    }
+
+    /**
+     * Sends pending actions of bulk processor and waits for all bulk requests
+     * in flight to complete. Bulk processor provides no flush, so it is closed
+     * and re-created on next add.
+     * 
+     * @return number of actions flushed since last flush.
+     * @throws PersistenceException
+     *             if any of actions failed.
+     */
+    private int flushBulkProcessor()
+    {
+        if (bulkProcessor == null)
+        {
+            return 0;
+        }
+
+        bulkProcessor.close();
+        bulkProcessor = null;
+        int flushed = bulkActionCount;
+        bulkActionCount = 0;
+        try
+        {
+            bulkListener.awaitCompletion();
+        }
+        catch (InterruptedException iex)
+        {
+            log.error("Error while flushing bulk processor, Caused by: .", iex);
+            throw new PersistenceException(iex);
+        }
+
+        List<String> failures = bulkListener.drainFailures();
+        if (!failures.isEmpty())
+        {
+            throw new PersistenceException("Failed to flush " + failures.size() + " of " + flushed
+                    + " bulk actions: " + failures);
+        }
+        return flushed;
     }
 
     @Override
@@ -704,6 +954,46 @@ public class ESClient extends ClientBase implements Client<ESQuery>, Batcher, Cl
         }
     }
 
+    /**
+     * Reads bulk processor properties from external or persistence unit
+     * properties.
+     * 
+     * @param persistenceUnit
+     * @param puProperties
+     */
+    private void setBulkProcessorProperties(String persistenceUnit, Map<String, Object> puProperties)
+    {
+        PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+
+        String mode = getProperty(ESConstants.BULK_PROCESSOR, puProperties, puMetadata);
+        bulkProcessorMode = mode != null && Boolean.valueOf(mode);
+        if (bulkProcessorMode)
+        {
+            String value = getProperty(ESConstants.BULK_ACTIONS, puProperties, puMetadata);
+            bulkActions = value != null ? Integer.valueOf(value) : bulkActions;
+            value = getProperty(ESConstants.BULK_SIZE_MB, puProperties, puMetadata);
+            bulkSizeInMB = value != null ? Integer.valueOf(value) : bulkSizeInMB;
+            value = getProperty(ESConstants.BULK_FLUSH_INTERVAL, puProperties, puMetadata);
+            bulkFlushInterval = value != null ? Long.valueOf(value) : bulkFlushInterval;
+            value = getProperty(ESConstants.BULK_CONCURRENT_REQUESTS, puProperties, puMetadata);
+            bulkConcurrentRequests = value != null ? Integer.valueOf(value) : bulkConcurrentRequests;
+            if (bulkActions <= 0)
+            {
+                throw new IllegalArgumentException(ESConstants.BULK_ACTIONS + " property must be numeric and > 0.");
+            }
+        }
+    }
+
+    private String getProperty(String name, Map<String, Object> puProperties, PersistenceUnitMetadata puMetadata)
+    {
+        Object value = puProperties != null ? puProperties.get(name) : null;
+        if (value == null && puMetadata != null)
+        {
+            value = puMetadata.getProperty(name);
+        }
+        return value != null ? value.toString() : null;
+    }
+
     @Override
     public void populateClientProperties(Client client, Map<String, Object> properties)
     {
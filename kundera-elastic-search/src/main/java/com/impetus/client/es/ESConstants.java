@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.es;
+
+/**
+ * Elastic search specific persistence unit properties.
+ * 
+ * 
+ */
+public interface ESConstants
+{
+    /**
+     * If true, entities are indexed and deleted through an asynchronous bulk
+     * processor, flushed on transaction commit, {@code EntityManager.flush()}
+     * and close.
+     */
+    String BULK_PROCESSOR = "es.bulk.processor";
+
+    /** Number of actions after which a bulk request is sent. */
+    String BULK_ACTIONS = "es.bulk.actions";
+
+    /** Size in MB of actions after which a bulk request is sent. */
+    String BULK_SIZE_MB = "es.bulk.size.mb";
+
+    /** Interval in milliseconds after which pending actions are sent. */
+    String BULK_FLUSH_INTERVAL = "es.bulk.flush.interval";
+
+    /** Number of bulk requests allowed to be in flight at once. */
+    String BULK_CONCURRENT_REQUESTS = "es.bulk.concurrent.requests";
+
+    int DEFAULT_BULK_ACTIONS = 1000;
+
+    int DEFAULT_BULK_SIZE_MB = 5;
+
+    int DEFAULT_BULK_CONCURRENT_REQUESTS = 1;
+}
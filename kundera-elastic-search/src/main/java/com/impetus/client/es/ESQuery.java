@@ -15,24 +15,36 @@
  ******************************************************************************/
 package com.impetus.client.es;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.Query;
+import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EntityType;
 
+import org.apache.commons.lang.ClassUtils;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.AndFilterBuilder;
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.OrFilterBuilder;
 import org.elasticsearch.index.query.RangeFilterBuilder;
 import org.elasticsearch.index.query.TermFilterBuilder;
+import org.elasticsearch.search.facet.FacetBuilder;
+import org.elasticsearch.search.facet.FacetBuilders;
+import org.elasticsearch.search.facet.statistical.StatisticalFacet;
+import org.elasticsearch.search.facet.termsstats.TermsStatsFacet;
 
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
 import com.impetus.kundera.metadata.model.MetamodelImpl;
+import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.query.Aggregation;
 import com.impetus.kundera.query.KunderaQuery;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.QueryImpl;
@@ -43,6 +55,8 @@ import com.impetus.kundera.query.QueryImpl;
 
 public class ESQuery<E> extends QueryImpl
 {
+    /** Offset of first result to be returned. */
+    private int firstResult;
 
     /**
      * Constructor using fields.
@@ -74,7 +88,190 @@ public class ESQuery<E> extends QueryImpl
     @Override
     protected List<Object> populateEntities(EntityMetadata m, Client client)
     {
-        
+        return ((ESClient) client).executeQuery(getFilter(m), m, firstResult, maxResult);
+    }
+
+    /**
+     * Computes aggregate functions over numeric attributes as facets: a
+     * statistical facet per function without grouping, a terms stats facet
+     * keyed by grouping attribute otherwise. Only a single numeric grouping
+     * attribute is pushed down, as string attributes are analyzed. COUNT is
+     * served by total hits and is pushed down only without grouping.
+     */
+    @Override
+    protected List<Object> onAggregation(EntityMetadata m, Client client)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        EntityType entity = metaModel.entity(m.getEntityClazz());
+        List<String> grouping = getKunderaQuery().getGrouping();
+        List<Aggregation> aggregations = getKunderaQuery().getAggregations();
+
+        if (grouping.size() > 1)
+        {
+            return null;
+        }
+        Attribute keyAttribute = grouping.isEmpty() ? null : entity.getAttribute(grouping.get(0));
+        if (keyAttribute != null && !isNumeric(keyAttribute.getJavaType()))
+        {
+            return null;
+        }
+
+        List<FacetBuilder> facets = new ArrayList<FacetBuilder>();
+        for (int i = 0; i < aggregations.size(); i++)
+        {
+            Aggregation aggregation = aggregations.get(i);
+            if (!aggregation.isFunction())
+            {
+                continue;
+            }
+            if (aggregation.getFunction() == Aggregation.Function.COUNT)
+            {
+                if (keyAttribute != null
+                        || aggregation.isDistinct()
+                        || (aggregation.getProperty() != null && !aggregation.getProperty().equals(
+                                m.getIdAttribute().getName())))
+                {
+                    return null;
+                }
+                continue;
+            }
+            Attribute attribute = entity.getAttribute(aggregation.getProperty());
+            if (!isNumeric(attribute.getJavaType()))
+            {
+                return null;
+            }
+            String column = ((AbstractAttribute) attribute).getJPAColumnName();
+            facets.add(keyAttribute == null ? FacetBuilders.statisticalFacet("a" + i).field(column) : FacetBuilders
+                    .termsStatsFacet("a" + i).keyField(((AbstractAttribute) keyAttribute).getJPAColumnName())
+                    .valueField(column).allTerms());
+        }
+        if (keyAttribute != null && facets.isEmpty())
+        {
+            return null;
+        }
+
+        SearchResponse response = ((ESClient) client).executeFacets(getFilter(m), m, facets);
+
+        List<Object> results = new ArrayList<Object>();
+        if (keyAttribute == null)
+        {
+            Object[] row = new Object[aggregations.size()];
+            for (int i = 0; i < row.length; i++)
+            {
+                Aggregation aggregation = aggregations.get(i);
+                if (aggregation.getFunction() == Aggregation.Function.COUNT)
+                {
+                    row[i] = response.getHits().getTotalHits();
+                }
+                else
+                {
+                    StatisticalFacet facet = response.getFacets().facet(StatisticalFacet.class, "a" + i);
+                    row[i] = facet.getCount() == 0 ? null : getAggregateValue(aggregation, facet.getTotal(),
+                            facet.getMin(), facet.getMax(), facet.getMean(), entity);
+                }
+            }
+            results.add(row.length == 1 ? row[0] : row);
+            return results;
+        }
+
+        Map<Object, Object[]> groups = new LinkedHashMap<Object, Object[]>();
+        for (int i = 0; i < aggregations.size(); i++)
+        {
+            Aggregation aggregation = aggregations.get(i);
+            if (!aggregation.isFunction())
+            {
+                continue;
+            }
+            TermsStatsFacet facet = response.getFacets().facet(TermsStatsFacet.class, "a" + i);
+            for (TermsStatsFacet.Entry entry : facet.getEntries())
+            {
+                Object key = toFieldType(entry.getTermAsNumber(), keyAttribute.getJavaType());
+                Object[] row = groups.get(key);
+                if (row == null)
+                {
+                    row = new Object[aggregations.size()];
+                    for (int j = 0; j < row.length; j++)
+                    {
+                        if (!aggregations.get(j).isFunction())
+                        {
+                            row[j] = key;
+                        }
+                    }
+                    groups.put(key, row);
+                }
+                row[i] = getAggregateValue(aggregation, entry.getTotal(), entry.getMin(), entry.getMax(),
+                        entry.getMean(), entity);
+            }
+        }
+        for (Object[] row : groups.values())
+        {
+            results.add(row.length == 1 ? row[0] : row);
+        }
+        return results;
+    }
+
+    private Object getAggregateValue(Aggregation aggregation, double total, double min, double max, double mean,
+            EntityType entity)
+    {
+        Class<?> type = entity.getAttribute(aggregation.getProperty()).getJavaType();
+        switch (aggregation.getFunction())
+        {
+        case SUM:
+            Class<?> wrapper = ClassUtils.primitiveToWrapper(type);
+            return Double.class.equals(wrapper) || Float.class.equals(wrapper) ? (Object) total : (Object) Math
+                    .round(total);
+        case AVG:
+            return mean;
+        case MIN:
+            return toFieldType(min, type);
+        default:
+            return toFieldType(max, type);
+        }
+    }
+
+    private boolean isNumeric(Class<?> type)
+    {
+        Class<?> wrapper = ClassUtils.primitiveToWrapper(type);
+        return Integer.class.equals(wrapper) || Long.class.equals(wrapper) || Short.class.equals(wrapper)
+                || Byte.class.equals(wrapper) || Float.class.equals(wrapper) || Double.class.equals(wrapper);
+    }
+
+    private Object toFieldType(Number number, Class<?> type)
+    {
+        Class<?> wrapper = ClassUtils.primitiveToWrapper(type);
+        if (Integer.class.equals(wrapper))
+        {
+            return number.intValue();
+        }
+        else if (Long.class.equals(wrapper))
+        {
+            return number.longValue();
+        }
+        else if (Short.class.equals(wrapper))
+        {
+            return number.shortValue();
+        }
+        else if (Byte.class.equals(wrapper))
+        {
+            return number.byteValue();
+        }
+        else if (Float.class.equals(wrapper))
+        {
+            return number.floatValue();
+        }
+        return number.doubleValue();
+    }
+
+    /**
+     * Builds elastic search filter out of query's filter clauses.
+     * 
+     * @param m
+     *            entity metadata.
+     * @return filter, null if query has no where clause.
+     */
+    private FilterBuilder getFilter(EntityMetadata m)
+    {
         MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
                 m.getPersistenceUnit());
         EntityType entity = metaModel.entity(m.getEntityClazz());
@@ -111,9 +308,7 @@ public class ESQuery<E> extends QueryImpl
         }
         
         
-        return ((ESClient)client).executeQuery(preInterFilter != null ? preInterFilter : preIntraFilter, m);
-        
-//        return null;
+        return preInterFilter != null ? preInterFilter : preIntraFilter;
     }
 
     /*
@@ -163,7 +358,33 @@ public class ESQuery<E> extends QueryImpl
     @Override
     public Iterator<E> iterate()
     {
-        return null;
+        EntityMetadata m = getEntityMetadata();
+        Client client = persistenceDelegeator.getClient(m);
+        return new ResultIterator<E>((ESClient) client, m, getFilter(m), persistenceDelegeator,
+                getFetchSize() != null ? getFetchSize() : this.maxResult);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.impetus.kundera.query.QueryImpl#setFirstResult(int)
+     */
+    @Override
+    public Query setFirstResult(int startPosition)
+    {
+        this.firstResult = startPosition;
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.impetus.kundera.query.QueryImpl#getFirstResult()
+     */
+    @Override
+    public int getFirstResult()
+    {
+        return firstResult;
     }
 
     private FilterBuilder getFilter(FilterClause clause ,final EntityMetadata metadata, final EntityType entityType)
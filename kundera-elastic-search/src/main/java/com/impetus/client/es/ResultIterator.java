@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.es;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.index.query.FilterBuilder;
+import org.elasticsearch.search.SearchHit;
+
+import com.impetus.kundera.client.Client;
+import com.impetus.kundera.client.EnhanceEntity;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.query.IResultIterator;
+
+/**
+ * Elastic search result iteration over scan/scroll API. Hits are fetched one
+ * scroll batch at a time, so memory stays bounded by batch size irrespective
+ * of number of matching documents.
+ *
+ *
+ * @param <E>
+ */
+class ResultIterator<E> implements IResultIterator<E>
+{
+    /** Number of hits requested per shard in each scroll call. */
+    private static final int SCROLL_SIZE = 100;
+
+    private ESClient client;
+
+    private EntityMetadata m;
+
+    private PersistenceDelegator persistenceDelegator;
+
+    /** Number of entities still to be returned. */
+    private int fetchSize;
+
+    private String scrollId;
+
+    private SearchHit[] hits = new SearchHit[0];
+
+    private int current;
+
+    private boolean exhausted;
+
+    public ResultIterator(ESClient client, EntityMetadata m, FilterBuilder filter, PersistenceDelegator pd,
+            int fetchSize)
+    {
+        this.client = client;
+        this.m = m;
+        this.persistenceDelegator = pd;
+        this.fetchSize = fetchSize;
+        if (fetchSize > 0)
+        {
+            SearchResponse response = client.startScroll(filter, m, Math.min(fetchSize, SCROLL_SIZE));
+            scrollId = response.getScrollId();
+        }
+        else
+        {
+            exhausted = true;
+        }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (fetchSize <= 0)
+        {
+            return false;
+        }
+        while (current >= hits.length && !exhausted)
+        {
+            SearchResponse response = client.scroll(scrollId);
+            scrollId = response.getScrollId();
+            hits = response.getHits().getHits();
+            current = 0;
+            exhausted = hits.length == 0;
+        }
+        return current < hits.length;
+    }
+
+    @Override
+    public E next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException("Nothing to scroll further for:" + m.getEntityClazz());
+        }
+        fetchSize--;
+        Object entity = client.getEntity(hits[current++], m);
+        if (!m.isRelationViaJoinTable() && (m.getRelationNames() == null || (m.getRelationNames().isEmpty())))
+        {
+            return (E) entity;
+        }
+        return setRelationEntities(entity, client, m);
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException("remove method is not supported over pagination");
+    }
+
+    @Override
+    public List<E> next(int chunkSize)
+    {
+        List<E> results = new ArrayList<E>(Math.min(chunkSize, SCROLL_SIZE));
+        while (results.size() < chunkSize && hasNext())
+        {
+            results.add(next());
+        }
+        return results;
+    }
+
+    private E setRelationEntities(Object enhanceEntity, Client client, EntityMetadata m)
+    {
+        // Enhance entities can contain or may not contain relation.
+        // if it contain a relation means it is a child
+        // if it does not then it means it is a parent.
+        E result = null;
+        if (enhanceEntity != null)
+        {
+            if (!(enhanceEntity instanceof EnhanceEntity))
+            {
+                enhanceEntity = new EnhanceEntity(enhanceEntity, PropertyAccessorHelper.getId(enhanceEntity, m), null);
+            }
+            EnhanceEntity ee = (EnhanceEntity) enhanceEntity;
+
+            result = (E) client.getReader().recursivelyFindEntities(ee.getEntity(), ee.getRelations(), m,
+                    persistenceDelegator, false);
+        }
+        return result;
+    }
+}
@@ -16,6 +16,7 @@
 package com.impetus.client.es;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -33,6 +34,7 @@ import org.junit.Test;
 import com.impetus.client.es.PersonES.Day;
 import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.query.IResultIterator;
 
 /**
  * @author vivek.mishra junit to demonstrate ESQuery implementation.
@@ -160,6 +162,51 @@ public class PersonESTest
         emf.close();
     }
 
+    @Test
+    public void testWithBulkProcessor() throws InterruptedException
+    {
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put(PersistenceProperties.KUNDERA_NODES, "localhost");
+        props.put(PersistenceProperties.KUNDERA_PORT, "9300");
+        props.put(ESConstants.BULK_PROCESSOR, "true");
+        props.put(ESConstants.BULK_ACTIONS, "7");
+        props.put(ESConstants.BULK_FLUSH_INTERVAL, "500");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("es-pu", props);
+        EntityManager em = emf.createEntityManager();
+
+        for (int i = 1; i <= 20; i++)
+        {
+            PersonES person = new PersonES();
+            person.setAge(i);
+            person.setDay(Day.FRIDAY);
+            person.setPersonId(i + "");
+            person.setPersonName("vivek" + i);
+            em.persist(person);
+        }
+
+        em.flush();
+        em.clear();
+
+        for (int i = 1; i <= 20; i++)
+        {
+            PersonES found = em.find(PersonES.class, i + "");
+            Assert.assertNotNull(found);
+            Assert.assertEquals("vivek" + i, found.getPersonName());
+            em.remove(found);
+        }
+
+        em.flush();
+        em.clear();
+
+        for (int i = 1; i <= 20; i++)
+        {
+            Assert.assertNull(em.find(PersonES.class, i + ""));
+        }
+
+        em.close();
+        emf.close();
+    }
+
     @Test
     public void testFindJPQL() throws InterruptedException
     {
@@ -230,6 +277,54 @@ public class PersonESTest
         // TODO: >,<,>=,<=
     }
 
+    @Test
+    public void testPaginationAndIterate() throws InterruptedException
+    {
+        for (int i = 0; i < 5; i++)
+        {
+            PersonES person = new PersonES();
+            person.setAge(20 + i);
+            person.setDay(Day.FRIDAY);
+            person.setPersonId("" + i);
+            person.setPersonName("vivek" + i);
+            em.persist(person);
+        }
+
+        waitThread();
+        String query = "Select p from PersonES p";
+        Query nameQuery = em.createNamedQuery(query);
+        nameQuery.setMaxResults(2);
+        List<PersonES> persons = nameQuery.getResultList();
+        Assert.assertEquals(2, persons.size());
+
+        nameQuery = em.createNamedQuery(query);
+        nameQuery.setFirstResult(3);
+        persons = nameQuery.getResultList();
+        Assert.assertEquals(2, persons.size());
+
+        nameQuery = em.createNamedQuery(query);
+        nameQuery.setMaxResults(4);
+        Iterator<PersonES> iter = ((com.impetus.kundera.query.Query) nameQuery).iterate();
+        int counter = 0;
+        while (iter.hasNext())
+        {
+            Assert.assertNotNull(iter.next().getPersonName());
+            counter++;
+        }
+        Assert.assertEquals(4, counter);
+
+        nameQuery = em.createNamedQuery(query);
+        iter = ((com.impetus.kundera.query.Query) nameQuery).iterate();
+        Assert.assertEquals(5, ((IResultIterator<PersonES>) iter).next(10).size());
+        Assert.assertFalse(iter.hasNext());
+
+        for (int i = 0; i < 5; i++)
+        {
+            em.remove(em.find(PersonES.class, "" + i));
+        }
+        waitThread();
+    }
+
     @After
     public void tearDown()
     {
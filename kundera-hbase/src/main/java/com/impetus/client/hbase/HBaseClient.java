@@ -45,6 +45,7 @@ import com.impetus.client.hbase.admin.DataHandler;
 import com.impetus.client.hbase.admin.HBaseDataHandler;
 import com.impetus.client.hbase.admin.HBaseDataHandler.HBaseDataWrapper;
 import com.impetus.client.hbase.query.HBaseQuery;
+import com.impetus.client.hbase.service.HBaseScanOptions;
 import com.impetus.client.hbase.utils.HBaseUtils;
 import com.impetus.kundera.KunderaException;
 import com.impetus.kundera.PersistenceProperties;
@@ -91,6 +92,9 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
 
     private int batchSize;
 
+    /** Number of rows mutated per call on bulk update/delete, if batch size is not set. */
+    private static final int DEFAULT_BULK_BATCH_SIZE = 1000;
+
     private Map<String, Object> puProperties;
 
     /**
@@ -120,6 +124,7 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
         this.clientMetadata = clientMetadata;
 
         getBatchSize(persistenceUnit, this.puProperties);
+        setScanOptions(persistenceUnit, this.puProperties);
     }
 
     /*
@@ -249,6 +254,26 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
      * @return list of entities.
      */
     public <E> List<E> findByQuery(Class<E> entityClass, EntityMetadata metadata, Filter f, String... columns)
+    {
+        return findByQuery(entityClass, metadata, f, (HBaseScanOptions) null, columns);
+    }
+
+    /**
+     * Method to find entities using JPQL(converted into FilterList.) with
+     * given scan options.
+     * 
+     * @param <E>
+     *            parameterized entity class.
+     * @param entityClass
+     *            entity class.
+     * @param metadata
+     *            entity metadata.
+     * @param scanOptions
+     *            scan options of this query, null for client's defaults.
+     * @return list of entities.
+     */
+    public <E> List<E> findByQuery(Class<E> entityClass, EntityMetadata metadata, Filter f,
+            HBaseScanOptions scanOptions, String... columns)
     {
         EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClass);
         List<String> relationNames = entityMetadata.getRelationNames();
@@ -270,8 +295,8 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
 
         try
         {
-            results = handler.readData(tableName, entityMetadata.getEntityClazz(), entityMetadata, null, relationNames,
-                    filter, columns);
+            results = getHandler(scanOptions).readData(tableName, entityMetadata.getEntityClazz(), entityMetadata,
+                    null, relationNames, filter, columns);
         }
         catch (IOException ioex)
         {
@@ -298,6 +323,30 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
      */
     public <E> List<E> findByRange(Class<E> entityClass, EntityMetadata metadata, byte[] startRow, byte[] endRow,
             String[] columns, Filter f)
+    {
+        return findByRange(entityClass, metadata, startRow, endRow, columns, f, null);
+    }
+
+    /**
+     * Handles find by range query for given start and end row key range values
+     * with given scan options.
+     * 
+     * @param <E>
+     *            parameterized entity class.
+     * @param entityClass
+     *            entity class.
+     * @param metadata
+     *            entity metadata
+     * @param startRow
+     *            start row.
+     * @param endRow
+     *            end row.
+     * @param scanOptions
+     *            scan options of this query, null for client's defaults.
+     * @return collection holding results.
+     */
+    public <E> List<E> findByRange(Class<E> entityClass, EntityMetadata metadata, byte[] startRow, byte[] endRow,
+            String[] columns, Filter f, HBaseScanOptions scanOptions)
     {
         EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClass);
         // columnFamily has a different meaning for HBase, so it won't be used
@@ -319,7 +368,8 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
 
         try
         {
-            results = handler.readDataByRange(tableName, entityClass, metadata, startRow, endRow, columns, filter);
+            results = getHandler(scanOptions).readDataByRange(tableName, entityClass, metadata, startRow, endRow,
+                    columns, filter);
 
         }
         catch (IOException ioex)
@@ -428,7 +478,7 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
         try
         {
             // Write data to HBase
-            handler.writeData(tableName, entityMetadata, entity, id, relations);
+            handler.writeData(tableName, entityMetadata, entity, id, relations, dirtyFields);
         }
         catch (IOException e)
         {
@@ -500,6 +550,72 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
         }
     }
 
+    /**
+     * Sets given values on(or deletes, if values are null) all rows matching
+     * given range and filter, without loading them as entities.
+     * 
+     * @param metadata
+     *            entity metadata.
+     * @param startRow
+     *            start row.
+     * @param endRow
+     *            end row.
+     * @param f
+     *            filter.
+     * @param values
+     *            values keyed by attribute, null in case of delete.
+     * @return number of updated/deleted rows.
+     */
+    public int updateOrDeleteByQuery(EntityMetadata metadata, byte[] startRow, byte[] endRow, Filter f,
+            Map<Attribute, Object> values)
+    {
+        Map<String, Object> columns = null;
+        if (values != null)
+        {
+            columns = new HashMap<String, Object>(values.size());
+            for (Map.Entry<Attribute, Object> value : values.entrySet())
+            {
+                columns.put(((AbstractAttribute) value.getKey()).getJPAColumnName(), value.getValue());
+            }
+        }
+
+        try
+        {
+            return handler.updateOrDeleteByQuery(metadata.getSchema(), metadata, startRow, endRow, f, columns,
+                    batchSize > 0 ? batchSize : DEFAULT_BULK_BATCH_SIZE);
+        }
+        catch (IOException ioex)
+        {
+            log.error("Error during update/delete by query, Caused by: .", ioex);
+            throw new KunderaException(ioex);
+        }
+    }
+
+    /**
+     * Counts rows within given range, without loading them as entities.
+     * 
+     * @param metadata
+     *            entity metadata.
+     * @param startRow
+     *            start row, null to scan from first row.
+     * @param endRow
+     *            end row, null to scan till last row.
+     * @return number of rows.
+     */
+    public long countByQuery(EntityMetadata metadata, byte[] startRow, byte[] endRow)
+    {
+        try
+        {
+            return handler.countByQuery(metadata.getSchema(), metadata, startRow, endRow,
+                    batchSize > 0 ? batchSize : DEFAULT_BULK_BATCH_SIZE);
+        }
+        catch (IOException ioex)
+        {
+            log.error("Error during count by query, Caused by: .", ioex);
+            throw new KunderaException(ioex);
+        }
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -689,7 +805,8 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
 
                         hTable = ((HBaseDataHandler) handler).gethTable(metadata.getSchema());
                         ((HBaseDataHandler) handler).preparePersistentData(metadata.getSchema(),
-                                metadata.getTableName(), entity, rowKey, metaModel, entityType.getAttributes(),
+                                metadata.getTableName(), entity, rowKey, metaModel,
+                                HBaseDataHandler.getAttributes(entityType, metadata, getDirtyFields(node)),
                                 columnWrapper, embeddableData);
 
                         List<HBaseDataWrapper> dataSet = null;
@@ -791,16 +908,10 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
         try
         {
             HTableInterface hTable = ((HBaseDataHandler) handler).gethTable(discriptor.getSchema());
+            // each increment reserves next block of allocation size ids.
             Long latestCount = hTable.incrementColumnValue(discriptor.getPkColumnValue().getBytes(), discriptor
                     .getTable().getBytes(), discriptor.getValueColumnName().getBytes(), 1);
-            if (latestCount == 1)
-            {
-                return (long) discriptor.getInitialValue();
-            }
-            else
-            {
-                return (latestCount - 1) * discriptor.getAllocationSize();
-            }
+            return discriptor.getInitialValue() + (latestCount - 1) * Math.max(discriptor.getAllocationSize(), 1);
         }
         catch (IOException ioex)
         {
@@ -829,4 +940,39 @@ public class HBaseClient extends ClientBase implements Client<HBaseQuery>, Batch
         return ((HBaseDataHandler) handler).getHandle();
     }
 
+    /**
+     * Returns default scan options of this client, as read from persistence
+     * unit properties.
+     * 
+     * @return scan options.
+     */
+    public HBaseScanOptions getScanOptions()
+    {
+        return ((HBaseDataHandler) handler).getScanOptions();
+    }
+
+    /**
+     * Returns handler to be used for a query. Queries having their own scan
+     * options use a separate handle, so that options are not shared.
+     */
+    private DataHandler getHandler(HBaseScanOptions scanOptions)
+    {
+        return scanOptions != null ? ((HBaseDataHandler) handler).getHandle(scanOptions) : handler;
+    }
+
+    /**
+     * Reads default scan options from persistence unit and external
+     * properties.
+     * 
+     * @param persistenceUnit
+     * @param puProperties
+     */
+    private void setScanOptions(String persistenceUnit, Map<String, Object> puProperties)
+    {
+        PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+        HBaseScanOptions scanOptions = new HBaseScanOptions(puMetadata != null ? puMetadata.getProperties() : null,
+                null);
+        ((HBaseDataHandler) handler).setScanOptions(new HBaseScanOptions(puProperties, scanOptions));
+    }
+
 }
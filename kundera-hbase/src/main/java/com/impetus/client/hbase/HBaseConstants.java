@@ -28,4 +28,16 @@ public final class HBaseConstants
     public static final String ZOOKEEPER_PORT = "zookeeper.port";
 
     public static final String ZOOKEEPER_HOST = "zookeeper.host";
+
+    /** Number of rows fetched per scanner RPC. */
+    public static final String SCAN_CACHING = "hbase.scan.caching";
+
+    /** Maximum number of columns returned per scanner result. */
+    public static final String SCAN_BATCH = "hbase.scan.batch";
+
+    /** Whether scanned blocks are cached, defaults to false for full scans. */
+    public static final String SCAN_CACHE_BLOCKS = "hbase.scan.cache.blocks";
+
+    /** Maximum size in bytes of results fetched per scanner RPC. */
+    public static final String SCAN_MAX_RESULT_SIZE = "hbase.scan.max.result.size";
 }
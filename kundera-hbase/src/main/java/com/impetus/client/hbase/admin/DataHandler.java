@@ -18,7 +18,9 @@ package com.impetus.client.hbase.admin;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
 
 import com.impetus.kundera.db.RelationHolder;
@@ -119,6 +121,27 @@ public interface DataHandler
     void writeData(String tableName, EntityMetadata m, Object entity, Object rowId, List<RelationHolder> relations)
             throws IOException;
 
+    /**
+     * Writes given attributes of entity only.
+     * 
+     * @param tableName
+     *            the table name
+     * @param m
+     *            the m
+     * @param entity
+     *            the entity
+     * @param rowId
+     *            the row id
+     * @param relations
+     *            the relations
+     * @param dirtyFields
+     *            names of attributes to write, null if all.
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    void writeData(String tableName, EntityMetadata m, Object entity, Object rowId, List<RelationHolder> relations,
+            Set<String> dirtyFields) throws IOException;
+
     /**
      * Writes data into Join Table.
      * 
@@ -182,4 +205,25 @@ public interface DataHandler
 
     Object[] scanRowyKeys(FilterList filterList, String tableName, String columnFamilyName, String columnName,
             Class rowKeyClazz) throws IOException;
+
+    /**
+     * Updates or deletes(if values are null) rows matching given range and
+     * filter, in batches.
+     * 
+     * @return number of updated/deleted rows.
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    int updateOrDeleteByQuery(String tableName, EntityMetadata m, byte[] startRow, byte[] endRow, Filter f,
+            Map<String, Object> values, int batchSize) throws IOException;
+
+    /**
+     * Counts rows within given range, reading only first key of each row.
+     * 
+     * @return number of rows.
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    long countByQuery(String tableName, EntityMetadata m, byte[] startRow, byte[] endRow, int batchSize)
+            throws IOException;
 }
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,11 +39,18 @@ import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.MasterNotRunningException;
+import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.client.HTableInterface;
 import org.apache.hadoop.hbase.client.HTablePool;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.jboss.netty.util.internal.ConcurrentHashMap;
 import org.slf4j.Logger;
@@ -52,6 +60,7 @@ import com.impetus.client.hbase.HBaseData;
 import com.impetus.client.hbase.Reader;
 import com.impetus.client.hbase.Writer;
 import com.impetus.client.hbase.service.HBaseReader;
+import com.impetus.client.hbase.service.HBaseScanOptions;
 import com.impetus.client.hbase.service.HBaseWriter;
 import com.impetus.client.hbase.utils.HBaseUtils;
 import com.impetus.kundera.Constants;
@@ -120,6 +129,23 @@ public class HBaseDataHandler implements DataHandler
         }
     }
 
+    /**
+     * Instantiates a new handle sharing configuration, table pool and admin
+     * of given handler, but having its own reader and filters.
+     * 
+     * @param handler
+     *            source handler.
+     */
+    private HBaseDataHandler(HBaseDataHandler handler)
+    {
+        this.conf = handler.conf;
+        this.hTablePool = handler.hTablePool;
+        this.admin = handler.admin;
+        ((HBaseReader) this.hbaseReader).setScanOptions(handler.getScanOptions());
+        this.filter = handler.filter != null ? new FilterList(handler.filter.getFilters()) : null;
+        this.filters = handler.filters;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -310,6 +336,21 @@ public class HBaseDataHandler implements DataHandler
     @Override
     public void writeData(String tableName, EntityMetadata m, Object entity, Object rowId,
             List<RelationHolder> relations) throws IOException
+    {
+        writeData(tableName, m, entity, rowId, relations, null);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * com.impetus.client.hbase.admin.DataHandler#writeData(java.lang.String,
+     * com.impetus.kundera.metadata.model.EntityMetadata, java.lang.Object,
+     * java.lang.Object, java.util.List, java.util.Set)
+     */
+    @Override
+    public void writeData(String tableName, EntityMetadata m, Object entity, Object rowId,
+            List<RelationHolder> relations, Set<String> dirtyFields) throws IOException
     {
         HTableInterface hTable = gethTable(tableName);
 
@@ -318,7 +359,7 @@ public class HBaseDataHandler implements DataHandler
 
         EntityType entityType = metaModel.entity(m.getEntityClazz());
 
-        Set<Attribute> attributes = entityType.getAttributes();
+        Set<Attribute> attributes = getAttributes(entityType, m, dirtyFields);
 
         HBaseDataWrapper columnWrapper = new HBaseDataWrapper(rowId, new java.util.HashMap<String, Attribute>(),
                 entity, null);
@@ -340,13 +381,44 @@ public class HBaseDataHandler implements DataHandler
         // Kundera
         boolean containsEmbeddedObjectsOnly = columnWrapper.getColumns().isEmpty() && persistentData.isEmpty();
 
-        if (relations != null && !relations.isEmpty())
+        // associations are unchanged on a partial update.
+        if (relations != null && !relations.isEmpty() && dirtyFields == null)
         {
             hbaseWriter.writeRelations(hTable, rowId, containsEmbeddedObjectsOnly, relations, m.getTableName());
         }
         puthTable(hTable);
     }
 
+    /**
+     * Returns attributes of entity to be written.
+     * 
+     * @param entityType
+     *            entity type.
+     * @param m
+     *            entity metadata.
+     * @param dirtyFields
+     *            names of changed attributes, null if all.
+     * @return id and changed attributes, all if dirtyFields is null.
+     */
+    public static Set<Attribute> getAttributes(EntityType entityType, EntityMetadata m, Set<String> dirtyFields)
+    {
+        Set<Attribute> attributes = entityType.getAttributes();
+        if (dirtyFields == null)
+        {
+            return attributes;
+        }
+        Set<Attribute> dirtyAttributes = new HashSet<Attribute>();
+        for (Attribute attribute : attributes)
+        {
+            if (attribute.getName().equals(m.getIdAttribute().getName())
+                    || dirtyFields.contains(attribute.getName()))
+            {
+                dirtyAttributes.add(attribute);
+            }
+        }
+        return dirtyAttributes;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -997,7 +1069,177 @@ public class HBaseDataHandler implements DataHandler
         return returnedResults;
     }
 
+    /**
+     * Scans row keys matching given range and filter, without fetching column
+     * values, and sets given column values on(or deletes, if values are null)
+     * matching rows via batched puts/deletes.
+     * 
+     * @param tableName
+     *            table name.
+     * @param m
+     *            entity metadata.
+     * @param startRow
+     *            start row, may be null.
+     * @param endRow
+     *            end row, may be null. Same as start row in case of find by id.
+     * @param f
+     *            filter, may be null.
+     * @param values
+     *            column values keyed by column name, null in case of delete.
+     * @param batchSize
+     *            number of mutations sent per call.
+     * @return number of updated/deleted rows.
+     * @throws IOException
+     */
     @Override
+    public int updateOrDeleteByQuery(String tableName, EntityMetadata m, byte[] startRow, byte[] endRow, Filter f,
+            Map<String, Object> values, int batchSize) throws IOException
+    {
+        byte[] family = Bytes.toBytes(m.getTableName());
+
+        FilterList filterList = new FilterList();
+        if (f != null)
+        {
+            filterList.addFilter(f);
+        }
+        if (getFilter(m.getTableName()) != null)
+        {
+            filterList.addFilter(getFilter(m.getTableName()));
+        }
+        filterList.addFilter(new KeyOnlyFilter());
+
+        Scan scan = new Scan();
+        if (startRow != null)
+        {
+            scan.setStartRow(startRow);
+        }
+        if (endRow != null)
+        {
+            // stop row is exclusive.
+            scan.setStopRow(Arrays.equals(startRow, endRow) ? Bytes.add(endRow, new byte[] { 0 }) : endRow);
+        }
+        scan.addFamily(family);
+        scan.setFilter(filterList);
+        scan.setCaching(batchSize);
+
+        List<Put> puts = new ArrayList<Put>();
+        List<Delete> deletes = new ArrayList<Delete>();
+        int count = 0;
+
+        HTableInterface hTable = gethTable(tableName);
+        ResultScanner scanner = hTable.getScanner(scan);
+        try
+        {
+            for (Result result : scanner)
+            {
+                byte[] rowKey = result.getRow();
+                if (values == null)
+                {
+                    deletes.add(new Delete(rowKey));
+                }
+                else
+                {
+                    Put put = new Put(rowKey);
+                    Delete delete = new Delete(rowKey);
+                    for (Map.Entry<String, Object> value : values.entrySet())
+                    {
+                        if (value.getValue() != null)
+                        {
+                            put.add(family, Bytes.toBytes(value.getKey()), HBaseUtils.getBytes(value.getValue()));
+                        }
+                        else
+                        {
+                            delete.deleteColumns(family, Bytes.toBytes(value.getKey()));
+                        }
+                    }
+                    if (!put.isEmpty())
+                    {
+                        puts.add(put);
+                    }
+                    if (!delete.isEmpty())
+                    {
+                        deletes.add(delete);
+                    }
+                }
+                count++;
+
+                if (puts.size() >= batchSize || deletes.size() >= batchSize)
+                {
+                    hTable.put(puts);
+                    hTable.delete(deletes);
+                    puts.clear();
+                    deletes.clear();
+                }
+            }
+
+            if (!puts.isEmpty())
+            {
+                hTable.put(puts);
+            }
+            if (!deletes.isEmpty())
+            {
+                hTable.delete(deletes);
+            }
+        }
+        finally
+        {
+            scanner.close();
+            puthTable(hTable);
+        }
+        return count;
+    }
+
+    @Override
+    /**
+     * Counts rows within range. Unless a filter is set on column family, only
+     * first key of each row is sent back to client, without its value.
+     * 
+     * @return number of rows.
+     * @throws IOException
+     */
+    @Override
+    public long countByQuery(String tableName, EntityMetadata m, byte[] startRow, byte[] endRow, int batchSize)
+            throws IOException
+    {
+        Scan scan = new Scan();
+        if (startRow != null)
+        {
+            scan.setStartRow(startRow);
+        }
+        if (endRow != null)
+        {
+            // stop row is exclusive.
+            scan.setStopRow(Arrays.equals(startRow, endRow) ? Bytes.add(endRow, new byte[] { 0 }) : endRow);
+        }
+        scan.addFamily(Bytes.toBytes(m.getTableName()));
+        if (getFilter(m.getTableName()) != null)
+        {
+            scan.setFilter(getFilter(m.getTableName()));
+        }
+        else
+        {
+            scan.setFilter(new FilterList(new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+        }
+        scan.setCaching(batchSize);
+
+        long count = 0;
+        HTableInterface hTable = gethTable(tableName);
+        ResultScanner scanner = hTable.getScanner(scan);
+        try
+        {
+            for (Result result = scanner.next(); result != null; result = scanner.next())
+            {
+                count++;
+            }
+        }
+        finally
+        {
+            scanner.close();
+            puthTable(hTable);
+        }
+        return count;
+    }
+
     public Object[] scanRowyKeys(FilterList filterList, String tableName, String columnFamilyName, String columnName,
             final Class rowKeyClazz) throws IOException
     {
@@ -1188,6 +1430,22 @@ public class HBaseDataHandler implements DataHandler
         ((HBaseReader) hbaseReader).setFetchSize(fetchSize);
     }
 
+    /**
+     * Sets scan tuning applied to every scan of this handler.
+     * 
+     * @param scanOptions
+     *            scan options.
+     */
+    public void setScanOptions(final HBaseScanOptions scanOptions)
+    {
+        ((HBaseReader) hbaseReader).setScanOptions(scanOptions);
+    }
+
+    public HBaseScanOptions getScanOptions()
+    {
+        return ((HBaseReader) hbaseReader).getScanOptions();
+    }
+
     public Object next(EntityMetadata m)
     {
         Object entity = null;
@@ -1245,11 +1503,29 @@ public class HBaseDataHandler implements DataHandler
         filters = new ConcurrentHashMap<String, FilterList>();
     }
 
+    /**
+     * Returns a new handle for a single query or iteration, so that scanner
+     * state, filters and scan options are not shared with concurrent users of
+     * this handler.
+     * 
+     * @return new handle.
+     */
     public HBaseDataHandler getHandle()
     {
-        HBaseDataHandler handler = new HBaseDataHandler(this.conf, this.hTablePool);
-        handler.filter = this.filter;
-        handler.filters = this.filters;
+        return new HBaseDataHandler(this);
+    }
+
+    /**
+     * Returns a new handle using given scan options.
+     * 
+     * @param scanOptions
+     *            scan options.
+     * @return new handle.
+     */
+    public HBaseDataHandler getHandle(final HBaseScanOptions scanOptions)
+    {
+        HBaseDataHandler handler = new HBaseDataHandler(this);
+        handler.setScanOptions(scanOptions);
         return handler;
     }
 
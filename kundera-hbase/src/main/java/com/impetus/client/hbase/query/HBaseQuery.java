@@ -38,7 +38,9 @@ import org.slf4j.LoggerFactory;
 
 import com.impetus.client.hbase.HBaseClient;
 import com.impetus.client.hbase.HBaseEntityReader;
+import com.impetus.client.hbase.service.HBaseScanOptions;
 import com.impetus.client.hbase.utils.HBaseUtils;
+import com.impetus.kundera.Constants;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.ClientBase;
 import com.impetus.kundera.metadata.MetadataUtils;
@@ -48,6 +50,7 @@ import com.impetus.kundera.metadata.model.MetamodelImpl;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.query.Aggregation;
 import com.impetus.kundera.query.KunderaQuery;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.QueryHandlerException;
@@ -136,12 +139,96 @@ public class HBaseQuery extends QueryImpl
     {
         if (kunderaQuery.isDeleteUpdate())
         {
-            List result = getResultList();
-            return result != null ? result.size() : 0;
+            return onBulkDeleteOrUpdate();
         }
         return 0;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * com.impetus.kundera.query.QueryImpl#executeBulkDeleteOrUpdate(com.impetus
+     * .kundera.metadata.model.EntityMetadata,
+     * com.impetus.kundera.client.Client)
+     */
+    @Override
+    protected int executeBulkDeleteOrUpdate(EntityMetadata m, Client client)
+    {
+        Map<Attribute, Object> values = null;
+        if (kunderaQuery.isUpdateClause())
+        {
+            values = getUpdateValues(m);
+            if (values == null)
+            {
+                return Constants.INVALID;
+            }
+        }
+
+        QueryTranslator translator = new QueryTranslator();
+        translator.translate(getKunderaQuery(), m);
+        Map<Boolean, Filter> filter = translator.getFilter();
+        Filter f = filter != null ? filter.values().iterator().next() : null;
+
+        if (translator.isFindById())
+        {
+            return ((HBaseClient) client).updateOrDeleteByQuery(m, translator.rowKey, translator.rowKey, f, values);
+        }
+        return ((HBaseClient) client).updateOrDeleteByQuery(m, translator.getStartRow(), translator.getEndRow(), f,
+                values);
+    }
+
+    /**
+     * Counts rows by a key only scan, if all select items are COUNT over entity
+     * or its id and query has neither grouping nor a filter other than over
+     * row key range.
+     */
+    @Override
+    protected List<Object> onAggregation(EntityMetadata m, Client client)
+    {
+        if (!getKunderaQuery().getGrouping().isEmpty()
+                || !MetadataUtils.useSecondryIndex(((ClientBase) client).getClientMetadata()))
+        {
+            return null;
+        }
+        for (Aggregation aggregation : getKunderaQuery().getAggregations())
+        {
+            if (aggregation.getFunction() != Aggregation.Function.COUNT
+                    || aggregation.isDistinct()
+                    || (aggregation.getProperty() != null && !aggregation.getProperty().equals(
+                            m.getIdAttribute().getName())))
+            {
+                return null;
+            }
+        }
+
+        QueryTranslator translator = new QueryTranslator();
+        translator.translate(getKunderaQuery(), m);
+        if (translator.getFilter() != null)
+        {
+            return null;
+        }
+
+        long count = translator.isFindById() ? ((HBaseClient) client).countByQuery(m, translator.rowKey,
+                translator.rowKey) : ((HBaseClient) client).countByQuery(m, translator.getStartRow(),
+                translator.getEndRow());
+        List<Object> results = new ArrayList<Object>(1);
+        if (getKunderaQuery().getAggregations().size() == 1)
+        {
+            results.add(count);
+        }
+        else
+        {
+            Object[] row = new Object[getKunderaQuery().getAggregations().size()];
+            for (int i = 0; i < row.length; i++)
+            {
+                row[i] = count;
+            }
+            results.add(row);
+        }
+        return results;
+    }
+
     /**
      * Parses and translates query into HBase filter and invokes client's method
      * to return list of entities.
@@ -160,6 +247,7 @@ public class HBaseQuery extends QueryImpl
         // start with 1 as first element is alias.
         List<String> columns = getTranslatedColumns(m, getKunderaQuery().getResult(), 1);
         Map<Boolean, Filter> filter = translator.getFilter();
+        HBaseScanOptions scanOptions = getScanOptions((HBaseClient) client);
         if (translator.isFindById && (filter == null && columns == null))
         {
             List results = new ArrayList();
@@ -174,7 +262,7 @@ public class HBaseQuery extends QueryImpl
         if (translator.isFindById && filter == null && columns != null)
         {
             return ((HBaseClient) client).findByRange(m.getEntityClazz(), m, translator.rowKey, translator.rowKey,
-                    columns.toArray(new String[columns.size()]), null);
+                    columns.toArray(new String[columns.size()]), null, scanOptions);
         }
         
 //        MetadataUtils.useSecondryIndex(((ClientBase) client).getClientMetadata());
@@ -187,12 +275,12 @@ public class HBaseQuery extends QueryImpl
                 if (translator.isRangeScan())
                 {
                     return ((HBaseClient) client).findByRange(m.getEntityClazz(), m, translator.getStartRow(),
-                            translator.getEndRow(), columns.toArray(new String[columns.size()]), null);
+                            translator.getEndRow(), columns.toArray(new String[columns.size()]), null, scanOptions);
                 }
                 else
                 {
                     return ((HBaseClient) client).findByRange(m.getEntityClazz(), m, null, null,
-                            columns.toArray(new String[columns.size()]), null);
+                            columns.toArray(new String[columns.size()]), null, scanOptions);
                 }
             }
             else
@@ -206,7 +294,7 @@ public class HBaseQuery extends QueryImpl
                 if (translator.isRangeScan())
                 {
                     return ((HBaseClient) client).findByRange(m.getEntityClazz(), m, translator.getStartRow(),
-                            translator.getEndRow(), columns.toArray(new String[columns.size()]), f);
+                            translator.getEndRow(), columns.toArray(new String[columns.size()]), f, scanOptions);
                 }
                 else
                 {
@@ -215,7 +303,7 @@ public class HBaseQuery extends QueryImpl
 
                     // else setFilter to client and invoke new method. find by
                     // query if isFindById is false! else invoke findById
-                    return ((HBaseClient) client).findByQuery(m.getEntityClazz(), m, f,
+                    return ((HBaseClient) client).findByQuery(m.getEntityClazz(), m, f, scanOptions,
                             columns.toArray(new String[columns.size()]));
                 }
             }
@@ -567,6 +655,24 @@ public class HBaseQuery extends QueryImpl
         List<String> columns = getTranslatedColumns(m, getKunderaQuery().getResult(), 1);
 
         return new ResultIterator((HBaseClient) client, m, persistenceDelegeator,
-                getFetchSize() != null ? getFetchSize() : this.maxResult, translator, columns);
+                getFetchSize() != null ? getFetchSize() : this.maxResult, translator, columns,
+                getScanOptions((HBaseClient) client));
+    }
+
+    /**
+     * Returns scan options of this query if any is set as query hint, else
+     * null to use client's defaults.
+     * 
+     * @param client
+     *            hbase client.
+     * @return scan options.
+     */
+    private HBaseScanOptions getScanOptions(HBaseClient client)
+    {
+        if (HBaseScanOptions.containsScanOptions(getHints()))
+        {
+            return new HBaseScanOptions(getHints(), client.getScanOptions());
+        }
+        return null;
     }
 }
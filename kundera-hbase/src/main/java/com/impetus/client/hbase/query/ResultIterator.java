@@ -16,6 +16,7 @@
 package com.impetus.client.hbase.query;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -29,6 +30,7 @@ import org.slf4j.LoggerFactory;
 import com.impetus.client.hbase.HBaseClient;
 import com.impetus.client.hbase.admin.HBaseDataHandler;
 import com.impetus.client.hbase.query.HBaseQuery.QueryTranslator;
+import com.impetus.client.hbase.service.HBaseScanOptions;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.ClientBase;
 import com.impetus.kundera.client.EnhanceEntity;
@@ -70,13 +72,17 @@ class ResultIterator<E> implements IResultIterator<E>
     private static Logger log = LoggerFactory.getLogger(ResultIterator.class);
 
     public ResultIterator(HBaseClient client, EntityMetadata m, PersistenceDelegator pd, int fetchSize,
-            QueryTranslator translator, List<String> columns)
+            QueryTranslator translator, List<String> columns, HBaseScanOptions scanOptions)
     {
         this.entityMetadata = m;
         this.client = client;
         this.persistenceDelegator = pd;
         this.handler = ((HBaseClient) client).getHandle();
         this.handler.setFetchSize(fetchSize);
+        if (scanOptions != null)
+        {
+            this.handler.setScanOptions(scanOptions);
+        }
         this.fetchSize = fetchSize;
         this.translator = translator;
         this.columns = columns;
@@ -274,7 +280,12 @@ class ResultIterator<E> implements IResultIterator<E>
     @Override
     public List<E> next(int chunkSize)
     {
-        throw new UnsupportedOperationException("Fetch in chunks is not yet supported over HBase!");
+        List<E> chunk = new ArrayList<E>();
+        while (chunk.size() < chunkSize && !scrollComplete && hasNext())
+        {
+            chunk.add(next());
+        }
+        return chunk;
     }
 
     /**
@@ -17,7 +17,6 @@ package com.impetus.client.hbase.service;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 import org.apache.hadoop.hbase.KeyValue;
@@ -40,13 +39,19 @@ import com.impetus.client.hbase.utils.HBaseUtils;
  */
 public class HBaseReader implements Reader
 {
-    private ResultScanner scanner = null;
+    /** Scan tuning applied to every scan. */
+    private HBaseScanOptions scanOptions = new HBaseScanOptions();
 
-    private Iterator<Result> resultsIter;
+    /**
+     * Scanner of an iteration in progress. Only readers of a per iteration
+     * handle (see HBaseDataHandler#getHandle()) have fetch size and scanner
+     * set, all other scans are read fully and closed on same call.
+     */
+    private HBaseScanner scanner;
 
     private Integer fetchSize;
 
-    private Integer counter = 0;
+    private int counter;
 
     /*
      * (non-Javadoc)
@@ -55,34 +60,6 @@ public class HBaseReader implements Reader
      * com.impetus.client.hbase.Reader#LoadData(org.apache.hadoop.hbase.client
      * .HTable, java.lang.String, java.lang.String)
      */
-/*    @Override
-    public List<HBaseData> LoadData(HTableInterface hTable, String columnFamily, Object rowKey, Filter filter,
-            String... columns) throws IOException
-    {
-        List<HBaseData> results = null;
-        if (scanner == null)
-        {
-
-            // only in case of find by id
-            Scan scan = null;
-            if (rowKey != null)
-            {
-                byte[] rowKeyBytes = HBaseUtils.getBytes(rowKey);
-                Get g = new Get(rowKeyBytes);
-                scan = new Scan(g);
-            }
-            else
-            {
-                scan = new Scan();
-            }
-            setScanCriteria(filter, columnFamily, null, scan, columns);
-            scanner = hTable.getScanner(scan);
-            resultsIter = scanner.iterator();
-        }
-        return scanResults(columnFamily, results);
-    }
-*/
-
     @Override
     public List<HBaseData> LoadData(HTableInterface hTable, String columnFamily, Object rowKey, Filter filter,
             String... columns) throws IOException
@@ -92,7 +69,6 @@ public class HBaseReader implements Reader
         {
 
             // only in case of find by id
-            Scan scan = null;
             if (rowKey != null)
             {
                 byte[] rowKeyBytes = HBaseUtils.getBytes(rowKey);
@@ -127,18 +103,13 @@ public class HBaseReader implements Reader
 
                 }
                 return results;
-                
-                // scan = new Scan(g);
-            }
-            else
-            {
-                scan = new Scan();
             }
+
+            Scan scan = new Scan();
             setScanCriteria(filter, columnFamily, null, scan, columns);
-            scanner = hTable.getScanner(scan);
-            resultsIter = scanner.iterator();
+            return scanResults(hTable, scan, columnFamily, results, true);
         }
-        return scanResults(columnFamily, results);
+        return results;
     }
 
     /*
@@ -193,10 +164,9 @@ public class HBaseReader implements Reader
                 s = new Scan();
             }
             setScanCriteria(filter, columnFamily, qualifier, s, columns);
-            scanner = hTable.getScanner(s);
-            resultsIter = scanner.iterator();
+            return scanResults(hTable, s, null, results, startRow == null && endRow == null);
         }
-        return scanResults(null, results);
+        return results;
     }
 
     /**
@@ -232,42 +202,49 @@ public class HBaseReader implements Reader
     }
 
     /**
-     * Scan and populate {@link HBaseData} collection using scanned results.
+     * Opens scanner for given scan. If fetch size is set, scanner is kept for
+     * iteration via {@link #next()}, else scan is read fully into
+     * {@link HBaseData} collection and scanner is closed.
      * 
+     * @param hTable
+     *            table to scan.
+     * @param scan
+     *            scan.
      * @param columnFamily
      *            column family.
      * @param results
      *            results.
-     * @param scanner
-     *            result scanner.
+     * @param fullScan
+     *            true, if scan is over whole table.
      * @return collection of scanned results.
      * @throws IOException
      */
-    private List<HBaseData> scanResults(final String columnFamily, List<HBaseData> results) throws IOException
+    private List<HBaseData> scanResults(final HTableInterface hTable, final Scan scan, final String columnFamily,
+            List<HBaseData> results, boolean fullScan) throws IOException
     {
-        HBaseData data = null;
+        scanOptions.applyTo(scan, fullScan);
 
-        if (fetchSize == null)
+        if (fetchSize != null)
         {
-            for (Result result : scanner)
+            scanner = new HBaseScanner(hTable.getScanner(scan), null);
+            return results;
+        }
+
+        HBaseScanner resultScanner = new HBaseScanner(hTable.getScanner(scan), columnFamily);
+        try
+        {
+            while (resultScanner.hasNext())
             {
-                List<KeyValue> values = result.list();
-                for (KeyValue value : values)
-                {
-                    data = new HBaseData(columnFamily != null ? columnFamily : new String(value.getFamily()),
-                            value.getRow());
-                    break;
-                }
-                data.setColumns(values);
                 if (results == null)
                 {
                     results = new ArrayList<HBaseData>();
                 }
-                results.add(data);
+                results.add(resultScanner.next());
             }
-
-            scanner = null;
-            resultsIter = null;
+        }
+        finally
+        {
+            resultScanner.close();
         }
         return results;
     }
@@ -278,18 +255,14 @@ public class HBaseReader implements Reader
     {
         List<Object> rowKeys = new ArrayList<Object>();
 
-        if (scanner == null)
-        {
-            Scan s = new Scan();
-            s.setFilter(filter);
-            s.addColumn(Bytes.toBytes(columnFamilyName), Bytes.toBytes(columnName));
-            scanner = hTable.getScanner(s);
-            resultsIter = scanner.iterator();
-        }
-
-        if (fetchSize == null)
+        Scan s = new Scan();
+        s.setFilter(filter);
+        s.addColumn(Bytes.toBytes(columnFamilyName), Bytes.toBytes(columnName));
+        scanOptions.applyTo(s, true);
+        ResultScanner resultScanner = hTable.getScanner(s);
+        try
         {
-            for (Result result : scanner)
+            for (Result result : resultScanner)
             {
                 for (KeyValue keyValue : result.list())
                 {
@@ -297,6 +270,10 @@ public class HBaseReader implements Reader
                 }
             }
         }
+        finally
+        {
+            resultScanner.close();
+        }
         if (rowKeys != null && !rowKeys.isEmpty())
         {
             return rowKeys.toArray(new Object[0]);
@@ -352,70 +329,52 @@ public class HBaseReader implements Reader
         this.fetchSize = fetchSize;
     }
 
+    /**
+     * Sets scan tuning applied to every scan of this reader.
+     * 
+     * @param scanOptions
+     *            scan options.
+     */
+    public void setScanOptions(final HBaseScanOptions scanOptions)
+    {
+        this.scanOptions = scanOptions != null ? scanOptions : new HBaseScanOptions();
+    }
+
+    /**
+     * @return scan options of this reader.
+     */
+    public HBaseScanOptions getScanOptions()
+    {
+        return scanOptions;
+    }
+
     /**
      * 
      * @return next element of HbaseData.
      */
     public HBaseData next()
     {
-        HBaseData data = null;
-        Result result = resultsIter.next();
-        List<KeyValue> values = result.list();
-        for (KeyValue value : values)
-        {
-            data = new HBaseData(new String(value.getFamily()), value.getRow());
-            break;
-        }
-        data.setColumns(values);
-        return data;
+        counter++;
+        return scanner.next();
     }
 
-    // public List<HBaseData> next(final int chunkSize)
-    // {
-    // List<HBaseData> results = new ArrayList<HBaseData>();
-    // for (int i = 1; i <= chunkSize; i++)
-    // {
-    // HBaseData data = next();
-    // if (data == null)
-    // {
-    // counter++;
-    // resultsIter = null;
-    // break;
-    // }
-    // results.add(data);
-    // }
-    // return results;
-    // }
-
     public boolean hasNext()
     {
-        if (scanner == null)
+        if (scanner == null || (fetchSize != null && counter >= fetchSize))
         {
             return false;
         }
-        else
-        {
-            if (fetchSize != null)
-            {
-                if (counter < fetchSize)
-                {
-                    counter++;
-                    return resultsIter.hasNext();
-                }
-            }
-            else
-            {
-                return resultsIter.hasNext();
-            }
-        }
-        return false;
+        return scanner.hasNext();
     }
 
     public void reset()
     {
+        if (scanner != null)
+        {
+            scanner.close();
+        }
         scanner = null;
         fetchSize = null;
-        resultsIter = null;
         counter = 0;
     }
 }
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.hbase.service;
+
+import java.util.Map;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.impetus.client.hbase.HBaseConstants;
+
+/**
+ * Scan tuning applied to every {@link Scan} issued by {@link HBaseReader}.
+ * Options are read from persistence unit properties and may be overridden per
+ * query through query hints, see {@link HBaseConstants#SCAN_CACHING},
+ * {@link HBaseConstants#SCAN_BATCH}, {@link HBaseConstants#SCAN_CACHE_BLOCKS}
+ * and {@link HBaseConstants#SCAN_MAX_RESULT_SIZE}.
+ */
+public final class HBaseScanOptions
+{
+    /** the log used by this class. */
+    private static Logger log = LoggerFactory.getLogger(HBaseScanOptions.class);
+
+    /** Scanner caching used if none is configured. */
+    public static final int DEFAULT_CACHING = 100;
+
+    private Integer caching;
+
+    private Integer batch;
+
+    private Boolean cacheBlocks;
+
+    private Long maxResultSize;
+
+    /**
+     * Default options.
+     */
+    public HBaseScanOptions()
+    {
+    }
+
+    /**
+     * Reads options from given properties, falling back on given defaults for
+     * options which are not present.
+     * 
+     * @param properties
+     *            persistence unit properties or query hints, may be null.
+     * @param defaults
+     *            default options, may be null.
+     */
+    public HBaseScanOptions(Map<?, ?> properties, HBaseScanOptions defaults)
+    {
+        if (defaults != null)
+        {
+            this.caching = defaults.caching;
+            this.batch = defaults.batch;
+            this.cacheBlocks = defaults.cacheBlocks;
+            this.maxResultSize = defaults.maxResultSize;
+        }
+        if (properties != null)
+        {
+            Object value = properties.get(HBaseConstants.SCAN_CACHING);
+            caching = value != null ? Integer.valueOf(value.toString()) : caching;
+            value = properties.get(HBaseConstants.SCAN_BATCH);
+            batch = value != null ? Integer.valueOf(value.toString()) : batch;
+            value = properties.get(HBaseConstants.SCAN_CACHE_BLOCKS);
+            cacheBlocks = value != null ? Boolean.valueOf(value.toString()) : cacheBlocks;
+            value = properties.get(HBaseConstants.SCAN_MAX_RESULT_SIZE);
+            maxResultSize = value != null ? Long.valueOf(value.toString()) : maxResultSize;
+        }
+    }
+
+    /**
+     * Returns true, if given properties contain any scan option.
+     * 
+     * @param properties
+     *            properties or query hints.
+     * @return true, if any scan option is present.
+     */
+    public static boolean containsScanOptions(Map<?, ?> properties)
+    {
+        return properties != null
+                && (properties.containsKey(HBaseConstants.SCAN_CACHING)
+                        || properties.containsKey(HBaseConstants.SCAN_BATCH)
+                        || properties.containsKey(HBaseConstants.SCAN_CACHE_BLOCKS) || properties
+                            .containsKey(HBaseConstants.SCAN_MAX_RESULT_SIZE));
+    }
+
+    /**
+     * Applies options to given scan. Filter must already be set on scan, as
+     * batching is skipped for filters which filter on whole rows.
+     * 
+     * @param scan
+     *            scan.
+     * @param fullScan
+     *            true, if scan is over whole table. Blocks are not cached for
+     *            full scans unless configured otherwise, to not evict hot
+     *            blocks.
+     */
+    void applyTo(Scan scan, boolean fullScan)
+    {
+        scan.setCaching(caching != null ? caching : DEFAULT_CACHING);
+        if (batch != null)
+        {
+            if (scan.hasFilter() && scan.getFilter().hasFilterRow())
+            {
+                log.warn("Ignoring scan batch {} as filter {} works on whole rows.", batch, scan.getFilter());
+            }
+            else
+            {
+                scan.setBatch(batch);
+            }
+        }
+        scan.setCacheBlocks(cacheBlocks != null ? cacheBlocks : !fullScan);
+        if (maxResultSize != null)
+        {
+            scan.setMaxResultSize(maxResultSize);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.hbase.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.impetus.client.hbase.HBaseData;
+import com.impetus.kundera.KunderaException;
+
+/**
+ * Holds state of a single scan over HBase and converts scanned results into
+ * {@link HBaseData}. Results of same row, as returned by batched scans, are
+ * merged into one {@link HBaseData}.
+ */
+public final class HBaseScanner
+{
+    /** the log used by this class. */
+    private static Logger log = LoggerFactory.getLogger(HBaseScanner.class);
+
+    private final ResultScanner scanner;
+
+    private final String columnFamily;
+
+    /** Result read ahead, but not yet returned. */
+    private Result pending;
+
+    private boolean closed;
+
+    /**
+     * @param scanner
+     *            result scanner.
+     * @param columnFamily
+     *            column family, if null family of first column is used.
+     */
+    HBaseScanner(ResultScanner scanner, String columnFamily)
+    {
+        this.scanner = scanner;
+        this.columnFamily = columnFamily;
+    }
+
+    /**
+     * @return true, if scanner has more rows. Scanner is closed once it is
+     *         exhausted.
+     */
+    public boolean hasNext()
+    {
+        if (pending == null && !closed)
+        {
+            try
+            {
+                pending = scanner.next();
+            }
+            catch (IOException ioex)
+            {
+                log.error("Error while scanning next row, Caused by: .", ioex);
+                close();
+                throw new KunderaException(ioex);
+            }
+            if (pending == null)
+            {
+                close();
+            }
+        }
+        return pending != null;
+    }
+
+    /**
+     * @return next row.
+     */
+    public HBaseData next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException("Nothing to scroll further");
+        }
+        HBaseData data = toHBaseData(pending);
+        pending = null;
+        while (hasNext() && Bytes.equals(pending.getRow(), data.getRowKey()))
+        {
+            List<KeyValue> columns = new ArrayList<KeyValue>(data.getColumns());
+            columns.addAll(pending.list());
+            data.setColumns(columns);
+            pending = null;
+        }
+        return data;
+    }
+
+    /**
+     * Closes underlying result scanner.
+     */
+    public void close()
+    {
+        if (!closed)
+        {
+            closed = true;
+            scanner.close();
+        }
+    }
+
+    private HBaseData toHBaseData(Result result)
+    {
+        List<KeyValue> values = result.list();
+        KeyValue first = values.get(0);
+        HBaseData data = new HBaseData(columnFamily != null ? columnFamily : new String(first.getFamily()),
+                first.getRow());
+        data.setColumns(values);
+        return data;
+    }
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.hbase.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import com.impetus.client.hbase.HBaseConstants;
+
+/**
+ * Junit for {@link HBaseScanOptions}.
+ */
+public class HBaseScanOptionsTest
+{
+
+    @Test
+    public void testApplyTo()
+    {
+        Scan scan = new Scan();
+        new HBaseScanOptions().applyTo(scan, true);
+        Assert.assertEquals(HBaseScanOptions.DEFAULT_CACHING, scan.getCaching());
+        Assert.assertFalse(scan.getCacheBlocks());
+
+        scan = new Scan(Bytes.toBytes("a"), Bytes.toBytes("b"));
+        new HBaseScanOptions().applyTo(scan, false);
+        Assert.assertTrue(scan.getCacheBlocks());
+
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put(HBaseConstants.SCAN_CACHING, "500");
+        properties.put(HBaseConstants.SCAN_BATCH, 10);
+        properties.put(HBaseConstants.SCAN_CACHE_BLOCKS, "true");
+        properties.put(HBaseConstants.SCAN_MAX_RESULT_SIZE, "1048576");
+        HBaseScanOptions defaults = new HBaseScanOptions(properties, null);
+
+        // query hint overrides default caching only.
+        Map<String, Object> hints = new HashMap<String, Object>();
+        hints.put(HBaseConstants.SCAN_CACHING, 50);
+        Assert.assertTrue(HBaseScanOptions.containsScanOptions(hints));
+        Assert.assertFalse(HBaseScanOptions.containsScanOptions(new HashMap<String, Object>()));
+
+        scan = new Scan();
+        new HBaseScanOptions(hints, defaults).applyTo(scan, true);
+        Assert.assertEquals(50, scan.getCaching());
+        Assert.assertEquals(10, scan.getBatch());
+        Assert.assertTrue(scan.getCacheBlocks());
+        Assert.assertEquals(1048576L, scan.getMaxResultSize());
+
+        // batch can not be set for filters working on whole rows.
+        scan = new Scan();
+        scan.setFilter(new SingleColumnValueFilter(Bytes.toBytes("cf"), Bytes.toBytes("c"), CompareOp.EQUAL, Bytes
+                .toBytes("v")));
+        defaults.applyTo(scan, true);
+        Assert.assertEquals(-1, scan.getBatch());
+    }
+}
@@ -244,36 +244,7 @@ public class DocumentObjectMapper
 
             if (valueObject != null)
             {
-                Class javaType = column.getJavaType();
-                switch (AttributeType.getType(javaType))
-                {
-                case MAP:
-                    Map mapObj = (Map) valueObject;
-                    BasicDBObjectBuilder builder = BasicDBObjectBuilder.start(mapObj);
-                    dbObj.put(((AbstractAttribute) column).getJPAColumnName(), builder.get());
-                    break;
-                case SET:
-                case LIST:
-                    Collection collection = (Collection) valueObject;
-                    BasicDBList basicDBList = new BasicDBList();
-                    for (Object o : collection)
-                    {
-                        basicDBList.add(o);
-                    }
-                    dbObj.put(((AbstractAttribute) column).getJPAColumnName(), basicDBList);
-                    break;
-                case POINT:
-
-                    Point p = (Point) valueObject;
-                    double[] coordinate = new double[] { p.getX(), p.getY() };
-                    dbObj.put(((AbstractAttribute) column).getJPAColumnName(), coordinate);
-                    break;
-                case ENUM:
-                case PRIMITIVE:
-                    dbObj.put(((AbstractAttribute) column).getJPAColumnName(),
-                            MongoDBUtils.populateValue(valueObject, javaType));
-                    break;
-                }
+                populateFieldValue(valueObject, dbObj, column);
             }
         }
         catch (PropertyAccessException paex)
@@ -284,6 +255,49 @@ public class DocumentObjectMapper
         }
     }
 
+    /**
+     * Puts given non null column value into db object.
+     * 
+     * @param valueObject
+     *            the value object
+     * @param dbObj
+     *            the db obj
+     * @param column
+     *            the column
+     */
+    static void populateFieldValue(Object valueObject, DBObject dbObj, Attribute column)
+    {
+        Class javaType = column.getJavaType();
+        switch (AttributeType.getType(javaType))
+        {
+        case MAP:
+            Map mapObj = (Map) valueObject;
+            BasicDBObjectBuilder builder = BasicDBObjectBuilder.start(mapObj);
+            dbObj.put(((AbstractAttribute) column).getJPAColumnName(), builder.get());
+            break;
+        case SET:
+        case LIST:
+            Collection collection = (Collection) valueObject;
+            BasicDBList basicDBList = new BasicDBList();
+            for (Object o : collection)
+            {
+                basicDBList.add(o);
+            }
+            dbObj.put(((AbstractAttribute) column).getJPAColumnName(), basicDBList);
+            break;
+        case POINT:
+
+            Point p = (Point) valueObject;
+            double[] coordinate = new double[] { p.getX(), p.getY() };
+            dbObj.put(((AbstractAttribute) column).getJPAColumnName(), coordinate);
+            break;
+        case ENUM:
+        case PRIMITIVE:
+            dbObj.put(((AbstractAttribute) column).getJPAColumnName(), MongoDBUtils.populateValue(valueObject, javaType));
+            break;
+        }
+    }
+
     /**
      * Creates a collection of <code>embeddedObjectClass</code> instances
      * wherein each element is java object representation of MongoDB document
@@ -22,6 +22,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.persistence.metamodel.Attribute;
+
 import org.apache.commons.lang.NotImplementedException;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
@@ -44,9 +46,11 @@ import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
 import com.impetus.kundera.metadata.model.MetamodelImpl;
 import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
+import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.api.Batcher;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData;
+import com.mongodb.AggregationOutput;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
@@ -55,6 +59,7 @@ import com.mongodb.DBEncoder;
 import com.mongodb.DBObject;
 import com.mongodb.DefaultDBEncoder;
 import com.mongodb.WriteConcern;
+import com.mongodb.WriteResult;
 
 /**
  * CLient class for MongoDB database.
@@ -355,6 +360,31 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
         return entities;
     }
 
+    /**
+     * Groups documents matching given query within database, via aggregation
+     * framework.
+     * 
+     * @param entityMetadata
+     *            entity metadata.
+     * @param mongoQuery
+     *            query to match documents.
+     * @param group
+     *            $group stage.
+     * @return one document per group.
+     */
+    public List<DBObject> aggregate(EntityMetadata entityMetadata, BasicDBObject mongoQuery, BasicDBObject group)
+    {
+        DBCollection dbCollection = mongoDb.getCollection(entityMetadata.getTableName());
+        AggregationOutput output = dbCollection.aggregate(new BasicDBObject("$match", mongoQuery), new BasicDBObject(
+                "$group", group));
+        List<DBObject> groups = new ArrayList<DBObject>();
+        for (DBObject document : output.results())
+        {
+            groups.add(document);
+        }
+        return groups;
+    }
+
     public DBCursor getDBCursorInstance(BasicDBObject mongoQuery, BasicDBObject orderBy, int maxResult,
             BasicDBObject keys, String documentName)
     {
@@ -519,6 +549,67 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
 
     }
 
+    /**
+     * Sets given column values on all documents matching query, in a single
+     * multi update call.
+     * 
+     * @param entityMetadata
+     *            the entity metadata
+     * @param mongoQuery
+     *            the mongo query
+     * @param values
+     *            column values keyed by attribute
+     * @return number of updated documents
+     */
+    public int updateByQuery(EntityMetadata entityMetadata, BasicDBObject mongoQuery, Map<Attribute, Object> values)
+    {
+        BasicDBObject setObj = new BasicDBObject();
+        BasicDBObject unsetObj = new BasicDBObject();
+        for (Map.Entry<Attribute, Object> value : values.entrySet())
+        {
+            if (value.getValue() == null)
+            {
+                unsetObj.put(((AbstractAttribute) value.getKey()).getJPAColumnName(), 1);
+            }
+            else
+            {
+                DocumentObjectMapper.populateFieldValue(value.getValue(), setObj, value.getKey());
+            }
+        }
+
+        BasicDBObject update = new BasicDBObject();
+        if (!setObj.isEmpty())
+        {
+            update.put("$set", setObj);
+        }
+        if (!unsetObj.isEmpty())
+        {
+            update.put("$unset", unsetObj);
+        }
+
+        DBCollection dbCollection = mongoDb.getCollection(entityMetadata.getTableName());
+        log.debug("Updating " + entityMetadata.getTableName() + " for Filter " + mongoQuery + " with " + update);
+        WriteResult result = dbCollection.update(mongoQuery, update, false, true, getWriteConcern(), encoder);
+        return result.getN();
+    }
+
+    /**
+     * Removes all documents matching query, in a single call.
+     * 
+     * @param entityMetadata
+     *            the entity metadata
+     * @param mongoQuery
+     *            the mongo query
+     * @return number of removed documents
+     */
+    public int deleteByQuery(EntityMetadata entityMetadata, BasicDBObject mongoQuery)
+    {
+        DBCollection dbCollection = mongoDb.getCollection(entityMetadata.getTableName());
+        log.debug("Removing from " + entityMetadata.getTableName() + " for Filter " + mongoQuery);
+        WriteResult result = dbCollection.remove(mongoQuery, getWriteConcern(), encoder);
+        return result.getN();
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -606,6 +697,7 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
 
                     List<RelationHolder> relationHolders = getRelationHolders(node);
                     EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
+                    dirtyFields = getDirtyFields(node);
                     collections = onPersist(collections, node.getData(), node.getEntityId(), metadata, relationHolders,
                             node.isUpdate());
                     indexNode(node, metadata);
@@ -660,6 +752,16 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
         String documentName = metadata.getTableName();
         DBObject document = null;
         document = new BasicDBObject();
+
+        if (isUpdate && dirtyFields != null)
+        {
+            // only changed attributes of a managed entity, associations are
+            // unchanged.
+            document = handler.getDocumentFromEntity(document, metadata, entity, null, dirtyFields);
+            onPartialUpdate(document, metadata, id);
+            return collections;
+        }
+
         document = handler.getDocumentFromEntity(document, metadata, entity, relationHolders);
 
         if (isUpdate)
@@ -713,6 +815,56 @@ public class MongoDBClient extends ClientBase implements Client<MongoDBQuery>, B
         return collections;
     }
 
+    /**
+     * Updates changed attributes of an existing document in place, using
+     * $set for changed values and $unset for attributes set to null.
+     * 
+     * @param document
+     *            document holding changed attributes.
+     * @param metadata
+     *            entity metadata.
+     * @param id
+     *            entity id.
+     */
+    private void onPartialUpdate(DBObject document, EntityMetadata metadata, Object id)
+    {
+        BasicDBObject query = new BasicDBObject();
+        query.put("_id", document.removeField("_id"));
+
+        BasicDBObject set = new BasicDBObject();
+        BasicDBObject unset = new BasicDBObject();
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                metadata.getPersistenceUnit());
+        for (String fieldName : dirtyFields)
+        {
+            String columnName = ((AbstractAttribute) metaModel.entity(metadata.getEntityClazz()).getAttribute(
+                    fieldName)).getJPAColumnName();
+            if (document.containsField(columnName))
+            {
+                set.put(columnName, document.get(columnName));
+            }
+            else
+            {
+                unset.put(columnName, 1);
+            }
+        }
+
+        BasicDBObject update = new BasicDBObject();
+        if (!set.isEmpty())
+        {
+            update.put("$set", set);
+        }
+        if (!unset.isEmpty())
+        {
+            update.put("$unset", unset);
+        }
+        if (!update.isEmpty())
+        {
+            DBCollection dbCollection = mongoDb.getCollection(metadata.getTableName());
+            dbCollection.update(query, update, false, false, getWriteConcern(), encoder);
+        }
+    }
+
     /**
      * Check on batch limit.
      */
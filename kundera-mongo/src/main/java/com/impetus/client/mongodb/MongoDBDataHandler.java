@@ -204,6 +204,29 @@ public final class MongoDBDataHandler
      */
     DBObject getDocumentFromEntity(DBObject dbObj, EntityMetadata m, Object entity, List<RelationHolder> relations)
             throws PropertyAccessException
+    {
+        return getDocumentFromEntity(dbObj, m, entity, relations, null);
+    }
+
+    /**
+     * Populates document from entity, restricted to given attributes.
+     * 
+     * @param dbObj
+     *            the db object
+     * @param m
+     *            the m
+     * @param entity
+     *            the entity
+     * @param relations
+     *            the relations
+     * @param dirtyFields
+     *            names of attributes to populate, null for all.
+     * @return the document from entity
+     * @throws PropertyAccessException
+     *             the property access exception
+     */
+    DBObject getDocumentFromEntity(DBObject dbObj, EntityMetadata m, Object entity, List<RelationHolder> relations,
+            Set<String> dirtyFields) throws PropertyAccessException
     {
         // List<Column> columns = m.getColumnsAsList();
 
@@ -227,7 +250,8 @@ public final class MongoDBDataHandler
         Set<Attribute> columns = entityType.getAttributes();
         for (Attribute column : columns)
         {
-            if (!column.equals(m.getIdAttribute()))
+            if (!column.equals(m.getIdAttribute())
+                    && (dirtyFields == null || dirtyFields.contains(column.getName())))
             {
                 try
                 {
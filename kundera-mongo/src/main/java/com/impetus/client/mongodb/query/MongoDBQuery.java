@@ -23,13 +23,16 @@ import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 
 import javax.persistence.Query;
 import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.Attribute.PersistentAttributeType;
 import javax.persistence.metamodel.EmbeddableType;
 import javax.persistence.metamodel.EntityType;
 
+import org.apache.commons.lang.ClassUtils;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +41,7 @@ import com.impetus.client.mongodb.MongoDBClient;
 import com.impetus.client.mongodb.MongoEntityReader;
 import com.impetus.client.mongodb.query.gis.GeospatialQueryFactory;
 import com.impetus.client.mongodb.utils.MongoDBUtils;
+import com.impetus.kundera.Constants;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.EnhanceEntity;
 import com.impetus.kundera.gis.geometry.Point;
@@ -50,6 +54,7 @@ import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
 import com.impetus.kundera.property.PropertyAccessorFactory;
+import com.impetus.kundera.query.Aggregation;
 import com.impetus.kundera.query.KunderaQuery;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.KunderaQuery.SortOrder;
@@ -57,6 +62,8 @@ import com.impetus.kundera.query.KunderaQuery.SortOrdering;
 import com.impetus.kundera.query.QueryHandlerException;
 import com.impetus.kundera.query.QueryImpl;
 import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
 
 /**
  * Query class for MongoDB data store.
@@ -143,6 +150,183 @@ public class MongoDBQuery extends QueryImpl
         }
     }
 
+    /**
+     * Computes aggregate functions within MongoDB, as a $match followed by a
+     * $group stage. Queries over embedded or non numeric/string attributes,
+     * COUNT DISTINCT and COUNT over an attribute other than id are left to
+     * in-memory aggregation.
+     */
+    @Override
+    protected List<Object> onAggregation(EntityMetadata m, Client client)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                m.getPersistenceUnit());
+        if (metaModel.isEmbeddable(m.getIdAttribute().getBindableJavaType()))
+        {
+            return null;
+        }
+        EntityType entityType = metaModel.entity(m.getEntityClazz());
+
+        List<String> grouping = kunderaQuery.getGrouping();
+        List<Aggregation> aggregations = kunderaQuery.getAggregations();
+
+        BasicDBObject groupId = new BasicDBObject();
+        for (int i = 0; i < grouping.size(); i++)
+        {
+            String column = getAggregateColumn(m, entityType, grouping.get(i));
+            if (column == null)
+            {
+                return null;
+            }
+            groupId.put("g" + i, "$" + column);
+        }
+
+        BasicDBObject group = new BasicDBObject("_id", grouping.isEmpty() ? null : groupId);
+        for (int i = 0; i < aggregations.size(); i++)
+        {
+            Aggregation aggregation = aggregations.get(i);
+            if (!aggregation.isFunction())
+            {
+                continue;
+            }
+            if (aggregation.getFunction() == Aggregation.Function.COUNT)
+            {
+                if (aggregation.isDistinct()
+                        || (aggregation.getProperty() != null && !aggregation.getProperty().equals(
+                                m.getIdAttribute().getName())))
+                {
+                    return null;
+                }
+                group.put("a" + i, new BasicDBObject("$sum", 1));
+            }
+            else
+            {
+                String column = getAggregateColumn(m, entityType, aggregation.getProperty());
+                if (column == null)
+                {
+                    return null;
+                }
+                group.put("a" + i, new BasicDBObject("$" + aggregation.getFunction().name().toLowerCase(), "$"
+                        + column));
+            }
+        }
+
+        List<DBObject> documents;
+        try
+        {
+            documents = ((MongoDBClient) client).aggregate(m,
+                    createMongoQuery(m, getKunderaQuery().getFilterClauseQueue()), group);
+        }
+        catch (MongoException mex)
+        {
+            log.warn("Aggregation is not supported by server, computing it over fetched documents, Caused by: "
+                    + mex.getMessage());
+            return null;
+        }
+
+        List<Object> results = new ArrayList<Object>();
+        if (documents.isEmpty() && grouping.isEmpty())
+        {
+            documents.add(new BasicDBObject());
+        }
+        for (DBObject document : documents)
+        {
+            Object[] row = new Object[aggregations.size()];
+            for (int i = 0; i < row.length; i++)
+            {
+                Aggregation aggregation = aggregations.get(i);
+                Class<?> type = aggregation.getProperty() != null ? entityType.getAttribute(
+                        aggregation.getProperty()).getJavaType() : null;
+                if (!aggregation.isFunction())
+                {
+                    Object groupValue = ((DBObject) document.get("_id")).get("g"
+                            + grouping.indexOf(aggregation.getProperty()));
+                    row[i] = toFieldType(groupValue, type);
+                }
+                else
+                {
+                    row[i] = toAggregateType(document.get("a" + i), aggregation.getFunction(), type);
+                }
+            }
+            results.add(row.length == 1 ? row[0] : row);
+        }
+        return results;
+    }
+
+    /**
+     * Returns document field of a basic numeric or string attribute, null if
+     * attribute can not be aggregated within database.
+     */
+    private String getAggregateColumn(EntityMetadata m, EntityType entityType, String property)
+    {
+        Attribute attribute = entityType.getAttribute(property);
+        Class<?> type = ClassUtils.primitiveToWrapper(attribute.getJavaType());
+        if (!PersistentAttributeType.BASIC.equals(attribute.getPersistentAttributeType())
+                || !(String.class.equals(type) || Number.class.isAssignableFrom(type))
+                || BigDecimal.class.equals(type) || BigInteger.class.equals(type))
+        {
+            return null;
+        }
+        return property.equals(m.getIdAttribute().getName()) ? "_id" : ((AbstractAttribute) attribute)
+                .getJPAColumnName();
+    }
+
+    private Object toAggregateType(Object value, Aggregation.Function function, Class<?> type)
+    {
+        switch (function)
+        {
+        case COUNT:
+            return value != null ? ((Number) value).longValue() : 0l;
+        case AVG:
+            return value != null ? ((Number) value).doubleValue() : null;
+        case SUM:
+            if (value == null)
+            {
+                return null;
+            }
+            Class<?> wrapper = ClassUtils.primitiveToWrapper(type);
+            return Double.class.equals(wrapper) || Float.class.equals(wrapper) ? ((Number) value).doubleValue()
+                    : ((Number) value).longValue();
+        default:
+            return toFieldType(value, type);
+        }
+    }
+
+    private Object toFieldType(Object value, Class<?> type)
+    {
+        if (!(value instanceof Number))
+        {
+            return value;
+        }
+        Number number = (Number) value;
+        Class<?> wrapper = ClassUtils.primitiveToWrapper(type);
+        if (Integer.class.equals(wrapper))
+        {
+            return number.intValue();
+        }
+        else if (Long.class.equals(wrapper))
+        {
+            return number.longValue();
+        }
+        else if (Short.class.equals(wrapper))
+        {
+            return number.shortValue();
+        }
+        else if (Byte.class.equals(wrapper))
+        {
+            return number.byteValue();
+        }
+        else if (Float.class.equals(wrapper))
+        {
+            return number.floatValue();
+        }
+        else if (Double.class.equals(wrapper))
+        {
+            return number.doubleValue();
+        }
+        return value;
+    }
+
     @Override
     public Object getSingleResult()
     {
@@ -462,13 +646,33 @@ public class MongoDBQuery extends QueryImpl
     {
         if (kunderaQuery.isDeleteUpdate())
         {
-            List result = getResultList();
-            return result != null ? result.size() : 0;
+            return onBulkDeleteOrUpdate();
         }
 
         return 0;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * com.impetus.kundera.query.QueryImpl#executeBulkDeleteOrUpdate(com.impetus
+     * .kundera.metadata.model.EntityMetadata,
+     * com.impetus.kundera.client.Client)
+     */
+    @Override
+    protected int executeBulkDeleteOrUpdate(EntityMetadata m, Client client)
+    {
+        BasicDBObject mongoQuery = createMongoQuery(m, getKunderaQuery().getFilterClauseQueue());
+        if (!kunderaQuery.isUpdateClause())
+        {
+            return ((MongoDBClient) client).deleteByQuery(m, mongoQuery);
+        }
+
+        Map<Attribute, Object> values = getUpdateValues(m);
+        return values != null ? ((MongoDBClient) client).updateByQuery(m, mongoQuery, values) : Constants.INVALID;
+    }
+
     /**
      * @param valObj
      * @return
@@ -121,7 +121,12 @@ class ResultIterator<E> implements IResultIterator<E>
     @Override
     public List<E> next(int chunkSize)
     {
-        throw new UnsupportedOperationException("fetch in chunks is not yet supported");
+        List<E> chunk = new ArrayList<E>(Math.min(chunkSize, Math.max(fetchSize, 0)));
+        while (chunk.size() < chunkSize && hasNext())
+        {
+            chunk.add(next());
+        }
+        return chunk;
     }
 
     private E setRelationEntities(Object enhanceEntity, Client client, EntityMetadata m)
@@ -19,8 +19,13 @@ import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -39,23 +44,30 @@ import org.hibernate.Session;
 import org.hibernate.StatelessSession;
 import org.hibernate.Transaction;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.impetus.client.rdbms.query.RDBMSEntityReader;
 import com.impetus.client.rdbms.query.RDBMSQuery;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.ClientBase;
 import com.impetus.kundera.client.EnhanceEntity;
+import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.db.RelationHolder;
+import com.impetus.kundera.graph.Node;
 import com.impetus.kundera.index.IndexManager;
+import com.impetus.kundera.lifecycle.states.RemovedState;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.MetadataUtils;
 import com.impetus.kundera.metadata.model.ClientMetadata;
 import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.PersistenceUnitMetadata;
 import com.impetus.kundera.metadata.model.Relation;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.EntityReaderException;
+import com.impetus.kundera.persistence.api.Batcher;
 import com.impetus.kundera.persistence.context.jointable.JoinTableData;
 import com.impetus.kundera.property.PropertyAccessException;
 import com.impetus.kundera.property.PropertyAccessor;
@@ -68,7 +80,7 @@ import com.impetus.kundera.proxy.ProxyHelper;
  * 
  * @author vivek.mishra
  */
-public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
+public class HibernateClient extends ClientBase implements Client<RDBMSQuery>, Batcher
 {
 //    /** The sf. */
 //    private SessionFactory sf;
@@ -83,6 +95,12 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
 
     private Map<String, Object> puProperties;
 
+    /** list of nodes for batch processing. */
+    private List<Node> nodes = new ArrayList<Node>();
+
+    /** batch size. */
+    private int batchSize;
+
     /** The Constant log. */
     private static final Logger log = LoggerFactory.getLogger(HibernateClient.class);
 
@@ -109,6 +127,7 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
         this.reader = reader;
         this.puProperties = puProperties;
         this.clientMetadata = clientMetadata;
+        getBatchSize(persistenceUnit, this.puProperties);
     }
 
     /*
@@ -191,12 +210,24 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
     {
         // TODO: Vivek correct it. unfortunately i need to open a new session
         // for each finder to avoid lazy loading.
+        EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(getPersistenceUnit(), arg0);
+
+        // Read foreign keys along, same as find via reader does.
+        List<String> relationNames = entityMetadata.getRelationNames();
+        if (relationNames != null && !relationNames.isEmpty() && reader instanceof RDBMSEntityReader)
+        {
+            Set<String> keys = new HashSet<String>(arg1.length);
+            for (Object key : arg1)
+            {
+                keys.add(key.toString());
+            }
+            return (List<E>) ((RDBMSEntityReader) reader).findAll(entityMetadata, this, keys);
+        }
+
         List<E> objs = new ArrayList<E>();
         Session s = getSession();
         Transaction tx = s.beginTransaction();
 
-        EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(getPersistenceUnit(), arg0);
-
         Object[] pKeys = getDataType(entityMetadata, arg1);
         String id = ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName();
 
@@ -286,13 +317,13 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
 
         StringBuffer sqlQuery = new StringBuffer();
         sqlQuery.append("SELECT ").append(inverseJoinColumnName).append(" FROM ")
-                .append(getFromClause(schemaName, joinTableName)).append(" WHERE ").append(joinColumnName).append("='")
-                .append(parentId).append("'");
+                .append(getFromClause(schemaName, joinTableName)).append(" WHERE ").append(joinColumnName).append("=?");
 
         Session s = getSession();
         Transaction tx = s.beginTransaction();
 
         SQLQuery query = s.createSQLQuery(sqlQuery.toString());
+        query.setParameter(0, parentId);
 
         List<E> foreignKeys = new ArrayList<E>();
 
@@ -313,15 +344,15 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
     public Object[] findIdsByColumn(String schemaName, String tableName, String pKeyName, String columnName,
             Object columnValue, Class entityClazz)
     {
-        String childIdStr = (String) columnValue;
         StringBuffer sqlQuery = new StringBuffer();
         sqlQuery.append("SELECT ").append(pKeyName).append(" FROM ").append(getFromClause(schemaName, tableName))
-                .append(" WHERE ").append(columnName).append("='").append(childIdStr).append("'");
+                .append(" WHERE ").append(columnName).append("=?");
 
         Session s = getSession();
         // Transaction tx = s.beginTransaction();
 
         SQLQuery query = s.createSQLQuery(sqlQuery.toString());
+        query.setParameter(0, columnValue);
 
         List<Object> primaryKeys = new ArrayList<Object>();
 
@@ -346,16 +377,17 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
         StringBuffer query = new StringBuffer();
 
         query.append("DELETE FROM ").append(getFromClause(schemaName, tableName)).append(" WHERE ").append(columnName)
-                .append("=").append("'").append(columnValue).append("'");
+                .append("=?");
 
         s = getStatelessSession();
         Transaction tx = s.beginTransaction();
-        s.createSQLQuery(query.toString()).executeUpdate();
+        s.createSQLQuery(query.toString()).setParameter(0, columnValue).executeUpdate();
         tx.commit();
     }
 
     /**
-     * Insert record in join table.
+     * Insert record in join table. Existing children of parent are read with
+     * one query and only missing rows are inserted, as one JDBC batch.
      * 
      * @param joinTableName
      *            the join table name
@@ -376,37 +408,66 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
     {
         s = getStatelessSession();
         Transaction tx = s.beginTransaction();
-        for (Object childId : childrenIds)
+        try
         {
-            StringBuffer query = new StringBuffer();
+            StringBuffer selectQuery = new StringBuffer();
+            selectQuery.append("SELECT ").append(inverseJoinColumnName).append(" FROM ")
+                    .append(getFromClause(schemaName, joinTableName)).append(" WHERE ").append(joinColumnName)
+                    .append("=?");
 
-            // write an update query
-            Object[] existingRowIds = findIdsByColumn(schemaName, joinTableName, joinColumnName, inverseJoinColumnName,
-                    (String) childId, null);
+            Set<String> existingChildren = new HashSet<String>();
+            for (Object o : s.createSQLQuery(selectQuery.toString()).setParameter(0, parentId).list())
+            {
+                existingChildren.add(o.toString());
+            }
 
-            boolean joinTableRecordsExists = false;
-            if (existingRowIds != null && existingRowIds.length > 0)
+            List<Object> newChildren = new ArrayList<Object>(childrenIds.size());
+            for (Object childId : childrenIds)
             {
-                for (Object o : existingRowIds)
+                if (existingChildren.add(childId.toString()))
                 {
-                    if (o.toString().equals(parentId.toString()))
-                    {
-                        joinTableRecordsExists = true;
-                        break;
-                    }
+                    newChildren.add(childId);
                 }
             }
 
-            if (!joinTableRecordsExists)
+            if (!newChildren.isEmpty())
             {
-                query.append("INSERT INTO ").append(getFromClause(schemaName, joinTableName)).append("(")
-                        .append(joinColumnName).append(",").append(inverseJoinColumnName).append(")")
-                        .append(" VALUES('").append(parentId).append("','").append(childId).append("')");
+                StringBuffer insertQuery = new StringBuffer();
+                insertQuery.append("INSERT INTO ").append(getFromClause(schemaName, joinTableName)).append("(")
+                        .append(joinColumnName).append(",").append(inverseJoinColumnName).append(") VALUES(?,?)");
 
-                s.createSQLQuery(query.toString()).executeUpdate();
+                Connection connection = ((SessionImplementor) s).connection();
+                PreparedStatement statement = connection.prepareStatement(insertQuery.toString());
+                try
+                {
+                    for (Object childId : newChildren)
+                    {
+                        statement.setObject(1, parentId);
+                        statement.setObject(2, childId);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+                finally
+                {
+                    statement.close();
+                }
+            }
+            tx.commit();
+        }
+        catch (SQLException e)
+        {
+            log.error("Error while inserting records in join table {}", joinTableName, e);
+            throw new PersistenceException(e);
+        }
+        finally
+        {
+            // Not committed, if either of select or insert has failed.
+            if (tx.isActive())
+            {
+                tx.rollback();
             }
         }
-        tx.commit();
     }
 
     /**
@@ -529,6 +590,192 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
         return RDBMSQuery.class;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * com.impetus.kundera.persistence.api.Batcher#addBatch(com.impetus.kundera
+     * .graph.Node)
+     */
+    @Override
+    public void addBatch(Node node)
+    {
+        if (node != null)
+        {
+            nodes.add(node);
+        }
+        onBatchLimit();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.impetus.kundera.persistence.api.Batcher#getBatchSize()
+     */
+    @Override
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.impetus.kundera.persistence.api.Batcher#clear()
+     */
+    @Override
+    public void clear()
+    {
+        if (nodes != null)
+        {
+            nodes.clear();
+            nodes = null;
+            nodes = new ArrayList<Node>();
+        }
+    }
+
+    /**
+     * Executes all nodes within one transaction of stateless session, so
+     * inserts and updates go to database as JDBC batches of
+     * <code>hibernate.jdbc.batch_size</code>. Foreign keys are updated once
+     * all rows are written, as an update in between would flush pending
+     * batch.
+     * <p>
+     * As with {@link #onPersist(EntityMetadata, Object, Object, List)}, an
+     * inserted entity may already exist (e.g. a child shared over many to one
+     * relation). On constraint violation the batch is rolled back and nodes are
+     * written again one by one, updating those which violate constraint on
+     * insert.
+     * 
+     * @see com.impetus.kundera.persistence.api.Batcher#executeBatch()
+     */
+    @Override
+    public int executeBatch()
+    {
+        List<Node> dirtyNodes = new ArrayList<Node>();
+        Map<Node, List<RelationHolder>> foreignKeys = new HashMap<Node, List<RelationHolder>>();
+        for (Node node : nodes)
+        {
+            if (node.isDirty())
+            {
+                node.handlePreEvent();
+                dirtyNodes.add(node);
+                if (!node.isInState(RemovedState.class))
+                {
+                    EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
+                    List<RelationHolder> relationHolders = getRelationHolders(node);
+                    boolean proxyRemoved = removeKunderaProxies(metadata, node.getData(), relationHolders);
+                    if ((!node.isUpdate() || proxyRemoved) && !relationHolders.isEmpty())
+                    {
+                        foreignKeys.put(node, relationHolders);
+                    }
+                }
+            }
+        }
+
+        try
+        {
+            try
+            {
+                executeBatch(dirtyNodes, foreignKeys, false);
+            }
+            catch (org.hibernate.exception.ConstraintViolationException e)
+            {
+                log.info("Executing batch node by node, Caused by: {}", e.getMessage());
+                for (Node node : dirtyNodes)
+                {
+                    List<Node> batch = Collections.singletonList(node);
+                    try
+                    {
+                        executeBatch(batch, foreignKeys, false);
+                    }
+                    catch (org.hibernate.exception.ConstraintViolationException ce)
+                    {
+                        if (node.isUpdate() || node.isInState(RemovedState.class))
+                        {
+                            throw ce;
+                        }
+                        log.info(ce.getMessage());
+                        executeBatch(batch, foreignKeys, true);
+                    }
+                }
+            }
+        }
+        catch (HibernateException e)
+        {
+            log.error("Error while executing batch insert/update, Caused by: .", e);
+            throw new PersistenceException(e);
+        }
+
+        for (Node node : dirtyNodes)
+        {
+            EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
+            if (!node.isInState(RemovedState.class))
+            {
+                indexNode(node, metadata);
+            }
+            else if (!MetadataUtils.useSecondryIndex(getClientMetadata()))
+            {
+                getIndexManager().remove(metadata, node.getData(), node.getEntityId().toString());
+            }
+            node.handlePostEvent();
+        }
+        return dirtyNodes.size();
+    }
+
+    /**
+     * Writes given nodes and then their foreign keys, within one transaction.
+     * On failure, transaction is rolled back and stateless session is
+     * discarded along with any statement of failed JDBC batch.
+     * 
+     * @param batch
+     *            nodes to write
+     * @param foreignKeys
+     *            relation holders of nodes which need foreign key update
+     * @param asUpdate
+     *            whether to update nodes which are to be inserted
+     */
+    private void executeBatch(List<Node> batch, Map<Node, List<RelationHolder>> foreignKeys, boolean asUpdate)
+    {
+        s = getStatelessSession();
+        Transaction tx = s.beginTransaction();
+        try
+        {
+            for (Node node : batch)
+            {
+                if (node.isInState(RemovedState.class))
+                {
+                    s.delete(node.getData());
+                }
+                else if (asUpdate || node.isUpdate())
+                {
+                    s.update(node.getData());
+                }
+                else
+                {
+                    s.insert(node.getData());
+                }
+            }
+
+            for (Node node : batch)
+            {
+                if (foreignKeys.containsKey(node))
+                {
+                    updateForeignKeys(KunderaMetadataManager.getEntityMetadata(node.getDataClass()),
+                            node.getEntityId(), foreignKeys.get(node));
+                }
+            }
+            tx.commit();
+        }
+        catch (HibernateException e)
+        {
+            tx.rollback();
+            s.close();
+            s = null;
+            throw e;
+        }
+    }
+
     /**
      * Gets the key.
      * 
@@ -637,15 +884,50 @@ public class HibernateClient extends ClientBase implements Client<RDBMSQuery>
             {
 
                 String clause = getFromClause(metadata.getSchema(), metadata.getTableName());
-                String updateSql = "Update " + clause + " SET " + linkName + "= '" + linkValue + "' WHERE "
-                        + ((AbstractAttribute) metadata.getIdAttribute()).getJPAColumnName() + " = '" + id + "'";
+                String updateSql = "Update " + clause + " SET " + linkName + "= ? WHERE "
+                        + ((AbstractAttribute) metadata.getIdAttribute()).getJPAColumnName() + " = ?";
 
                 log.warn("Executing query {}", updateSql);
-                s.createSQLQuery(updateSql).executeUpdate();
+                s.createSQLQuery(updateSql).setParameter(0, linkValue).setParameter(1, id).executeUpdate();
             }
         }
     }
 
+    /**
+     * Check on batch limit.
+     */
+    private void onBatchLimit()
+    {
+        if (batchSize > 0 && batchSize == nodes.size())
+        {
+            executeBatch();
+            nodes.clear();
+        }
+    }
+
+    /**
+     * @param persistenceUnit
+     * @param puProperties
+     */
+    private void getBatchSize(String persistenceUnit, Map<String, Object> puProperties)
+    {
+        String batch_Size = puProperties != null ? (String) puProperties.get(PersistenceProperties.KUNDERA_BATCH_SIZE)
+                : null;
+        if (batch_Size != null)
+        {
+            batchSize = Integer.valueOf(batch_Size);
+            if (batchSize == 0)
+            {
+                throw new IllegalArgumentException("kundera.batch.size property must be numeric and > 0");
+            }
+        }
+        else
+        {
+            PersistenceUnitMetadata puMetadata = KunderaMetadataManager.getPersistenceUnitMetadata(persistenceUnit);
+            batchSize = puMetadata.getBatchSize();
+        }
+    }
+
     /**
      * @param metadata
      * @param entity
@@ -24,15 +24,18 @@ import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.StatelessSession;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
 import org.hibernate.service.ServiceRegistry;
 import org.hibernate.service.ServiceRegistryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.impetus.client.rdbms.query.RDBMSEntityReader;
+import com.impetus.kundera.PersistenceProperties;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.configure.schema.api.SchemaManager;
 import com.impetus.kundera.loader.GenericClientFactory;
+import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.model.KunderaMetadata;
 import com.impetus.kundera.metadata.model.MetamodelImpl;
 
@@ -100,6 +103,17 @@ public class RDBMSClientFactory extends GenericClientFactory
             }
         }
 
+        // unless given explicitly, batch size of stateless session inserts
+        // and updates is kundera.batch.size.
+        if (conf.getProperty(Environment.STATEMENT_BATCH_SIZE) == null)
+        {
+            int batchSize = getBatchSize();
+            if (batchSize > 0)
+            {
+                conf.setProperty(Environment.STATEMENT_BATCH_SIZE, String.valueOf(batchSize));
+            }
+        }
+
         serviceRegistry = new ServiceRegistryBuilder().applySettings(conf.getProperties()).buildServiceRegistry();
 
         for (Class<?> c : classes)
@@ -144,6 +158,22 @@ public class RDBMSClientFactory extends GenericClientFactory
         this.conf = reader.load(getPersistenceUnit());
     }
 
+    /**
+     * Returns batch size, as in external properties or persistence unit.
+     * 
+     * @return batch size, 0 if not batched.
+     */
+    private int getBatchSize()
+    {
+        Object batchSize = externalProperties != null ? externalProperties
+                .get(PersistenceProperties.KUNDERA_BATCH_SIZE) : null;
+        if (batchSize != null)
+        {
+            return Integer.valueOf(batchSize.toString());
+        }
+        return KunderaMetadataManager.getPersistenceUnitMetadata(getPersistenceUnit()).getBatchSize();
+    }
+
     Session getSession()
     {
         if (sf != null)
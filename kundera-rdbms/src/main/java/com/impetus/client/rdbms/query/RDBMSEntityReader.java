@@ -524,9 +524,8 @@ public class RDBMSEntityReader extends AbstractEntityReader implements EntityRea
         {
             Set<String> keys = new HashSet<String>(1);
             keys.add(primaryKey.toString());
-            String query = getSqlQueryFromJPA(m, relationNames, keys);
-            List<EnhanceEntity> results = populateEnhanceEntities(m, relationNames, client, query);
-            return results != null && !results.isEmpty() ? results.get(0) : null;
+            List<EnhanceEntity> results = findAll(m, client, keys);
+            return !results.isEmpty() ? results.get(0) : null;
         }
         else
         {
@@ -543,6 +542,26 @@ public class RDBMSEntityReader extends AbstractEntityReader implements EntityRea
         }
     }
 
+    /**
+     * Retrieves entities for given primary keys along with their foreign keys,
+     * with a single query.
+     * 
+     * @param m
+     *            entity metadata
+     * @param client
+     *            client
+     * @param primaryKeys
+     *            primary keys
+     * @return list of enhance entities.
+     */
+    public List<EnhanceEntity> findAll(EntityMetadata m, Client client, Set<String> primaryKeys)
+    {
+        List<String> relationNames = m.getRelationNames();
+        List<EnhanceEntity> results = populateEnhanceEntities(m, relationNames, client,
+                getSqlQueryFromJPA(m, relationNames, primaryKeys));
+        return results != null ? results : new ArrayList<EnhanceEntity>();
+    }
+
     /**
      * Checks if is string property.
      * 
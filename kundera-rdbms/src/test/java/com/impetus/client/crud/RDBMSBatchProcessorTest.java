@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.crud;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.Query;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.kundera.PersistenceProperties;
+import com.impetus.kundera.client.Client;
+import com.impetus.kundera.persistence.api.Batcher;
+
+/**
+ * Batch processing test case for rdbms, over in memory hsqldb.
+ */
+public class RDBMSBatchProcessorTest
+{
+    /**
+     * persistence unit.
+     */
+    private static final String PERSISTENCE_UNIT = "testHibernate";
+
+    /** The emf. */
+    private static EntityManagerFactory emf;
+
+    /** The em. */
+    private static EntityManager em;
+
+    private RDBMSCli cli;
+
+    private List<PersonRDBMS> rows;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        cli = new RDBMSCli("testdb");
+        try
+        {
+            cli.createSchema("testdb");
+        }
+        catch (Exception e)
+        {
+            // schema already exists.
+        }
+        cli.update("CREATE TABLE TESTDB.PERSON (PERSON_ID VARCHAR(9) PRIMARY KEY, PERSON_NAME VARCHAR(256), AGE INTEGER)");
+
+        Map<String, String> props = new HashMap<String, String>();
+        props.put(PersistenceProperties.KUNDERA_BATCH_SIZE, "5");
+        emf = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, props);
+        em = emf.createEntityManager();
+    }
+
+    /**
+     * Test case for batch operation.
+     */
+    @Test
+    public void onBatch()
+    {
+        int counter = 0;
+        rows = prepareData(10);
+        for (PersonRDBMS entity : rows)
+        {
+            em.persist(entity);
+
+            // check for implicit flush.
+            if (++counter == 5)
+            {
+                Map<String, Client> clients = (Map<String, Client>) em.getDelegate();
+
+                Batcher client = (Batcher) clients.get(PERSISTENCE_UNIT);
+                Assert.assertEquals(5, client.getBatchSize());
+                em.clear();
+                for (int i = 0; i < 5; i++)
+                {
+                    // assert on each batch size record
+                    Assert.assertNotNull(em.find(PersonRDBMS.class, rows.get(i).getPersonId()));
+
+                    // as batch size is 5.
+                    Assert.assertNull(em.find(PersonRDBMS.class, rows.get(6).getPersonId()));
+                }
+            }
+        }
+
+        // explicit flush.
+        em.clear();
+        em.flush();
+
+        Query query = em.createQuery("Select p from PersonRDBMS p");
+        List<PersonRDBMS> results = query.getResultList();
+        Assert.assertNotNull(results);
+        Assert.assertEquals(10, results.size());
+
+        // updates go as a batch as well.
+        em.clear();
+        for (PersonRDBMS entity : rows)
+        {
+            entity.setAge(20);
+            em.merge(entity);
+        }
+        em.flush();
+        em.clear();
+        Assert.assertEquals(20, em.find(PersonRDBMS.class, rows.get(9).getPersonId()).getAge());
+    }
+
+    /**
+     * Test case for batch with rows which already exist, which are updated
+     * instead of failing whole batch.
+     */
+    @Test
+    public void onBatchWithExistingRows()
+    {
+        rows = prepareData(8);
+        for (int i = 0; i < 5; i++)
+        {
+            em.persist(rows.get(i));
+        }
+        em.clear();
+
+        // 4 and 5 exist already, batch of 5 is flushed implicitly.
+        for (int i = 3; i < 8; i++)
+        {
+            PersonRDBMS o = new PersonRDBMS();
+            o.setPersonId(rows.get(i).getPersonId());
+            o.setPersonName("kuldeep" + (i + 1));
+            o.setAge(30);
+            em.persist(o);
+        }
+        em.clear();
+
+        Query query = em.createQuery("Select p from PersonRDBMS p");
+        List<PersonRDBMS> results = query.getResultList();
+        Assert.assertEquals(8, results.size());
+        Assert.assertEquals("vivek3", em.find(PersonRDBMS.class, "3").getPersonName());
+        Assert.assertEquals("kuldeep4", em.find(PersonRDBMS.class, "4").getPersonName());
+        Assert.assertEquals("kuldeep8", em.find(PersonRDBMS.class, "8").getPersonName());
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        em.close();
+        emf.close();
+        try
+        {
+            cli.update("DELETE FROM TESTDB.PERSON");
+            cli.update("DROP TABLE TESTDB.PERSON");
+            cli.update("DROP SCHEMA TESTDB");
+            cli.closeConnection();
+        }
+        catch (Exception e)
+        {
+            // Nothing to do
+        }
+    }
+
+    private List<PersonRDBMS> prepareData(int noOfRecords)
+    {
+        List<PersonRDBMS> persons = new ArrayList<PersonRDBMS>();
+        for (int i = 1; i <= noOfRecords; i++)
+        {
+            PersonRDBMS o = new PersonRDBMS();
+            o.setPersonId(i + "");
+            o.setPersonName("vivek" + i);
+            o.setAge(10);
+            persons.add(o);
+        }
+        return persons;
+    }
+}
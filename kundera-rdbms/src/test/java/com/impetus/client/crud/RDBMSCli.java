@@ -35,6 +35,8 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Title: Testdb Description: simple hello world db example of a standalone
@@ -121,6 +123,37 @@ public class RDBMSCli
         // completely examined.
     }
 
+    // use for SQL command SELECT COUNT(*), returns the count
+    public synchronized int count(String expression) throws SQLException
+    {
+        Statement st = conn.createStatement();
+        ResultSet rs = st.executeQuery(expression);
+        rs.next();
+        int count = rs.getInt(1);
+        st.close();
+        return count;
+    }
+
+    // use for SQL command SELECT, returns each row as comma separated columns
+    public synchronized List<String> rows(String expression) throws SQLException
+    {
+        Statement st = conn.createStatement();
+        ResultSet rs = st.executeQuery(expression);
+        int colmax = rs.getMetaData().getColumnCount();
+        List<String> rows = new ArrayList<String>();
+        while (rs.next())
+        {
+            StringBuilder row = new StringBuilder();
+            for (int i = 1; i <= colmax; i++)
+            {
+                row.append(i > 1 ? "," : "").append(rs.getObject(i));
+            }
+            rows.add(row.toString());
+        }
+        st.close();
+        return rows;
+    }
+
     // use for SQL commands CREATE, DROP, INSERT and UPDATE
     public synchronized void update(String expression) throws SQLException
     {
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.manytomany;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.impetus.client.crud.RDBMSCli;
+
+/**
+ * Many to many test case for rdbms, over in memory hsqldb.
+ */
+public class MTMNPersonTest
+{
+    private static final String PERSISTENCE_UNIT = "testHibernate";
+
+    private static final String COUNT_JOIN_ROWS = "SELECT COUNT(*) FROM TESTDB.PERSONNEL_ADDRESS WHERE PERSON_ID = '1'";
+
+    private static final String SELECT_JOIN_ROWS = "SELECT PERSON_ID, ADDRESS_ID FROM TESTDB.PERSONNEL_ADDRESS ORDER BY PERSON_ID, ADDRESS_ID";
+
+    private EntityManagerFactory emf;
+
+    private RDBMSCli cli;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        cli = new RDBMSCli("testdb");
+        try
+        {
+            cli.createSchema("testdb");
+        }
+        catch (Exception e)
+        {
+            // schema already exists.
+        }
+        cli.update("CREATE TABLE TESTDB.PERSONNEL (PERSON_ID VARCHAR(9) PRIMARY KEY, PERSON_NAME VARCHAR(256))");
+        cli.update("CREATE TABLE TESTDB.ADDRESS (ADDRESS_ID VARCHAR(9) PRIMARY KEY, STREET VARCHAR(256))");
+        cli.update("CREATE TABLE TESTDB.PERSONNEL_ADDRESS (PERSON_ID VARCHAR(9), ADDRESS_ID VARCHAR(9))");
+        emf = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT);
+    }
+
+    /**
+     * Persisting same parent again must not duplicate join table rows, and
+     * must add rows only for new children.
+     */
+    @Test
+    public void testPersistSameParentAgain() throws Exception
+    {
+        persist("vivek", "a1", "a2");
+        Assert.assertEquals(2, cli.count(COUNT_JOIN_ROWS));
+
+        persist("vivek", "a1", "a2");
+        Assert.assertEquals(2, cli.count(COUNT_JOIN_ROWS));
+
+        persist("mishra", "a1", "a2", "a3");
+        Assert.assertEquals(3, cli.count(COUNT_JOIN_ROWS));
+        Assert.assertEquals(1, cli.count("SELECT COUNT(*) FROM TESTDB.PERSONNEL_ADDRESS WHERE ADDRESS_ID = 'a3'"));
+
+        // existing parent is updated in place.
+        Assert.assertEquals(1, cli.count("SELECT COUNT(*) FROM TESTDB.PERSONNEL WHERE PERSON_NAME = 'mishra'"));
+        Assert.assertEquals(3, cli.count("SELECT COUNT(*) FROM TESTDB.ADDRESS"));
+    }
+
+    /**
+     * Persisting same parent again with overlapping children must leave
+     * exactly one join table row per child, old and new.
+     */
+    @Test
+    public void testPersistWithOverlappingChildren() throws Exception
+    {
+        persist("vivek", "a1", "a2");
+        Assert.assertEquals(Arrays.asList("1,a1", "1,a2"), cli.rows(SELECT_JOIN_ROWS));
+
+        persist("vivek", "a2", "a3");
+        Assert.assertEquals(Arrays.asList("1,a1", "1,a2", "1,a3"), cli.rows(SELECT_JOIN_ROWS));
+        Assert.assertEquals(Arrays.asList("a1", "a2", "a3"),
+                cli.rows("SELECT ADDRESS_ID FROM TESTDB.ADDRESS ORDER BY ADDRESS_ID"));
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        emf.close();
+        try
+        {
+            cli.update("DROP TABLE TESTDB.PERSONNEL_ADDRESS");
+            cli.update("DROP TABLE TESTDB.ADDRESS");
+            cli.update("DROP TABLE TESTDB.PERSONNEL");
+            cli.update("DROP SCHEMA TESTDB");
+            cli.closeConnection();
+        }
+        catch (Exception e)
+        {
+            // Nothing to do
+        }
+    }
+
+    private void persist(String personName, String... addressIds)
+    {
+        MTMNPerson person = new MTMNPerson();
+        person.setPersonId("1");
+        person.setPersonName(personName);
+
+        Set<MTMAddress> addresses = new HashSet<MTMAddress>();
+        for (String addressId : addressIds)
+        {
+            MTMAddress address = new MTMAddress();
+            address.setAddressId(addressId);
+            address.setStreet("street " + addressId);
+            addresses.add(address);
+        }
+        person.setAddresses(addresses);
+
+        EntityManager em = emf.createEntityManager();
+        em.persist(person);
+        em.close();
+    }
+}
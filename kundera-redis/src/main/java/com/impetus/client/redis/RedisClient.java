@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +42,7 @@ import redis.clients.jedis.Pipeline;
 import redis.clients.jedis.Response;
 import redis.clients.jedis.Transaction;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
 
 import com.impetus.client.redis.RedisQueryInterpreter.Clause;
 import com.impetus.kundera.Constants;
@@ -210,74 +212,195 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
     private Object fetch(Class clazz, Object key, Object connection, byte[][] fields) throws InstantiationException,
             IllegalAccessException
     {
-        Object result = null;
+        List results = fetch(clazz, Arrays.asList(key), connection, fields);
+        return results.isEmpty() ? null : results.get(0);
+    }
 
+    /**
+     * Retrieves entity instances of given class, row keys and specific
+     * fields. All hashes are read in one round trip.
+     * 
+     * @param clazz
+     *            entity class
+     * @param keys
+     *            row keys
+     * @param connection
+     *            connection instance.
+     * @param fields
+     *            fields.
+     * @return entity instances, in order of row keys. Missing rows are
+     *         skipped.
+     * @throws InstantiationException
+     *             throws in case of runtime exception
+     * @throws IllegalAccessException
+     *             throws in case of runtime exception
+     */
+    private List fetch(Class clazz, Collection keys, Object connection, byte[][] fields)
+            throws InstantiationException, IllegalAccessException
+    {
         EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(clazz);
 
         MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
                 entityMetadata.getPersistenceUnit());
 
-        String rowKey = null;
-        if (metaModel.isEmbeddable(entityMetadata.getIdAttribute().getBindableJavaType()))
+        boolean isCompositeKey = metaModel.isEmbeddable(entityMetadata.getIdAttribute().getBindableJavaType());
+        ObjectAccessor accessor = new ObjectAccessor();
+
+        List<String> hashKeys = new ArrayList<String>(keys.size());
+        for (Object key : keys)
         {
-            rowKey = KunderaCoreUtils.prepareCompositeKey(entityMetadata, metaModel, key);
+            String rowKey = isCompositeKey ? KunderaCoreUtils.prepareCompositeKey(entityMetadata, metaModel, key)
+                    : accessor.toString(key);
+            hashKeys.add(getHashKey(entityMetadata.getTableName(), rowKey));
         }
-        else
-        {
-            ObjectAccessor accessor = new ObjectAccessor();
 
-            rowKey = accessor.toString(key);/*
-                                             * PropertyAccessorHelper.getString(key
-                                             * );
-                                             */
+        List results = new ArrayList(keys.size());
+        try
+        {
+            Iterator<Map<byte[], byte[]>> columns = getColumns(connection, hashKeys, fields).iterator();
+            for (Object key : keys)
+            {
+                Object result = unwrap(entityMetadata, columns.next(), key);
+                if (result != null)
+                {
+                    results.add(result);
+                }
+            }
+        }
+        catch (JedisConnectionException jedex)
+        {
+            // Jedis is throwing runtime exception in case of no result
+            // found!!!!
+            return results;
         }
 
-        String hashKey = getHashKey(entityMetadata.getTableName(), rowKey);
+        return results;
+    }
 
-        try
+    /**
+     * Reads given hashes in one round trip, through a pipeline or, if a
+     * transaction is in progress, through bound MULTI block.
+     * 
+     * @param connection
+     *            connection instance.
+     * @param hashKeys
+     *            hash keys.
+     * @param fields
+     *            selective fields, null to read all fields.
+     * @return columns of each hash, in order of hash keys.
+     */
+    private List<Map<byte[], byte[]>> getColumns(Object connection, List<String> hashKeys, byte[][] fields)
+    {
+        List<Map<byte[], byte[]>> results = new ArrayList<Map<byte[], byte[]>>(hashKeys.size());
+        if (hashKeys.isEmpty())
         {
-            Map<byte[], byte[]> columns = new HashMap<byte[], byte[]>();
+            return results;
+        }
 
-            // IF it is for selective columns
-            if (fields != null)
+        List replies = null;
+        if (resource != null && resource.isActive())
+        {
+            List<Response> responses = new ArrayList<Response>(hashKeys.size());
+            for (String hashKey : hashKeys)
             {
-                List<byte[]> fieldValues = null;
-                if (resource != null && resource.isActive())
+                if (fields != null)
                 {
-                    Response response = ((Transaction) connection).hmget(getEncodedBytes(hashKey), fields);
-                    ((Transaction) connection).exec();
-
-                    fieldValues = (List<byte[]>) response.get();
+                    responses.add(((Transaction) connection).hmget(getEncodedBytes(hashKey), fields));
+                }
+                else
+                {
+                    responses.add(((Transaction) connection).hgetAll(getEncodedBytes(hashKey)));
+                }
+            }
+            ((Transaction) connection).exec();
 
+            replies = new ArrayList(responses.size());
+            for (Response response : responses)
+            {
+                replies.add(response.get());
+            }
+        }
+        else
+        {
+            // Raw replies are read, as typed pipeline responses decode binary
+            // values as strings.
+            redis.clients.jedis.Client client = ((Jedis) connection).getClient();
+            for (String hashKey : hashKeys)
+            {
+                if (fields != null)
+                {
+                    client.hmget(getEncodedBytes(hashKey), fields);
                 }
                 else
                 {
-                    fieldValues = ((Jedis) connection).hmget(getEncodedBytes(hashKey), fields);
+                    client.hgetAll(getEncodedBytes(hashKey));
                 }
+            }
+            replies = client.getAll();
+        }
 
-                if (fieldValues != null && !fieldValues.isEmpty())
+        for (Object reply : replies)
+        {
+            if (reply instanceof JedisDataException)
+            {
+                throw (JedisDataException) reply;
+            }
+            results.add(toColumns(reply, fields));
+        }
+        return results;
+    }
+
+    /**
+     * Decodes HGETALL or HMGET reply into column map.
+     * 
+     * @param reply
+     *            reply.
+     * @param fields
+     *            requested fields in case of HMGET, else null.
+     * @return column map.
+     */
+    private Map<byte[], byte[]> toColumns(Object reply, byte[][] fields)
+    {
+        Map<byte[], byte[]> columns = new HashMap<byte[], byte[]>();
+        if (reply instanceof Map)
+        {
+            for (Map.Entry<?, ?> column : ((Map<?, ?>) reply).entrySet())
+            {
+                columns.put(toBytes(column.getKey()), toBytes(column.getValue()));
+            }
+        }
+        else if (reply instanceof List)
+        {
+            List values = (List) reply;
+            if (fields != null)
+            {
+                for (int i = 0; i < fields.length && i < values.size(); i++)
                 {
-                    for (int i = 0; i < fields.length; i++)
-                    {
-                        columns.put(fields[i], fieldValues.get(i));
-                    }
+                    columns.put(fields[i], toBytes(values.get(i)));
                 }
             }
             else
             {
-                columns = getColumns(connection, hashKey, columns);
+                // HGETALL returns field and value one after another.
+                for (int i = 0; i + 1 < values.size(); i += 2)
+                {
+                    columns.put(toBytes(values.get(i)), toBytes(values.get(i + 1)));
+                }
             }
-            // Map<byte[], byte[]>
-            result = unwrap(entityMetadata, columns, key);
         }
-        catch (JedisConnectionException jedex)
+        return columns;
+    }
+
+    /**
+     * Returns reply value as byte array.
+     */
+    private byte[] toBytes(Object value)
+    {
+        if (value == null || value instanceof byte[])
         {
-            // Jedis is throwing runtime exception in case of no result
-            // found!!!!
-            return null;
+            return (byte[]) value;
         }
-
-        return result;
+        return getEncodedBytes(value.toString());
     }
 
     private Map<byte[], byte[]> getColumns(Object connection, String hashKey, Map<byte[], byte[]> columns)
@@ -317,14 +440,7 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
         List results = new ArrayList();
         try
         {
-            for (Object key : keys)
-            {
-                Object result = fetch(entityClass, key, connection, null);
-                if (result != null)
-                {
-                    results.add(result);
-                }
-            }
+            results = fetch(entityClass, Arrays.asList(keys), connection, null);
         }
         catch (InstantiationException e)
         {
@@ -588,31 +704,22 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
      */
     private List fetchColumn(String columnName, Object connection, List results, Set<String> resultKeys)
     {
-        for (String hashKey : resultKeys)
+        if (resultKeys == null || resultKeys.isEmpty())
         {
-            List columnValues = null;
-            if (resource != null && resource.isActive())
-            {
-                Response response = ((Transaction) connection).hmget(hashKey, columnName);
-                ((Transaction) connection).exec();
-
-                columnValues = (List) response.get();
-            }
-            else
-            {
-                columnValues = ((Jedis) connection).hmget(hashKey, columnName);
-            }
+            return results;
+        }
 
-            if (columnValues != null && !columnValues.isEmpty())
-            {
-                results.addAll(columnValues); // Currently returning list of
-                                              // string as known issue
-                                              // with
-                                              // joint table concept!
-            }
+        byte[] field = getEncodedBytes(columnName);
+        for (Map<byte[], byte[]> columns : getColumns(connection, new ArrayList<String>(resultKeys),
+                new byte[][] { field }))
+        {
+            byte[] value = columns.get(field);
 
+            // Currently returning list of string as known issue with joint
+            // table concept!
+            results.add(value != null ? PropertyAccessorFactory.STRING.fromBytes(String.class, value) : null);
         }
-        
+
         return results;
     }
 
@@ -755,11 +862,7 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
         if (ids != null)
         {
             // just to insure uniqueness.
-
-            for (Object id : new HashSet(Arrays.asList(ids)))
-            {
-                resultSet.add(find(entityClazz, id));
-            }
+            resultSet.addAll(findAll(entityClazz, null, new HashSet(Arrays.asList(ids)).toArray()));
         }
 
         return resultSet;
@@ -836,6 +939,7 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
 
                         List<RelationHolder> relationHolders = getRelationHolders(node);
                         EntityMetadata metadata = KunderaMetadataManager.getEntityMetadata(node.getDataClass());
+                        dirtyFields = getDirtyFields(node);
 
                         onPersist(metadata, node.getData(), node.getEntityId(), relationHolders,
                                 pipeLine != null ? pipeLine : connection);
@@ -897,19 +1001,18 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
 
             Set<String> results = null;
 
+            // exact match over {tablename:columnname:value} index.
+            String indexKey = getHashKey(tableName, getHashKey(columnName, valueAsStr));
             if (resource != null && resource.isActive())
             {
-                Response response = ((Transaction) connection).zrangeByScore(getHashKey(tableName, columnName),
-                        getDouble(valueAsStr), getDouble(valueAsStr));
+                Response response = ((Transaction) connection).zrange(indexKey, 0, -1);
                 ((Transaction) connection).exec();
 
                 results = (Set<String>) response.get();
             }
             else
             {
-                results = ((Jedis) connection).zrangeByScore(getHashKey(tableName, columnName), getDouble(valueAsStr),
-                        getDouble(valueAsStr));
-
+                results = ((Jedis) connection).zrange(indexKey, 0, -1);
             }
             if (results != null)
             {
@@ -1162,6 +1265,21 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
      * @return
      */
     private AttributeWrapper wrap(EntityMetadata entityMetadata, Object entity)
+    {
+        return wrap(entityMetadata, entity, null);
+    }
+
+    /**
+     * Wraps given entity attributes into byte[] and return instance of
+     * attribute wrapper.
+     * 
+     * @param entityMetadata
+     * @param entity
+     * @param fieldNames
+     *            names of attributes to wrap, null for all.
+     * @return
+     */
+    private AttributeWrapper wrap(EntityMetadata entityMetadata, Object entity, Set<String> fieldNames)
     {
 
         MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
@@ -1178,7 +1296,11 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
         // PropertyAccessorHelper.get(entity,
         for (Attribute attr : attributes)
         {
-            if (!entityMetadata.getIdAttribute().equals(attr) && !attr.isAssociation())
+            if (fieldNames != null && !fieldNames.contains(attr.getName()))
+            {
+                continue;
+            }
+            else if (!entityMetadata.getIdAttribute().equals(attr) && !attr.isAssociation())
             {
                 if (metaModel.isEmbeddable(((AbstractAttribute) attr).getBindableJavaType()))
                 {
@@ -1248,6 +1370,8 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
         byte[] name;
         if (value != null)
         {
+            double score = RedisIndexScore.getScore(PropertyAccessorHelper.getObject(embeddedObject,
+                    (Field) attrib.getJavaMember()));
             if (embeddedAttrib == null)
             {
                 name = getEncodedBytes(((AbstractAttribute) attrib).getJPAColumnName());
@@ -1259,15 +1383,15 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
             }
             // add column name as key and value as value
             wrapper.addColumn(name, value);
-            // // {tablename:columnname,hashcode} for value
+            // {tablename:columnname,score} for value, score preserves order
+            // of values for range queries.
             wrapper.addIndex(
                     getHashKey(entityMetadata.getTableName(), ((AbstractAttribute) attrib).getJPAColumnName()),
-                    getDouble(valueAsStr));
+                    score);
 
             wrapper.addIndex(
                     getHashKey(entityMetadata.getTableName(),
-                            getHashKey(((AbstractAttribute) attrib).getJPAColumnName(), valueAsStr)),
-                    getDouble(valueAsStr));
+                            getHashKey(((AbstractAttribute) attrib).getJPAColumnName(), valueAsStr)), score);
         }
     }
 
@@ -1397,179 +1521,416 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
         try
         {
             connection = getConnection();
-            Set<String> rowKeys = new HashSet<String>();
             EntityMetadata entityMetadata = KunderaMetadataManager.getEntityMetadata(entityClazz);
-            if (queryParameter.getClause() != null && !queryParameter.isByRange())
+            Set<String> rowKeys = getRowKeys(queryParameter, entityMetadata, connection);
+            if (rowKeys == null)
             {
-                String destStore = entityClazz.getSimpleName() + System.currentTimeMillis();
-
                 Map<String, Object> fieldSets = queryParameter.getFields();
 
-                Set<String> keySets = new HashSet<String>(fieldSets.size());
-                // byte[][] keys = new byte[][fieldSets.size()];
-                for (String column : fieldSets.keySet())
-                {
-                    String valueAsStr = PropertyAccessorHelper.getString(fieldSets.get(column));
-                    String key = getHashKey(entityMetadata.getTableName(), getHashKey(column, valueAsStr));
-                    keySets.add(key);
-                }
+                results = findAllColumns(entityClazz, (byte[][]) (queryParameter.getColumns() != null ? queryParameter
+                        .getColumns().toArray() : null), fieldSets.values().toArray());
+                return results;
+            }
 
-                if (queryParameter.getClause().equals(Clause.INTERSECT))
-                {
-                    if (resource != null && resource.isActive())
-                    {
-                        ((Transaction) connection).zinterstore(destStore, keySets.toArray(new String[] {}));
+            List<byte[]> columns = queryParameter.getColumns();
+            String rangeColumn = queryParameter.isByRange() ? queryParameter.getMin().keySet().iterator().next()
+                    : null;
+            if (columns != null && rangeColumn != null)
+            {
+                // range column is required to filter on exact value.
+                columns.add(getEncodedBytes(rangeColumn));
+            }
 
-                    }
-                    else
-                    {
-                        ((Jedis) connection).zinterstore(destStore, keySets.toArray(new String[] {}));
-                    }
-                }
-                else
-                {
-                    if (resource != null && resource.isActive())
-                    {
-                        ((Transaction) connection).zunionstore(destStore, keySets.toArray(new String[] {}));
-                    }
-                    else
-                    {
-                        ((Jedis) connection).zunionstore(destStore, keySets.toArray(new String[] {}));
-                    }
+            // fetch all matching records in one go.
+            results = fetch(entityClazz, rowKeys, connection, columns != null ? columns.toArray(new byte[][] {})
+                    : null);
 
-                }
+            if (rangeColumn != null)
+            {
+                results = filterByRange(queryParameter, entityMetadata, rangeColumn, results);
+            }
+
+        }
+        catch (InstantiationException e)
+        {
+            logger.error("Error during persist, Caused by:", e);
+            throw new PersistenceException(e);
+        }
+        catch (IllegalAccessException e)
+        {
+            logger.error("Error during persist, Caused by:", e);
+            throw new PersistenceException(e);
+        }
+        finally
+        {
+            onCleanup(connection);
+
+        }
+
+        return results;
+    }
+
+    /**
+     * Filters records fetched for score range on exact value of range column.
+     * 
+     * @param queryParameter
+     *            query interpreter.
+     * @param entityMetadata
+     *            entity metadata.
+     * @param rangeColumn
+     *            range column name.
+     * @param results
+     *            fetched records.
+     * @return records in range.
+     */
+    private List<Object> filterByRange(RedisQueryInterpreter queryParameter, EntityMetadata entityMetadata,
+            String rangeColumn, List<Object> results)
+    {
+        String fieldName = entityMetadata.getFieldName(rangeColumn);
+        if (fieldName == null)
+        {
+            return results;
+        }
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+        Field field = (Field) metaModel.entity(entityMetadata.getEntityClazz()).getAttribute(fieldName)
+                .getJavaMember();
+
+        List<Object> filtered = new ArrayList<Object>(results.size());
+        for (Object result : results)
+        {
+            Object entity = result instanceof EnhanceEntity ? ((EnhanceEntity) result).getEntity() : result;
+            if (queryParameter.isInRange(PropertyAccessorHelper.getObject(entity, field)))
+            {
+                filtered.add(result);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Returns row keys matching query, using inverted indexes.
+     * 
+     * @param queryParameter
+     *            query interpreter.
+     * @param entityMetadata
+     *            entity metadata.
+     * @param connection
+     *            redis connection instance.
+     * @return row keys, or null in case of query over row key.
+     */
+    private Set<String> getRowKeys(RedisQueryInterpreter queryParameter, EntityMetadata entityMetadata,
+            Object connection)
+    {
+        Set<String> rowKeys = new HashSet<String>();
+        Class entityClazz = entityMetadata.getEntityClazz();
+        if (queryParameter.getClause() != null && !queryParameter.isByRange())
+        {
+            String destStore = entityClazz.getSimpleName() + System.currentTimeMillis();
+
+            Map<String, Object> fieldSets = queryParameter.getFields();
+
+            Set<String> keySets = new HashSet<String>(fieldSets.size());
+            // byte[][] keys = new byte[][fieldSets.size()];
+            for (String column : fieldSets.keySet())
+            {
+                String valueAsStr = PropertyAccessorHelper.getString(fieldSets.get(column));
+                String key = getHashKey(entityMetadata.getTableName(), getHashKey(column, valueAsStr));
+                keySets.add(key);
+            }
 
+            if (queryParameter.getClause().equals(Clause.INTERSECT))
+            {
                 if (resource != null && resource.isActive())
                 {
-                    Response response = ((Transaction) connection).zrange(destStore, 0, -1);
-                    ((Transaction) connection).exec();
-
-                    rowKeys = (Set<String>) response.get();
-                    //
-                    // ((Transaction) connection).del(destStore);
+                    ((Transaction) connection).zinterstore(destStore, keySets.toArray(new String[] {}));
 
                 }
                 else
                 {
-
-                    rowKeys = ((Jedis) connection).zrange(destStore, 0, -1);
-                    ((Jedis) connection).del(destStore);
+                    ((Jedis) connection).zinterstore(destStore, keySets.toArray(new String[] {}));
                 }
-
-                // delete intermediate store after find.
-                //
-                // means it is a query over sorted set.
             }
-            else if (queryParameter.isByRange())
+            else
             {
-                // means query over a single sorted set with range
-                Map<String, Double> minimum = queryParameter.getMin();
-                Map<String, Double> maximum = queryParameter.getMax();
-
-                String column = minimum.keySet().iterator().next();
-
                 if (resource != null && resource.isActive())
                 {
-                    Response response = ((Transaction) connection)
-                            .zrangeByScore(getHashKey(entityMetadata.getTableName(), column), minimum.get(column),
-                                    maximum.get(column));
-                    ((Transaction) connection).exec();
-
-                    rowKeys = (Set<String>) response.get();
-
+                    ((Transaction) connection).zunionstore(destStore, keySets.toArray(new String[] {}));
                 }
                 else
                 {
-                    rowKeys = ((Jedis) connection).zrangeByScore(getHashKey(entityMetadata.getTableName(), column),
-                            minimum.get(column), maximum.get(column));
-
+                    ((Jedis) connection).zunionstore(destStore, keySets.toArray(new String[] {}));
                 }
 
             }
-            else if (queryParameter.isById())
+
+            if (resource != null && resource.isActive())
             {
-                Map<String, Object> fieldSets = queryParameter.getFields();
+                Response response = ((Transaction) connection).zrange(destStore, 0, -1);
+                ((Transaction) connection).exec();
+
+                rowKeys = (Set<String>) response.get();
+                //
+                // ((Transaction) connection).del(destStore);
 
-                results = findAllColumns(entityClazz, (byte[][]) (queryParameter.getColumns() != null ? queryParameter
-                        .getColumns().toArray() : null), fieldSets.values().toArray());
-                return results;
             }
-            else if (queryParameter.getFields() != null)
+            else
             {
-                Set<String> columns = queryParameter.getFields().keySet();
 
-                for (String column : columns)
-                {
-                    // ideally it will always be 1 value in map, else it will go
-                    // it queryParameter.getClause() will not be null!
-                    Double value = getDouble(PropertyAccessorHelper.getString(queryParameter.getFields().get(column)));
-                    if (resource != null && resource.isActive())
-                    {
-                        Response response = ((Transaction) connection).zrangeByScore(
-                                getHashKey(entityMetadata.getTableName(), column), value, value);
-                        ((Transaction) connection).exec();
+                rowKeys = ((Jedis) connection).zrange(destStore, 0, -1);
+                ((Jedis) connection).del(destStore);
+            }
 
-                        rowKeys = (Set<String>) response.get();
+            // delete intermediate store after find.
+            //
+            // means it is a query over sorted set.
+        }
+        else if (queryParameter.isByRange())
+        {
+            // means query over a single sorted set with range
+            Map<String, Double> minimum = queryParameter.getMin();
+            Map<String, Double> maximum = queryParameter.getMax();
 
-                    }
-                    else
-                    {
-                        rowKeys = ((Jedis) connection).zrangeByScore(getHashKey(entityMetadata.getTableName(), column),
-                                value, value);
+            String column = minimum.keySet().iterator().next();
 
-                    }
-                }
+            if (resource != null && resource.isActive())
+            {
+                Response response = ((Transaction) connection)
+                        .zrangeByScore(getHashKey(entityMetadata.getTableName(), column), minimum.get(column),
+                                maximum.get(column));
+                ((Transaction) connection).exec();
+
+                rowKeys = (Set<String>) response.get();
 
             }
             else
             {
+                rowKeys = ((Jedis) connection).zrangeByScore(getHashKey(entityMetadata.getTableName(), column),
+                        minimum.get(column), maximum.get(column));
+
+            }
+
+        }
+        else if (queryParameter.isById())
+        {
+            return null;
+        }
+        else if (queryParameter.getFields() != null)
+        {
+            Set<String> columns = queryParameter.getFields().keySet();
+
+            for (String column : columns)
+            {
+                // ideally it will always be 1 value in map, else it will go
+                // it queryParameter.getClause() will not be null!
+                // exact match over {tablename:columnname:value} index.
+                String valueAsStr = PropertyAccessorHelper.getString(queryParameter.getFields().get(column));
+                String indexKey = getHashKey(entityMetadata.getTableName(), getHashKey(column, valueAsStr));
                 if (resource != null && resource.isActive())
                 {
-                    Response response = ((Transaction) connection).zrange(
-                            getHashKey(entityMetadata.getTableName(),
-                                    ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()), 0, -1);
+                    Response response = ((Transaction) connection).zrange(indexKey, 0, -1);
                     ((Transaction) connection).exec();
 
-                    rowKeys = new HashSet<String>((Collection<? extends String>) response.get());
+                    rowKeys = (Set<String>) response.get();
+
                 }
                 else
                 {
-                    rowKeys = new HashSet<String>(((Jedis) connection).zrange(
-                            getHashKey(entityMetadata.getTableName(),
-                                    ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()), 0, -1));
+                    rowKeys = ((Jedis) connection).zrange(indexKey, 0, -1);
                 }
             }
 
-            // fetch fr
-            for (String k : rowKeys)
+        }
+        else
+        {
+            if (resource != null && resource.isActive())
+            {
+                Response response = ((Transaction) connection).zrange(
+                        getHashKey(entityMetadata.getTableName(),
+                                ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()), 0, -1);
+                ((Transaction) connection).exec();
+
+                rowKeys = new HashSet<String>((Collection<? extends String>) response.get());
+            }
+            else
             {
+                rowKeys = new HashSet<String>(((Jedis) connection).zrange(
+                        getHashKey(entityMetadata.getTableName(),
+                                ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()), 0, -1));
+            }
+        }
+
+        return rowKeys;
+    }
+
+    /**
+     * Sets given column values on all records matching query, without
+     * loading them as entities. Old values are fetched and new values are
+     * written via pipelines, so inverted indexes are kept in sync with a
+     * fixed number of round trips.
+     * 
+     * @param queryParameter
+     *            query interpreter.
+     * @param entityMetadata
+     *            entity metadata.
+     * @param values
+     *            values keyed by attribute.
+     * @return number of updated records, or {@link Constants#INVALID} if it
+     *         can not be executed in bulk.
+     */
+    int updateByQuery(RedisQueryInterpreter queryParameter, EntityMetadata entityMetadata,
+            Map<Attribute, Object> values)
+    {
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+
+        if ((resource != null && resource.isActive())
+                || metaModel.isEmbeddable(entityMetadata.getIdAttribute().getBindableJavaType()))
+        {
+            return Constants.INVALID;
+        }
 
-                Object record = fetch(entityClazz, k, connection, (queryParameter.getColumns() != null ? queryParameter
-                        .getColumns().toArray(new byte[][] {}) : null));
-                if (record != null)
+        Object connection = null;
+        try
+        {
+            connection = getConnection();
+            Set<String> rowKeys = getRowKeys(queryParameter, entityMetadata, connection);
+            if (rowKeys == null)
+            {
+                rowKeys = new HashSet<String>();
+                ObjectAccessor accessor = new ObjectAccessor();
+                for (Object key : queryParameter.getFields().values())
                 {
-                    results.add(record);
+                    rowKeys.add(accessor.toString(key));
                 }
             }
+            else if (queryParameter.isByRange())
+            {
+                // score range is a superset, filter on exact value same as a
+                // select does.
+                rowKeys = getRowKeysInRange(queryParameter, entityMetadata, connection, rowKeys);
+            }
+
+            List<Attribute> attributes = new ArrayList<Attribute>(values.keySet());
+            byte[][] names = new byte[attributes.size()][];
+            for (int i = 0; i < names.length; i++)
+            {
+                names[i] = getEncodedBytes(((AbstractAttribute) attributes.get(i)).getJPAColumnName());
+            }
+
+            // Fetch existence and old values, required to re-point inverted
+            // indexes.
+            Pipeline pipeLine = ((Jedis) connection).pipelined();
+            List<String> hashKeys = new ArrayList<String>(rowKeys.size());
+            List<Response<Boolean>> exists = new ArrayList<Response<Boolean>>(rowKeys.size());
+            for (String rowKey : rowKeys)
+            {
+                String hashKey = getHashKey(entityMetadata.getTableName(), rowKey);
+                hashKeys.add(hashKey);
+                exists.add(pipeLine.exists(getEncodedBytes(hashKey)));
+            }
+            pipeLine.sync();
+            List<Map<byte[], byte[]>> oldValues = getColumns(connection, hashKeys, names);
+
+            int count = 0;
+            int index = 0;
+            pipeLine = ((Jedis) connection).pipelined();
+            for (String rowKey : rowKeys)
+            {
+                String hashKey = hashKeys.get(index);
+                Map<byte[], byte[]> old = oldValues.get(index);
+                if (!Boolean.TRUE.equals(exists.get(index++).get()))
+                {
+                    continue;
+                }
+
+                for (int i = 0; i < names.length; i++)
+                {
+                    Attribute attribute = attributes.get(i);
+                    String columnName = ((AbstractAttribute) attribute).getJPAColumnName();
+                    Class javaType = ((AbstractAttribute) attribute).getBindableJavaType();
+
+                    if (old.get(names[i]) != null)
+                    {
+                        String oldValueAsStr = PropertyAccessorHelper.getString(PropertyAccessorHelper.getObject(
+                                javaType, old.get(names[i])));
+                        pipeLine.zrem(getHashKey(entityMetadata.getTableName(), columnName), rowKey);
+                        pipeLine.zrem(
+                                getHashKey(entityMetadata.getTableName(), getHashKey(columnName, oldValueAsStr)),
+                                rowKey);
+                    }
 
+                    Object value = values.get(attribute);
+                    if (value != null)
+                    {
+                        String valueAsStr = PropertyAccessorHelper.getString(value);
+                        pipeLine.hset(getEncodedBytes(hashKey), names[i], PropertyAccessorHelper.getBytes(value));
+                        double score = RedisIndexScore.getScore(value);
+                        pipeLine.zadd(getHashKey(entityMetadata.getTableName(), columnName), score, rowKey);
+                        pipeLine.zadd(getHashKey(entityMetadata.getTableName(), getHashKey(columnName, valueAsStr)),
+                                score, rowKey);
+                    }
+                    else
+                    {
+                        pipeLine.hdel(getEncodedBytes(hashKey), names[i]);
+                    }
+                }
+                count++;
+            }
+            pipeLine.sync();
+            return count;
         }
         catch (InstantiationException e)
         {
-            logger.error("Error during persist, Caused by:", e);
+            logger.error("Error during update, Caused by:", e);
             throw new PersistenceException(e);
         }
         catch (IllegalAccessException e)
         {
-            logger.error("Error during persist, Caused by:", e);
+            logger.error("Error during update, Caused by:", e);
             throw new PersistenceException(e);
         }
         finally
         {
             onCleanup(connection);
-
         }
+    }
 
-        return results;
+    /**
+     * Returns those of given row keys whose value of range column is within
+     * query range, reading range column only.
+     * 
+     * @param queryParameter
+     *            query interpreter.
+     * @param entityMetadata
+     *            entity metadata.
+     * @param connection
+     *            redis connection instance.
+     * @param rowKeys
+     *            row keys within score range.
+     * @return row keys within exact range.
+     * @throws InstantiationException
+     *             throws in case of runtime exception
+     * @throws IllegalAccessException
+     *             throws in case of runtime exception
+     */
+    private Set<String> getRowKeysInRange(RedisQueryInterpreter queryParameter, EntityMetadata entityMetadata,
+            Object connection, Set<String> rowKeys) throws InstantiationException, IllegalAccessException
+    {
+        String rangeColumn = queryParameter.getMin().keySet().iterator().next();
+        List<Object> results = fetch(entityMetadata.getEntityClazz(), rowKeys, connection,
+                new byte[][] { getEncodedBytes(rangeColumn) });
+        results = filterByRange(queryParameter, entityMetadata, rangeColumn, results);
+
+        ObjectAccessor accessor = new ObjectAccessor();
+        Set<String> inRange = new HashSet<String>(results.size());
+        for (Object result : results)
+        {
+            Object entity = result instanceof EnhanceEntity ? ((EnhanceEntity) result).getEntity() : result;
+            inRange.add(accessor.toString(PropertyAccessorHelper.getId(entity, entityMetadata)));
+        }
+        return inRange;
     }
 
     private <E> List<E> findAllColumns(Class<E> entityClass, byte[][] columns, Object... keys)
@@ -1579,14 +1940,7 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
         List results = new ArrayList();
         try
         {
-            for (Object key : keys)
-            {
-                Object result = fetch(entityClass, key, connection, columns);
-                if (result != null)
-                {
-                    results.add(result);
-                }
-            }
+            results = fetch(entityClass, Arrays.asList(keys), connection, columns);
         }
         catch (InstantiationException e)
         {
@@ -1707,11 +2061,11 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
             Object connection)
     {
         // first open a pipeline
-        AttributeWrapper wrapper = wrap(entityMetadata, entity);
+        AttributeWrapper wrapper = wrap(entityMetadata, entity, dirtyFields);
 
         // add relations.
 
-        if (rlHolders != null)
+        if (rlHolders != null && dirtyFields == null)
         {
             for (RelationHolder relation : rlHolders)
             {
@@ -1721,13 +2075,13 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
                 byte[] nameInBytes = getEncodedBytes(name);
                 String valueAsStr = PropertyAccessorHelper.getString(value);
                 wrapper.addColumn(nameInBytes, valueInBytes);
-                wrapper.addIndex(getHashKey(entityMetadata.getTableName(), name), getDouble(valueAsStr));
+                wrapper.addIndex(getHashKey(entityMetadata.getTableName(), name), RedisIndexScore.getScore(value));
 
                 // this index is required to work for UNION/INTERSECT
                 // support.
 
                 wrapper.addIndex(getHashKey(entityMetadata.getTableName(), getHashKey(name, valueAsStr)),
-                        getDouble(valueAsStr));
+                        RedisIndexScore.getScore(value));
             }
         }
 
@@ -1737,20 +2091,42 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
                 entityMetadata.getPersistenceUnit());
 
         String rowKey = null;
+        double rowKeyScore;
         if (metaModel.isEmbeddable(entityMetadata.getIdAttribute().getBindableJavaType()))
         {
             rowKey = KunderaCoreUtils.prepareCompositeKey(entityMetadata, metaModel, id);
+            rowKeyScore = RedisIndexScore.getScore(rowKey);
         }
         else
         {
             ObjectAccessor accessor = new ObjectAccessor();
             rowKey = accessor.toString(id);
+            rowKeyScore = RedisIndexScore.getScore(id);
             // rowKey = /*PropertyAccessorHelper.getString(entity, (Field)
             // entityMetadata.getIdAttribute().getJavaMember())*/ ;
         }
 
         String hashKey = getHashKey(entityMetadata.getTableName(), rowKey);
 
+        if (dirtyFields != null)
+        {
+            // managed row already exists along with its row key indexes, write
+            // only changed fields.
+            if (!wrapper.getColumns().isEmpty())
+            {
+                if (resource != null && resource.isActive())
+                {
+                    ((Transaction) connection).hmset(getEncodedBytes(hashKey), wrapper.getColumns());
+                }
+                else
+                {
+                    ((Pipeline) connection).hmset(getEncodedBytes(hashKey), wrapper.getColumns());
+                }
+                addIndex(connection, wrapper, rowKey);
+            }
+            return;
+        }
+
         // Add row key to list(Required for wild search over table).
 
         if (resource != null && resource.isActive())
@@ -1760,7 +2136,7 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
             ((Transaction) connection).zadd(
                     getHashKey(entityMetadata.getTableName(),
                             ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()),
-                    getDouble(rowKey), rowKey);
+                    rowKeyScore, rowKey);
 
             // Add row-key as inverted index as well needed for multiple clause
             // search with key and non row key.
@@ -1769,7 +2145,7 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
                     .zadd(getHashKey(
                             entityMetadata.getTableName(),
                             getHashKey(((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName(), rowKey)),
-                            getDouble(rowKey), rowKey);
+                            rowKeyScore, rowKey);
         }
         else
         {
@@ -1778,7 +2154,7 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
             ((Pipeline) connection).zadd(
                     getHashKey(entityMetadata.getTableName(),
                             ((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName()),
-                    getDouble(rowKey), rowKey);
+                    rowKeyScore, rowKey);
 
             // Add row-key as inverted index as well needed for multiple clause
             // search with key and non row key.
@@ -1787,7 +2163,7 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
                     .zadd(getHashKey(
                             entityMetadata.getTableName(),
                             getHashKey(((AbstractAttribute) entityMetadata.getIdAttribute()).getJPAColumnName(), rowKey)),
-                            getDouble(rowKey), rowKey);
+                            rowKeyScore, rowKey);
         }
 
         // Add inverted indexes for column based search.
@@ -1860,14 +2236,8 @@ public class RedisClient extends ClientBase implements Client<RedisQuery>, Batch
     {
         Jedis jedis = factory.getConnection();
 
+        // each increment reserves next block of allocation size ids.
         Long latestCount = jedis.incr(getEncodedBytes(discriptor.getSequenceName()));
-        if (latestCount == 1)
-        {
-            return discriptor.getInitialValue();
-        }
-        else
-        {
-            return (latestCount - 1) * discriptor.getAllocationSize();
-        }
+        return discriptor.getInitialValue() + (latestCount - 1) * Math.max(discriptor.getAllocationSize(), 1);
     }
 }
\ No newline at end of file
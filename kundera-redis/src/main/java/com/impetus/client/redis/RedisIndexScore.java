@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.redis;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Calendar;
+import java.util.Date;
+
+import javax.persistence.PersistenceException;
+
+import com.impetus.kundera.Constants;
+import com.impetus.kundera.property.PropertyAccessorHelper;
+
+/**
+ * Order preserving sorted set scores for inverted indexes. Numbers, dates,
+ * booleans and characters are scored by their natural order. Strings and any
+ * other value are scored by their first {@link #PREFIX_LENGTH} UTF-8 bytes, so
+ * a score range over them is a superset and has to be filtered on exact value.
+ *
+ *
+ */
+final class RedisIndexScore
+{
+    /** Number of leading bytes scored, these fit exactly in a double. */
+    static final int PREFIX_LENGTH = 6;
+
+    private RedisIndexScore()
+    {
+    }
+
+    /**
+     * Returns order preserving score for given value.
+     *
+     * @param value
+     *            field value.
+     * @return score.
+     */
+    static double getScore(Object value)
+    {
+        if (value == null)
+        {
+            return 0D;
+        }
+        else if (value instanceof Number)
+        {
+            return ((Number) value).doubleValue();
+        }
+        else if (value instanceof Date)
+        {
+            return ((Date) value).getTime();
+        }
+        else if (value instanceof Calendar)
+        {
+            return ((Calendar) value).getTimeInMillis();
+        }
+        else if (value instanceof Boolean)
+        {
+            return ((Boolean) value).booleanValue() ? 1D : 0D;
+        }
+        else if (value instanceof Character)
+        {
+            return ((Character) value).charValue();
+        }
+
+        return getPrefixScore(PropertyAccessorHelper.getString(value), false);
+    }
+
+    /**
+     * Returns score of first {@link #PREFIX_LENGTH} bytes of given string.
+     *
+     * @param value
+     *            string value.
+     * @param upper
+     *            if true, missing bytes are scored as highest possible byte
+     *            (upper bound of all strings starting with value), else as
+     *            lowest.
+     * @return score.
+     */
+    static double getPrefixScore(String value, boolean upper)
+    {
+        byte[] bytes;
+        try
+        {
+            bytes = value.getBytes(Constants.CHARSET_UTF8);
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            throw new PersistenceException(e);
+        }
+
+        long score = 0;
+        for (int i = 0; i < PREFIX_LENGTH; i++)
+        {
+            score = (score << 8) | (i < bytes.length ? bytes[i] & 0xff : (upper ? 0xff : 0));
+        }
+        return score;
+    }
+}
@@ -18,17 +18,23 @@ package com.impetus.client.redis;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 
 import javax.persistence.Query;
+import javax.persistence.metamodel.Attribute;
 
 import com.impetus.client.redis.RedisQueryInterpreter.Clause;
+import com.impetus.kundera.Constants;
 import com.impetus.kundera.client.Client;
 import com.impetus.kundera.client.EnhanceEntity;
 import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.metadata.model.KunderaMetadata;
+import com.impetus.kundera.metadata.model.MetamodelImpl;
 import com.impetus.kundera.metadata.model.attributes.AbstractAttribute;
 import com.impetus.kundera.persistence.EntityReader;
 import com.impetus.kundera.persistence.PersistenceDelegator;
+import com.impetus.kundera.property.PropertyAccessorHelper;
 import com.impetus.kundera.query.KunderaQuery;
 import com.impetus.kundera.query.KunderaQuery.FilterClause;
 import com.impetus.kundera.query.QueryHandlerException;
@@ -120,13 +126,40 @@ public class RedisQuery extends QueryImpl
     {
         if (kunderaQuery.isDeleteUpdate())
         {
-            List result = getResultList();
-            return result != null ? result.size() : 0;
+            return onBulkDeleteOrUpdate();
         }
 
         return 0;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * com.impetus.kundera.query.QueryImpl#executeBulkDeleteOrUpdate(com.impetus
+     * .kundera.metadata.model.EntityMetadata,
+     * com.impetus.kundera.client.Client)
+     */
+    @Override
+    protected int executeBulkDeleteOrUpdate(EntityMetadata m, Client client)
+    {
+        // Delete requires complete record to clean up inverted indexes, so
+        // only update is executed in bulk.
+        if (!kunderaQuery.isUpdateClause())
+        {
+            return Constants.INVALID;
+        }
+
+        Map<Attribute, Object> values = getUpdateValues(m);
+        if (values == null)
+        {
+            return Constants.INVALID;
+        }
+
+        RedisQueryInterpreter interpreter = onTranslation(getKunderaQuery().getFilterClauseQueue(), m);
+        return ((RedisClient) client).updateByQuery(interpreter, m, values);
+    }
+
     private RedisQueryInterpreter onTranslation(Queue clauseQueue, EntityMetadata entityMetadata)
     {
         RedisQueryInterpreter interpreter = new RedisQueryInterpreter(getColumns(getKunderaQuery().getResult(),
@@ -156,37 +189,25 @@ public class RedisQuery extends QueryImpl
                     interpreter.setFieldName(columnName);
                     interpreter.setValue(value);
                 }
-                // TODO:: this is not possible. REDIS does not provide a way for
-                // this even for numeric values, reason: it includes boundary
-                // values by default.
-                /*
-                 * else if (condition.equals(">")) {
-                 * interpreter.setMin(columnName,value); // these can only work
-                 * for // numeric values.
-                 * 
-                 * } else if (condition.equals("<")) {
-                 * interpreter.setMax(columnName,value); // these can only work
-                 * for // numeric values.
-                 * 
-                 * }
-                 */else if (condition.equals(">="))
+                // Sorted set ranges include boundary values, exclusive bounds
+                // are applied on fetched records.
+                else if (condition.equals(">=") || condition.equals(">"))
                 {
                     validateClause(interpreter, condition, columnName);
-                    interpreter.setMin(columnName, value);
-                    if (interpreter.getMax() == null)
-                    {
-                        interpreter.setMax(columnName, -1D);
-                    }
-                    // interp
+                    interpreter.setMin(columnName, getFieldValue(entityMetadata, columnName, value),
+                            condition.equals(">="));
                 }
-                else if (condition.equals("<="))
+                else if (condition.equals("<=") || condition.equals("<"))
                 {
                     validateClause(interpreter, condition, columnName);
-                    interpreter.setMax(columnName, value);
-                    if (interpreter.getMin() == null)
-                    {
-                        interpreter.setMin(columnName, 0D);
-                    }
+                    interpreter.setMax(columnName, getFieldValue(entityMetadata, columnName, value),
+                            condition.equals("<="));
+                }
+                else if (condition.equalsIgnoreCase("LIKE") && isPrefixPattern(value))
+                {
+                    validateClause(interpreter, condition, columnName);
+                    String pattern = value.toString();
+                    interpreter.setPrefix(columnName, pattern.substring(0, pattern.length() - 1));
                 }
                 else if (interpreter.getClause() != null)
                 {
@@ -235,6 +256,35 @@ public class RedisQuery extends QueryImpl
         return interpreter;
     }
 
+    /**
+     * Returns value converted to java type of given column, so that it is
+     * scored and compared the same way as stored values.
+     */
+    private Object getFieldValue(EntityMetadata entityMetadata, String columnName, Object value)
+    {
+        String fieldName = entityMetadata.getFieldName(columnName);
+        if (value == null || fieldName == null)
+        {
+            return value;
+        }
+
+        MetamodelImpl metaModel = (MetamodelImpl) KunderaMetadata.INSTANCE.getApplicationMetadata().getMetamodel(
+                entityMetadata.getPersistenceUnit());
+        Class javaType = ((AbstractAttribute) metaModel.entity(entityMetadata.getEntityClazz()).getAttribute(
+                fieldName)).getBindableJavaType();
+        return PropertyAccessorHelper.fromSourceToTargetClass(javaType, value.getClass(), value);
+    }
+
+    /**
+     * Returns true if LIKE pattern is a plain prefix, e.g. 'abc%'.
+     */
+    private boolean isPrefixPattern(Object value)
+    {
+        String pattern = value != null ? value.toString() : null;
+        return pattern != null && pattern.length() > 1 && pattern.indexOf('%') == pattern.length() - 1
+                && pattern.indexOf('_') < 0;
+    }
+
     private void validateClause(RedisQueryInterpreter interpreter, String condition, String columnName)
     {
         if (interpreter.getClause() != null)
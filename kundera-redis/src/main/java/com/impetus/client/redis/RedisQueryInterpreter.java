@@ -20,8 +20,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang.StringUtils;
-
 import com.impetus.kundera.property.PropertyAccessorHelper;
 
 /**
@@ -40,6 +38,16 @@ class RedisQueryInterpreter
 
     private Map<String, Double> max;
 
+    private Object minValue;
+
+    private boolean minInclusive = true;
+
+    private Object maxValue;
+
+    private boolean maxInclusive = true;
+
+    private String prefix;
+
     private Clause clause;
 
     private Object value;
@@ -119,13 +127,17 @@ class RedisQueryInterpreter
         return min;
     }
 
-    void setMin(String field, Object fieldValue)
+    void setMin(String field, Object fieldValue, boolean inclusive)
     {
         this.min = new HashMap<String, Double>(1);
-        this.min.put(
-                field,
-                !StringUtils.isNumeric(fieldValue.toString()) ? Double.valueOf(PropertyAccessorHelper.getString(
-                        fieldValue).hashCode()) : Double.valueOf(fieldValue.toString()));
+        this.min.put(field, RedisIndexScore.getScore(fieldValue));
+        this.minValue = fieldValue;
+        this.minInclusive = inclusive;
+        if (max == null)
+        {
+            this.max = new HashMap<String, Double>(1);
+            this.max.put(field, Double.MAX_VALUE);
+        }
     }
 
     Map<String, Double> getMax()
@@ -133,13 +145,84 @@ class RedisQueryInterpreter
         return max;
     }
 
-    void setMax(String field, Object fieldValue)
+    void setMax(String field, Object fieldValue, boolean inclusive)
     {
         this.max = new HashMap<String, Double>(1);
-        this.max.put(
-                field,
-                !StringUtils.isNumeric(fieldValue.toString()) ? Double.valueOf(PropertyAccessorHelper.getString(
-                        fieldValue).hashCode()) : Double.valueOf(fieldValue.toString()));
+        this.max.put(field, RedisIndexScore.getScore(fieldValue));
+        this.maxValue = fieldValue;
+        this.maxInclusive = inclusive;
+        if (min == null)
+        {
+            this.min = new HashMap<String, Double>(1);
+            this.min.put(field, -Double.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Sets range for values starting with given prefix(e.g. LIKE 'abc%').
+     * 
+     * @param field
+     *            field name.
+     * @param prefix
+     *            prefix.
+     */
+    void setPrefix(String field, String prefix)
+    {
+        this.min = new HashMap<String, Double>(1);
+        this.min.put(field, RedisIndexScore.getPrefixScore(prefix, false));
+        this.max = new HashMap<String, Double>(1);
+        this.max.put(field, RedisIndexScore.getPrefixScore(prefix, true));
+        this.prefix = prefix;
+    }
+
+    /**
+     * Returns true if given value falls in range. Score range fetched from
+     * sorted set is inclusive and, for strings, only as precise as
+     * {@link RedisIndexScore#PREFIX_LENGTH}, so results are filtered with it.
+     * 
+     * @param value
+     *            field value.
+     * @return true, if value is in range.
+     */
+    boolean isInRange(Object value)
+    {
+        if (value == null)
+        {
+            return false;
+        }
+
+        if (prefix != null && !PropertyAccessorHelper.getString(value).startsWith(prefix))
+        {
+            return false;
+        }
+
+        if (minValue != null)
+        {
+            int result = compare(value, minValue);
+            if (result < 0 || (result == 0 && !minInclusive))
+            {
+                return false;
+            }
+        }
+
+        if (maxValue != null)
+        {
+            int result = compare(value, maxValue);
+            if (result > 0 || (result == 0 && !maxInclusive))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int compare(Object value, Object bound)
+    {
+        if (value instanceof Comparable && value.getClass().equals(bound.getClass()))
+        {
+            return ((Comparable) value).compareTo(bound);
+        }
+        return Double.compare(RedisIndexScore.getScore(value), RedisIndexScore.getScore(bound));
     }
 
     String getFieldName()
@@ -151,6 +151,42 @@ public class RedisClientTest
 
     }
 
+    @Test
+    public void testFindAll()
+    {
+        EntityManager em = emf.createEntityManager();
+        Map<String, Client> clients = (Map<String, Client>) em.getDelegate();
+        RedisClient client = (RedisClient) clients.get(REDIS_PU);
+
+        for (int i = 1; i <= 3; i++)
+        {
+            PersonRedis object = new PersonRedis();
+            object.setAge(30 + i);
+            object.setPersonId("m" + i);
+            object.setPersonName("vivek" + i);
+            Node node = new Node("node" + i, PersonRedis.class, new TransientState(), null, object.getPersonId());
+            node.setData(object);
+            client.persist(node);
+        }
+
+        // all rows are read in one round trip, missing rows are skipped and
+        // order of keys is kept.
+        List<PersonRedis> results = client.findAll(PersonRedis.class, null, "m1", "missing", "m3", "m2");
+        Assert.assertNotNull(results);
+        Assert.assertEquals(3, results.size());
+        Assert.assertEquals("m1", results.get(0).getPersonId());
+        Assert.assertEquals("m3", results.get(1).getPersonId());
+        Assert.assertEquals("m2", results.get(2).getPersonId());
+        Assert.assertEquals("vivek3", results.get(1).getPersonName());
+        Assert.assertEquals(new Integer(32), results.get(2).getAge());
+
+        // only missing keys.
+        results = client.findAll(PersonRedis.class, null, "missing1", "missing2");
+        Assert.assertTrue(results == null || results.isEmpty());
+
+        em.close();
+    }
+
     @Test
     public void testPersistJoinTableData()
     {
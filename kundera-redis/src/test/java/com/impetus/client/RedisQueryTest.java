@@ -251,6 +251,45 @@ public class RedisQueryTest
         Assert.assertTrue(results.isEmpty());
     }
 
+    @Test
+    public void testUpdateByRange()
+    {
+        EntityManager em = emf.createEntityManager();
+
+        String[] names = new String[] { "vivek", "vikas", "amit" };
+        for (int i = 0; i < names.length; i++)
+        {
+            PersonRedis object = new PersonRedis();
+            object.setAge(20 + i * 10);
+            object.setPersonId("r" + i);
+            object.setPersonName(names[i]);
+            em.persist(object);
+        }
+        em.clear();
+
+        // exclusive bound, age 20 is in score range but not in query range.
+        Query query = em.createQuery("Update PersonRedis p set p.personName=:personName where p.age > 20");
+        query.setParameter("personName", "updated");
+        Assert.assertEquals(2, query.executeUpdate());
+        em.clear();
+
+        Assert.assertEquals("vivek", em.find(PersonRedis.class, "r0").getPersonName());
+        Assert.assertEquals("updated", em.find(PersonRedis.class, "r1").getPersonName());
+        Assert.assertEquals("updated", em.find(PersonRedis.class, "r2").getPersonName());
+
+        // prefix match.
+        query = em.createQuery("Update PersonRedis p set p.age=:age where p.personName LIKE 'viv%'");
+        query.setParameter("age", 50);
+        Assert.assertEquals(1, query.executeUpdate());
+        em.clear();
+
+        Assert.assertEquals(new Integer(50), em.find(PersonRedis.class, "r0").getAge());
+        Assert.assertEquals(new Integer(30), em.find(PersonRedis.class, "r1").getAge());
+        Assert.assertEquals(new Integer(40), em.find(PersonRedis.class, "r2").getAge());
+
+        em.close();
+    }
+
     /**
      * @throws java.lang.Exception
      */
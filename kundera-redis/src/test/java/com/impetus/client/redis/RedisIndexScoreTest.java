@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.client.redis;
+
+import java.util.Date;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * Junit for {@link RedisIndexScore} and range filtering in
+ * {@link RedisQueryInterpreter}.
+ *
+ *
+ */
+public class RedisIndexScoreTest
+{
+
+    @Test
+    public void testScoreOrder()
+    {
+        Assert.assertTrue(RedisIndexScore.getScore(-5) < RedisIndexScore.getScore(3));
+        Assert.assertTrue(RedisIndexScore.getScore(1.5d) < RedisIndexScore.getScore(2L));
+        Assert.assertTrue(RedisIndexScore.getScore(new Date(1000L)) < RedisIndexScore.getScore(new Date(2000L)));
+        Assert.assertTrue(RedisIndexScore.getScore("apple") < RedisIndexScore.getScore("banana"));
+        Assert.assertTrue(RedisIndexScore.getScore("ab") < RedisIndexScore.getScore("abc"));
+        Assert.assertTrue(RedisIndexScore.getScore("abcdefgh") <= RedisIndexScore.getScore("abcdefgz"));
+
+        // all strings starting with prefix fall within prefix range.
+        double lower = RedisIndexScore.getPrefixScore("ab", false);
+        double upper = RedisIndexScore.getPrefixScore("ab", true);
+        Assert.assertTrue(RedisIndexScore.getScore("ab") >= lower);
+        Assert.assertTrue(RedisIndexScore.getScore("abzzzzzz") <= upper);
+        Assert.assertTrue(RedisIndexScore.getScore("ac") > upper);
+    }
+
+    @Test
+    public void testIsInRange()
+    {
+        RedisQueryInterpreter interpreter = new RedisQueryInterpreter(null);
+        interpreter.setMin("age", 10, false);
+        Assert.assertTrue(interpreter.isByRange());
+        Assert.assertEquals(Double.valueOf(Double.MAX_VALUE), interpreter.getMax().get("age"));
+        Assert.assertFalse(interpreter.isInRange(10));
+        Assert.assertTrue(interpreter.isInRange(11));
+
+        interpreter.setMax("age", 20, true);
+        Assert.assertTrue(interpreter.isInRange(20));
+        Assert.assertFalse(interpreter.isInRange(21));
+        Assert.assertFalse(interpreter.isInRange(null));
+
+        interpreter = new RedisQueryInterpreter(null);
+        interpreter.setPrefix("name", "kun");
+        Assert.assertTrue(interpreter.isInRange("kundera"));
+        Assert.assertFalse(interpreter.isInRange("kafka"));
+    }
+}
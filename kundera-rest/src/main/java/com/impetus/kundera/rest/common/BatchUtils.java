@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.rest.common;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.ws.rs.core.Response.Status;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.impetus.kundera.metadata.KunderaMetadataManager;
+import com.impetus.kundera.metadata.model.EntityMetadata;
+import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.rest.dto.BatchResult;
+
+/**
+ * Runs a batch of CRUD operations over entities of one class. Batch holds one
+ * operation per line:
+ * 
+ * <pre>
+ * insert &lt;entity&gt;
+ * update &lt;entity&gt;
+ * delete &lt;id&gt;
+ * </pre>
+ * 
+ * with entity as single line XML or JSON, as per media type. Operations are
+ * run within one transaction, so that all of them are written by a single
+ * flush on commit, in batch if client is configured with kundera.batch.size.
+ */
+public class BatchUtils
+{
+    private static Logger log = LoggerFactory.getLogger(BatchUtils.class);
+
+    public static final String INSERT = "insert";
+
+    public static final String UPDATE = "update";
+
+    public static final String DELETE = "delete";
+
+    /**
+     * Runs operations read from given stream and returns outcome of each one
+     * of them, in same order. If commit fails, every operation which had
+     * succeeded is reported as failed. As outcome of an operation is known
+     * only once transaction is committed, results are returned (and streamed
+     * back by caller) after commit, not as each operation finishes.
+     * <p>
+     * If caller's transaction is already active, batch runs within it and is
+     * not committed here, so every operation which succeeded is reported as
+     * {@link Status#ACCEPTED}, pending caller's commit.
+     * 
+     * @param em
+     * @param entityClass
+     * @param mediaType
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    public static List<BatchResult> execute(EntityManager em, Class<?> entityClass, String mediaType, InputStream in)
+            throws IOException
+    {
+        EntityMetadata m = KunderaMetadataManager.getEntityMetadata(entityClass);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+
+        // Run within caller's transaction, if there is one.
+        EntityTransaction tx = em.getTransaction();
+        boolean isOwnTransaction = !tx.isActive();
+        if (isOwnTransaction)
+        {
+            tx.begin();
+        }
+
+        List<BatchResult> results = new ArrayList<BatchResult>();
+        for (String line = reader.readLine(); line != null; line = reader.readLine())
+        {
+            line = line.trim();
+            if (!line.isEmpty())
+            {
+                results.add(execute(em, entityClass, m, mediaType, results.size(), line));
+            }
+        }
+
+        if (!isOwnTransaction)
+        {
+            for (BatchResult result : results)
+            {
+                if (result.getStatus() < Status.BAD_REQUEST.getStatusCode())
+                {
+                    result.setStatus(Status.ACCEPTED.getStatusCode());
+                    result.setMessage("Pending commit of caller's transaction");
+                }
+            }
+        }
+        else
+        {
+            try
+            {
+                tx.commit();
+            }
+            catch (RuntimeException e)
+            {
+                log.error("Error while committing batch, Caused by:" + e.getMessage());
+                if (tx.isActive())
+                {
+                    tx.rollback();
+                }
+                for (BatchResult result : results)
+                {
+                    if (result.getStatus() < Status.BAD_REQUEST.getStatusCode())
+                    {
+                        result.setStatus(Status.INTERNAL_SERVER_ERROR.getStatusCode());
+                        result.setMessage("Commit failed: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private static BatchResult execute(EntityManager em, Class<?> entityClass, EntityMetadata m, String mediaType,
+            int index, String line)
+    {
+        int separator = line.indexOf(' ');
+        String operation = (separator > 0 ? line.substring(0, separator) : line).toLowerCase();
+        String payload = separator > 0 ? line.substring(separator + 1).trim() : "";
+
+        BatchResult result = new BatchResult();
+        result.setIndex(index);
+        result.setOperation(operation);
+        try
+        {
+            if (INSERT.equals(operation) || UPDATE.equals(operation))
+            {
+                Object entity = JAXBUtils.toObject(StreamUtils.toInputStream(payload), entityClass, mediaType);
+                if (entity == null)
+                {
+                    return onFailure(result, Status.BAD_REQUEST, "Invalid entity: " + payload);
+                }
+
+                if (INSERT.equals(operation))
+                {
+                    em.persist(entity);
+                    result.setStatus(Status.CREATED.getStatusCode());
+                }
+                else
+                {
+                    entity = em.merge(entity);
+                    result.setStatus(Status.OK.getStatusCode());
+                }
+                Object id = PropertyAccessorHelper.getId(entity, m);
+                result.setId(id != null ? id.toString() : null);
+            }
+            else if (DELETE.equals(operation))
+            {
+                result.setId(payload);
+                Object entity = em.find(entityClass, payload);
+                if (entity == null)
+                {
+                    return onFailure(result, Status.NOT_FOUND, "No entity found for id: " + payload);
+                }
+                em.remove(entity);
+                result.setStatus(Status.OK.getStatusCode());
+            }
+            else
+            {
+                return onFailure(result, Status.BAD_REQUEST, "Unsupported batch operation: " + operation);
+            }
+        }
+        catch (Exception e)
+        {
+            log.error("Error while executing batch operation " + index + ", Caused by:" + e.getMessage());
+            return onFailure(result, Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+        return result;
+    }
+
+    private static BatchResult onFailure(BatchResult result, Status status, String message)
+    {
+        result.setStatus(status.getStatusCode());
+        result.setMessage(message);
+        return result;
+    }
+}
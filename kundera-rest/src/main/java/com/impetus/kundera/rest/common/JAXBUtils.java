@@ -17,6 +17,9 @@ package com.impetus.kundera.rest.common;
 
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.ws.rs.core.MediaType;
 import javax.xml.bind.JAXBContext;
@@ -40,6 +43,12 @@ public class JAXBUtils
 {
     private static Logger log = LoggerFactory.getLogger(JAXBUtils.class);
 
+    /** JAXB contexts per class, contexts are thread safe and costly to build. */
+    private static final ConcurrentMap<Class<?>, JAXBContext> xmlContexts = new ConcurrentHashMap<Class<?>, JAXBContext>();
+
+    /** JSON JAXB contexts per class. */
+    private static final ConcurrentMap<Class<?>, JSONJAXBContext> jsonContexts = new ConcurrentHashMap<Class<?>, JSONJAXBContext>();
+
     /**
      * Converts <code>InputStream</code> to Object using JAXB
      * 
@@ -57,7 +66,7 @@ public class JAXBUtils
 
             if (MediaType.APPLICATION_XML.equals(mediaType))
             {
-                JAXBContext jaxbContext = JAXBContext.newInstance(objectClass);
+                JAXBContext jaxbContext = getXMLContext(objectClass);
 
                 Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
 
@@ -66,7 +75,7 @@ public class JAXBUtils
             else if (MediaType.APPLICATION_JSON.equals(mediaType))
             {
 
-                JSONJAXBContext context = new JSONJAXBContext(JSONConfiguration.mappedJettison().build(), objectClass);
+                JSONJAXBContext context = getJSONContext(objectClass);
                 JSONUnmarshaller jsonUnmarshaller = context.createJSONUnmarshaller();
 
                 output = jsonUnmarshaller.unmarshalFromJSON(is, objectClass);
@@ -97,7 +106,7 @@ public class JAXBUtils
         {
             if (MediaType.APPLICATION_XML.equals(mediaType))
             {
-                JAXBContext jaxbContext = JAXBContext.newInstance(objectClass);
+                JAXBContext jaxbContext = getXMLContext(objectClass);
                 Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
 
                 StringWriter writer = new StringWriter();
@@ -122,4 +131,53 @@ public class JAXBUtils
         }
     }
 
+    /**
+     * Writes object to given writer, as an XML fragment without declaration or
+     * as JSON.
+     * 
+     * @param objectClass
+     * @param object
+     * @param mediaType
+     * @param writer
+     * @throws JAXBException
+     */
+    public static void write(Class<?> objectClass, Object object, String mediaType, Writer writer)
+            throws JAXBException
+    {
+        if (MediaType.APPLICATION_XML.equals(mediaType))
+        {
+            Marshaller jaxbMarshaller = getXMLContext(objectClass).createMarshaller();
+            jaxbMarshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            jaxbMarshaller.marshal(object, writer);
+        }
+        else if (MediaType.APPLICATION_JSON.equals(mediaType))
+        {
+            getJSONContext(objectClass).createJSONMarshaller().marshallToJSON(object, writer);
+        }
+    }
+
+    private static JAXBContext getXMLContext(Class<?> objectClass) throws JAXBException
+    {
+        JAXBContext context = xmlContexts.get(objectClass);
+        if (context == null)
+        {
+            context = JAXBContext.newInstance(objectClass);
+            JAXBContext existing = xmlContexts.putIfAbsent(objectClass, context);
+            context = existing != null ? existing : context;
+        }
+        return context;
+    }
+
+    private static JSONJAXBContext getJSONContext(Class<?> objectClass) throws JAXBException
+    {
+        JSONJAXBContext context = jsonContexts.get(objectClass);
+        if (context == null)
+        {
+            context = new JSONJAXBContext(JSONConfiguration.mappedJettison().build(), objectClass);
+            JSONJAXBContext existing = jsonContexts.putIfAbsent(objectClass, context);
+            context = existing != null ? existing : context;
+        }
+        return context;
+    }
+
 }
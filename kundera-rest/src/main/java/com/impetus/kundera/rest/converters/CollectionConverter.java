@@ -35,6 +35,8 @@ public class CollectionConverter
 {
     private static Logger log = LoggerFactory.getLogger(CollectionConverter.class);
 
+    static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+
     /**
      * Converts a collection of <code>genericClass</code> objects to String
      * representation
@@ -48,8 +50,7 @@ public class CollectionConverter
     {
         if (MediaType.APPLICATION_XML.equals(mediaType))
         {
-            StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
-                    .append("<").append(genericClass.getSimpleName().toLowerCase()).append("s>");
+            StringBuilder sb = new StringBuilder(XML_DECLARATION).append(getCollectionElement(genericClass));
             for (Object obj : input)
             {
                 if (obj != null)
@@ -63,7 +64,7 @@ public class CollectionConverter
                     sb.append(s);
                 }
             }
-            sb.append("<").append(genericClass.getSimpleName().toLowerCase()).append("s>");
+            sb.append(getCollectionEndElement(genericClass));
             return sb.toString();
         }
         else
@@ -72,6 +73,30 @@ public class CollectionConverter
         }
     }
 
+    /**
+     * Returns element opening a collection of <code>genericClass</code>
+     * objects, as expected by {@link #toCollection}.
+     * 
+     * @param genericClass
+     * @return
+     */
+    static String getCollectionElement(Class<?> genericClass)
+    {
+        return "<" + genericClass.getSimpleName().toLowerCase() + "s>";
+    }
+
+    /**
+     * Returns element closing a collection of <code>genericClass</code>
+     * objects.
+     * 
+     * @param genericClass
+     * @return
+     */
+    static String getCollectionEndElement(Class<?> genericClass)
+    {
+        return "</" + genericClass.getSimpleName().toLowerCase() + "s>";
+    }
+
     /**
      * Converts a String representation to collection of
      * <code>genericClass</code> objects
@@ -96,7 +121,9 @@ public class CollectionConverter
                     input = input.substring(input.indexOf(">") + 1, input.length());
                 }
 
-                input = input.replaceAll("<" + genericClass.getSimpleName().toLowerCase() + "s>", "");
+                // collection element, either closed or (as written earlier)
+                // repeated at end.
+                input = input.replaceAll("</?" + genericClass.getSimpleName().toLowerCase() + "s>", "");
 
                 while (!input.equals(""))
                 {
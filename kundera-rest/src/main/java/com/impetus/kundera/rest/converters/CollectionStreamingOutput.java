@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.rest.converters;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Iterator;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.bind.JAXBException;
+
+import com.impetus.kundera.rest.common.JAXBUtils;
+
+/**
+ * Writes a collection of <code>genericClass</code> objects to response one by
+ * one as they are iterated, instead of converting whole collection into a
+ * String first. Output is flushed every {@link #FLUSH_INTERVAL} objects, so
+ * that it goes out with chunked transfer encoding. XML is written the same way
+ * as {@link CollectionConverter#toString}, JSON as an array.
+ */
+public class CollectionStreamingOutput implements StreamingOutput
+{
+    /** Number of objects written between two flushes. */
+    static final int FLUSH_INTERVAL = 100;
+
+    private final Iterator<?> iterator;
+
+    private final Class<?> genericClass;
+
+    private final String mediaType;
+
+    /**
+     * @param iterator
+     *            objects to be written.
+     * @param genericClass
+     *            class of objects.
+     * @param mediaType
+     *            XML or JSON media type.
+     */
+    public CollectionStreamingOutput(Iterator<?> iterator, Class<?> genericClass, String mediaType)
+    {
+        this.iterator = iterator;
+        this.genericClass = genericClass;
+        this.mediaType = mediaType;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException, WebApplicationException
+    {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, "UTF-8"));
+        boolean xml = MediaType.APPLICATION_XML.equals(mediaType);
+
+        writer.write(xml ? CollectionConverter.XML_DECLARATION
+                + CollectionConverter.getCollectionElement(genericClass) : "[");
+        try
+        {
+            int count = 0;
+            while (iterator.hasNext())
+            {
+                Object obj = iterator.next();
+                if (obj != null)
+                {
+                    if (!xml && count > 0)
+                    {
+                        writer.write(",");
+                    }
+                    JAXBUtils.write(genericClass, obj, mediaType, writer);
+                    if (++count % FLUSH_INTERVAL == 0)
+                    {
+                        writer.flush();
+                    }
+                }
+            }
+        }
+        catch (JAXBException e)
+        {
+            throw new WebApplicationException(e);
+        }
+        writer.write(xml ? CollectionConverter.getCollectionEndElement(genericClass) : "]");
+        writer.flush();
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.rest.dto;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Outcome of one operation of a batch request
+ */
+
+@XmlRootElement
+public class BatchResult
+{
+    /** Position of operation within batch, starting at 0. */
+    private int index;
+
+    private String operation;
+
+    /** HTTP status code of operation. */
+    private int status;
+
+    private String id;
+
+    private String message;
+
+    /**
+     * @return the index
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+    /**
+     * @param index
+     *            the index to set
+     */
+    public void setIndex(int index)
+    {
+        this.index = index;
+    }
+
+    /**
+     * @return the operation
+     */
+    public String getOperation()
+    {
+        return operation;
+    }
+
+    /**
+     * @param operation
+     *            the operation to set
+     */
+    public void setOperation(String operation)
+    {
+        this.operation = operation;
+    }
+
+    /**
+     * @return the status
+     */
+    public int getStatus()
+    {
+        return status;
+    }
+
+    /**
+     * @param status
+     *            the status to set
+     */
+    public void setStatus(int status)
+    {
+        this.status = status;
+    }
+
+    /**
+     * @return the id
+     */
+    public String getId()
+    {
+        return id;
+    }
+
+    /**
+     * @param id
+     *            the id to set
+     */
+    public void setId(String id)
+    {
+        this.id = id;
+    }
+
+    /**
+     * @return the message
+     */
+    public String getMessage()
+    {
+        return message;
+    }
+
+    /**
+     * @param message
+     *            the message to set
+     */
+    public void setMessage(String message)
+    {
+        this.message = message;
+    }
+}
@@ -15,8 +15,8 @@
  */
 package com.impetus.kundera.rest.repository;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.persistence.EntityManager;
 
@@ -31,7 +31,8 @@ public class EMRepository
     /** The Constant INSTANCE. */
     public static final EMRepository INSTANCE = new EMRepository();
 
-    private Map<String, EntityManager> emMap;
+    /** Session token to EM, accessed by concurrent requests. */
+    private volatile Map<String, EntityManager> emMap = new ConcurrentHashMap<String, EntityManager>();
 
     /**
      * @return the emMap
@@ -49,7 +50,8 @@ public class EMRepository
      */
     public EntityManager getEM(String sessionToken)
     {
-        if (emMap == null)
+        Map<String, EntityManager> emMap = this.emMap;
+        if (emMap == null || sessionToken == null)
         {
             return null;
         }
@@ -65,7 +67,7 @@ public class EMRepository
      */
     public void setEmMap(Map<String, EntityManager> emMap)
     {
-        this.emMap = emMap;
+        this.emMap = emMap != null ? new ConcurrentHashMap<String, EntityManager>(emMap) : null;
     }
 
     /**
@@ -74,11 +76,11 @@ public class EMRepository
      * @param sessionToken
      * @param em
      */
-    public void addEm(String sessionToken, EntityManager em)
+    public synchronized void addEm(String sessionToken, EntityManager em)
     {
         if (emMap == null)
         {
-            emMap = new HashMap<String, EntityManager>();
+            emMap = new ConcurrentHashMap<String, EntityManager>();
         }
         emMap.put(sessionToken, em);
     }
@@ -90,14 +92,15 @@ public class EMRepository
      */
     public void removeEm(String sessionToken)
     {
-        if (emMap != null)
+        Map<String, EntityManager> emMap = this.emMap;
+        if (emMap != null && sessionToken != null)
         {
-            EntityManager em = emMap.get(sessionToken);
+            // removed first, so that only one request closes it.
+            EntityManager em = emMap.remove(sessionToken);
             if (em != null)
             {
                 em.close();
             }
-            emMap.remove(sessionToken);
         }
     }
 
@@ -17,6 +17,7 @@ package com.impetus.kundera.rest.resources;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.ws.rs.Consumes;
@@ -40,9 +41,12 @@ import org.slf4j.LoggerFactory;
 import com.impetus.kundera.metadata.KunderaMetadataManager;
 import com.impetus.kundera.metadata.model.EntityMetadata;
 import com.impetus.kundera.property.PropertyAccessorHelper;
+import com.impetus.kundera.rest.common.BatchUtils;
 import com.impetus.kundera.rest.common.Constants;
 import com.impetus.kundera.rest.common.EntityUtils;
 import com.impetus.kundera.rest.common.JAXBUtils;
+import com.impetus.kundera.rest.converters.CollectionStreamingOutput;
+import com.impetus.kundera.rest.dto.BatchResult;
 import com.impetus.kundera.rest.repository.EMRepository;
 
 /**
@@ -238,4 +242,48 @@ public class CRUDResource
 
     }
 
+    /**
+     * Handler for POST method requests for batch of operations, Inserts,
+     * updates and deletes entities with a single flush and streams back status
+     * of each operation once batch is committed. See {@link BatchUtils} for
+     * request format.
+     * 
+     * @param sessionToken
+     * @param entityClassName
+     * @param in
+     * @return
+     */
+    @POST
+    @Consumes({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
+    @Path("/batch")
+    public Response batch(@HeaderParam(Constants.SESSION_TOKEN_HEADER_NAME) String sessionToken,
+            @PathParam("entityClass") String entityClassName, @Context HttpHeaders headers, InputStream in)
+    {
+        String mediaType = headers.getRequestHeader("content-type").get(0);
+        List<String> accept = headers.getRequestHeader("accept");
+        String acceptType = accept != null && !accept.isEmpty() ? accept.get(0) : mediaType;
+
+        if (log.isDebugEnabled())
+        {
+            log.debug("POST: SessionToken: " + sessionToken);
+            log.debug("POST: entityClass: " + entityClassName + ", Media Type:" + mediaType);
+        }
+
+        List<BatchResult> results;
+        try
+        {
+            EntityManager em = EMRepository.INSTANCE.getEM(sessionToken);
+            Class<?> entityClass = EntityUtils.getEntityClass(entityClassName, em);
+            results = BatchUtils.execute(em, entityClass, mediaType, in);
+        }
+        catch (Exception e)
+        {
+            log.error(e.getMessage());
+            return Response.serverError().build();
+        }
+
+        return Response.ok(new CollectionStreamingOutput(results.iterator(), BatchResult.class, acceptType)).build();
+    }
+
 }
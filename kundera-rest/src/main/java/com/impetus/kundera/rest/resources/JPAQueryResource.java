@@ -15,7 +15,7 @@
  ******************************************************************************/
 package com.impetus.kundera.rest.resources;
 
-import java.util.List;
+import java.util.Iterator;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
@@ -38,7 +38,7 @@ import org.slf4j.LoggerFactory;
 import com.impetus.kundera.query.QueryImpl;
 import com.impetus.kundera.rest.common.Constants;
 import com.impetus.kundera.rest.common.EntityUtils;
-import com.impetus.kundera.rest.converters.CollectionConverter;
+import com.impetus.kundera.rest.converters.CollectionStreamingOutput;
 import com.impetus.kundera.rest.repository.EMRepository;
 
 /**
@@ -80,7 +80,7 @@ public class JPAQueryResource
             log.debug("GET: sessionToken:" + sessionToken + ", entityClass:" + entityClassName + ", Named Query:"
                     + namedQueryName + ", Media Type:" + mediaType);
 
-        List result = null;
+        Iterator<?> result = null;
         Class<?> entityClass = null;
         try
         {
@@ -97,7 +97,7 @@ public class JPAQueryResource
                         .append(entityClassName).append(" ").append(alias);
 
                 Query q = em.createQuery(sb.toString());
-                result = q.getResultList();
+                result = iterate(q);
             }
             else
             {
@@ -119,7 +119,7 @@ public class JPAQueryResource
 
                 EntityUtils.setQueryParameters(queryPart, paramPart, q);
 
-                result = q.getResultList();
+                result = iterate(q);
             }
 
         }
@@ -129,17 +129,12 @@ public class JPAQueryResource
             return Response.serverError().build();
         }
 
-        if (log.isDebugEnabled())
-            log.debug("GET: Result of " + namedQueryName + " Query : " + result);
-
         if (result == null)
         {
             return Response.noContent().build();
         }
 
-        String output = CollectionConverter.toString(result, entityClass, mediaType);
-
-        return Response.ok(output).build();
+        return Response.ok(new CollectionStreamingOutput(result, entityClass, mediaType)).build();
 
     }
 
@@ -209,7 +204,7 @@ public class JPAQueryResource
             return Response.noContent().build();
         }
 
-        List result = null;
+        Iterator<?> result = null;
         Query q = null;
         try
         {
@@ -226,7 +221,7 @@ public class JPAQueryResource
 
             EntityUtils.setQueryParameters(queryPart, paramPart, q);
 
-            result = q.getResultList();
+            result = iterate(q);
         }
         catch (Exception e)
         {
@@ -234,18 +229,13 @@ public class JPAQueryResource
             return Response.serverError().build();
         }
 
-        if (log.isDebugEnabled())
-            log.debug("GET: Result for JPA Query: " + result);
-
         if (result == null)
         {
             return Response.noContent().build();
         }
 
         Class<?> genericClass = ((QueryImpl) q).getKunderaQuery().getEntityClass();
-        String output = CollectionConverter.toString(result, genericClass, mediaType);
-
-        return Response.ok(output).build();
+        return Response.ok(new CollectionStreamingOutput(result, genericClass, mediaType)).build();
     }
 
     /**
@@ -326,6 +316,31 @@ public class JPAQueryResource
         return Response.ok(result).build();
     }
 
+    /**
+     * Returns iterator over results of select query, which fetches them page
+     * by page, or all at once if query does not support iteration. First page
+     * is fetched right away, so that query errors are reported before
+     * response is being written.
+     * 
+     * @param q
+     * @return
+     */
+    private Iterator<?> iterate(Query q)
+    {
+        Iterator<?> result;
+        try
+        {
+            result = q instanceof com.impetus.kundera.query.Query ? ((com.impetus.kundera.query.Query) q).iterate()
+                    : q.getResultList().iterator();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            result = q.getResultList().iterator();
+        }
+        result.hasNext();
+        return result;
+    }
+
     private int executeWrite(String jpaQuery, String sessionToken)
     {
         int result = -1;
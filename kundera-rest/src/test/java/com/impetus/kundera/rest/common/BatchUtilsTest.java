@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.rest.common;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+import javax.persistence.PersistenceException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response.Status;
+
+import junit.framework.Assert;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.impetus.kundera.rest.dto.BatchResult;
+
+/**
+ * Test case for {@link BatchUtils}. Operations are run against an in-memory
+ * entity manager, so that outcome of commit can be controlled.
+ */
+public class BatchUtilsTest
+{
+    private static final String _KEYSPACE = "KunderaExamples";
+
+    private static EntityManagerFactory emf;
+
+    private StubEntityManager stub;
+
+    private EntityManager em;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception
+    {
+        CassandraCli.cassandraSetUp();
+        CassandraCli.createKeySpace(_KEYSPACE);
+        // Loads metadata of Book.
+        emf = Persistence.createEntityManagerFactory("twissandra");
+    }
+
+    @AfterClass
+    public static void tearDownAfterClass() throws Exception
+    {
+        emf.close();
+        CassandraCli.dropKeySpace(_KEYSPACE);
+    }
+
+    @Before
+    public void setUp() throws Exception
+    {
+        stub = new StubEntityManager();
+        em = (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[] { EntityManager.class }, stub);
+        stub.store.put("3", book("3", "Vivek"));
+    }
+
+    @Test
+    public void testMixedOperations() throws Exception
+    {
+        List<BatchResult> results = BatchUtils.execute(em, Book.class, MediaType.APPLICATION_XML, batch());
+
+        Assert.assertEquals(5, results.size());
+        assertResult(results.get(0), 0, BatchUtils.INSERT, Status.CREATED, "1");
+        assertResult(results.get(1), 1, BatchUtils.INSERT, Status.CREATED, "2");
+        assertResult(results.get(2), 2, "upsert", Status.BAD_REQUEST, null);
+        assertResult(results.get(3), 3, BatchUtils.UPDATE, Status.OK, "1");
+        assertResult(results.get(4), 4, BatchUtils.DELETE, Status.OK, "3");
+        Assert.assertNotNull(results.get(2).getMessage());
+
+        Assert.assertEquals(1, stub.commits);
+        Assert.assertEquals(0, stub.rollbacks);
+        Assert.assertEquals(2, stub.store.size());
+        Assert.assertEquals("Kuldeep", stub.store.get("1").getAuthor());
+        Assert.assertNull(stub.store.get("3"));
+    }
+
+    @Test
+    public void testCommitFailure() throws Exception
+    {
+        stub.failCommit = true;
+        List<BatchResult> results = BatchUtils.execute(em, Book.class, MediaType.APPLICATION_XML, batch());
+
+        Assert.assertEquals(5, results.size());
+        for (BatchResult result : results)
+        {
+            if (result.getIndex() == 2)
+            {
+                // Bad line keeps its own failure.
+                Assert.assertEquals(Status.BAD_REQUEST.getStatusCode(), result.getStatus());
+            }
+            else
+            {
+                Assert.assertEquals(Status.INTERNAL_SERVER_ERROR.getStatusCode(), result.getStatus());
+                Assert.assertTrue(result.getMessage().startsWith("Commit failed"));
+            }
+        }
+        Assert.assertEquals(1, stub.rollbacks);
+    }
+
+    @Test
+    public void testWithinCallersTransaction() throws Exception
+    {
+        em.getTransaction().begin();
+        List<BatchResult> results = BatchUtils.execute(em, Book.class, MediaType.APPLICATION_XML, batch());
+
+        Assert.assertEquals(5, results.size());
+        assertResult(results.get(0), 0, BatchUtils.INSERT, Status.ACCEPTED, "1");
+        assertResult(results.get(1), 1, BatchUtils.INSERT, Status.ACCEPTED, "2");
+        assertResult(results.get(2), 2, "upsert", Status.BAD_REQUEST, null);
+        assertResult(results.get(3), 3, BatchUtils.UPDATE, Status.ACCEPTED, "1");
+        assertResult(results.get(4), 4, BatchUtils.DELETE, Status.ACCEPTED, "3");
+
+        // Left to caller to commit.
+        Assert.assertEquals(0, stub.commits);
+        Assert.assertTrue(stub.active);
+    }
+
+    private InputStream batch()
+    {
+        StringBuilder batch = new StringBuilder();
+        batch.append("insert ").append(xml("1", "Amresh")).append("\n");
+        batch.append("insert ").append(xml("2", "Saurabh")).append("\n");
+        batch.append("upsert ").append(xml("4", "Amresh")).append("\n");
+        batch.append("\n");
+        batch.append("update ").append(xml("1", "Kuldeep")).append("\n");
+        batch.append("delete 3\n");
+        return StreamUtils.toInputStream(batch.toString());
+    }
+
+    private void assertResult(BatchResult result, int index, String operation, Status status, String id)
+    {
+        Assert.assertEquals(index, result.getIndex());
+        Assert.assertEquals(operation, result.getOperation());
+        Assert.assertEquals(status.getStatusCode(), result.getStatus());
+        Assert.assertEquals(id, result.getId());
+    }
+
+    private static String xml(String isbn, String author)
+    {
+        return "<book><isbn>" + isbn + "</isbn><author>" + author + "</author><publication>Willey</publication></book>";
+    }
+
+    private static Book book(String isbn, String author)
+    {
+        Book book = new Book();
+        book.setIsbn(isbn);
+        book.setAuthor(author);
+        book.setPublication("Willey");
+        return book;
+    }
+
+    /**
+     * Handles calls on both entity manager and its transaction, keeping
+     * entities in a map.
+     */
+    private static class StubEntityManager implements InvocationHandler
+    {
+        private Map<String, Book> store = new HashMap<String, Book>();
+
+        private boolean active;
+
+        private boolean failCommit;
+
+        private int commits;
+
+        private int rollbacks;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+        {
+            String name = method.getName();
+            if ("getTransaction".equals(name))
+            {
+                return Proxy.newProxyInstance(EntityTransaction.class.getClassLoader(),
+                        new Class<?>[] { EntityTransaction.class }, this);
+            }
+            else if ("persist".equals(name) || "merge".equals(name))
+            {
+                Book book = (Book) args[0];
+                store.put(book.getIsbn(), book);
+                return "merge".equals(name) ? book : null;
+            }
+            else if ("find".equals(name))
+            {
+                return store.get(args[1]);
+            }
+            else if ("remove".equals(name))
+            {
+                store.remove(((Book) args[0]).getIsbn());
+                return null;
+            }
+            else if ("isActive".equals(name))
+            {
+                return active;
+            }
+            else if ("begin".equals(name))
+            {
+                active = true;
+                return null;
+            }
+            else if ("commit".equals(name))
+            {
+                if (failCommit)
+                {
+                    throw new PersistenceException("Node unavailable");
+                }
+                commits++;
+                active = false;
+                return null;
+            }
+            else if ("rollback".equals(name))
+            {
+                rollbacks++;
+                active = false;
+                return null;
+            }
+            throw new UnsupportedOperationException(name);
+        }
+    }
+}
@@ -15,17 +15,20 @@
  ******************************************************************************/
 package com.impetus.kundera.rest.converters;
 
+import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import javax.ws.rs.core.MediaType;
+import javax.xml.parsers.DocumentBuilderFactory;
 
 import junit.framework.Assert;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.w3c.dom.Element;
 
 import com.impetus.kundera.rest.common.Book;
 
@@ -77,6 +80,21 @@ public class CollectionConverterTest
 
         String s = CollectionConverter.toString(books, Book.class, MediaType.APPLICATION_XML);
         Assert.assertNotNull(s);
+
+        try
+        {
+            Element root = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                    .parse(new ByteArrayInputStream(s.getBytes("UTF-8"))).getDocumentElement();
+            Assert.assertEquals("books", root.getNodeName());
+            Assert.assertEquals(2, root.getElementsByTagName("book").getLength());
+        }
+        catch (Exception e)
+        {
+            Assert.fail(e.getMessage());
+        }
+
+        Collection c = CollectionConverter.toCollection(s, ArrayList.class, Book.class, MediaType.APPLICATION_XML);
+        Assert.assertEquals(2, c.size());
     }
 
     @Test
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * * Copyright 2013 Impetus Infotech.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ ******************************************************************************/
+package com.impetus.kundera.rest.converters;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import com.impetus.kundera.rest.common.Book;
+
+/**
+ * Junit for {@link CollectionStreamingOutput}
+ */
+public class CollectionStreamingOutputTest
+{
+    @Test
+    public void testWriteXML() throws Exception
+    {
+        List<Book> books = books(2);
+        String s = write(books, MediaType.APPLICATION_XML);
+
+        Assert.assertEquals(CollectionConverter.toString(books, Book.class, MediaType.APPLICATION_XML), s);
+
+        // well formed document, books within a single books element.
+        Document document = parse(s);
+        Assert.assertEquals("books", document.getDocumentElement().getNodeName());
+        NodeList isbns = document.getDocumentElement().getElementsByTagName("isbn");
+        Assert.assertEquals(2, document.getDocumentElement().getElementsByTagName("book").getLength());
+        Assert.assertEquals("1", isbns.item(0).getTextContent());
+        Assert.assertEquals("2", isbns.item(1).getTextContent());
+
+        Assert.assertEquals(0, parse(write(books(0), MediaType.APPLICATION_XML)).getDocumentElement()
+                .getChildNodes().getLength());
+
+        Collection c = CollectionConverter.toCollection(s, ArrayList.class, Book.class, MediaType.APPLICATION_XML);
+        Assert.assertEquals(2, c.size());
+        Assert.assertEquals("1", ((Book) c.iterator().next()).getIsbn());
+    }
+
+    @Test
+    public void testWriteJSON() throws Exception
+    {
+        String s = write(books(CollectionStreamingOutput.FLUSH_INTERVAL + 1), MediaType.APPLICATION_JSON);
+        Assert.assertTrue(s.startsWith("["));
+        Assert.assertTrue(s.endsWith("]"));
+        Assert.assertTrue(s.contains("\"isbn\":\"" + CollectionStreamingOutput.FLUSH_INTERVAL + "\""));
+
+        Assert.assertEquals("[]", write(books(0), MediaType.APPLICATION_JSON));
+    }
+
+    private static Document parse(String xml) throws Exception
+    {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+    }
+
+    private static String write(List<Book> books, String mediaType) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CollectionStreamingOutput(books.iterator(), Book.class, mediaType).write(out);
+        return out.toString("UTF-8");
+    }
+
+    private static List<Book> books(int n)
+    {
+        List<Book> books = new ArrayList<Book>();
+        for (int i = 1; i <= n; i++)
+        {
+            Book book = new Book();
+            book.setIsbn(String.valueOf(i));
+            book.setAuthor("Author" + i);
+            book.setPublication("Publication" + i);
+            books.add(book);
+        }
+        return books;
+    }
+}